@@ -0,0 +1,83 @@
+package com.ilp.restservice.benchmarks;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.ilp.restservice.model.CreditCardInformation;
+import com.ilp.restservice.model.NamedRegion;
+import com.ilp.restservice.model.Order;
+import com.ilp.restservice.model.Pizza;
+import com.ilp.restservice.model.Restaurant;
+import com.ilp.restservice.referencedata.GeoJsonSeed;
+import com.ilp.restservice.referencedata.ReferenceDataHolder;
+import com.ilp.restservice.referencedata.ReferenceSnapshot;
+import com.ilp.restservice.service.PointInPolygonService;
+import com.ilp.restservice.service.RestaurantFetchService;
+
+/**
+ * Offline reference data for the benchmarks, read from the checked-in noflyzone.json seed
+ * (no-fly zones, the "central" polygon, and the restaurants with their menus), published
+ * as the live reference snapshot so the services read it without touching the network.
+ */
+final class BenchmarkFixtures {
+
+    // Relative to the module directory, where mvn exec:exec starts the benchmark JVMs
+    private static final String FIXTURE_FILE = System.getProperty("ilp.fixtures", "noflyzone.json");
+
+    static final CreditCardInformation CARD = new CreditCardInformation("1111222233334444", "12/99", "123");
+
+    final ReferenceDataHolder referenceData = new ReferenceDataHolder(new PointInPolygonService(), event -> {
+    });
+    final List<NamedRegion> noFlyZones = new ArrayList<>();
+    final List<Restaurant> restaurants = new ArrayList<>();
+    NamedRegion centralArea;
+
+    private BenchmarkFixtures() {
+    }
+
+    static BenchmarkFixtures load() {
+        ReferenceSnapshot snapshot;
+        try {
+            snapshot = GeoJsonSeed.read(Path.of(FIXTURE_FILE));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read benchmark fixtures from " + FIXTURE_FILE, e);
+        }
+        BenchmarkFixtures fixtures = new BenchmarkFixtures();
+        fixtures.referenceData.publish(snapshot);
+        fixtures.restaurants.addAll(snapshot.getRestaurants());
+        fixtures.noFlyZones.addAll(snapshot.getNoFlyZones());
+        fixtures.centralArea = snapshot.getCentralArea();
+        return fixtures;
+    }
+
+    Restaurant restaurant(String name) {
+        return restaurants.stream()
+                .filter(r -> r.getName().equals(name))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("No fixture restaurant " + name));
+    }
+
+    /**
+     * A valid order for the restaurant's first pizza, on a day the restaurant is open.
+     */
+    static Order validOrderFrom(Restaurant restaurant) {
+        Pizza pizza = restaurant.getMenu().get(0);
+        return new Order("BENCH", openOn(restaurant), pizza.getPriceInPence() + 100,
+                List.of(new Pizza(pizza.getName(), pizza.getPriceInPence())), CARD);
+    }
+
+    static LocalDate openOn(Restaurant restaurant) {
+        DayOfWeek day = DayOfWeek.valueOf(restaurant.getOpeningDays().get(0));
+        return LocalDate.of(2025, 1, 1).with(TemporalAdjusters.nextOrSame(day));
+    }
+
+    RestaurantFetchService restaurantFetchService() {
+        return new RestaurantFetchService(referenceData);
+    }
+}
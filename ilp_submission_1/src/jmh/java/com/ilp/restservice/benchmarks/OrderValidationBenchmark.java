@@ -0,0 +1,69 @@
+package com.ilp.restservice.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.ilp.restservice.dto.OrderValidationResult;
+import com.ilp.restservice.model.Order;
+import com.ilp.restservice.model.Pizza;
+import com.ilp.restservice.model.Restaurant;
+import com.ilp.restservice.service.OrderValidationService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Full validation of one valid order and of orders failing at different stages.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class OrderValidationBenchmark {
+
+    @Param({"valid", "pizzaNotDefined", "multipleRestaurants", "totalIncorrect"})
+    public String orderKind;
+
+    private OrderValidationService validationService;
+    private Order order;
+
+    @Setup
+    public void setup() {
+        BenchmarkFixtures fixtures = BenchmarkFixtures.load();
+        validationService = new OrderValidationService(fixtures.restaurantFetchService(), new SimpleMeterRegistry());
+
+        Restaurant first = fixtures.restaurants.get(0);
+        Restaurant second = fixtures.restaurants.get(1);
+        Pizza a = first.getMenu().get(0);
+        Pizza b = first.getMenu().get(1);
+        Pizza other = second.getMenu().get(0);
+        int total = a.getPriceInPence() + b.getPriceInPence() + 100;
+
+        List<Pizza> pizzas = switch (orderKind) {
+            case "valid", "totalIncorrect" -> List.of(a, b);
+            case "pizzaNotDefined" -> List.of(a, new Pizza("R0: Not on any menu", 1000));
+            case "multipleRestaurants" -> List.of(a, other);
+            default -> throw new IllegalArgumentException(orderKind);
+        };
+        order = new Order("BENCH", BenchmarkFixtures.openOn(first),
+                "totalIncorrect".equals(orderKind) ? total + 1 : total, pizzas, BenchmarkFixtures.CARD);
+    }
+
+    @Benchmark
+    public OrderValidationResult validateOrder() {
+        return validationService.validateOrder(order);
+    }
+}
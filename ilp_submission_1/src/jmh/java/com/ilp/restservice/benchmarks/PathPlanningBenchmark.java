@@ -0,0 +1,131 @@
+package com.ilp.restservice.benchmarks;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.ilp.restservice.geometry.Airspace;
+import com.ilp.restservice.model.Order;
+import com.ilp.restservice.model.Position;
+import com.ilp.restservice.model.Restaurant;
+import com.ilp.restservice.pathfinding.AnytimeAStar;
+import com.ilp.restservice.pathfinding.BidirectionalAStar;
+import com.ilp.restservice.pathfinding.Heuristic;
+import com.ilp.restservice.pathfinding.JumpPointSearch;
+import com.ilp.restservice.pathfinding.LatticeAStar;
+import com.ilp.restservice.pathfinding.PathResult;
+import com.ilp.restservice.pathfinding.SearchLimits;
+import com.ilp.restservice.pathfinding.SearchMode;
+import com.ilp.restservice.service.CalcDeliveryPathService;
+import com.ilp.restservice.service.OrderValidationService;
+import com.ilp.restservice.service.PathPlanningMetrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * A* from each restaurant to Appleton Tower, as a bare step-by-step (straight line or landmark heuristic), jumping,
+ * bidirectional or anytime search and through CalcDeliveryPathService (validation + search + hover steps) with the
+ * route cache off.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class PathPlanningBenchmark {
+
+    private static final double TOWER_LNG = -3.186874;
+    private static final double TOWER_LAT = 55.944494;
+
+    @Param({"Civerinos Slice", "Sora Lella Vegan Restaurant", "Domino's Pizza - Edinburgh - Southside",
+            "Sodeberg Pavillion", "La Trattoria", "Halal Pizza", "World of Pizza"})
+    public String restaurantName;
+
+    // Applies to latticeSearch and landmarkSearch; sweep it with -p heuristicWeight=1.0,1.01,1.04
+    @Param({"1.04"})
+    public double heuristicWeight;
+
+    private LatticeAStar latticeAStar;
+    private final JumpPointSearch jumpPointSearch = new JumpPointSearch();
+    private final BidirectionalAStar bidirectionalAStar = new BidirectionalAStar();
+    private final AnytimeAStar anytimeAStar = new AnytimeAStar();
+    private ExecutorService executor;
+    private CalcDeliveryPathService pathService;
+    private Airspace airspace;
+    private Restaurant restaurant;
+    private Order order;
+
+    @Setup
+    public void setup() {
+        BenchmarkFixtures fixtures = BenchmarkFixtures.load();
+        executor = Executors.newSingleThreadExecutor();
+        pathService = new CalcDeliveryPathService(
+                new OrderValidationService(fixtures.restaurantFetchService(), new SimpleMeterRegistry()),
+                fixtures.referenceData, new PathPlanningMetrics(new SimpleMeterRegistry()), executor,
+                0, false, SearchMode.FORWARD, 100_000, 500_000, Map.of(),
+                LatticeAStar.DEFAULT_HEURISTIC_WEIGHT, false, 100_000, Duration.ofSeconds(10), 100,
+                AnytimeAStar.DEFAULT_INITIAL_WEIGHT, AnytimeAStar.DEFAULT_WEIGHT_STEP, Duration.ofMillis(100));
+        latticeAStar = new LatticeAStar(heuristicWeight);
+        airspace = fixtures.referenceData.current().getAirspace();
+        restaurant = fixtures.restaurant(restaurantName);
+        order = BenchmarkFixtures.validOrderFrom(restaurant);
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Benchmark
+    public PathResult latticeSearch() {
+        return latticeAStar.search(restaurant.getLocation().getLng(), restaurant.getLocation().getLat(),
+                TOWER_LNG, TOWER_LAT, airspace);
+    }
+
+    @Benchmark
+    public PathResult landmarkSearch() {
+        return latticeAStar.search(restaurant.getLocation().getLng(), restaurant.getLocation().getLat(),
+                TOWER_LNG, TOWER_LAT, airspace, airspace.getLandmarks().towards(TOWER_LNG, TOWER_LAT));
+    }
+
+    @Benchmark
+    public PathResult jumpPointSearch() {
+        return jumpPointSearch.search(restaurant.getLocation().getLng(), restaurant.getLocation().getLat(),
+                TOWER_LNG, TOWER_LAT, airspace);
+    }
+
+    @Benchmark
+    public PathResult bidirectionalSearch() {
+        return bidirectionalAStar.search(restaurant.getLocation().getLng(), restaurant.getLocation().getLat(),
+                TOWER_LNG, TOWER_LAT, airspace);
+    }
+
+    // Improves until the path is proven shortest or the default 100ms are up
+    @Benchmark
+    public PathResult anytimeSearch() {
+        return anytimeAStar.search(restaurant.getLocation().getLng(), restaurant.getLocation().getLat(),
+                TOWER_LNG, TOWER_LAT, airspace, Heuristic.lattice(TOWER_LNG, TOWER_LAT), SearchLimits.NONE);
+    }
+
+    @Benchmark
+    public List<Position> computeDeliveryPath() {
+        return pathService.computeDeliveryPath(order);
+    }
+}
@@ -0,0 +1,88 @@
+package com.ilp.restservice.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.ilp.restservice.geometry.Airspace;
+import com.ilp.restservice.geometry.PreparedPolygon;
+import com.ilp.restservice.model.Position;
+import com.ilp.restservice.service.PointInPolygonService;
+
+/**
+ * Point-in-polygon against the George Square no-fly zone, for points well inside, well
+ * outside and on an edge, through the exact test, the prepared polygon and the rasterized
+ * grid. The prepared polygon runs its SIMD kernel when the JVM has jdk.incubator.vector.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class PointInPolygonBenchmark {
+
+    @Param({"inside", "outside", "edge"})
+    public String pointKind;
+
+    private final PointInPolygonService pointInPolygonService = new PointInPolygonService();
+    private List<Position> polygon;
+    private PreparedPolygon prepared;
+    private Airspace airspace;
+    private Position point;
+
+    @Setup
+    public void setup() {
+        BenchmarkFixtures fixtures = BenchmarkFixtures.load();
+        polygon = fixtures.noFlyZones.get(0).getVertices();
+        prepared = pointInPolygonService.prepare(polygon);
+        airspace = fixtures.referenceData.current().getAirspace();
+
+        Position a = polygon.get(0);
+        Position b = polygon.get(1);
+        point = switch (pointKind) {
+            case "inside" -> centroid(polygon);
+            case "outside" -> new Position(a.getLng() - 0.01, a.getLat() - 0.01);
+            case "edge" -> new Position((a.getLng() + b.getLng()) / 2, (a.getLat() + b.getLat()) / 2);
+            default -> throw new IllegalArgumentException(pointKind);
+        };
+    }
+
+    @Benchmark
+    public boolean exactTest() {
+        return pointInPolygonService.isPointInPolygon(point, polygon);
+    }
+
+    @Benchmark
+    public boolean preparedPolygon() {
+        return prepared.contains(point.getLng(), point.getLat());
+    }
+
+    @Benchmark
+    public boolean occupancyGrid() {
+        return airspace.getNoFlyGrid().contains(point.getLng(), point.getLat());
+    }
+
+    private static Position centroid(List<Position> vertices) {
+        // Closed ring: skip the repeated last vertex
+        double lng = 0;
+        double lat = 0;
+        int n = vertices.size() - 1;
+        for (int i = 0; i < n; i++) {
+            lng += vertices.get(i).getLng();
+            lat += vertices.get(i).getLat();
+        }
+        return new Position(lng / n, lat / n);
+    }
+}
@@ -0,0 +1,39 @@
+package com.ilp.restservice.config;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * The worker pool used to plan batches of delivery paths.
+ *
+ * The pool has a fixed number of workers and a bounded queue. When the queue is full the
+ * submitting request thread runs the search itself, which slows callers down instead of
+ * piling up work.
+ *
+ * Workers are long-lived platform threads on purpose. The search engines keep their
+ * arrays in per-thread workspaces, so a fixed set of workers reuses them search after
+ * search; a virtual thread per task would start every search with fresh workspaces, and
+ * searches are CPU-bound, so there is nothing to gain from virtual threads here.
+ */
+@Configuration
+public class PathPlanningConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService pathPlanningExecutor(
+            @Value("${ilp.path.batch.threads:0}") int threads,
+            @Value("${ilp.path.batch.queue-capacity:256}") int queueCapacity) {
+        // 0 or less => one worker per core
+        int workers = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        ThreadFactory threadFactory = Thread.ofPlatform().name("path-planner-", 0).daemon(true).factory();
+        return new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)), threadFactory,
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+}
@@ -0,0 +1,35 @@
+package com.ilp.restservice.config;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import com.ilp.restservice.referencedata.ReferenceDataBootstrap;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Answers 503 on endpoints that need reference data until it is loaded, instead of serving
+ * results computed from missing data. Actuator endpoints are not affected.
+ */
+@Component
+public class ReferenceDataReadinessInterceptor implements HandlerInterceptor {
+
+    private final ReferenceDataBootstrap bootstrap;
+
+    public ReferenceDataReadinessInterceptor(ReferenceDataBootstrap bootstrap) {
+        this.bootstrap = bootstrap;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws Exception {
+        if (bootstrap.getState() == ReferenceDataBootstrap.State.READY) {
+            return true;
+        }
+        response.setHeader("Retry-After", "5");
+        response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), "Reference data is not loaded");
+        return false;
+    }
+}
@@ -0,0 +1,12 @@
+package com.ilp.restservice.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables @Scheduled jobs, such as the periodic reference data refresh.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
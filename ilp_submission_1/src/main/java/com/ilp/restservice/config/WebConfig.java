@@ -0,0 +1,22 @@
+package com.ilp.restservice.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    private final ReferenceDataReadinessInterceptor referenceDataReadinessInterceptor;
+
+    public WebConfig(ReferenceDataReadinessInterceptor referenceDataReadinessInterceptor) {
+        this.referenceDataReadinessInterceptor = referenceDataReadinessInterceptor;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // Only the endpoints that read restaurants or zones; the geometry endpoints work without them
+        registry.addInterceptor(referenceDataReadinessInterceptor)
+                .addPathPatterns("/validateOrder", "/validateOrders", "/calcDeliveryPath*", "/searchModeComparison");
+    }
+}
@@ -1,19 +1,35 @@
 package com.ilp.restservice.controller;
 
-import java.util.ArrayList;
-import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.ilp.restservice.dto.BatchDeliveryPathResult;
+import com.ilp.restservice.dto.GeoJsonDeliveryPath;
+import com.ilp.restservice.dto.GeoJsonSearchTrace;
+import com.ilp.restservice.dto.SearchModeComparison;
 import com.ilp.restservice.model.Order;
-import com.ilp.restservice.model.Position;
+import com.ilp.restservice.pathfinding.PathCodec;
+import com.ilp.restservice.pathfinding.SearchAbortedException;
+import com.ilp.restservice.pathfinding.SearchTrace;
+import com.ilp.restservice.pathfinding.SearchTraceCodec;
 import com.ilp.restservice.service.CalcDeliveryPathService;
+import com.ilp.restservice.service.DeliveryRoute;
+import com.ilp.restservice.service.SearchTraceStore;
 
 /**
  * Controller exposing endpoints to compute delivery paths for a drone.
@@ -21,36 +37,163 @@ import com.ilp.restservice.service.CalcDeliveryPathService;
 @RestController
 public class DeliveryPathController {
 
+    /**
+     * Request header asking /calcDeliveryPath to trace its search: "X-Search-Trace: true".
+     * Ignored unless ilp.path.trace.enabled is set.
+     */
+    public static final String SEARCH_TRACE_HEADER = "X-Search-Trace";
+    /** Response header giving the id of the trace, for GET /searchTraces/{id}. */
+    public static final String SEARCH_TRACE_ID_HEADER = "X-Search-Trace-Id";
+    /**
+     * Response header giving how much longer than the shortest route the path may be, e.g.
+     * 1.5, when it was planned by the anytime search; 1.0 once proven shortest.
+     */
+    public static final String SUBOPTIMALITY_BOUND_HEADER = "X-Suboptimality-Bound";
+
     private final CalcDeliveryPathService calcDeliveryPathService;
+    private final SearchTraceStore searchTraceStore;
+    private final boolean searchModeComparisonEnabled;
 
-    public DeliveryPathController(CalcDeliveryPathService calcDeliveryPathService) {
+    public DeliveryPathController(CalcDeliveryPathService calcDeliveryPathService,
+                                  SearchTraceStore searchTraceStore,
+                                  @Value("${ilp.path.search-mode-comparison.enabled:false}")
+                                  boolean searchModeComparisonEnabled) {
         this.calcDeliveryPathService = calcDeliveryPathService;
+        this.searchTraceStore = searchTraceStore;
+        this.searchModeComparisonEnabled = searchModeComparisonEnabled;
     }
 
     /**
-     * Existing endpoint: compute a normal JSON list of positions
+     * Existing endpoint: compute a normal JSON list of positions.
+     * With "X-Search-Trace: true", where tracing is enabled, the search is traced, see
+     * {@link #traced}. Routes planned by the anytime search carry an X-Suboptimality-Bound
+     * header.
      */
     @PostMapping("/calcDeliveryPath")
-    public ResponseEntity<?> calcDeliveryPath(@RequestBody Order order) {
+    public ResponseEntity<?> calcDeliveryPath(@RequestBody Order order,
+            @RequestHeader(name = SEARCH_TRACE_HEADER, defaultValue = "false") boolean trace) {
+        if (trace && searchTraceStore.isEnabled()) {
+            return traced(order, DeliveryRoute::toPositions);
+        }
         try {
-            List<Position> path = calcDeliveryPathService.computeDeliveryPath(order);
-            return ResponseEntity.ok(path);
+            DeliveryRoute route = calcDeliveryPathService.planDelivery(order);
+            return ResponseEntity.ok().headers(boundHeader(route)).body(route.toPositions());
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
         }
     }
 
     /**
-     * New endpoint: compute the same path, but return in GeoJSON format.
+     * The same path in the compact binary format of {@link PathCodec}, for clients that
+     * send "Accept: application/x-ilp-path". Start point plus one direction code per
+     * step; decode with {@link PathCodec#decode}. Traced like the JSON form.
      */
-    @PostMapping("/calcDeliveryPathAsGeoJson")
-    public ResponseEntity<?> calcDeliveryPathAsGeoJson(@RequestBody Order order) {
+    @PostMapping(value = "/calcDeliveryPath", produces = PathCodec.MEDIA_TYPE)
+    public ResponseEntity<?> calcDeliveryPathBinary(@RequestBody Order order,
+            @RequestHeader(name = SEARCH_TRACE_HEADER, defaultValue = "false") boolean trace) {
+        if (trace && searchTraceStore.isEnabled()) {
+            return traced(order, route -> PathCodec.encode(route.size(), route::lng, route::lat));
+        }
         try {
-            List<Position> path = calcDeliveryPathService.computeDeliveryPath(order);
+            DeliveryRoute route = calcDeliveryPathService.planDelivery(order);
+            return ResponseEntity.ok().headers(boundHeader(route))
+                    .body(PathCodec.encode(route.size(), route::lng, route::lat));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .contentType(MediaType.TEXT_PLAIN)
+                    .body(e.getMessage());
+        }
+    }
 
-            // Convert path to GeoJSON
-            Map<String, Object> geoJson = buildGeoJsonLineString(path);
+    /**
+     * Plan the order with a fresh, traced search, bypassing the route cache, and keep the
+     * trace in the {@link SearchTraceStore} whatever the outcome: a search that spent its
+     * budget is the one most worth looking at. The trace id comes back in the
+     * X-Search-Trace-Id header, the rest of the response as without tracing.
+     */
+    private ResponseEntity<?> traced(Order order, Function<DeliveryRoute, Object> body) {
+        SearchTrace trace = searchTraceStore.newTrace();
+        HttpHeaders headers = new HttpHeaders();
+        HttpStatus status = HttpStatus.OK;
+        Object result;
+        try {
+            result = body.apply(calcDeliveryPathService.planDelivery(order, trace));
+        } catch (IllegalArgumentException e) {
+            status = HttpStatus.BAD_REQUEST;
+            headers.setContentType(MediaType.TEXT_PLAIN);
+            result = e.getMessage();
+        } catch (SearchAbortedException e) {
+            status = statusFor(e);
+            headers.setContentType(MediaType.TEXT_PLAIN);
+            result = e.getMessage();
+        }
+        headers.set(SEARCH_TRACE_ID_HEADER, Long.toString(searchTraceStore.add(trace)));
+        return ResponseEntity.status(status).headers(headers).body(result);
+    }
 
+    private static HttpHeaders boundHeader(DeliveryRoute route) {
+        HttpHeaders headers = new HttpHeaders();
+        double bound = route.getSuboptimalityBound();
+        if (!Double.isNaN(bound)) {
+            headers.set(SUBOPTIMALITY_BOUND_HEADER, Double.toString(bound));
+        }
+        return headers;
+    }
+
+    /**
+     * A stored search trace as GeoJSON, one MultiPoint per event type; see
+     * {@link GeoJsonSearchTrace}. 404 once the trace has been dropped from the store.
+     */
+    @GetMapping("/searchTraces/{id}")
+    public ResponseEntity<GeoJsonSearchTrace> searchTrace(@PathVariable("id") long id) {
+        SearchTrace trace = searchTraceStore.get(id);
+        return trace == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(new GeoJsonSearchTrace(trace));
+    }
+
+    /**
+     * The same trace as a compact binary dump, for clients that send
+     * "Accept: application/x-ilp-search-trace"; decode with {@link SearchTraceCodec#decode}.
+     */
+    @GetMapping(value = "/searchTraces/{id}", produces = SearchTraceCodec.MEDIA_TYPE)
+    public ResponseEntity<byte[]> searchTraceBinary(@PathVariable("id") long id) {
+        SearchTrace trace = searchTraceStore.get(id);
+        return trace == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(SearchTraceCodec.encode(trace));
+    }
+
+    /**
+     * Batch endpoint: compute the paths for a list of orders in one request.
+     * Every order gets an entry (in input order, tagged with its orderNo) holding
+     * either its path or an error code; one bad order never fails the batch.
+     */
+    @PostMapping("/calcDeliveryPaths")
+    public ResponseEntity<List<BatchDeliveryPathResult>> calcDeliveryPaths(@RequestBody List<Order> orders) {
+        return ResponseEntity.ok(calcDeliveryPathService.computeDeliveryPaths(orders));
+    }
+
+    /**
+     * New endpoint: compute the same path, but return in GeoJSON format.
+     * Optional Feature properties can be asked for with ?properties=stepCount,restaurant
+     * (the number of moves, hover steps included, and the restaurant's name), and
+     * suboptimalityBound for routes planned by the anytime search.
+     */
+    @PostMapping("/calcDeliveryPathAsGeoJson")
+    public ResponseEntity<?> calcDeliveryPathAsGeoJson(@RequestBody Order order,
+            @RequestParam(name = "properties", required = false) Set<String> properties) {
+        try {
+            DeliveryRoute route = calcDeliveryPathService.planDelivery(order);
+
+            // Streamed to the response body as GeoJSON by Jackson
+            GeoJsonDeliveryPath geoJson = new GeoJsonDeliveryPath(route);
+            if (properties != null && properties.contains("stepCount")) {
+                geoJson.withProperty("stepCount", route.size() - 1);
+            }
+            if (properties != null && properties.contains("restaurant")) {
+                geoJson.withProperty("restaurant", route.getRestaurant().getName());
+            }
+            if (properties != null && properties.contains("suboptimalityBound")
+                    && !Double.isNaN(route.getSuboptimalityBound())) {
+                geoJson.withProperty("suboptimalityBound", route.getSuboptimalityBound());
+            }
             return ResponseEntity.ok(geoJson);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
@@ -58,46 +201,33 @@ public class DeliveryPathController {
     }
 
     /**
-     * Helper method to convert the drone path (list of Positions) 
-     * into a GeoJSON FeatureCollection with a single Feature of type LineString.
+     * Diagnostic endpoint: plan the route from every restaurant with each search mode and
+     * report waypoints, expansions and time per mode, to choose
+     * ilp.path.route-search-modes. Bypasses the route cache.
+     *
+     * Runs five uncached searches per restaurant, so it answers 404 unless
+     * ilp.path.search-mode-comparison.enabled is set.
      */
-    private Map<String, Object> buildGeoJsonLineString(List<Position> path) {
-        // The top-level object: "FeatureCollection"
-        Map<String, Object> featureCollection = new LinkedHashMap<>();
-        featureCollection.put("type", "FeatureCollection");
-
-        // We'll store a list of "features"
-        List<Map<String, Object>> features = new ArrayList<>();
-
-        // One "Feature" to represent the entire path as a LineString
-        Map<String, Object> feature = new LinkedHashMap<>();
-        feature.put("type", "Feature");
-
-        // The "geometry" object
-        Map<String, Object> geometry = new LinkedHashMap<>();
-        geometry.put("type", "LineString");
-
-        // Build the list of coordinates: [[lng, lat], [lng, lat], ...]
-        List<List<Double>> coordinates = new ArrayList<>();
-        for (Position p : path) {
-            // GeoJSON expects [longitude, latitude]
-            coordinates.add(List.of(p.getLng(), p.getLat()));
+    @GetMapping("/searchModeComparison")
+    public ResponseEntity<List<SearchModeComparison>> searchModeComparison() {
+        if (!searchModeComparisonEnabled) {
+            return ResponseEntity.notFound().build();
         }
-        geometry.put("coordinates", coordinates);
-
-        feature.put("geometry", geometry);
-
-        // Optionally add "properties" (meta info about the path)
-        Map<String, Object> properties = new LinkedHashMap<>();
-        properties.put("description", "Drone path from restaurant to Appleton Tower");
-        feature.put("properties", properties);
-
-        // Add our single Feature to the list
-        features.add(feature);
+        return ResponseEntity.ok(calcDeliveryPathService.compareSearchModes());
+    }
 
-        // Finally, store the "features" array into the featureCollection
-        featureCollection.put("features", features);
+    /**
+     * A single-order search that gave up: 422 if it spent its expansion budget (the
+     * restaurant is walled in or too far out), 503 if it ran out of time or was cancelled.
+     */
+    @ExceptionHandler(SearchAbortedException.class)
+    public ResponseEntity<String> searchAborted(SearchAbortedException e) {
+        return ResponseEntity.status(statusFor(e)).contentType(MediaType.TEXT_PLAIN).body(e.getMessage());
+    }
 
-        return featureCollection;
+    private static HttpStatus statusFor(SearchAbortedException e) {
+        return e.getReason() == SearchAbortedException.Reason.EXPANSION_BUDGET
+                ? HttpStatus.UNPROCESSABLE_ENTITY
+                : HttpStatus.SERVICE_UNAVAILABLE;
     }
 }
@@ -1,10 +1,19 @@
 package com.ilp.restservice.controller;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ilp.restservice.dto.BatchOrderValidationResult;
 import com.ilp.restservice.dto.OrderValidationResult;
 import com.ilp.restservice.model.Order;
 import com.ilp.restservice.service.OrderValidationService;
@@ -12,10 +21,14 @@ import com.ilp.restservice.service.OrderValidationService;
 @RestController
 public class OrderValidationController {
 
+    private static final String APPLICATION_NDJSON = "application/x-ndjson";
+
     private final OrderValidationService validationService;
+    private final ObjectMapper objectMapper;
 
-    public OrderValidationController(OrderValidationService validationService) {
+    public OrderValidationController(OrderValidationService validationService, ObjectMapper objectMapper) {
         this.validationService = validationService;
+        this.objectMapper = objectMapper;
     }
 
     @PostMapping("/validateOrder")
@@ -23,4 +36,40 @@ public class OrderValidationController {
         OrderValidationResult result = validationService.validateOrder(order);
         return ResponseEntity.ok(result);
     }
+
+    /**
+     * Batch endpoint: validate a JSON array of orders in one request.
+     * Results come back in input order, each tagged with its orderNo.
+     */
+    @PostMapping(value = "/validateOrders", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<BatchOrderValidationResult>> validateOrders(@RequestBody List<Order> orders) {
+        return ResponseEntity.ok(validateAll(orders));
+    }
+
+    /**
+     * Same as above, for an NDJSON stream (one order per line). A line that is not an
+     * order fails the whole request with an empty 400, like a malformed JSON array.
+     */
+    @PostMapping(value = "/validateOrders", consumes = APPLICATION_NDJSON)
+    public ResponseEntity<List<BatchOrderValidationResult>> validateOrdersNdjson(InputStream body) {
+        List<Order> orders = new ArrayList<>();
+        try (MappingIterator<Order> it = objectMapper.readerFor(Order.class).readValues(body)) {
+            while (it.hasNextValue()) {
+                orders.add(it.nextValue());
+            }
+        } catch (IOException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(validateAll(orders));
+    }
+
+    private List<BatchOrderValidationResult> validateAll(List<Order> orders) {
+        List<OrderValidationResult> results = validationService.validateOrders(orders);
+        List<BatchOrderValidationResult> response = new ArrayList<>(results.size());
+        for (int i = 0; i < results.size(); i++) {
+            Order order = orders.get(i);
+            response.add(new BatchOrderValidationResult(order == null ? null : order.getOrderNo(), results.get(i)));
+        }
+        return response;
+    }
 }
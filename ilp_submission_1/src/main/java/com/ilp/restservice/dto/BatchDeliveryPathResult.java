@@ -0,0 +1,100 @@
+package com.ilp.restservice.dto;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.ilp.restservice.enums.DeliveryPathErrorCode;
+import com.ilp.restservice.enums.OrderValidationCode;
+import com.ilp.restservice.model.Position;
+
+/**
+ * One entry of a /calcDeliveryPaths response: either the path for the order with this
+ * orderNo, or the reason there is none.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchDeliveryPathResult {
+
+    private String orderNo;
+    private List<Position> path;
+    private DeliveryPathErrorCode errorCode;
+    private OrderValidationCode orderValidationCode;
+    private String message;
+    private Double suboptimalityBound;
+
+    public BatchDeliveryPathResult() {
+    }
+
+    public static BatchDeliveryPathResult ok(String orderNo, List<Position> path) {
+        BatchDeliveryPathResult result = new BatchDeliveryPathResult();
+        result.orderNo = orderNo;
+        result.path = path;
+        return result;
+    }
+
+    public static BatchDeliveryPathResult error(String orderNo, DeliveryPathErrorCode errorCode, String message) {
+        BatchDeliveryPathResult result = new BatchDeliveryPathResult();
+        result.orderNo = orderNo;
+        result.errorCode = errorCode;
+        result.message = message;
+        return result;
+    }
+
+    public static BatchDeliveryPathResult invalidOrder(String orderNo, OrderValidationCode orderValidationCode) {
+        BatchDeliveryPathResult result = error(orderNo, DeliveryPathErrorCode.ORDER_INVALID,
+                "Order invalid: " + orderValidationCode);
+        result.orderValidationCode = orderValidationCode;
+        return result;
+    }
+
+    public String getOrderNo() {
+        return orderNo;
+    }
+
+    public void setOrderNo(String orderNo) {
+        this.orderNo = orderNo;
+    }
+
+    /**
+     * @return how many times longer than the shortest path the path can be, for paths
+     *         planned in the anytime search mode; null otherwise
+     */
+    public Double getSuboptimalityBound() {
+        return suboptimalityBound;
+    }
+
+    public void setSuboptimalityBound(Double suboptimalityBound) {
+        this.suboptimalityBound = suboptimalityBound;
+    }
+
+    public List<Position> getPath() {
+        return path;
+    }
+
+    public void setPath(List<Position> path) {
+        this.path = path;
+    }
+
+    public DeliveryPathErrorCode getErrorCode() {
+        return errorCode;
+    }
+
+    public void setErrorCode(DeliveryPathErrorCode errorCode) {
+        this.errorCode = errorCode;
+    }
+
+    public OrderValidationCode getOrderValidationCode() {
+        return orderValidationCode;
+    }
+
+    public void setOrderValidationCode(OrderValidationCode orderValidationCode) {
+        this.orderValidationCode = orderValidationCode;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
@@ -0,0 +1,47 @@
+package com.ilp.restservice.dto;
+
+import com.ilp.restservice.enums.OrderStatus;
+import com.ilp.restservice.enums.OrderValidationCode;
+
+/**
+ * One entry of a /validateOrders response: the validation outcome of the order with this orderNo.
+ */
+public class BatchOrderValidationResult {
+
+    private String orderNo;
+    private OrderStatus orderStatus;
+    private OrderValidationCode orderValidationCode;
+
+    public BatchOrderValidationResult() {
+    }
+
+    public BatchOrderValidationResult(String orderNo, OrderValidationResult result) {
+        this.orderNo = orderNo;
+        this.orderStatus = result.getOrderStatus();
+        this.orderValidationCode = result.getOrderValidationCode();
+    }
+
+    public String getOrderNo() {
+        return orderNo;
+    }
+
+    public void setOrderNo(String orderNo) {
+        this.orderNo = orderNo;
+    }
+
+    public OrderStatus getOrderStatus() {
+        return orderStatus;
+    }
+
+    public void setOrderStatus(OrderStatus orderStatus) {
+        this.orderStatus = orderStatus;
+    }
+
+    public OrderValidationCode getOrderValidationCode() {
+        return orderValidationCode;
+    }
+
+    public void setOrderValidationCode(OrderValidationCode orderValidationCode) {
+        this.orderValidationCode = orderValidationCode;
+    }
+}
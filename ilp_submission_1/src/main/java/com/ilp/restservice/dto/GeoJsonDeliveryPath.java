@@ -0,0 +1,82 @@
+package com.ilp.restservice.dto;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import com.ilp.restservice.service.DeliveryRoute;
+
+/**
+ * A delivery path as a GeoJSON FeatureCollection holding one LineString Feature.
+ *
+ * Jackson serializes it by streaming tokens straight from the route's primitive
+ * coordinates, so no intermediate map or per-waypoint coordinate list is built. Without
+ * extra properties the output is byte for byte what the old map-based version produced:
+ *
+ * {"type":"FeatureCollection","features":[{"type":"Feature",
+ *  "geometry":{"type":"LineString","coordinates":[[lng,lat],...]},
+ *  "properties":{"description":"..."}}]}
+ */
+public class GeoJsonDeliveryPath extends JsonSerializable.Base {
+
+    public static final String DESCRIPTION = "Drone path from restaurant to Appleton Tower";
+
+    private final DeliveryRoute route;
+    private final Map<String, Object> extraProperties = new LinkedHashMap<>();
+
+    public GeoJsonDeliveryPath(DeliveryRoute route) {
+        this.route = route;
+    }
+
+    /**
+     * Add a property to the Feature, after "description".
+     */
+    public GeoJsonDeliveryPath withProperty(String name, Object value) {
+        extraProperties.put(name, value);
+        return this;
+    }
+
+    @Override
+    public void serialize(JsonGenerator gen, SerializerProvider serializers) throws IOException {
+        gen.writeStartObject();
+        gen.writeStringField("type", "FeatureCollection");
+        gen.writeArrayFieldStart("features");
+
+        gen.writeStartObject();
+        gen.writeStringField("type", "Feature");
+
+        gen.writeObjectFieldStart("geometry");
+        gen.writeStringField("type", "LineString");
+        gen.writeArrayFieldStart("coordinates");
+        for (int i = 0; i < route.size(); i++) {
+            // GeoJSON expects [longitude, latitude]
+            gen.writeStartArray();
+            gen.writeNumber(route.lng(i));
+            gen.writeNumber(route.lat(i));
+            gen.writeEndArray();
+        }
+        gen.writeEndArray();
+        gen.writeEndObject();
+
+        gen.writeObjectFieldStart("properties");
+        gen.writeStringField("description", DESCRIPTION);
+        for (Map.Entry<String, Object> property : extraProperties.entrySet()) {
+            serializers.defaultSerializeField(property.getKey(), property.getValue(), gen);
+        }
+        gen.writeEndObject();
+
+        gen.writeEndObject();
+        gen.writeEndArray();
+        gen.writeEndObject();
+    }
+
+    @Override
+    public void serializeWithType(JsonGenerator gen, SerializerProvider serializers, TypeSerializer typeSer)
+            throws IOException {
+        serialize(gen, serializers);
+    }
+}
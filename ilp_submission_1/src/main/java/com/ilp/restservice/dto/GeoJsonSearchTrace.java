@@ -0,0 +1,94 @@
+package com.ilp.restservice.dto;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import com.ilp.restservice.pathfinding.SearchTrace;
+
+/**
+ * A search trace as a GeoJSON FeatureCollection holding one MultiPoint Feature per event
+ * type, for plotting on a map over the no-fly zones:
+ *
+ * {"type":"FeatureCollection","features":[
+ *  {"type":"Feature","geometry":{"type":"MultiPoint","coordinates":[[lng,lat],...]},
+ *   "properties":{"event":"EXPANDED","recorded":n,"firstSequence":s,"openSizes":[...]}},
+ *  ... REJECTED_NO_FLY, REJECTED_CENTRAL_EXIT ...]}
+ *
+ * Points are in the order recorded. "recorded" counts the events of the type including
+ * those dropped from the trace's ring buffer, and "firstSequence" is the place of the
+ * first point among all events of the search, counted from 0 (-1 if there is none), so a
+ * search that outgrew its trace shows as a late start. For expansions, "openSizes" holds
+ * the open set size at each point: the frontier over time.
+ *
+ * Streamed straight from the trace's arrays, like {@link GeoJsonDeliveryPath}.
+ */
+public class GeoJsonSearchTrace extends JsonSerializable.Base {
+
+    private final SearchTrace trace;
+
+    public GeoJsonSearchTrace(SearchTrace trace) {
+        this.trace = trace;
+    }
+
+    @Override
+    public void serialize(JsonGenerator gen, SerializerProvider serializers) throws IOException {
+        gen.writeStartObject();
+        gen.writeStringField("type", "FeatureCollection");
+        gen.writeArrayFieldStart("features");
+        for (SearchTrace.Event event : SearchTrace.Event.values()) {
+            writeFeature(gen, event);
+        }
+        gen.writeEndArray();
+        gen.writeEndObject();
+    }
+
+    private void writeFeature(JsonGenerator gen, SearchTrace.Event event) throws IOException {
+        gen.writeStartObject();
+        gen.writeStringField("type", "Feature");
+
+        gen.writeObjectFieldStart("geometry");
+        gen.writeStringField("type", "MultiPoint");
+        gen.writeArrayFieldStart("coordinates");
+        long firstSequence = -1;
+        for (int i = 0; i < trace.size(); i++) {
+            if (trace.event(i) == event) {
+                if (firstSequence < 0) {
+                    firstSequence = trace.getDropped() + i;
+                }
+                // GeoJSON expects [longitude, latitude]
+                gen.writeStartArray();
+                gen.writeNumber(trace.lng(i));
+                gen.writeNumber(trace.lat(i));
+                gen.writeEndArray();
+            }
+        }
+        gen.writeEndArray();
+        gen.writeEndObject();
+
+        gen.writeObjectFieldStart("properties");
+        gen.writeStringField("event", event.name());
+        gen.writeNumberField("recorded", trace.count(event));
+        gen.writeNumberField("firstSequence", firstSequence);
+        if (event == SearchTrace.Event.EXPANDED) {
+            gen.writeArrayFieldStart("openSizes");
+            for (int i = 0; i < trace.size(); i++) {
+                if (trace.event(i) == event) {
+                    gen.writeNumber(trace.openSize(i));
+                }
+            }
+            gen.writeEndArray();
+        }
+        gen.writeEndObject();
+
+        gen.writeEndObject();
+    }
+
+    @Override
+    public void serializeWithType(JsonGenerator gen, SerializerProvider serializers, TypeSerializer typeSer)
+            throws IOException {
+        serialize(gen, serializers);
+    }
+}
@@ -1,13 +1,19 @@
 package com.ilp.restservice.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.ilp.restservice.enums.OrderStatus;
 import com.ilp.restservice.enums.OrderValidationCode;
+import com.ilp.restservice.model.Restaurant;
 
 public class OrderValidationResult {
 
     private OrderStatus orderStatus;
     private OrderValidationCode orderValidationCode;
 
+    // Resolved while validating a VALID order, for callers that need it next (not serialized)
+    private Restaurant restaurant;
+    private int officialTotalInPence;
+
     public OrderValidationResult() {
     }
 
@@ -16,6 +22,13 @@ public class OrderValidationResult {
         this.orderValidationCode = orderValidationCode;
     }
 
+    public OrderValidationResult(OrderStatus orderStatus, OrderValidationCode orderValidationCode,
+                                 Restaurant restaurant, int officialTotalInPence) {
+        this(orderStatus, orderValidationCode);
+        this.restaurant = restaurant;
+        this.officialTotalInPence = officialTotalInPence;
+    }
+
     public OrderStatus getOrderStatus() {
         return orderStatus;
     }
@@ -31,4 +44,21 @@ public class OrderValidationResult {
     public void setOrderValidationCode(OrderValidationCode orderValidationCode) {
         this.orderValidationCode = orderValidationCode;
     }
+
+    /**
+     * @return the restaurant supplying the order, or null unless the order is VALID
+     */
+    @JsonIgnore
+    public Restaurant getRestaurant() {
+        return restaurant;
+    }
+
+    /**
+     * @return the sum of the menu prices of the ordered pizzas (without the delivery
+     *         charge), or 0 unless the order is VALID
+     */
+    @JsonIgnore
+    public int getOfficialTotalInPence() {
+        return officialTotalInPence;
+    }
 }
@@ -0,0 +1,73 @@
+package com.ilp.restservice.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.ilp.restservice.pathfinding.PathResult;
+import com.ilp.restservice.pathfinding.SearchMode;
+
+/**
+ * One entry of a /searchModeComparison response: the route from one restaurant to
+ * Appleton Tower planned with each single-route search mode.
+ */
+public class SearchModeComparison {
+
+    private final String restaurant;
+    private final SearchMode searchMode;
+    private final List<ModeResult> results = new ArrayList<>();
+
+    public SearchModeComparison(String restaurant, SearchMode searchMode) {
+        this.restaurant = restaurant;
+        this.searchMode = searchMode;
+    }
+
+    public void add(SearchMode mode, PathResult route, long nanos) {
+        double bound = route.getStats().getSuboptimalityBound();
+        results.add(new ModeResult(mode, route.isFound(), route.size(),
+                route.getStats().getExpansions(), nanos / 1_000, Double.isNaN(bound) ? null : bound));
+    }
+
+    public String getRestaurant() {
+        return restaurant;
+    }
+
+    /**
+     * @return the mode currently configured for this route
+     */
+    public SearchMode getSearchMode() {
+        return searchMode;
+    }
+
+    public List<ModeResult> getResults() {
+        return results;
+    }
+
+    /**
+     * @return forward expansions minus bidirectional expansions (negative if the
+     *         bidirectional search expanded more), or null if either was not run
+     */
+    public Integer getBidirectionalExpansionsSaved() {
+        ModeResult forward = result(SearchMode.FORWARD);
+        ModeResult bidirectional = result(SearchMode.BIDIRECTIONAL);
+        if (forward == null || bidirectional == null) {
+            return null;
+        }
+        return forward.expansions() - bidirectional.expansions();
+    }
+
+    private ModeResult result(SearchMode mode) {
+        for (ModeResult r : results) {
+            if (r.searchMode() == mode) {
+                return r;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @param suboptimalityBound the bound proven by the anytime search, null for the other modes
+     */
+    public record ModeResult(SearchMode searchMode, boolean found, int waypoints, int expansions, long micros,
+                             Double suboptimalityBound) {
+    }
+}
@@ -0,0 +1,37 @@
+package com.ilp.restservice.enums;
+
+/**
+ * Why a single order in a /calcDeliveryPaths batch got no path.
+ */
+public enum DeliveryPathErrorCode {
+
+    /**
+     * the order failed validation, see its orderValidationCode
+     */
+    ORDER_INVALID,
+
+    /**
+     * no single restaurant with a known location supplies the order
+     */
+    RESTAURANT_NOT_FOUND,
+
+    /**
+     * the search finished without reaching Appleton Tower
+     */
+    NO_PATH_FOUND,
+
+    /**
+     * the search spent its expansion budget first; the restaurant is probably walled in
+     */
+    SEARCH_BUDGET_EXHAUSTED,
+
+    /**
+     * the batch's deadline passed before the search finished
+     */
+    SEARCH_TIMED_OUT,
+
+    /**
+     * the search itself failed
+     */
+    PLANNING_FAILED
+}
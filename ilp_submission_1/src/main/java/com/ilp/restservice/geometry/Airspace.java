@@ -0,0 +1,211 @@
+package com.ilp.restservice.geometry;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.ilp.restservice.model.NamedRegion;
+import com.ilp.restservice.model.Position;
+import com.ilp.restservice.pathfinding.DroneLattice;
+import com.ilp.restservice.pathfinding.FlightConstraints;
+import com.ilp.restservice.pathfinding.Landmarks;
+import com.ilp.restservice.pathfinding.SearchEnvelope;
+import com.ilp.restservice.service.PointInPolygonService;
+
+/**
+ * Flight constraints backed by precomputed occupancy grids of the no-fly zones and the
+ * central area, plus an edge index of the no-fly zones for exact move checks, and a
+ * clearance grid marking the open air where no check is needed at all, a visibility
+ * graph for coarse routes and landmark distance tables for search heuristics. Built once
+ * from the reference data and then shared, read-only, by every search; the landmark
+ * tables, which only the landmark heuristic reads, are built on first use.
+ */
+public final class Airspace implements FlightConstraints {
+
+    // Half a drone step, so a single move never skips over a whole cell
+    public static final double DEFAULT_CELL_SIZE = DroneLattice.STEP / 2;
+    // One drone step, plus room for the point-in-polygon tolerances
+    private static final double CLEARANCE = DroneLattice.STEP + 1e-6;
+    // How far the visibility graph's corners sit from the zone corners
+    private static final double CORNER_CLEARANCE = 3 * DroneLattice.STEP;
+    private static final int LANDMARK_COUNT = 8;
+    // The landmark tables reach this far past the zones, so routes from further out gain too
+    private static final double LANDMARK_MARGIN = 20 * DroneLattice.STEP;
+
+    private final long version;
+    private final List<NamedRegion> noFlyZones;
+    private final NamedRegion centralArea;
+    private final RegionOccupancyGrid noFlyGrid;
+    private final RegionOccupancyGrid centralGrid;
+    private final PolygonObstacles noFlyObstacles;
+    private final ClearanceGrid clearanceGrid;
+    private final VisibilityGraph visibilityGraph;
+    private volatile Landmarks landmarks;
+    // Box around every zone and the central area: minLng, minLat, maxLng, maxLat (inverted if none)
+    private final double[] bounds;
+
+    private Airspace(long version, List<NamedRegion> noFlyZones, NamedRegion centralArea,
+                     RegionOccupancyGrid noFlyGrid, RegionOccupancyGrid centralGrid,
+                     PolygonObstacles noFlyObstacles, ClearanceGrid clearanceGrid,
+                     VisibilityGraph visibilityGraph, double[] bounds) {
+        this.version = version;
+        this.noFlyZones = noFlyZones;
+        this.centralArea = centralArea;
+        this.noFlyGrid = noFlyGrid;
+        this.centralGrid = centralGrid;
+        this.noFlyObstacles = noFlyObstacles;
+        this.clearanceGrid = clearanceGrid;
+        this.visibilityGraph = visibilityGraph;
+        this.bounds = bounds;
+    }
+
+    /**
+     * @param version     identifies this zone data, e.g. for cache keys
+     * @param noFlyZones  the no-fly zones, may be null or empty
+     * @param centralArea the central area, may be null if none is defined
+     */
+    public static Airspace build(long version, List<NamedRegion> noFlyZones, NamedRegion centralArea,
+                                 PointInPolygonService pointInPolygonService) {
+        List<List<Position>> zonePolygons = new ArrayList<>();
+        if (noFlyZones != null) {
+            for (NamedRegion zone : noFlyZones) {
+                zonePolygons.add(zone.getVertices());
+            }
+        }
+        List<List<Position>> centralPolygons = centralArea == null
+                ? List.of()
+                : List.of(centralArea.getVertices());
+
+        RegionOccupancyGrid noFlyGrid =
+                RegionOccupancyGrid.build(zonePolygons, DEFAULT_CELL_SIZE, pointInPolygonService);
+        RegionOccupancyGrid centralGrid =
+                RegionOccupancyGrid.build(centralPolygons, DEFAULT_CELL_SIZE, pointInPolygonService);
+        PolygonObstacles noFlyObstacles = PolygonObstacles.of(zonePolygons);
+        return new Airspace(version, noFlyZones, centralArea, noFlyGrid, centralGrid, noFlyObstacles,
+                ClearanceGrid.build(zonePolygons, noFlyGrid, centralPolygons, CLEARANCE, DEFAULT_CELL_SIZE),
+                VisibilityGraph.build(zonePolygons, centralArea == null ? null : centralArea.getVertices(),
+                        noFlyObstacles, noFlyGrid, centralGrid, CORNER_CLEARANCE),
+                bounds(zonePolygons, centralPolygons));
+    }
+
+    /**
+     * Landmark tables over the box around every zone and the central area; the distances
+     * are measured against this airspace's zones.
+     */
+    private Landmarks buildLandmarks() {
+        Landmarks.Zones zones = new Landmarks.Zones() {
+            @Override
+            public boolean contains(double lng, double lat) {
+                return noFlyGrid.contains(lng, lat);
+            }
+
+            @Override
+            public boolean edgeCrosses(double fromLng, double fromLat, double toLng, double toLat) {
+                return noFlyObstacles.segmentCrossesAnyEdge(fromLng, fromLat, toLng, toLat);
+            }
+        };
+        return Landmarks.build(zones, bounds[0] - LANDMARK_MARGIN, bounds[1] - LANDMARK_MARGIN,
+                bounds[2] + LANDMARK_MARGIN, bounds[3] + LANDMARK_MARGIN, LANDMARK_COUNT);
+    }
+
+    private static double[] bounds(List<List<Position>> zonePolygons, List<List<Position>> centralPolygons) {
+        double[] box = {Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY,
+                Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY};
+        for (List<List<Position>> polygons : List.of(zonePolygons, centralPolygons)) {
+            for (List<Position> polygon : polygons) {
+                for (Position v : polygon) {
+                    box[0] = Math.min(box[0], v.getLng());
+                    box[1] = Math.min(box[1], v.getLat());
+                    box[2] = Math.max(box[2], v.getLng());
+                    box[3] = Math.max(box[3], v.getLat());
+                }
+            }
+        }
+        return box;
+    }
+
+    /**
+     * These constraints, confined to the box around every zone, the central area and both
+     * end points of a route, widened by the margin on each side.
+     */
+    public SearchEnvelope envelope(double startLng, double startLat, double goalLng, double goalLat,
+                                   double margin) {
+        return new SearchEnvelope(this,
+                Math.min(bounds[0], Math.min(startLng, goalLng)) - margin,
+                Math.min(bounds[1], Math.min(startLat, goalLat)) - margin,
+                Math.max(bounds[2], Math.max(startLng, goalLng)) + margin,
+                Math.max(bounds[3], Math.max(startLat, goalLat)) + margin);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * @return true if this airspace was built from exactly these region objects
+     */
+    public boolean isBuiltFrom(List<NamedRegion> noFlyZones, NamedRegion centralArea) {
+        return this.noFlyZones == noFlyZones && this.centralArea == centralArea;
+    }
+
+    @Override
+    public boolean isInsideCentral(double lng, double lat) {
+        return centralGrid.contains(lng, lat);
+    }
+
+    /**
+     * A move is rejected if it ends inside a zone, or if the straight segment touches
+     * any zone edge on the way (so a step cannot clip the corner of a zone).
+     */
+    @Override
+    public boolean crossesNoFlyZone(double fromLng, double fromLat, double toLng, double toLat) {
+        return noFlyGrid.contains(toLng, toLat)
+                || noFlyObstacles.segmentCrossesAnyEdge(fromLng, fromLat, toLng, toLat);
+    }
+
+    /**
+     * Clear points are more than a drone step away from every zone edge and from the
+     * central area boundary.
+     */
+    @Override
+    public boolean isClear(double lng, double lat) {
+        return clearanceGrid.isClear(lng, lat);
+    }
+
+    public RegionOccupancyGrid getNoFlyGrid() {
+        return noFlyGrid;
+    }
+
+    public RegionOccupancyGrid getCentralGrid() {
+        return centralGrid;
+    }
+
+    public PolygonObstacles getNoFlyObstacles() {
+        return noFlyObstacles;
+    }
+
+    public ClearanceGrid getClearanceGrid() {
+        return clearanceGrid;
+    }
+
+    public VisibilityGraph getVisibilityGraph() {
+        return visibilityGraph;
+    }
+
+    /**
+     * The landmark tables, built by the first caller, so airspaces published while
+     * ilp.path.landmarks.enabled is off never pay for them.
+     */
+    public Landmarks getLandmarks() {
+        Landmarks tables = landmarks;
+        if (tables == null) {
+            synchronized (this) {
+                tables = landmarks;
+                if (tables == null) {
+                    tables = buildLandmarks();
+                    landmarks = tables;
+                }
+            }
+        }
+        return tables;
+    }
+}
@@ -0,0 +1,156 @@
+package com.ilp.restservice.geometry;
+
+import java.util.List;
+
+import com.ilp.restservice.model.Position;
+
+/**
+ * A bitmap of the cells that lie well clear of every edge of a set of polygons.
+ *
+ * A cell is clear if no polygon edge comes within the clearance distance of any point of
+ * the cell, and its centre is outside the blocked polygons. From a point in a clear cell
+ * every straight move shorter than the clearance therefore stays on the same side of
+ * every edge: it cannot enter a blocked polygon, nor cross the boundary of any other.
+ * Points outside the grid's bounding box are further than the clearance from every
+ * polygon and are clear as well.
+ */
+public final class ClearanceGrid {
+
+    private final double minLng;
+    private final double minLat;
+    private final double cellSize;
+    private final int cols;
+    private final int rows;
+    private final long[] notClearBits;
+
+    private ClearanceGrid(double minLng, double minLat, double cellSize, int cols, int rows) {
+        this.minLng = minLng;
+        this.minLat = minLat;
+        this.cellSize = cellSize;
+        this.cols = cols;
+        this.rows = rows;
+        this.notClearBits = new long[(int) (((long) cols * rows + 63) >>> 6)];
+    }
+
+    /**
+     * @param blocked   polygons that may never be entered, with their interior grid
+     * @param bounded   polygons whose boundary must not be crossed, e.g. the central area
+     * @param clearance minimum distance (in degrees) from any edge to any point of a clear cell
+     */
+    public static ClearanceGrid build(List<List<Position>> blocked, RegionOccupancyGrid blockedGrid,
+                                      List<List<Position>> bounded, double clearance, double cellSize) {
+        double minLng = Double.POSITIVE_INFINITY;
+        double minLat = Double.POSITIVE_INFINITY;
+        double maxLng = Double.NEGATIVE_INFINITY;
+        double maxLat = Double.NEGATIVE_INFINITY;
+        for (List<List<Position>> polygons : List.of(blocked, bounded)) {
+            for (List<Position> polygon : polygons) {
+                for (Position v : polygon) {
+                    minLng = Math.min(minLng, v.getLng());
+                    minLat = Math.min(minLat, v.getLat());
+                    maxLng = Math.max(maxLng, v.getLng());
+                    maxLat = Math.max(maxLat, v.getLat());
+                }
+            }
+        }
+        if (minLng > maxLng) {
+            return new ClearanceGrid(0, 0, cellSize, 0, 0);
+        }
+
+        // Pad by the clearance plus a cell, so everything off the grid is clear
+        minLng -= clearance + cellSize;
+        minLat -= clearance + cellSize;
+        int cols = (int) Math.ceil((maxLng - minLng + clearance) / cellSize) + 2;
+        int rows = (int) Math.ceil((maxLat - minLat + clearance) / cellSize) + 2;
+
+        ClearanceGrid grid = new ClearanceGrid(minLng, minLat, cellSize, cols, rows);
+        grid.markEdges(blocked, clearance);
+        grid.markEdges(bounded, clearance);
+        grid.markInterior(blockedGrid);
+        return grid;
+    }
+
+    /**
+     * @return true if (lng, lat) lies in a clear cell
+     */
+    public boolean isClear(double lng, double lat) {
+        int col = (int) Math.floor((lng - minLng) / cellSize);
+        int row = (int) Math.floor((lat - minLat) / cellSize);
+        if (col < 0 || row < 0 || col >= cols || row >= rows) {
+            return true;
+        }
+        int cell = row * cols + col;
+        return (notClearBits[cell >>> 6] & (1L << cell)) == 0;
+    }
+
+    public int getCellCount() {
+        return cols * rows;
+    }
+
+    public int getClearCellCount() {
+        int notClear = 0;
+        for (long word : notClearBits) {
+            notClear += Long.bitCount(word);
+        }
+        return cols * rows - notClear;
+    }
+
+    private void markEdges(List<List<Position>> polygons, double clearance) {
+        for (List<Position> polygon : polygons) {
+            for (int i = 1; i < polygon.size(); i++) {
+                Position a = polygon.get(i - 1);
+                Position b = polygon.get(i);
+                markEdge(a.getLng(), a.getLat(), b.getLng(), b.getLat(), clearance);
+            }
+        }
+    }
+
+    /**
+     * Mark every cell that comes within `margin` of the segment (x1, y1) - (x2, y2).
+     */
+    private void markEdge(double x1, double y1, double x2, double y2, double margin) {
+        int colFrom = clampCol((int) Math.floor((Math.min(x1, x2) - margin - minLng) / cellSize));
+        int colTo = clampCol((int) Math.floor((Math.max(x1, x2) + margin - minLng) / cellSize));
+        int rowFrom = clampRow((int) Math.floor((Math.min(y1, y2) - margin - minLat) / cellSize));
+        int rowTo = clampRow((int) Math.floor((Math.max(y1, y2) + margin - minLat) / cellSize));
+
+        for (int row = rowFrom; row <= rowTo; row++) {
+            double cellMinLat = minLat + row * cellSize - margin;
+            double cellMaxLat = minLat + (row + 1) * cellSize + margin;
+            for (int col = colFrom; col <= colTo; col++) {
+                double cellMinLng = minLng + col * cellSize - margin;
+                double cellMaxLng = minLng + (col + 1) * cellSize + margin;
+                if (GeometryUtils.segmentIntersectsBox(x1, y1, x2, y2,
+                        cellMinLng, cellMinLat, cellMaxLng, cellMaxLat)) {
+                    int cell = row * cols + col;
+                    notClearBits[cell >>> 6] |= 1L << cell;
+                }
+            }
+        }
+    }
+
+    /**
+     * No edge is near an unmarked cell, so its centre tells whether the whole cell lies
+     * inside a blocked polygon.
+     */
+    private void markInterior(RegionOccupancyGrid blockedGrid) {
+        for (int row = 0; row < rows; row++) {
+            double centreLat = minLat + (row + 0.5) * cellSize;
+            for (int col = 0; col < cols; col++) {
+                int cell = row * cols + col;
+                if ((notClearBits[cell >>> 6] & (1L << cell)) == 0
+                        && blockedGrid.contains(minLng + (col + 0.5) * cellSize, centreLat)) {
+                    notClearBits[cell >>> 6] |= 1L << cell;
+                }
+            }
+        }
+    }
+
+    private int clampCol(int col) {
+        return Math.max(0, Math.min(cols - 1, col));
+    }
+
+    private int clampRow(int row) {
+        return Math.max(0, Math.min(rows - 1, row));
+    }
+}
@@ -0,0 +1,45 @@
+package com.ilp.restservice.geometry;
+
+/**
+ * Small primitive-coordinate geometry helpers shared by the spatial indexes.
+ */
+public final class GeometryUtils {
+
+    private GeometryUtils() {
+    }
+
+    /**
+     * Liang-Barsky clip: does the segment (x1, y1) - (x2, y2) touch the closed box?
+     */
+    public static boolean segmentIntersectsBox(double x1, double y1, double x2, double y2,
+                                               double minX, double minY, double maxX, double maxY) {
+        double dx = x2 - x1;
+        double dy = y2 - y1;
+        double[] p = {-dx, dx, -dy, dy};
+        double[] q = {x1 - minX, maxX - x1, y1 - minY, maxY - y1};
+        double t0 = 0.0;
+        double t1 = 1.0;
+        for (int i = 0; i < 4; i++) {
+            if (p[i] == 0) {
+                // Parallel to this side: reject if outside it
+                if (q[i] < 0) {
+                    return false;
+                }
+            } else {
+                double t = q[i] / p[i];
+                if (p[i] < 0) {
+                    if (t > t1) {
+                        return false;
+                    }
+                    t0 = Math.max(t0, t);
+                } else {
+                    if (t < t0) {
+                        return false;
+                    }
+                    t1 = Math.min(t1, t);
+                }
+            }
+        }
+        return true;
+    }
+}
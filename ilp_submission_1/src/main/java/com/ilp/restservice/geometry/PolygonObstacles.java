@@ -0,0 +1,136 @@
+package com.ilp.restservice.geometry;
+
+import java.util.List;
+
+import com.ilp.restservice.model.Position;
+
+/**
+ * Exact segment-versus-polygon-edge intersection tests over a fixed set of polygons.
+ *
+ * Each polygon keeps its axis-aligned bounding box, and each edge keeps its end points and
+ * the coefficients of its line equation a*x + b*y + c = 0, so a test only looks at edges
+ * whose box overlaps the segment and costs a handful of multiplications per edge.
+ * Touching an edge counts as crossing it.
+ */
+public final class PolygonObstacles {
+
+    // Per edge: x1, y1, x2, y2, a, b, c
+    private static final int EDGE_STRIDE = 7;
+
+    private final double[][] edges;      // one array per polygon
+    private final double[][] boxes;      // one {minX, minY, maxX, maxY} per polygon
+    private final double minX;
+    private final double minY;
+    private final double maxX;
+    private final double maxY;
+
+    private PolygonObstacles(double[][] edges, double[][] boxes) {
+        this.edges = edges;
+        this.boxes = boxes;
+        double loX = Double.POSITIVE_INFINITY;
+        double loY = Double.POSITIVE_INFINITY;
+        double hiX = Double.NEGATIVE_INFINITY;
+        double hiY = Double.NEGATIVE_INFINITY;
+        for (double[] box : boxes) {
+            loX = Math.min(loX, box[0]);
+            loY = Math.min(loY, box[1]);
+            hiX = Math.max(hiX, box[2]);
+            hiY = Math.max(hiY, box[3]);
+        }
+        this.minX = loX;
+        this.minY = loY;
+        this.maxX = hiX;
+        this.maxY = hiY;
+    }
+
+    /**
+     * @param polygons closed vertex lists (first vertex repeated at the end)
+     */
+    public static PolygonObstacles of(List<List<Position>> polygons) {
+        double[][] edges = new double[polygons.size()][];
+        double[][] boxes = new double[polygons.size()][];
+        for (int p = 0; p < polygons.size(); p++) {
+            List<Position> vertices = polygons.get(p);
+            int edgeCount = Math.max(0, vertices.size() - 1);
+            double[] polygonEdges = new double[edgeCount * EDGE_STRIDE];
+            double[] box = {Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY,
+                            Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY};
+            for (int i = 0; i < edgeCount; i++) {
+                double x1 = vertices.get(i).getLng();
+                double y1 = vertices.get(i).getLat();
+                double x2 = vertices.get(i + 1).getLng();
+                double y2 = vertices.get(i + 1).getLat();
+                double a = y1 - y2;
+                double b = x2 - x1;
+                int o = i * EDGE_STRIDE;
+                polygonEdges[o] = x1;
+                polygonEdges[o + 1] = y1;
+                polygonEdges[o + 2] = x2;
+                polygonEdges[o + 3] = y2;
+                polygonEdges[o + 4] = a;
+                polygonEdges[o + 5] = b;
+                polygonEdges[o + 6] = -(a * x1 + b * y1);
+                box[0] = Math.min(box[0], Math.min(x1, x2));
+                box[1] = Math.min(box[1], Math.min(y1, y2));
+                box[2] = Math.max(box[2], Math.max(x1, x2));
+                box[3] = Math.max(box[3], Math.max(y1, y2));
+            }
+            edges[p] = polygonEdges;
+            boxes[p] = box;
+        }
+        return new PolygonObstacles(edges, boxes);
+    }
+
+    /**
+     * @return true if the segment (x1, y1) - (x2, y2) intersects or touches any polygon edge
+     */
+    public boolean segmentCrossesAnyEdge(double x1, double y1, double x2, double y2) {
+        double segMinX = Math.min(x1, x2);
+        double segMaxX = Math.max(x1, x2);
+        double segMinY = Math.min(y1, y2);
+        double segMaxY = Math.max(y1, y2);
+        if (segMaxX < minX || segMinX > maxX || segMaxY < minY || segMinY > maxY) {
+            return false;
+        }
+        // Line equation of the segment itself, to classify edge end points
+        double sa = y1 - y2;
+        double sb = x2 - x1;
+        double sc = -(sa * x1 + sb * y1);
+
+        for (int p = 0; p < edges.length; p++) {
+            double[] box = boxes[p];
+            if (segMaxX < box[0] || segMinX > box[2] || segMaxY < box[1] || segMinY > box[3]) {
+                continue;
+            }
+            double[] polygonEdges = edges[p];
+            for (int o = 0; o < polygonEdges.length; o += EDGE_STRIDE) {
+                double ex1 = polygonEdges[o];
+                double ey1 = polygonEdges[o + 1];
+                double ex2 = polygonEdges[o + 2];
+                double ey2 = polygonEdges[o + 3];
+                if (segMaxX < Math.min(ex1, ex2) || segMinX > Math.max(ex1, ex2)
+                        || segMaxY < Math.min(ey1, ey2) || segMinY > Math.max(ey1, ey2)) {
+                    continue;
+                }
+                // Segment end points on the same strict side of the edge => no crossing
+                double a = polygonEdges[o + 4];
+                double b = polygonEdges[o + 5];
+                double c = polygonEdges[o + 6];
+                double s1 = a * x1 + b * y1 + c;
+                double s2 = a * x2 + b * y2 + c;
+                if ((s1 > 0 && s2 > 0) || (s1 < 0 && s2 < 0)) {
+                    continue;
+                }
+                // Edge end points on the same strict side of the segment => no crossing
+                double e1 = sa * ex1 + sb * ey1 + sc;
+                double e2 = sa * ex2 + sb * ey2 + sc;
+                if ((e1 > 0 && e2 > 0) || (e1 < 0 && e2 < 0)) {
+                    continue;
+                }
+                // Either a proper crossing, or collinear with overlapping boxes
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,177 @@
+package com.ilp.restservice.geometry;
+
+import java.util.List;
+
+import com.ilp.restservice.model.Position;
+import com.ilp.restservice.service.PointInPolygonService;
+
+/**
+ * A polygon laid out for fast point-in-polygon tests: its edges as parallel arrays of
+ * primitive doubles, each edge with its ray-casting slope worked out up front, and the
+ * bounding box of the whole polygon.
+ *
+ * {@link #contains} keeps the edge cases of the original ray-casting test of
+ * {@link PointInPolygonService}:
+ *  - a point within 1e-10 (cross product) of an edge, inside its extent, is inside
+ *  - an edge's latitude range includes both end points, so a ray through a vertex counts
+ *    both of its edges, and a ray along a horizontal edge counts it as well
+ * The original meant to nudge a point on a vertex latitude 1e-7 north, but compared the
+ * boxed latitudes with ==, so the nudge never ran for the points it was given; it is left
+ * out, and /isInRegion answers as before.
+ * Every value is computed with the same operations in the same order as the original, so
+ * the results match bit for bit, not just up to rounding.
+ *
+ * With the jdk.incubator.vector module present (--add-modules jdk.incubator.vector) the
+ * edges are tested several at a time by {@link VectorizedPolygonKernel}; without it, one
+ * at a time by the scalar loop here.
+ */
+public final class PreparedPolygon {
+
+    /** True if the edges are tested with SIMD instructions. */
+    public static final boolean VECTORIZED =
+            ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+
+    // PointInPolygonService treats a point this close (cross product) to an edge as on it
+    static final double ON_EDGE_TOLERANCE = 1e-10;
+
+    final int edgeCount;
+
+    // Each edge as given, from (x1, y1) to (x1 + dx, y1 + dy), for the on-edge test
+    final double[] x1;
+    final double[] y1;
+    final double[] dx;
+    final double[] dy;
+
+    // Each edge from its lower end to its upper end, for the ray test
+    final double[] loLat;
+    final double[] hiLat;
+    final double[] loLng;
+    final double[] minLng;
+    final double[] maxLng;
+    final double[] slope;
+
+    private final double boxMinLng;
+    private final double boxMinLat;
+    private final double boxMaxLng;
+    private final double boxMaxLat;
+
+    private PreparedPolygon(List<Position> vertices) {
+        edgeCount = Math.max(0, vertices.size() - 1);
+        x1 = new double[edgeCount];
+        y1 = new double[edgeCount];
+        dx = new double[edgeCount];
+        dy = new double[edgeCount];
+        loLat = new double[edgeCount];
+        hiLat = new double[edgeCount];
+        loLng = new double[edgeCount];
+        minLng = new double[edgeCount];
+        maxLng = new double[edgeCount];
+        slope = new double[edgeCount];
+
+        double boxLoLng = Double.POSITIVE_INFINITY;
+        double boxLoLat = Double.POSITIVE_INFINITY;
+        double boxHiLng = Double.NEGATIVE_INFINITY;
+        double boxHiLat = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < edgeCount; i++) {
+            double aLng = vertices.get(i).getLng();
+            double aLat = vertices.get(i).getLat();
+            double bLng = vertices.get(i + 1).getLng();
+            double bLat = vertices.get(i + 1).getLat();
+            x1[i] = aLng;
+            y1[i] = aLat;
+            dx[i] = bLng - aLng;
+            dy[i] = bLat - aLat;
+
+            // Same swap as the original: only when the first end is strictly higher
+            boolean swap = aLat > bLat;
+            double lowLng = swap ? bLng : aLng;
+            double lowLat = swap ? bLat : aLat;
+            double highLng = swap ? aLng : bLng;
+            double highLat = swap ? aLat : bLat;
+            loLat[i] = lowLat;
+            hiLat[i] = highLat;
+            loLng[i] = lowLng;
+            minLng[i] = Math.min(lowLng, highLng);
+            maxLng[i] = Math.max(lowLng, highLng);
+            // NaN for horizontal edges, which the latitude range test always rejects first
+            slope[i] = (highLng - lowLng) / (highLat - lowLat);
+
+            boxLoLng = Math.min(boxLoLng, minLng[i]);
+            boxLoLat = Math.min(boxLoLat, lowLat);
+            boxHiLng = Math.max(boxHiLng, maxLng[i]);
+            boxHiLat = Math.max(boxHiLat, highLat);
+        }
+        this.boxMinLng = boxLoLng;
+        this.boxMinLat = boxLoLat;
+        this.boxMaxLng = boxHiLng;
+        this.boxMaxLat = boxHiLat;
+    }
+
+    /**
+     * @param vertices closed vertex list (first vertex repeated at the end)
+     */
+    public static PreparedPolygon of(List<Position> vertices) {
+        return new PreparedPolygon(vertices);
+    }
+
+    /**
+     * @return true if (lng, lat) is inside the polygon or on one of its edges
+     */
+    public boolean contains(double lng, double lat) {
+        // East, south or north of the box no edge can be crossed or touched. West of it
+        // the ray still crosses edges, so those points take the full test.
+        if (lng > boxMaxLng || lat < boxMinLat || lat > boxMaxLat) {
+            return false;
+        }
+        int crossings;
+        int first;
+        if (VECTORIZED) {
+            crossings = VectorizedPolygonKernel.crossings(this, lng, lat);
+            if (crossings < 0) {
+                return true;
+            }
+            first = VectorizedPolygonKernel.vectorizedEdges(edgeCount);
+        } else {
+            crossings = 0;
+            first = 0;
+        }
+        for (int i = first; i < edgeCount; i++) {
+            if (isOnEdge(i, lng, lat)) {
+                return true;
+            }
+            if (rayCrosses(i, lng, lat)) {
+                crossings++;
+            }
+        }
+        return (crossings & 1) == 1;
+    }
+
+    public int getEdgeCount() {
+        return edgeCount;
+    }
+
+    /**
+     * Does a ray from (lng, lat) towards increasing longitude cross edge i?
+     */
+    private boolean rayCrosses(int i, double lng, double lat) {
+        if (lat < loLat[i] || lat > hiLat[i]) {
+            return false;
+        }
+        if (lng > maxLng[i]) {
+            return false;
+        }
+        if (lng < minLng[i]) {
+            return true;
+        }
+        double intersectLng = loLng[i] + (lat - loLat[i]) * slope[i];
+        return lng <= intersectLng;
+    }
+
+    private boolean isOnEdge(int i, double lng, double lat) {
+        double crossProduct = (lat - y1[i]) * dx[i] - (lng - x1[i]) * dy[i];
+        if (Math.abs(crossProduct) > ON_EDGE_TOLERANCE) {
+            return false;
+        }
+        return lng >= minLng[i] && lng <= maxLng[i] && lat >= loLat[i] && lat <= hiLat[i];
+    }
+}
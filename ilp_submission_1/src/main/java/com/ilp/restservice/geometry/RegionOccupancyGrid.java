@@ -0,0 +1,206 @@
+package com.ilp.restservice.geometry;
+
+import java.util.Arrays;
+import java.util.List;
+
+import com.ilp.restservice.model.Position;
+import com.ilp.restservice.service.PointInPolygonService;
+
+/**
+ * A bitmap of the bounding box around a set of polygons, answering "is this point
+ * inside any of them" in O(1) for almost every query.
+ *
+ * Every cell is classified once when the grid is built:
+ *  - boundary: some polygon edge passes within a small margin of the cell, or the
+ *    cell spans the latitude of a vertex east of it, so the answer can differ between
+ *    points of the cell and the exact test is used
+ *  - inside / outside: no edge comes near the cell, so the exact answer for its
+ *    centre holds for every point in it and a bit lookup is enough
+ * The margin covers the tolerances of {@link PointInPolygonService}, and a ray along a
+ * vertex latitude counts every edge ending there, so the grid always agrees with the
+ * exact test.
+ */
+public final class RegionOccupancyGrid {
+
+    // Room around every edge and vertex latitude, well above rounding in the box test
+    private static final double EDGE_MARGIN = 2e-7;
+    // PointInPolygonService treats |cross product| <= 1e-10 as lying on an edge
+    private static final double ON_EDGE_CROSS_TOLERANCE = 1e-10;
+
+    private final List<List<Position>> polygons;
+    private final List<PreparedPolygon> prepared;
+    // Every vertex latitude, sorted: west of the grid only these can answer true
+    private final double[] vertexLats;
+
+    private final double minLng;
+    private final double minLat;
+    private final double cellSize;
+    private final int cols;
+    private final int rows;
+    private final long[] insideBits;
+    private final long[] boundaryBits;
+
+    private RegionOccupancyGrid(List<List<Position>> polygons, PointInPolygonService pointInPolygonService,
+                                double minLng, double minLat, double cellSize, int cols, int rows) {
+        this.polygons = polygons;
+        this.prepared = polygons.stream().map(pointInPolygonService::prepare).toList();
+        this.vertexLats = polygons.stream().flatMap(List::stream).mapToDouble(Position::getLat)
+                .sorted().distinct().toArray();
+        this.minLng = minLng;
+        this.minLat = minLat;
+        this.cellSize = cellSize;
+        this.cols = cols;
+        this.rows = rows;
+        int words = (int) (((long) cols * rows + 63) >>> 6);
+        this.insideBits = new long[words];
+        this.boundaryBits = new long[words];
+    }
+
+    /**
+     * Rasterize the polygons at the given cell size (in degrees).
+     *
+     * @param polygons closed vertex lists, as used by {@link PointInPolygonService}
+     */
+    public static RegionOccupancyGrid build(List<List<Position>> polygons, double cellSize,
+                                            PointInPolygonService pointInPolygonService) {
+        double minLng = Double.POSITIVE_INFINITY;
+        double minLat = Double.POSITIVE_INFINITY;
+        double maxLng = Double.NEGATIVE_INFINITY;
+        double maxLat = Double.NEGATIVE_INFINITY;
+        for (List<Position> polygon : polygons) {
+            for (Position v : polygon) {
+                minLng = Math.min(minLng, v.getLng());
+                minLat = Math.min(minLat, v.getLat());
+                maxLng = Math.max(maxLng, v.getLng());
+                maxLat = Math.max(maxLat, v.getLat());
+            }
+        }
+        if (polygons.isEmpty() || minLng > maxLng) {
+            return new RegionOccupancyGrid(polygons, pointInPolygonService, 0, 0, cellSize, 0, 0);
+        }
+
+        // Pad by one cell so the outermost edges never sit on the grid border
+        minLng -= cellSize;
+        minLat -= cellSize;
+        int cols = (int) Math.ceil((maxLng - minLng) / cellSize) + 2;
+        int rows = (int) Math.ceil((maxLat - minLat) / cellSize) + 2;
+
+        RegionOccupancyGrid grid = new RegionOccupancyGrid(
+                polygons, pointInPolygonService, minLng, minLat, cellSize, cols, rows);
+        grid.markBoundaryCells();
+        grid.classifyInteriorCells();
+        return grid;
+    }
+
+    /**
+     * @return true if (lng, lat) is inside (or on the edge of) any of the polygons
+     */
+    public boolean contains(double lng, double lat) {
+        int col = (int) Math.floor((lng - minLng) / cellSize);
+        int row = (int) Math.floor((lat - minLat) / cellSize);
+        if (col < 0 || row < 0 || col >= cols || row >= rows) {
+            // A ray along a vertex latitude still counts the edges ending there
+            return col < 0 && row >= 0 && row < rows && Arrays.binarySearch(vertexLats, lat) >= 0
+                    && containsExact(lng, lat);
+        }
+        int cell = row * cols + col;
+        if (!isSet(boundaryBits, cell)) {
+            return isSet(insideBits, cell);
+        }
+        return containsExact(lng, lat);
+    }
+
+    public int getCellCount() {
+        return cols * rows;
+    }
+
+    public int getBoundaryCellCount() {
+        int count = 0;
+        for (long word : boundaryBits) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    private boolean containsExact(double lng, double lat) {
+        for (PreparedPolygon polygon : prepared) {
+            if (polygon.contains(lng, lat)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void markBoundaryCells() {
+        for (List<Position> polygon : polygons) {
+            for (int i = 1; i < polygon.size(); i++) {
+                Position a = polygon.get(i - 1);
+                Position b = polygon.get(i);
+                double length = Math.hypot(b.getLng() - a.getLng(), b.getLat() - a.getLat());
+                double margin = EDGE_MARGIN;
+                if (length > 0) {
+                    margin += ON_EDGE_CROSS_TOLERANCE / length;
+                }
+                markEdge(a.getLng(), a.getLat(), b.getLng(), b.getLat(), margin);
+                // A ray along this latitude counts both edges at b, so the points west of
+                // it can answer unlike the rest of their cell
+                markEdge(minLng, b.getLat(), b.getLng(), b.getLat(), EDGE_MARGIN);
+            }
+        }
+    }
+
+    /**
+     * Mark every cell that comes within `margin` of the segment (x1, y1) - (x2, y2).
+     */
+    private void markEdge(double x1, double y1, double x2, double y2, double margin) {
+        int colFrom = clampCol((int) Math.floor((Math.min(x1, x2) - margin - minLng) / cellSize));
+        int colTo = clampCol((int) Math.floor((Math.max(x1, x2) + margin - minLng) / cellSize));
+        int rowFrom = clampRow((int) Math.floor((Math.min(y1, y2) - margin - minLat) / cellSize));
+        int rowTo = clampRow((int) Math.floor((Math.max(y1, y2) + margin - minLat) / cellSize));
+
+        for (int row = rowFrom; row <= rowTo; row++) {
+            double cellMinLat = minLat + row * cellSize - margin;
+            double cellMaxLat = minLat + (row + 1) * cellSize + margin;
+            for (int col = colFrom; col <= colTo; col++) {
+                double cellMinLng = minLng + col * cellSize - margin;
+                double cellMaxLng = minLng + (col + 1) * cellSize + margin;
+                if (GeometryUtils.segmentIntersectsBox(x1, y1, x2, y2,
+                        cellMinLng, cellMinLat, cellMaxLng, cellMaxLat)) {
+                    set(boundaryBits, row * cols + col);
+                }
+            }
+        }
+    }
+
+    private void classifyInteriorCells() {
+        for (int row = 0; row < rows; row++) {
+            double centreLat = minLat + (row + 0.5) * cellSize;
+            for (int col = 0; col < cols; col++) {
+                int cell = row * cols + col;
+                if (isSet(boundaryBits, cell)) {
+                    continue;
+                }
+                double centreLng = minLng + (col + 0.5) * cellSize;
+                if (containsExact(centreLng, centreLat)) {
+                    set(insideBits, cell);
+                }
+            }
+        }
+    }
+
+    private int clampCol(int col) {
+        return Math.max(0, Math.min(cols - 1, col));
+    }
+
+    private int clampRow(int row) {
+        return Math.max(0, Math.min(rows - 1, row));
+    }
+
+    private static boolean isSet(long[] bits, int index) {
+        return (bits[index >>> 6] & (1L << index)) != 0;
+    }
+
+    private static void set(long[] bits, int index) {
+        bits[index >>> 6] |= 1L << index;
+    }
+}
@@ -0,0 +1,80 @@
+package com.ilp.restservice.geometry;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * The edge loop of {@link PreparedPolygon#contains}, a full SIMD register of edges at a
+ * time. Only loaded when {@link PreparedPolygon#VECTORIZED} is set, as it links against
+ * the jdk.incubator.vector module.
+ *
+ * Each lane runs the scalar tests of its edge with branches turned into masks. Lanewise
+ * add, subtract and multiply round like their scalar forms (no fused multiply-add), so
+ * every lane computes exactly the values the scalar loop would.
+ */
+final class VectorizedPolygonKernel {
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    private VectorizedPolygonKernel() {
+    }
+
+    /**
+     * @return the number of edges tested here, a multiple of the lane count; the caller
+     *         tests the rest one by one
+     */
+    static int vectorizedEdges(int edgeCount) {
+        return SPECIES.loopBound(edgeCount);
+    }
+
+    /**
+     * Test the first {@link #vectorizedEdges} edges of the polygon.
+     *
+     * @return how many of them the ray from (lng, lat) crosses, or -1 if the point lies
+     *         on one of them
+     */
+    static int crossings(PreparedPolygon polygon, double lng, double lat) {
+        int bound = vectorizedEdges(polygon.edgeCount);
+        DoubleVector pointLng = DoubleVector.broadcast(SPECIES, lng);
+        DoubleVector pointLat = DoubleVector.broadcast(SPECIES, lat);
+
+        int crossings = 0;
+        for (int i = 0; i < bound; i += SPECIES.length()) {
+            DoubleVector loLat = DoubleVector.fromArray(SPECIES, polygon.loLat, i);
+            DoubleVector hiLat = DoubleVector.fromArray(SPECIES, polygon.hiLat, i);
+            DoubleVector minLng = DoubleVector.fromArray(SPECIES, polygon.minLng, i);
+            DoubleVector maxLng = DoubleVector.fromArray(SPECIES, polygon.maxLng, i);
+
+            // On the edge: small cross product, inside the edge's extent
+            DoubleVector x1 = DoubleVector.fromArray(SPECIES, polygon.x1, i);
+            DoubleVector y1 = DoubleVector.fromArray(SPECIES, polygon.y1, i);
+            DoubleVector dx = DoubleVector.fromArray(SPECIES, polygon.dx, i);
+            DoubleVector dy = DoubleVector.fromArray(SPECIES, polygon.dy, i);
+            DoubleVector cross = pointLat.sub(y1).mul(dx).sub(pointLng.sub(x1).mul(dy));
+            VectorMask<Double> onEdge = cross.abs().compare(VectorOperators.GT, PreparedPolygon.ON_EDGE_TOLERANCE)
+                    .not()
+                    .and(pointLng.compare(VectorOperators.GE, minLng))
+                    .and(pointLng.compare(VectorOperators.LE, maxLng))
+                    .and(pointLat.compare(VectorOperators.GE, loLat))
+                    .and(pointLat.compare(VectorOperators.LE, hiLat));
+            if (onEdge.anyTrue()) {
+                return -1;
+            }
+
+            // Ray crossing
+            VectorMask<Double> inRange = pointLat.compare(VectorOperators.LT, loLat)
+                    .or(pointLat.compare(VectorOperators.GT, hiLat))
+                    .not();
+            VectorMask<Double> notPast = pointLng.compare(VectorOperators.GT, maxLng).not();
+            DoubleVector loLng = DoubleVector.fromArray(SPECIES, polygon.loLng, i);
+            DoubleVector slope = DoubleVector.fromArray(SPECIES, polygon.slope, i);
+            DoubleVector intersectLng = loLng.add(pointLat.sub(loLat).mul(slope));
+            VectorMask<Double> before = pointLng.compare(VectorOperators.LT, minLng)
+                    .or(pointLng.compare(VectorOperators.LE, intersectLng));
+            crossings += inRange.and(notPast).and(before).trueCount();
+        }
+        return crossings;
+    }
+}
@@ -0,0 +1,215 @@
+package com.ilp.restservice.geometry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.ilp.restservice.model.Position;
+
+/**
+ * Coarse route planning on a visibility graph: the nodes are the corners of the no-fly
+ * zones and of the central area, pushed out from each corner by a fixed clearance, and
+ * two nodes are linked if the straight segment between them touches no zone edge.
+ *
+ * Corners are pushed out along the bisector of the corner, away from the polygon; a
+ * corner whose pushed-out point lands inside a no-fly zone (a concave corner, or one
+ * squeezed against another zone) is dropped, as no shortest route bends there. Central
+ * area corners are also pushed inwards, so routes inside it can bend too.
+ *
+ * The central area rule is kept in its simple form: a segment starting inside the central
+ * area must not cross its boundary. A segment from outside may enter it freely; the
+ * lattice search that follows the coarse route checks the exact rule.
+ *
+ * Node-to-node visibility is computed once, when the graph is built; only the links to
+ * the start and the goal are tested per query.
+ */
+public final class VisibilityGraph {
+
+    private final double[] lngs;
+    private final double[] lats;
+    private final boolean[] insideCentral;
+    private final boolean[][] visible;
+    private final PolygonObstacles noFlyObstacles;
+    private final RegionOccupancyGrid noFlyGrid;
+    private final PolygonObstacles centralBoundary;
+    private final RegionOccupancyGrid centralGrid;
+
+    private VisibilityGraph(double[] lngs, double[] lats, PolygonObstacles noFlyObstacles,
+                            RegionOccupancyGrid noFlyGrid, PolygonObstacles centralBoundary,
+                            RegionOccupancyGrid centralGrid) {
+        this.lngs = lngs;
+        this.lats = lats;
+        this.noFlyObstacles = noFlyObstacles;
+        this.noFlyGrid = noFlyGrid;
+        this.centralBoundary = centralBoundary;
+        this.centralGrid = centralGrid;
+        this.insideCentral = new boolean[lngs.length];
+        this.visible = new boolean[lngs.length][lngs.length];
+        for (int i = 0; i < lngs.length; i++) {
+            insideCentral[i] = centralGrid.contains(lngs[i], lats[i]);
+        }
+        for (int i = 0; i < lngs.length; i++) {
+            for (int j = 0; j < lngs.length; j++) {
+                visible[i][j] = i != j && canFly(lngs[i], lats[i], insideCentral[i], lngs[j], lats[j]);
+            }
+        }
+    }
+
+    /**
+     * @param zones     the no-fly zones, as closed vertex lists
+     * @param central   the central area as a closed vertex list, or null if none is defined
+     * @param clearance how far each corner is pushed out, in degrees
+     */
+    public static VisibilityGraph build(List<List<Position>> zones, List<Position> central,
+                                        PolygonObstacles noFlyObstacles, RegionOccupancyGrid noFlyGrid,
+                                        RegionOccupancyGrid centralGrid, double clearance) {
+        List<double[]> corners = new ArrayList<>();
+        for (List<Position> zone : zones) {
+            addCorners(zone, clearance, false, noFlyGrid, corners);
+        }
+        if (central != null) {
+            addCorners(central, clearance, true, noFlyGrid, corners);
+        }
+        double[] lngs = new double[corners.size()];
+        double[] lats = new double[corners.size()];
+        for (int i = 0; i < corners.size(); i++) {
+            lngs[i] = corners.get(i)[0];
+            lats[i] = corners.get(i)[1];
+        }
+        PolygonObstacles centralBoundary = PolygonObstacles.of(central == null ? List.of() : List.of(central));
+        return new VisibilityGraph(lngs, lats, noFlyObstacles, noFlyGrid, centralBoundary, centralGrid);
+    }
+
+    /**
+     * The shortest route from start to goal over the graph (Dijkstra; the graph is small).
+     *
+     * @return the route, start and goal included, or null if the goal cannot be seen from
+     *         anywhere the start can reach
+     */
+    public Route route(double startLng, double startLat, double goalLng, double goalLat) {
+        int n = lngs.length;
+        int start = n;
+        int goal = n + 1;
+        boolean startInside = centralGrid.contains(startLng, startLat);
+        if (canFly(startLng, startLat, startInside, goalLng, goalLat)) {
+            return new Route(new double[] {startLng, goalLng}, new double[] {startLat, goalLat});
+        }
+        // Links to the start and the goal; the rest comes from the visible table
+        boolean[] fromStart = new boolean[n];
+        boolean[] toGoal = new boolean[n];
+        for (int i = 0; i < n; i++) {
+            fromStart[i] = canFly(startLng, startLat, startInside, lngs[i], lats[i]);
+            toGoal[i] = canFly(lngs[i], lats[i], insideCentral[i], goalLng, goalLat);
+        }
+
+        double[] dist = new double[n + 2];
+        int[] previous = new int[n + 2];
+        boolean[] done = new boolean[n + 2];
+        Arrays.fill(dist, Double.POSITIVE_INFINITY);
+        Arrays.fill(previous, -1);
+        dist[start] = 0.0;
+        while (true) {
+            int u = -1;
+            for (int i = 0; i < n + 2; i++) {
+                if (!done[i] && dist[i] < Double.POSITIVE_INFINITY && (u == -1 || dist[i] < dist[u])) {
+                    u = i;
+                }
+            }
+            if (u == -1) {
+                return null;
+            }
+            if (u == goal) {
+                break;
+            }
+            done[u] = true;
+            double uLng = u == start ? startLng : lngs[u];
+            double uLat = u == start ? startLat : lats[u];
+            for (int v = 0; v < n; v++) {
+                boolean linked = u == start ? fromStart[v] : visible[u][v];
+                if (linked && !done[v]) {
+                    relax(dist, previous, u, v, dist[u] + Math.hypot(lngs[v] - uLng, lats[v] - uLat));
+                }
+            }
+            if (u != start && toGoal[u]) {
+                relax(dist, previous, u, goal, dist[u] + Math.hypot(goalLng - uLng, goalLat - uLat));
+            }
+        }
+
+        int count = 0;
+        for (int v = goal; v != -1; v = previous[v]) {
+            count++;
+        }
+        double[] routeLngs = new double[count];
+        double[] routeLats = new double[count];
+        for (int v = goal, i = count - 1; v != -1; v = previous[v], i--) {
+            routeLngs[i] = v == goal ? goalLng : v == start ? startLng : lngs[v];
+            routeLats[i] = v == goal ? goalLat : v == start ? startLat : lats[v];
+        }
+        return new Route(routeLngs, routeLats);
+    }
+
+    public int getNodeCount() {
+        return lngs.length;
+    }
+
+    private static void relax(double[] dist, int[] previous, int from, int to, double distance) {
+        if (distance < dist[to]) {
+            dist[to] = distance;
+            previous[to] = from;
+        }
+    }
+
+    private boolean canFly(double fromLng, double fromLat, boolean fromInsideCentral, double toLng, double toLat) {
+        if (noFlyObstacles.segmentCrossesAnyEdge(fromLng, fromLat, toLng, toLat)
+                || noFlyGrid.contains(toLng, toLat)) {
+            return false;
+        }
+        return !fromInsideCentral || !centralBoundary.segmentCrossesAnyEdge(fromLng, fromLat, toLng, toLat);
+    }
+
+    private static void addCorners(List<Position> polygon, double clearance, boolean bothSides,
+                                   RegionOccupancyGrid noFlyGrid, List<double[]> corners) {
+        // Closed list: the last vertex repeats the first
+        int count = polygon.size() - 1;
+        for (int i = 0; i < count; i++) {
+            Position v = polygon.get(i);
+            Position prev = polygon.get((i - 1 + count) % count);
+            Position next = polygon.get((i + 1) % count);
+            double ax = prev.getLng() - v.getLng();
+            double ay = prev.getLat() - v.getLat();
+            double bx = next.getLng() - v.getLng();
+            double by = next.getLat() - v.getLat();
+            double aLength = Math.hypot(ax, ay);
+            double bLength = Math.hypot(bx, by);
+            if (aLength == 0 || bLength == 0) {
+                continue;
+            }
+            // Away from both neighbours: minus the sum of the unit vectors towards them
+            double ox = -(ax / aLength + bx / bLength);
+            double oy = -(ay / aLength + by / bLength);
+            double oLength = Math.hypot(ox, oy);
+            if (oLength < 1e-9) {
+                // Straight through: any corner here is on a straight edge
+                continue;
+            }
+            ox = ox / oLength * clearance;
+            oy = oy / oLength * clearance;
+            addCorner(v.getLng() + ox, v.getLat() + oy, noFlyGrid, corners);
+            if (bothSides) {
+                addCorner(v.getLng() - ox, v.getLat() - oy, noFlyGrid, corners);
+            }
+        }
+    }
+
+    private static void addCorner(double lng, double lat, RegionOccupancyGrid noFlyGrid, List<double[]> corners) {
+        if (!noFlyGrid.contains(lng, lat)) {
+            corners.add(new double[] {lng, lat});
+        }
+    }
+
+    /**
+     * A coarse route as a polyline, start and goal included.
+     */
+    public record Route(double[] lngs, double[] lats) {
+    }
+}
@@ -0,0 +1,34 @@
+package com.ilp.restservice.model;
+
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+
+public class IsInRegionBatchRequest {
+
+    // Checked one by one by the endpoint: an invalid point only blanks its own entry
+    @NotNull
+    private List<Position> positions;
+
+    @NotNull
+    @Valid
+    private NamedRegion region;
+
+    // Getters and setters
+    public List<Position> getPositions() {
+        return positions;
+    }
+
+    public void setPositions(List<Position> positions) {
+        this.positions = positions;
+    }
+
+    public NamedRegion getRegion() {
+        return region;
+    }
+
+    public void setRegion(NamedRegion region) {
+        this.region = region;
+    }
+}
@@ -0,0 +1,322 @@
+package com.ilp.restservice.pathfinding;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Anytime A* over the drone lattice, after ARA* (Likhachev, Gordon and Thrun): a first
+ * path found fast under a high heuristic weight, then better and better paths under
+ * lower weights down to 1, until the improvement deadline or until the path is as short
+ * as the lattice allows.
+ *
+ * Each pass reuses the search tree of the one before. A node whose cost improves after
+ * it was expanded is set aside instead of expanded again in the same pass; the next pass
+ * starts from those nodes and the open set, re-keyed for its weight, so no pass starts
+ * over from the restaurant.
+ *
+ * Every pass ends with a bound on how far the path is from the shortest:
+ * min(weight, cost / (smallest g + h on the open set and the nodes set aside)), reported
+ * as {@link SearchStats#getSuboptimalityBound()}; 1 means the shortest path. The bound
+ * needs a heuristic that never overestimates, such as {@link Heuristic#lattice} or the
+ * landmark bound.
+ */
+public class AnytimeAStar {
+
+    public static final double DEFAULT_INITIAL_WEIGHT = 3.0;
+    public static final double DEFAULT_WEIGHT_STEP = 0.5;
+
+    // A node is new (seen but in no set of the current pass), open, closed, or closed and improved since
+    private static final byte SEEN = 0;
+    private static final byte OPEN = 1;
+    private static final byte CLOSED = 2;
+    private static final byte INCONSISTENT = 3;
+
+    // Slack for rounding in g + h before it is rounded up to whole steps
+    private static final double COST_EPSILON = 1e-9;
+
+    private static final ThreadLocal<Workspace> WORKSPACE = ThreadLocal.withInitial(Workspace::new);
+
+    private final double initialWeight;
+    private final double weightStep;
+    private final Duration improveFor;
+
+    public AnytimeAStar() {
+        this(DEFAULT_INITIAL_WEIGHT, DEFAULT_WEIGHT_STEP, Duration.ofMillis(100));
+    }
+
+    /**
+     * @param initialWeight factor on the heuristic for the first path, at least 1
+     * @param weightStep    how much lower each pass's weight is than the one before, above 0
+     * @param improveFor    time allowed for passes after the first, from the start of the search
+     */
+    public AnytimeAStar(double initialWeight, double weightStep, Duration improveFor) {
+        if (!(initialWeight >= 1.0)) {
+            throw new IllegalArgumentException("Initial weight must be at least 1: " + initialWeight);
+        }
+        if (!(weightStep > 0.0)) {
+            throw new IllegalArgumentException("Weight step must be above 0: " + weightStep);
+        }
+        this.initialWeight = initialWeight;
+        this.weightStep = weightStep;
+        this.improveFor = improveFor;
+    }
+
+    /**
+     * Anytime search from start to goal, improving the path for the configured time.
+     *
+     * @throws SearchAbortedException if a limit is reached before a first path is found
+     */
+    public PathResult search(double startLng, double startLat, double goalLng, double goalLat,
+                             FlightConstraints constraints, Heuristic heuristic, SearchLimits limits) {
+        return search(startLng, startLat, goalLng, goalLat, constraints, heuristic, limits,
+                SearchLimits.of(limits.getMaxExpansions(), improveFor));
+    }
+
+    /**
+     * Anytime search from start to goal. The limits bound the search for a first path;
+     * after that, reaching either the limits or the improvement limits (typically a shorter
+     * deadline) ends the search with the best path so far.
+     *
+     * @return the best path found, or an empty result if none exists
+     * @throws SearchAbortedException if a limit is reached before a first path is found
+     */
+    public PathResult search(double startLng, double startLat, double goalLng, double goalLat,
+                             FlightConstraints constraints, Heuristic heuristic, SearchLimits limits,
+                             SearchLimits improvementLimits) {
+        Workspace ws = WORKSPACE.get();
+        ws.reset();
+        SearchStats stats = new SearchStats();
+        Run run = new Run(ws, stats, startLng, startLat, goalLng, goalLat, constraints, heuristic);
+
+        double weight = initialWeight;
+        run.reopen(weight);
+        run.improve(limits, SearchLimits.NONE);
+        if (run.bestGoal < 0) {
+            // The first pass only ends without a path once every reachable node is closed
+            stats.setVisitedSize(ws.visited.size());
+            stats.setSuboptimalityBound(1.0);
+            return PathResult.notFound(stats);
+        }
+        double bound = run.bound();
+        while (bound > 1.0) {
+            weight = Math.max(1.0, weight - weightStep);
+            run.reopen(weight);
+            try {
+                run.improve(limits, improvementLimits);
+            } catch (SearchAbortedException e) {
+                // Out of time: the path only got shorter, the last bound still holds
+                break;
+            }
+            bound = run.bound();
+        }
+        stats.setVisitedSize(ws.visited.size());
+        stats.setSuboptimalityBound(bound);
+        return reconstructPath(ws.nodes, run.bestGoal, stats);
+    }
+
+    private static PathResult reconstructPath(LatticeAStar.NodeStore nodes, int endNode, SearchStats stats) {
+        int length = 0;
+        for (int n = endNode; n != -1; n = nodes.parent[n]) {
+            length++;
+        }
+        double[] lngs = new double[length];
+        double[] lats = new double[length];
+        int i = length;
+        for (int n = endNode; n != -1; n = nodes.parent[n]) {
+            i--;
+            lngs[i] = nodes.lng[n];
+            lats[i] = nodes.lat[n];
+        }
+        return new PathResult(lngs, lats, stats);
+    }
+
+    /**
+     * The state of one anytime search across its passes.
+     */
+    private static final class Run {
+
+        private final Workspace ws;
+        private final SearchStats stats;
+        private final double startLng;
+        private final double startLat;
+        private final double goalLng;
+        private final double goalLat;
+        private final FlightConstraints constraints;
+        private final Heuristic heuristic;
+        private double weight;
+
+        // The node within TOLERANCE of the goal with the lowest g, and that g
+        int bestGoal = -1;
+        double bestGoalG = Double.POSITIVE_INFINITY;
+
+        Run(Workspace ws, SearchStats stats, double startLng, double startLat, double goalLng, double goalLat,
+             FlightConstraints constraints, Heuristic heuristic) {
+            this.ws = ws;
+            this.stats = stats;
+            this.startLng = startLng;
+            this.startLat = startLat;
+            this.goalLng = goalLng;
+            this.goalLat = goalLat;
+            this.constraints = constraints;
+            this.heuristic = heuristic;
+
+            boolean startInCentral = constraints.isInsideCentral(startLng, startLat);
+            int start = addNode(startLng, startLat, 0.0, -1, startInCentral);
+            ws.visited.put(DroneLattice.key(startLng, startLat, startLng, startLat, startInCentral), start);
+            ws.state[start] = OPEN;
+            if (DroneLattice.distance(startLng, startLat, goalLng, goalLat) < DroneLattice.TOLERANCE) {
+                bestGoal = start;
+                bestGoalG = 0.0;
+            }
+        }
+
+        /**
+         * Expand nodes under the pass's weight until none on the open set can lead to a
+         * path shorter than the best one found, as ARA*'s ImprovePath.
+         */
+        void improve(SearchLimits limits, SearchLimits moreLimits) {
+            LatticeAStar.NodeStore nodes = ws.nodes;
+            NodeHeap openSet = ws.openSet;
+            while (!openSet.isEmpty() && canImprove(openSet.peekKey())) {
+                int current = openSet.poll();
+                if (ws.state[current] != OPEN) {
+                    // An older entry for a node since reached more cheaply
+                    continue;
+                }
+                limits.check(stats.getExpansions());
+                moreLimits.check(stats.getExpansions());
+                stats.recordExpansion(openSet.size() + 1);
+                ws.state[current] = CLOSED;
+
+                double lng = nodes.lng[current];
+                double lat = nodes.lat[current];
+                boolean inCentral = nodes.insideCentral[current];
+                double nextG = nodes.g[current] + 1.0;
+                for (int d = 0; d < DroneLattice.DIRECTION_COUNT; d++) {
+                    double nextLng = lng + DroneLattice.DX[d];
+                    double nextLat = lat + DroneLattice.DY[d];
+                    // Same central area rule as the forward search
+                    boolean nextInsideGeometrically = constraints.isInsideCentral(nextLng, nextLat);
+                    if (inCentral && !nextInsideGeometrically) {
+                        continue;
+                    }
+                    boolean nextInCentral = inCentral || nextInsideGeometrically;
+
+                    long nextKey = DroneLattice.key(startLng, startLat, nextLng, nextLat, nextInCentral);
+                    int next = ws.visited.get(nextKey);
+                    if (next == LongIntHashMap.MISSING) {
+                        if (constraints.crossesNoFlyZone(lng, lat, nextLng, nextLat)) {
+                            continue;
+                        }
+                        next = addNode(nextLng, nextLat, nextG, current, nextInCentral);
+                        ws.visited.put(nextKey, next);
+                    } else if (nextG < nodes.g[next]
+                            && !constraints.crossesNoFlyZone(lng, lat, nodes.lng[next], nodes.lat[next])) {
+                        nodes.g[next] = nextG;
+                        nodes.parent[next] = current;
+                    } else {
+                        continue;
+                    }
+
+                    if (nextG < bestGoalG
+                            && DroneLattice.distance(nodes.lng[next], nodes.lat[next], goalLng, goalLat)
+                            < DroneLattice.TOLERANCE) {
+                        bestGoal = next;
+                        bestGoalG = nextG;
+                    }
+                    byte state = ws.state[next];
+                    if (state == CLOSED) {
+                        ws.state[next] = INCONSISTENT;
+                    } else if (state != INCONSISTENT) {
+                        ws.state[next] = OPEN;
+                        openSet.add(next, f(next));
+                    }
+                }
+            }
+        }
+
+        /**
+         * Could a node with this key lead to a path that the pass must find, i.e. is the
+         * best path not yet within the pass's weight of the shortest? A node's key is at
+         * most weight * (length of the shortest path), and every path is a whole number of
+         * steps, so the shortest path is at least ceil(key / weight) steps long.
+         */
+        private boolean canImprove(double key) {
+            return bestGoalG > weight * Math.ceil(key / weight - COST_EPSILON);
+        }
+
+        /**
+         * Start a pass under the given weight: the nodes improved since they were expanded
+         * join the open set, every key is recomputed and no node is closed any more.
+         */
+        void reopen(double passWeight) {
+            this.weight = passWeight;
+            NodeHeap openSet = ws.openSet;
+            openSet.clear();
+            for (int n = 0; n < ws.nodes.size; n++) {
+                byte state = ws.state[n];
+                if (state == OPEN || state == INCONSISTENT) {
+                    ws.state[n] = OPEN;
+                    openSet.add(n, f(n));
+                } else {
+                    ws.state[n] = SEEN;
+                }
+            }
+        }
+
+        /**
+         * @return how many times longer than the shortest path the best path can be, at
+         *         most the pass's weight and at least 1
+         */
+        double bound() {
+            double lowest = Double.POSITIVE_INFINITY;
+            for (int n = 0; n < ws.nodes.size; n++) {
+                byte state = ws.state[n];
+                if (state == OPEN || state == INCONSISTENT) {
+                    lowest = Math.min(lowest, ws.nodes.g[n] + ws.h[n]);
+                }
+            }
+            // Paths are whole numbers of steps long
+            double shortest = Math.ceil(lowest - COST_EPSILON);
+            if (bestGoalG <= shortest) {
+                // Nothing left that could lead to a shorter path
+                return 1.0;
+            }
+            return Math.max(1.0, Math.min(weight, bestGoalG / shortest));
+        }
+
+        private double f(int node) {
+            return ws.nodes.g[node] + ws.h[node] * weight;
+        }
+
+        private int addNode(double nodeLng, double nodeLat, double nodeG, int nodeParent, boolean nodeInsideCentral) {
+            int id = ws.nodes.add(nodeLng, nodeLat, nodeG, nodeParent, nodeInsideCentral);
+            ws.ensureCapacity(id + 1);
+            ws.h[id] = heuristic.steps(nodeLng, nodeLat);
+            ws.state[id] = SEEN;
+            return id;
+        }
+    }
+
+    private static final class Workspace {
+        final LatticeAStar.NodeStore nodes = new LatticeAStar.NodeStore(4096);
+        final NodeHeap openSet = new NodeHeap(1024);
+        final LongIntHashMap visited = new LongIntHashMap(4096);
+        double[] h = new double[4096];
+        byte[] state = new byte[4096];
+
+        void reset() {
+            nodes.size = 0;
+            openSet.clear();
+            visited.clear();
+        }
+
+        void ensureCapacity(int size) {
+            if (size > h.length) {
+                int newCapacity = Math.max(size, h.length * 2);
+                h = Arrays.copyOf(h, newCapacity);
+                state = Arrays.copyOf(state, newCapacity);
+            }
+        }
+    }
+}
@@ -0,0 +1,310 @@
+package com.ilp.restservice.pathfinding;
+
+import java.util.Arrays;
+
+/**
+ * A* over the drone lattice run from both ends at once: forwards from the start and
+ * backwards from the goal, always expanding the side with the smaller open list, until a
+ * node of one side comes within {@link DroneLattice#TOLERANCE} of a node of the other.
+ *
+ * The two halves are joined by following the forward path to its meeting node and then
+ * replaying the backward half's moves from there, so every move is an exact lattice step
+ * and the path ends within tolerance of the goal. The replayed tail sits on the forward
+ * side's lattice rather than the backward one's, so it is checked move by move against
+ * the constraints before it is accepted; a rejected meeting just lets the search go on.
+ *
+ * Central area rule: the forward side carries "inside the central area", the backward
+ * side carries "some point between here and the goal is outside the central area", as
+ * in {@link ReverseRouteTree}. A backward node never steps from outside to inside, and
+ * two halves only join if the forward one is outside or the backward one never leaves.
+ */
+public class BidirectionalAStar {
+
+    private static final long[] NO_NODES = new long[0];
+
+    private static final ThreadLocal<Workspace> WORKSPACE = ThreadLocal.withInitial(Workspace::new);
+
+    private final double heuristicWeight;
+
+    public BidirectionalAStar() {
+        this(LatticeAStar.DEFAULT_HEURISTIC_WEIGHT);
+    }
+
+    /**
+     * @param heuristicWeight factor on the heuristic of both sides, at least 1; see
+     *                        {@link LatticeAStar#DEFAULT_HEURISTIC_WEIGHT}
+     */
+    public BidirectionalAStar(double heuristicWeight) {
+        if (!(heuristicWeight >= 1.0)) {
+            throw new IllegalArgumentException("Heuristic weight must be at least 1: " + heuristicWeight);
+        }
+        this.heuristicWeight = heuristicWeight;
+    }
+
+    /**
+     * Bidirectional search from start to goal.
+     *
+     * @return the path from start to a point within tolerance of the goal, or an empty
+     *         result if the searches did not meet; the stats count the expansions of both
+     *         sides
+     */
+    public PathResult search(double startLng, double startLat, double goalLng, double goalLat,
+                             FlightConstraints constraints) {
+        return search(startLng, startLat, goalLng, goalLat, constraints,
+                Heuristic.straightLine(goalLng, goalLat), Heuristic.straightLine(startLng, startLat));
+    }
+
+    /**
+     * As {@link #search(double, double, double, double, FlightConstraints)}, guided by the
+     * given heuristics instead of the straight lines: one towards the goal for the forward
+     * side, one towards the start for the backward side.
+     */
+    public PathResult search(double startLng, double startLat, double goalLng, double goalLat,
+                             FlightConstraints constraints, Heuristic towardsGoal, Heuristic towardsStart) {
+        return search(startLng, startLat, goalLng, goalLat, constraints, towardsGoal, towardsStart,
+                SearchLimits.NONE);
+    }
+
+    /**
+     * As {@link #search(double, double, double, double, FlightConstraints, Heuristic,
+     * Heuristic)}, within the given limits; both sides' expansions count against the budget.
+     *
+     * @throws SearchAbortedException if a limit is reached before the searches meet
+     */
+    public PathResult search(double startLng, double startLat, double goalLng, double goalLat,
+                             FlightConstraints constraints, Heuristic towardsGoal, Heuristic towardsStart,
+                             SearchLimits limits) {
+        Workspace ws = WORKSPACE.get();
+        Side forward = ws.forward;
+        Side backward = ws.backward;
+        forward.reset(startLng, startLat, towardsGoal, heuristicWeight,
+                constraints.isInsideCentral(startLng, startLat));
+        backward.reset(goalLng, goalLat, towardsStart, heuristicWeight,
+                !constraints.isInsideCentral(goalLng, goalLat));
+        SearchStats stats = new SearchStats();
+
+        while (!forward.openSet.isEmpty() && !backward.openSet.isEmpty()) {
+            boolean forwards = forward.openSet.size() <= backward.openSet.size();
+            Side side = forwards ? forward : backward;
+            Side other = forwards ? backward : forward;
+            limits.check(stats.getExpansions());
+            stats.recordExpansion(forward.openSet.size() + backward.openSet.size());
+            int current = side.openSet.poll();
+
+            long[] meetings = other.nodesNear(side.nodes.lng[current], side.nodes.lat[current]);
+            for (long meeting : meetings) {
+                int f = forwards ? current : (int) meeting;
+                int b = forwards ? (int) meeting : current;
+                PathResult path = join(forward, f, backward, b, goalLng, goalLat, constraints, stats);
+                if (path != null) {
+                    stats.setVisitedSize(forward.visited.size() + backward.visited.size());
+                    return path;
+                }
+            }
+
+            if (forwards) {
+                expandForward(forward, current, constraints);
+            } else {
+                expandBackward(backward, current, constraints);
+            }
+        }
+
+        stats.setVisitedSize(forward.visited.size() + backward.visited.size());
+        return PathResult.notFound(stats);
+    }
+
+    private static void expandForward(Side side, int current, FlightConstraints constraints) {
+        double lng = side.nodes.lng[current];
+        double lat = side.nodes.lat[current];
+        boolean inCentral = side.nodes.insideCentral[current];
+        double nextG = side.nodes.g[current] + 1.0;
+        for (int d = 0; d < DroneLattice.DIRECTION_COUNT; d++) {
+            double nextLng = lng + DroneLattice.DX[d];
+            double nextLat = lat + DroneLattice.DY[d];
+            // If we were inside central area, we can't leave
+            boolean nextInsideGeometrically = constraints.isInsideCentral(nextLng, nextLat);
+            if (inCentral && !nextInsideGeometrically) {
+                continue;
+            }
+            boolean nextInCentral = inCentral || nextInsideGeometrically;
+            if (side.isVisited(nextLng, nextLat, nextInCentral)) {
+                continue;
+            }
+            if (constraints.crossesNoFlyZone(lng, lat, nextLng, nextLat)) {
+                continue;
+            }
+            side.add(nextLng, nextLat, nextG, current, nextInCentral, d);
+        }
+    }
+
+    private static void expandBackward(Side side, int current, FlightConstraints constraints) {
+        double lng = side.nodes.lng[current];
+        double lat = side.nodes.lat[current];
+        boolean leftCentral = side.nodes.insideCentral[current];
+        double nextG = side.nodes.g[current] + 1.0;
+        for (int d = 0; d < DroneLattice.DIRECTION_COUNT; d++) {
+            // Stepping backwards: the forward move is prev -> current
+            double prevLng = lng - DroneLattice.DX[d];
+            double prevLat = lat - DroneLattice.DY[d];
+            boolean prevInside = constraints.isInsideCentral(prevLng, prevLat);
+            if (leftCentral && prevInside) {
+                continue;
+            }
+            boolean prevLeftCentral = leftCentral || !prevInside;
+            if (side.isVisited(prevLng, prevLat, prevLeftCentral)) {
+                continue;
+            }
+            if (constraints.crossesNoFlyZone(prevLng, prevLat, lng, lat)) {
+                continue;
+            }
+            side.add(prevLng, prevLat, nextG, current, prevLeftCentral, d);
+        }
+    }
+
+    /**
+     * The forward path to f, followed by the backward path's moves from b to the goal
+     * replayed from f.
+     *
+     * @return the joined path, or null if the replayed tail breaks a constraint or misses
+     *         the goal
+     */
+    private static PathResult join(Side forward, int f, Side backward, int b, double goalLng, double goalLat,
+                                   FlightConstraints constraints, SearchStats stats) {
+        if (forward.nodes.insideCentral[f] && backward.nodes.insideCentral[b]) {
+            // Already inside, and the backward half leaves the central area
+            return null;
+        }
+        int head = (int) forward.nodes.g[f] + 1;
+        int tail = (int) backward.nodes.g[b];
+        double[] lngs = new double[head + tail];
+        double[] lats = new double[head + tail];
+        int i = head - 1;
+        for (int n = f; n != -1; n = forward.nodes.parent[n], i--) {
+            lngs[i] = forward.nodes.lng[n];
+            lats[i] = forward.nodes.lat[n];
+        }
+
+        boolean inCentral = forward.nodes.insideCentral[f];
+        double lng = lngs[head - 1];
+        double lat = lats[head - 1];
+        i = head;
+        for (int n = b; backward.nodes.parent[n] != -1; n = backward.nodes.parent[n], i++) {
+            int d = backward.direction[n];
+            double nextLng = lng + DroneLattice.DX[d];
+            double nextLat = lat + DroneLattice.DY[d];
+            boolean nextInside = constraints.isInsideCentral(nextLng, nextLat);
+            if ((inCentral && !nextInside) || constraints.crossesNoFlyZone(lng, lat, nextLng, nextLat)) {
+                return null;
+            }
+            inCentral = inCentral || nextInside;
+            lngs[i] = nextLng;
+            lats[i] = nextLat;
+            lng = nextLng;
+            lat = nextLat;
+        }
+        if (DroneLattice.distance(lng, lat, goalLng, goalLat) >= DroneLattice.TOLERANCE) {
+            return null;
+        }
+        return new PathResult(lngs, lats, stats);
+    }
+
+    // ----------------------------- Search state -----------------------------
+
+    /**
+     * One direction of the search. For the backward side the node flag means "left the
+     * central area" and direction[n] is the forward move from n to its parent.
+     */
+    private static final class Side {
+        final LatticeAStar.NodeStore nodes = new LatticeAStar.NodeStore(4096);
+        final NodeHeap openSet = new NodeHeap(1024);
+        final LongIntHashMap visited = new LongIntHashMap(4096);
+        byte[] direction = new byte[4096];
+
+        // Generated nodes bucketed by TOLERANCE-sized cell, as linked lists threaded through cellNext
+        final LongIntHashMap cellHead = new LongIntHashMap(1024);
+        int[] cellNext = new int[4096];
+
+        double originLng;
+        double originLat;
+        Heuristic heuristic;
+        double heuristicWeight;
+
+        void reset(double rootLng, double rootLat, Heuristic heuristic, double heuristicWeight, boolean rootFlag) {
+            nodes.size = 0;
+            openSet.clear();
+            visited.clear();
+            cellHead.clear();
+            originLng = rootLng;
+            originLat = rootLat;
+            this.heuristic = heuristic;
+            this.heuristicWeight = heuristicWeight;
+            add(rootLng, rootLat, 0.0, -1, rootFlag, 0);
+        }
+
+        boolean isVisited(double lng, double lat, boolean flag) {
+            return visited.get(DroneLattice.key(originLng, originLat, lng, lat, flag)) != LongIntHashMap.MISSING;
+        }
+
+        void add(double lng, double lat, double g, int parent, boolean flag, int dir) {
+            int node = nodes.add(lng, lat, g, parent, flag);
+            if (node == direction.length) {
+                direction = Arrays.copyOf(direction, node * 2);
+            }
+            if (node == cellNext.length) {
+                cellNext = Arrays.copyOf(cellNext, node * 2);
+            }
+            direction[node] = (byte) dir;
+            visited.put(DroneLattice.key(originLng, originLat, lng, lat, flag), node);
+            long cell = cellKey(cellCoordinate(lng), cellCoordinate(lat));
+            cellNext[node] = cellHead.get(cell);
+            cellHead.put(cell, node);
+            openSet.add(node, g + heuristic.steps(lng, lat) * heuristicWeight);
+        }
+
+        /**
+         * This side's nodes within tolerance of (lng, lat), as (g << 32 | node) sorted by
+         * g, so the shortest joins are tried first.
+         */
+        long[] nodesNear(double lng, double lat) {
+            long cx = cellCoordinate(lng);
+            long cy = cellCoordinate(lat);
+            long[] found = null;
+            int count = 0;
+            for (long x = cx - 1; x <= cx + 1; x++) {
+                for (long y = cy - 1; y <= cy + 1; y++) {
+                    for (int n = cellHead.get(cellKey(x, y)); n != LongIntHashMap.MISSING; n = cellNext[n]) {
+                        if (DroneLattice.distance(lng, lat, nodes.lng[n], nodes.lat[n]) < DroneLattice.TOLERANCE) {
+                            if (found == null) {
+                                found = new long[8];
+                            } else if (count == found.length) {
+                                found = Arrays.copyOf(found, count * 2);
+                            }
+                            // g counts whole steps, so it fits the upper half exactly
+                            found[count++] = ((long) nodes.g[n] << 32) | n;
+                        }
+                    }
+                }
+            }
+            if (found == null) {
+                return NO_NODES;
+            }
+            long[] result = Arrays.copyOf(found, count);
+            Arrays.sort(result);
+            return result;
+        }
+
+        // Absolute cells, so both sides bucket the same point into the same cell
+        private static long cellCoordinate(double value) {
+            return (long) Math.floor(value / DroneLattice.TOLERANCE);
+        }
+
+        private static long cellKey(long x, long y) {
+            return (x << 32) | (y & 0xFFFFFFFFL);
+        }
+    }
+
+    private static final class Workspace {
+        final Side forward = new Side();
+        final Side backward = new Side();
+    }
+}
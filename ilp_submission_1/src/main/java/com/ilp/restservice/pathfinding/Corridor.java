@@ -0,0 +1,103 @@
+package com.ilp.restservice.pathfinding;
+
+/**
+ * Flight constraints restricted to a band around a coarse route: on top of the wrapped
+ * constraints, every move must end within the band's half width of the route polyline.
+ * A lattice search run against a corridor explores a thin band instead of the open
+ * plane, whatever the length of the route.
+ */
+public final class Corridor implements FlightConstraints {
+
+    private final FlightConstraints constraints;
+    private final double[] lngs;
+    private final double[] lats;
+    private final double halfWidth;
+    private final double minLng;
+    private final double minLat;
+    private final double maxLng;
+    private final double maxLat;
+
+    /**
+     * @param lngs      longitudes of the route polyline, at least one point
+     * @param lats      latitudes of the route polyline
+     * @param halfWidth how far a move may end from the polyline, in degrees
+     */
+    public Corridor(FlightConstraints constraints, double[] lngs, double[] lats, double halfWidth) {
+        this.constraints = constraints;
+        this.lngs = lngs;
+        this.lats = lats;
+        this.halfWidth = halfWidth;
+        double loLng = Double.POSITIVE_INFINITY;
+        double loLat = Double.POSITIVE_INFINITY;
+        double hiLng = Double.NEGATIVE_INFINITY;
+        double hiLat = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < lngs.length; i++) {
+            loLng = Math.min(loLng, lngs[i]);
+            loLat = Math.min(loLat, lats[i]);
+            hiLng = Math.max(hiLng, lngs[i]);
+            hiLat = Math.max(hiLat, lats[i]);
+        }
+        this.minLng = loLng - halfWidth;
+        this.minLat = loLat - halfWidth;
+        this.maxLng = hiLng + halfWidth;
+        this.maxLat = hiLat + halfWidth;
+    }
+
+    /**
+     * @return true if (lng, lat) is within the half width of the route polyline
+     */
+    public boolean contains(double lng, double lat) {
+        if (lng < minLng || lng > maxLng || lat < minLat || lat > maxLat) {
+            return false;
+        }
+        return nearRoute(lng, lat, halfWidth);
+    }
+
+    @Override
+    public boolean isInsideCentral(double lng, double lat) {
+        return constraints.isInsideCentral(lng, lat);
+    }
+
+    @Override
+    public boolean crossesNoFlyZone(double fromLng, double fromLat, double toLng, double toLat) {
+        return !contains(toLng, toLat) || constraints.crossesNoFlyZone(fromLng, fromLat, toLng, toLat);
+    }
+
+    /**
+     * Clear for the wrapped constraints, and a whole step away from the band's edge.
+     */
+    @Override
+    public boolean isClear(double lng, double lat) {
+        if (!constraints.isClear(lng, lat)) {
+            return false;
+        }
+        double inner = halfWidth - DroneLattice.STEP;
+        return inner > 0 && nearRoute(lng, lat, inner);
+    }
+
+    private boolean nearRoute(double lng, double lat, double distance) {
+        double limit = distance * distance;
+        // A single point counts as a zero-length segment
+        for (int i = Math.min(1, lngs.length - 1); i < lngs.length; i++) {
+            int from = Math.max(0, i - 1);
+            if (squaredDistance(lng, lat, lngs[from], lats[from], lngs[i], lats[i]) <= limit) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Squared distance from (x, y) to the segment (x1, y1) - (x2, y2).
+     */
+    private static double squaredDistance(double x, double y, double x1, double y1, double x2, double y2) {
+        double dx = x2 - x1;
+        double dy = y2 - y1;
+        double lengthSquared = dx * dx + dy * dy;
+        double t = lengthSquared == 0 ? 0 : ((x - x1) * dx + (y - y1) * dy) / lengthSquared;
+        t = Math.max(0, Math.min(1, t));
+        double px = x1 + t * dx - x;
+        double py = y1 + t * dy - y;
+        return px * px + py * py;
+    }
+}
@@ -0,0 +1,121 @@
+package com.ilp.restservice.pathfinding;
+
+/**
+ * The drone movement model: fixed-length steps in one of 16 compass directions.
+ *
+ * Positions reached by the search are snapped to an integer (i, j) offset from the
+ * search origin, measured in {@link #QUANTUM} units, and packed into a single long
+ * together with the central-area flag. Two floating-point paths that arrive at the
+ * same lattice point therefore produce the same key, whatever order the steps
+ * were taken in.
+ */
+public final class DroneLattice {
+
+    public static final double STEP = 0.00015;
+    public static final double TOLERANCE = 0.00015;
+    // The most lattice steps a displacement shorter than TOLERANCE can take, see latticeSteps
+    static final double TOLERANCE_STEPS = TOLERANCE / STEP / Math.cos(Math.PI / 16);
+    // Room for rounding in a count of steps before it is rounded up to a whole number
+    static final double ROUNDING_SLACK = 1e-9;
+
+    // 16 directions: (dx, dy) of length STEP
+    private static final double INV_SQRT2 = 1.0 / Math.sqrt(2.0);
+    private static final double COS_22_5 = Math.cos(Math.PI / 8);
+    private static final double SIN_22_5 = Math.sin(Math.PI / 8);
+    private static final double TAN_22_5 = Math.tan(Math.PI / 8);
+    private static final double TAN_11_25 = Math.tan(Math.PI / 16);
+    private static final double[][] DIRECTIONS = {
+        {0, STEP},                              // N (90°)
+        {STEP * Math.cos(Math.PI / 8), STEP * Math.sin(Math.PI / 8)},   // NNE (67.5°)
+        {STEP * INV_SQRT2, STEP * INV_SQRT2},   // NE (45°)
+        {STEP * Math.cos(3 * Math.PI / 8), STEP * Math.sin(3 * Math.PI / 8)}, // ENE (22.5°)
+        {STEP, 0},                              // E (0°)
+        {STEP * Math.cos(5 * Math.PI / 8), -STEP * Math.sin(5 * Math.PI / 8)}, // ESE (-22.5°)
+        {STEP * INV_SQRT2, -STEP * INV_SQRT2},  // SE (-45°)
+        {STEP * Math.cos(7 * Math.PI / 8), -STEP * Math.sin(7 * Math.PI / 8)}, // SSE (-67.5°)
+        {0, -STEP},                             // S (-90°)
+        {-STEP * Math.cos(7 * Math.PI / 8), -STEP * Math.sin(7 * Math.PI / 8)}, // SSW (-112.5°)
+        {-STEP * INV_SQRT2, -STEP * INV_SQRT2}, // SW (-135°)
+        {-STEP * Math.cos(5 * Math.PI / 8), -STEP * Math.sin(5 * Math.PI / 8)}, // WSW (-157.5°)
+        {-STEP, 0},                             // W (180°)
+        {-STEP * Math.cos(3 * Math.PI / 8), STEP * Math.sin(3 * Math.PI / 8)},  // WNW (157.5°)
+        {-STEP * INV_SQRT2, STEP * INV_SQRT2},  // NW (135°)
+        {-STEP * Math.cos(Math.PI / 8), STEP * Math.sin(Math.PI / 8)}           // NNW (112.5°)
+    };
+
+    public static final int DIRECTION_COUNT = DIRECTIONS.length;
+
+    // Flattened copies of the table above, so the hot loop reads two primitive arrays
+    static final double[] DX = new double[DIRECTION_COUNT];
+    static final double[] DY = new double[DIRECTION_COUNT];
+
+    static {
+        for (int d = 0; d < DIRECTION_COUNT; d++) {
+            DX[d] = DIRECTIONS[d][0];
+            DY[d] = DIRECTIONS[d][1];
+        }
+    }
+
+    /**
+     * Size of one lattice cell in degrees. Far below any distance the search cares
+     * about, far above the drift accumulated by summing a few thousand steps.
+     */
+    public static final double QUANTUM = STEP / 100_000;
+
+    // i and j get 31 bits each, the lowest bit carries the central-area flag
+    private static final long COORD_LIMIT = 1L << 30;
+
+    private DroneLattice() {
+    }
+
+    public static double dx(int direction) {
+        return DX[direction];
+    }
+
+    public static double dy(int direction) {
+        return DY[direction];
+    }
+
+    /**
+     * Pack the lattice point nearest to (lng, lat), relative to the search origin,
+     * into a long key.
+     *
+     * @throws IllegalArgumentException if the point lies too far from the origin to encode
+     */
+    public static long key(double originLng, double originLat, double lng, double lat, boolean insideCentral) {
+        long i = Math.round((lng - originLng) / QUANTUM);
+        long j = Math.round((lat - originLat) / QUANTUM);
+        if (i <= -COORD_LIMIT || i >= COORD_LIMIT || j <= -COORD_LIMIT || j >= COORD_LIMIT) {
+            throw new IllegalArgumentException("Position is outside the searchable lattice: " + lng + ", " + lat);
+        }
+        return (i << 33) | ((j & 0xFFFFFFFFL) << 1) | (insideCentral ? 1L : 0L);
+    }
+
+    /**
+     * The fewest steps that cover the displacement (dx, dy) in degrees, ignoring every
+     * zone and the goal tolerance. A bearing between two of the 16 directions is covered
+     * by a mix of both, so this is the straight line stretched by up to 1 / cos(11.25
+     * degrees), about 2%, and never more than the steps any path actually takes.
+     */
+    public static double latticeSteps(double dx, double dy) {
+        double x = Math.max(Math.abs(dx), Math.abs(dy));
+        double y = Math.min(Math.abs(dx), Math.abs(dy));
+        if (y <= x * TAN_22_5) {
+            // Between 0 and 22.5 degrees: along the axis, plus some 22.5-degree steps
+            return (x + y * TAN_11_25) / STEP;
+        }
+        // Between 22.5 and 45 degrees: some 22.5-degree steps plus some diagonal ones
+        double a = (x - y) / (COS_22_5 - SIN_22_5);
+        double b = (y - a * SIN_22_5) / INV_SQRT2;
+        return (a + b) / STEP;
+    }
+
+    /**
+     * Euclidean distance in degrees (rough approximation).
+     */
+    public static double distance(double lng1, double lat1, double lng2, double lat2) {
+        double dx = lng1 - lng2;
+        double dy = lat1 - lat2;
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+}
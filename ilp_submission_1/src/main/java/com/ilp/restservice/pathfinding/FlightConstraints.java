@@ -0,0 +1,28 @@
+package com.ilp.restservice.pathfinding;
+
+/**
+ * The airspace rules a search has to respect, expressed on primitive coordinates so
+ * the search loop never needs to build a Position.
+ */
+public interface FlightConstraints {
+
+    /**
+     * @return true if (lng, lat) lies inside the central area
+     */
+    boolean isInsideCentral(double lng, double lat);
+
+    /**
+     * @return true if the move from (fromLng, fromLat) to (toLng, toLat) enters a no-fly zone
+     */
+    boolean crossesNoFlyZone(double fromLng, double fromLat, double toLng, double toLat);
+
+    /**
+     * A point is clear if every single step from it, in any direction, is allowed and
+     * keeps its central-area state, so searches may take such steps without asking.
+     *
+     * @return true only if (lng, lat) is known to be clear; false is always safe
+     */
+    default boolean isClear(double lng, double lat) {
+        return false;
+    }
+}
@@ -0,0 +1,34 @@
+package com.ilp.restservice.pathfinding;
+
+/**
+ * An estimate of the number of drone steps left from a point to the goal a search is
+ * heading for. Made per search, so a heuristic can look the goal up once up front.
+ */
+@FunctionalInterface
+public interface Heuristic {
+
+    /**
+     * @return the estimated number of steps from (lng, lat) to the goal
+     */
+    double steps(double lng, double lat);
+
+    /**
+     * The straight-line distance to the goal in steps, ignoring every zone. It does not
+     * allow for the goal tolerance, so it can overestimate by up to a step: the estimate of
+     * the original search, kept as it was so the default routes stay the same.
+     */
+    static Heuristic straightLine(double goalLng, double goalLat) {
+        return (lng, lat) -> DroneLattice.distance(lng, lat, goalLng, goalLat) / DroneLattice.STEP;
+    }
+
+    /**
+     * The fewest 16-direction steps to the goal, ignoring every zone; see
+     * {@link DroneLattice#latticeSteps}. Cut by the most steps {@link DroneLattice#TOLERANCE}
+     * can take, since a path stops anywhere that close to the goal, so it never
+     * overestimates the steps left; then rounded up, since those are a whole number.
+     */
+    static Heuristic lattice(double goalLng, double goalLat) {
+        return (lng, lat) -> Math.max(0.0, Math.ceil(DroneLattice.latticeSteps(goalLng - lng, goalLat - lat)
+                - DroneLattice.TOLERANCE_STEPS - DroneLattice.ROUNDING_SLACK));
+    }
+}
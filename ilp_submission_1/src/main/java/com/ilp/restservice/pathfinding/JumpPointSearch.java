@@ -0,0 +1,277 @@
+package com.ilp.restservice.pathfinding;
+
+import java.util.Arrays;
+
+/**
+ * A* over the drone lattice that jumps straight through open air instead of expanding
+ * every step, in the spirit of Jump Point Search.
+ *
+ * From a node whose point is clear (see {@link FlightConstraints#isClear}) each
+ * direction is followed, step by step but without creating nodes, until one of:
+ *  - the next point is not clear: near a zone or the central area boundary, where
+ *    every step is a node and is checked against the constraints, as in LatticeAStar
+ *  - the bearing to the goal leaves the 22.5 degree wedge it started in: past that
+ *    point a turn onto the neighbouring direction heads more directly at the goal
+ *  - the goal is a few steps away: the last steps are searched one by one, so the
+ *    goal cannot be jumped over
+ * Directions leading away from the goal take a single step. A jump never changes the
+ * central-area state, because a clear point is never near the central boundary.
+ *
+ * Jumps have different lengths, so the first jump to reach a point is often not the
+ * cheapest: a node reached again at a lower cost takes the cheaper jump and is queued
+ * again, and the entry it leaves behind in the open set is skipped.
+ *
+ * Each node remembers the direction and length of the jump that reached it, and the
+ * full path is rebuilt step by step by replaying those jumps from the start, so its
+ * waypoints are exactly what a step-by-step search would have produced.
+ */
+public class JumpPointSearch {
+
+    private static final double GOAL_RADIUS = 4 * DroneLattice.STEP;
+    private static final int MAX_JUMP = 1024;
+
+    // Unit vectors on the wedge boundaries, at k * 22.5 degrees for k = -8..8
+    private static final double WEDGE = Math.PI / 8;
+    private static final double[] WEDGE_COS = new double[17];
+    private static final double[] WEDGE_SIN = new double[17];
+
+    static {
+        for (int k = 0; k < WEDGE_COS.length; k++) {
+            WEDGE_COS[k] = Math.cos((k - 8) * WEDGE);
+            WEDGE_SIN[k] = Math.sin((k - 8) * WEDGE);
+        }
+    }
+
+    private static final ThreadLocal<Workspace> WORKSPACE = ThreadLocal.withInitial(Workspace::new);
+
+    private final double heuristicWeight;
+
+    public JumpPointSearch() {
+        this(LatticeAStar.DEFAULT_HEURISTIC_WEIGHT);
+    }
+
+    /**
+     * @param heuristicWeight factor on the heuristic, at least 1; see
+     *                        {@link LatticeAStar#DEFAULT_HEURISTIC_WEIGHT}
+     */
+    public JumpPointSearch(double heuristicWeight) {
+        if (!(heuristicWeight >= 1.0)) {
+            throw new IllegalArgumentException("Heuristic weight must be at least 1: " + heuristicWeight);
+        }
+        this.heuristicWeight = heuristicWeight;
+    }
+
+    /**
+     * A* search from start to goal. The search stops at the first expanded node
+     * within {@link DroneLattice#TOLERANCE} of the goal.
+     *
+     * @return the step-by-step path from start to that node, or an empty result if none
+     *         was found
+     */
+    public PathResult search(double startLng, double startLat, double goalLng, double goalLat,
+                             FlightConstraints constraints) {
+        return search(startLng, startLat, goalLng, goalLat, constraints, Heuristic.straightLine(goalLng, goalLat));
+    }
+
+    /**
+     * As {@link #search(double, double, double, double, FlightConstraints)}, guided by the
+     * given heuristic instead of the straight line. Jumps still stop on the bearing to the
+     * goal; the heuristic only orders the open set.
+     */
+    public PathResult search(double startLng, double startLat, double goalLng, double goalLat,
+                             FlightConstraints constraints, Heuristic heuristic) {
+        return search(startLng, startLat, goalLng, goalLat, constraints, heuristic, SearchLimits.NONE);
+    }
+
+    /**
+     * As {@link #search(double, double, double, double, FlightConstraints, Heuristic)},
+     * within the given limits.
+     *
+     * @throws SearchAbortedException if a limit is reached before the search ends
+     */
+    public PathResult search(double startLng, double startLat, double goalLng, double goalLat,
+                             FlightConstraints constraints, Heuristic heuristic, SearchLimits limits) {
+        Workspace ws = WORKSPACE.get();
+        ws.reset();
+        LatticeAStar.NodeStore nodes = ws.nodes;
+        NodeHeap openSet = ws.openSet;
+        LongIntHashMap visited = ws.visited;
+        SearchStats stats = new SearchStats();
+
+        boolean startInCentral = constraints.isInsideCentral(startLng, startLat);
+        int startNode = ws.add(startLng, startLat, 0.0, -1, startInCentral, 0, 0);
+        openSet.add(startNode, f(0.0, startLng, startLat, heuristic));
+        visited.put(DroneLattice.key(startLng, startLat, startLng, startLat, startInCentral), startNode);
+
+        while (!openSet.isEmpty()) {
+            double key = openSet.peekKey();
+            int current = openSet.poll();
+            double lng = nodes.lng[current];
+            double lat = nodes.lat[current];
+            boolean inCentral = nodes.insideCentral[current];
+            double g = nodes.g[current];
+            if (key > f(g, lng, lat, heuristic)) {
+                // Queued before the node was reached more cheaply; that entry comes first
+                continue;
+            }
+            limits.check(stats.getExpansions());
+            stats.recordExpansion(openSet.size() + 1);
+
+            double goalDistance = DroneLattice.distance(lng, lat, goalLng, goalLat);
+            if (goalDistance < DroneLattice.TOLERANCE) {
+                stats.setVisitedSize(visited.size());
+                return reconstructPath(ws, current, stats);
+            }
+
+            if (goalDistance >= GOAL_RADIUS && constraints.isClear(lng, lat)) {
+                // Open air: one jump per direction, no constraint checks needed
+                int wedge = Math.min(15, (int) Math.floor(Math.atan2(goalLat - lat, goalLng - lng) / WEDGE) + 8);
+                for (int d = 0; d < DroneLattice.DIRECTION_COUNT; d++) {
+                    double nextLng = lng + DroneLattice.DX[d];
+                    double nextLat = lat + DroneLattice.DY[d];
+                    int length = 1;
+                    boolean towardsGoal =
+                            DroneLattice.DX[d] * (goalLng - lng) + DroneLattice.DY[d] * (goalLat - lat) > 0;
+                    while (towardsGoal && length < MAX_JUMP
+                            && constraints.isClear(nextLng, nextLat)
+                            && DroneLattice.distance(nextLng, nextLat, goalLng, goalLat) >= GOAL_RADIUS
+                            && inWedge(wedge, goalLng - nextLng, goalLat - nextLat)) {
+                        nextLng += DroneLattice.DX[d];
+                        nextLat += DroneLattice.DY[d];
+                        length++;
+                    }
+                    push(ws, startLng, startLat, heuristic,
+                            nextLng, nextLat, g + length, current, inCentral, d, length);
+                }
+                continue;
+            }
+
+            for (int d = 0; d < DroneLattice.DIRECTION_COUNT; d++) {
+                double nextLng = lng + DroneLattice.DX[d];
+                double nextLat = lat + DroneLattice.DY[d];
+                // If we were inside central area, we can't leave
+                boolean nextInsideGeometrically = constraints.isInsideCentral(nextLng, nextLat);
+                if (inCentral && !nextInsideGeometrically) {
+                    continue;
+                }
+                if (constraints.crossesNoFlyZone(lng, lat, nextLng, nextLat)) {
+                    continue;
+                }
+                push(ws, startLng, startLat, heuristic,
+                        nextLng, nextLat, g + 1.0, current, inCentral || nextInsideGeometrically, d, 1);
+            }
+        }
+
+        // No path found
+        stats.setVisitedSize(visited.size());
+        return PathResult.notFound(stats);
+    }
+
+    private void push(Workspace ws, double startLng, double startLat, Heuristic heuristic,
+                      double lng, double lat, double g, int parent, boolean inCentral, int direction, int length) {
+        long key = DroneLattice.key(startLng, startLat, lng, lat, inCentral);
+        int node = ws.visited.get(key);
+        if (node == LongIntHashMap.MISSING) {
+            node = ws.add(lng, lat, g, parent, inCentral, direction, length);
+            ws.visited.put(key, node);
+        } else if (g < ws.nodes.g[node]) {
+            ws.relax(node, lng, lat, g, parent, direction, length);
+        } else {
+            return;
+        }
+        ws.openSet.add(node, f(g, lng, lat, heuristic));
+    }
+
+    /**
+     * @return true if the bearing of (dx, dy) lies in the wedge between the boundaries
+     *         wedge and wedge + 1
+     */
+    private static boolean inWedge(int wedge, double dx, double dy) {
+        return WEDGE_COS[wedge] * dy - WEDGE_SIN[wedge] * dx >= 0
+                && dx * WEDGE_SIN[wedge + 1] - dy * WEDGE_COS[wedge + 1] > 0;
+    }
+
+    private double f(double g, double lng, double lat, Heuristic heuristic) {
+        // The heuristic is measured in steps, like g
+        return g + heuristic.steps(lng, lat) * heuristicWeight;
+    }
+
+    /**
+     * Replay the jumps from the start, one step at a time, with the same additions that
+     * produced each jump point.
+     */
+    private static PathResult reconstructPath(Workspace ws, int endNode, SearchStats stats) {
+        LatticeAStar.NodeStore nodes = ws.nodes;
+        int jumps = 0;
+        int length = 1;
+        for (int n = endNode; nodes.parent[n] != -1; n = nodes.parent[n]) {
+            jumps++;
+            length += ws.jumpLength[n];
+        }
+        int[] chain = new int[jumps];
+        for (int n = endNode, i = jumps - 1; nodes.parent[n] != -1; n = nodes.parent[n], i--) {
+            chain[i] = n;
+        }
+
+        double[] lngs = new double[length];
+        double[] lats = new double[length];
+        int start = jumps == 0 ? endNode : nodes.parent[chain[0]];
+        double lng = nodes.lng[start];
+        double lat = nodes.lat[start];
+        lngs[0] = lng;
+        lats[0] = lat;
+        int i = 1;
+        for (int n : chain) {
+            int d = ws.direction[n];
+            for (int k = 0; k < ws.jumpLength[n]; k++) {
+                lng += DroneLattice.DX[d];
+                lat += DroneLattice.DY[d];
+                lngs[i] = lng;
+                lats[i] = lat;
+                i++;
+            }
+        }
+        return new PathResult(lngs, lats, stats);
+    }
+
+    // ----------------------------- Search state -----------------------------
+
+    private static final class Workspace {
+        final LatticeAStar.NodeStore nodes = new LatticeAStar.NodeStore(1024);
+        final NodeHeap openSet = new NodeHeap(1024);
+        final LongIntHashMap visited = new LongIntHashMap(1024);
+        // The jump that reached each node, indexed by node id like the node store
+        byte[] direction = new byte[1024];
+        int[] jumpLength = new int[1024];
+
+        int add(double lng, double lat, double g, int parent, boolean insideCentral, int dir, int length) {
+            int node = nodes.add(lng, lat, g, parent, insideCentral);
+            if (node == direction.length) {
+                direction = Arrays.copyOf(direction, node * 2);
+                jumpLength = Arrays.copyOf(jumpLength, node * 2);
+            }
+            direction[node] = (byte) dir;
+            jumpLength[node] = length;
+            return node;
+        }
+
+        /**
+         * Reach an existing node by a cheaper jump, taking that jump's end point, so the
+         * replayed path still ends exactly on it.
+         */
+        void relax(int node, double lng, double lat, double g, int parent, int dir, int length) {
+            nodes.lng[node] = lng;
+            nodes.lat[node] = lat;
+            nodes.g[node] = g;
+            nodes.parent[node] = parent;
+            direction[node] = (byte) dir;
+            jumpLength[node] = length;
+        }
+
+        void reset() {
+            nodes.size = 0;
+            openSet.clear();
+            visited.clear();
+        }
+    }
+}
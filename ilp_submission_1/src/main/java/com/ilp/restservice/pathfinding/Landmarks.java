@@ -0,0 +1,227 @@
+package com.ilp.restservice.pathfinding;
+
+import java.util.Arrays;
+
+/**
+ * Landmark (ALT) distance tables: for a handful of landmark points, the fewest moves
+ * around the no-fly zones to every cell of a grid over the zone area. By the triangle
+ * inequality, |d(L, goal) - d(L, n)| is a lower bound on the distance from n to the goal
+ * for every landmark L, and unlike the straight line it sees the zones.
+ *
+ * The grid is a relaxation of the drone's moves, so its distances never exceed the steps
+ * actually flown:
+ *  - cells are just over a step wide, so one drone step, snapped to cell centres, moves
+ *    at most one cell along each axis: a king move on the grid, or none;
+ *  - a cell is blocked only if its whole outline lies inside the zones: no drone can
+ *    step into it from outside, since that step would cross a zone edge;
+ *  - a king move costs 1 between any two free cells, zone or not in between;
+ *  - points off the grid are clamped onto its edge, which lies clear of every zone and
+ *    moves no step further apart.
+ * The central area rule is left out: dropping a rule can only make distances shorter. A
+ * path may stop a step short of the goal, one more king move, so the bound is that much
+ * lower than the grid difference.
+ *
+ * King moves are coarse, so on open ground the lattice distance, which counts the
+ * drone's 16 fixed directions, is the larger one; each point uses whichever is larger.
+ * Landmarks are spread evenly around the edge of the grid: the bound is tight for points
+ * lying between a landmark and the goal, so the landmarks should surround every zone.
+ * Edge cells that are blocked are skipped. For cells no landmark reaches the estimate is
+ * the lattice distance.
+ */
+public final class Landmarks {
+
+    /** No grid: every heuristic from it is the lattice distance. */
+    public static final Landmarks NONE = new Landmarks(0, 0, 0, 0, 0, new float[0]);
+
+    // Just over a step, with room for rounding, so a step never spans two cells along an axis
+    private static final double CELL = DroneLattice.STEP * (1 + 1e-6);
+    // The king moves between the cell a path ends in and the goal's cell
+    private static final double GOAL_SLACK = 1.0;
+    private static final int[] NEIGHBOUR_COLS = {1, 1, 0, -1, -1, -1, 0, 1};
+    private static final int[] NEIGHBOUR_ROWS = {0, 1, 1, 1, 0, -1, -1, -1};
+
+    /**
+     * The no-fly zones, as the tables need them.
+     */
+    public interface Zones {
+
+        /**
+         * @return true if (lng, lat) is inside or on the edge of a zone
+         */
+        boolean contains(double lng, double lat);
+
+        /**
+         * @return true if the segment touches any zone edge
+         */
+        boolean edgeCrosses(double fromLng, double fromLat, double toLng, double toLat);
+    }
+
+    private final double minLng;
+    private final double minLat;
+    private final int cols;
+    private final int rows;
+    private final int count;
+    // distances[cell * count + k]: king moves from landmark k to the cell, infinite if unreachable
+    private final float[] distances;
+
+    private Landmarks(double minLng, double minLat, int cols, int rows, int count, float[] distances) {
+        this.minLng = minLng;
+        this.minLat = minLat;
+        this.cols = cols;
+        this.rows = rows;
+        this.count = count;
+        this.distances = distances;
+    }
+
+    /**
+     * Place up to count landmarks around the box and tabulate their distances. The box
+     * must reach past every zone on all sides.
+     */
+    public static Landmarks build(Zones zones, double minLng, double minLat, double maxLng, double maxLat,
+                                  int count) {
+        if (count <= 0 || maxLng < minLng || maxLat < minLat) {
+            return NONE;
+        }
+        int cols = (int) Math.ceil((maxLng - minLng) / CELL) + 1;
+        int rows = (int) Math.ceil((maxLat - minLat) / CELL) + 1;
+        boolean[] free = free(zones, minLng, minLat, cols, rows);
+
+        // Spread evenly around the edge of the grid, starting from the bottom left corner
+        int perimeter = 2 * (cols - 1) + 2 * (rows - 1);
+        float[][] tables = new float[count][];
+        int picked = 0;
+        for (int k = 0; k < count; k++) {
+            int cell = perimeterCell(k * perimeter / count, cols, rows);
+            if (free[cell]) {
+                tables[picked++] = distancesFrom(cell, free, cols, rows);
+            }
+        }
+        if (picked == 0) {
+            return NONE;
+        }
+
+        float[] distances = new float[free.length * picked];
+        for (int cell = 0; cell < free.length; cell++) {
+            for (int k = 0; k < picked; k++) {
+                distances[cell * picked + k] = tables[k][cell];
+            }
+        }
+        return new Landmarks(minLng, minLat, cols, rows, picked, distances);
+    }
+
+    /**
+     * The landmark bound towards this goal, or the {@link Heuristic#lattice} distance where
+     * that is larger or the bound is unknown.
+     */
+    public Heuristic towards(double goalLng, double goalLat) {
+        Heuristic lattice = Heuristic.lattice(goalLng, goalLat);
+        if (count == 0) {
+            return lattice;
+        }
+        int goalCell = cellOf(goalLng, goalLat);
+        float[] goalDistances = Arrays.copyOfRange(distances, goalCell * count, (goalCell + 1) * count);
+        return (lng, lat) -> Math.max(lattice.steps(lng, lat), bound(goalDistances, cellOf(lng, lat)));
+    }
+
+    public int getLandmarkCount() {
+        return count;
+    }
+
+    private double bound(float[] goalDistances, int cell) {
+        double best = 0.0;
+        int base = cell * count;
+        for (int k = 0; k < count; k++) {
+            float d = distances[base + k];
+            float goal = goalDistances[k];
+            if (d != Float.POSITIVE_INFINITY && goal != Float.POSITIVE_INFINITY) {
+                best = Math.max(best, Math.abs(goal - d));
+            }
+        }
+        return best - GOAL_SLACK;
+    }
+
+    /**
+     * @return the cell whose centre is nearest to (lng, lat) clamped onto the grid
+     */
+    private int cellOf(double lng, double lat) {
+        long col = Math.max(0, Math.min(cols - 1, Math.round((lng - minLng) / CELL)));
+        long row = Math.max(0, Math.min(rows - 1, Math.round((lat - minLat) / CELL)));
+        return (int) (row * cols + col);
+    }
+
+    /**
+     * A cell is free unless its four corners are in a zone and no zone edge touches its
+     * sides, so that its whole outline is inside the zones.
+     */
+    private static boolean[] free(Zones zones, double minLng, double minLat, int cols, int rows) {
+        double half = CELL / 2;
+        boolean[] free = new boolean[cols * rows];
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < cols; col++) {
+                double west = minLng + col * CELL - half;
+                double east = west + CELL;
+                double south = minLat + row * CELL - half;
+                double north = south + CELL;
+                boolean blocked = zones.contains(west, south) && zones.contains(east, south)
+                        && zones.contains(east, north) && zones.contains(west, north)
+                        && !zones.edgeCrosses(west, south, east, south)
+                        && !zones.edgeCrosses(east, south, east, north)
+                        && !zones.edgeCrosses(east, north, west, north)
+                        && !zones.edgeCrosses(west, north, west, south);
+                free[row * cols + col] = !blocked;
+            }
+        }
+        return free;
+    }
+
+    /**
+     * Breadth-first search over the free cells, in king moves.
+     */
+    private static float[] distancesFrom(int source, boolean[] free, int cols, int rows) {
+        float[] dist = new float[free.length];
+        Arrays.fill(dist, Float.POSITIVE_INFINITY);
+        int[] queue = new int[free.length];
+        int head = 0;
+        int tail = 0;
+        dist[source] = 0f;
+        queue[tail++] = source;
+        while (head < tail) {
+            int cell = queue[head++];
+            int col = cell % cols;
+            int row = cell / cols;
+            for (int d = 0; d < NEIGHBOUR_COLS.length; d++) {
+                int toCol = col + NEIGHBOUR_COLS[d];
+                int toRow = row + NEIGHBOUR_ROWS[d];
+                if (toCol < 0 || toRow < 0 || toCol >= cols || toRow >= rows) {
+                    continue;
+                }
+                int next = toRow * cols + toCol;
+                if (free[next] && dist[next] == Float.POSITIVE_INFINITY) {
+                    dist[next] = dist[cell] + 1;
+                    queue[tail++] = next;
+                }
+            }
+        }
+        return dist;
+    }
+
+    /**
+     * @return the cell at this distance along the grid's edge, counter-clockwise from the
+     *         bottom left corner
+     */
+    private static int perimeterCell(int offset, int cols, int rows) {
+        if (offset < cols - 1) {
+            return offset;
+        }
+        offset -= cols - 1;
+        if (offset < rows - 1) {
+            return offset * cols + cols - 1;
+        }
+        offset -= rows - 1;
+        if (offset < cols - 1) {
+            return (rows - 1) * cols + cols - 1 - offset;
+        }
+        offset -= cols - 1;
+        return (rows - 1 - offset) * cols;
+    }
+}
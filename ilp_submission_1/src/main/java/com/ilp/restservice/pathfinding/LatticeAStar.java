@@ -0,0 +1,233 @@
+package com.ilp.restservice.pathfinding;
+
+import java.util.Arrays;
+
+/**
+ * A* over the 16-direction drone lattice using primitive data structures only.
+ *
+ * Nodes live in parallel arrays indexed by an int id, the open list is a primitive
+ * binary heap of those ids, and the closed set doubles as the parent index, keyed by
+ * the packed lattice coordinate from {@link DroneLattice#key}. The arrays are kept in a
+ * per-thread workspace and reused across searches, so a search allocates little more
+ * than its result.
+ *
+ * A path that has entered the central area never leaves it: a step from a node inside to
+ * a point outside is refused, so a goal outside cannot be reached from a start inside.
+ */
+public class LatticeAStar {
+
+    /**
+     * Slightly inflate the heuristic to favour nodes closer to the goal. A 16-direction
+     * path is up to 1 / cos(11.25 degrees), about 2%, longer than the straight line it
+     * follows, so below that the search floods every near-equal path. 1.0, with an estimate
+     * that never overestimates, comes closest to the shortest paths at the price of far
+     * more expansions; it is not a guarantee, since a node keeps the first cost it is
+     * reached with.
+     */
+    public static final double DEFAULT_HEURISTIC_WEIGHT = 1.04;
+
+    private static final ThreadLocal<Workspace> WORKSPACE = ThreadLocal.withInitial(Workspace::new);
+
+    private final double heuristicWeight;
+
+    public LatticeAStar() {
+        this(DEFAULT_HEURISTIC_WEIGHT);
+    }
+
+    /**
+     * @param heuristicWeight factor on the heuristic, at least 1
+     */
+    public LatticeAStar(double heuristicWeight) {
+        if (!(heuristicWeight >= 1.0)) {
+            throw new IllegalArgumentException("Heuristic weight must be at least 1: " + heuristicWeight);
+        }
+        this.heuristicWeight = heuristicWeight;
+    }
+
+    /**
+     * A* search from start to goal. The search stops at the first expanded node
+     * within {@link DroneLattice#TOLERANCE} of the goal.
+     *
+     * @return the path from start to that node, or an empty result if none exists
+     */
+    public PathResult search(double startLng, double startLat, double goalLng, double goalLat,
+                             FlightConstraints constraints) {
+        return search(startLng, startLat, goalLng, goalLat, constraints, Heuristic.straightLine(goalLng, goalLat));
+    }
+
+    /**
+     * As {@link #search(double, double, double, double, FlightConstraints)}, guided by the
+     * given heuristic instead of the straight line.
+     */
+    public PathResult search(double startLng, double startLat, double goalLng, double goalLat,
+                             FlightConstraints constraints, Heuristic heuristic) {
+        return search(startLng, startLat, goalLng, goalLat, constraints, heuristic, SearchLimits.NONE);
+    }
+
+    /**
+     * As {@link #search(double, double, double, double, FlightConstraints, Heuristic)},
+     * within the given limits.
+     *
+     * @throws SearchAbortedException if a limit is reached before the search ends
+     */
+    public PathResult search(double startLng, double startLat, double goalLng, double goalLat,
+                             FlightConstraints constraints, Heuristic heuristic, SearchLimits limits) {
+        return search(startLng, startLat, goalLng, goalLat, constraints, heuristic, limits, null);
+    }
+
+    /**
+     * As {@link #search(double, double, double, double, FlightConstraints, Heuristic,
+     * SearchLimits)}, recording every expansion and rejected neighbour in the trace.
+     * Without a trace each recording point costs one test of a local against null.
+     *
+     * @param trace the trace to fill, or null to trace nothing
+     * @throws SearchAbortedException if a limit is reached before the search ends; the
+     *                                trace then holds the search up to that point
+     */
+    public PathResult search(double startLng, double startLat, double goalLng, double goalLat,
+                             FlightConstraints constraints, Heuristic heuristic, SearchLimits limits,
+                             SearchTrace trace) {
+        final boolean tracing = trace != null;
+        Workspace ws = WORKSPACE.get();
+        ws.reset();
+        NodeStore nodes = ws.nodes;
+        NodeHeap openSet = ws.openSet;
+        LongIntHashMap visited = ws.visited;
+        SearchStats stats = new SearchStats();
+
+        // We'll track whether we're inside the central area per node
+        boolean startInCentral = constraints.isInsideCentral(startLng, startLat);
+        int startNode = nodes.add(startLng, startLat, 0.0, -1, startInCentral);
+        openSet.add(startNode, f(0.0, startLng, startLat, heuristic));
+        visited.put(DroneLattice.key(startLng, startLat, startLng, startLat, startInCentral), startNode);
+
+        while (!openSet.isEmpty()) {
+            limits.check(stats.getExpansions());
+            stats.recordExpansion(openSet.size());
+            int current = openSet.poll();
+            double lng = nodes.lng[current];
+            double lat = nodes.lat[current];
+            boolean inCentral = nodes.insideCentral[current];
+            if (tracing) {
+                trace.expanded(lng, lat, openSet.size() + 1);
+            }
+
+            // If we're within TOLERANCE of the goal, reconstruct path
+            if (DroneLattice.distance(lng, lat, goalLng, goalLat) < DroneLattice.TOLERANCE) {
+                stats.setVisitedSize(visited.size());
+                return reconstructPath(nodes, current, stats);
+            }
+
+            double nextG = nodes.g[current] + 1.0; // each step costs 1
+            for (int d = 0; d < DroneLattice.DIRECTION_COUNT; d++) {
+                double nextLng = lng + DroneLattice.DX[d];
+                double nextLat = lat + DroneLattice.DY[d];
+                // If we were inside central area, we can't leave
+                boolean nextInsideGeometrically = constraints.isInsideCentral(nextLng, nextLat);
+                if (inCentral && !nextInsideGeometrically) {
+                    if (tracing) {
+                        trace.rejected(SearchTrace.Event.REJECTED_CENTRAL_EXIT, nextLng, nextLat);
+                    }
+                    continue;
+                }
+                // Inside if we already were OR we just stepped inside
+                boolean nextInCentral = inCentral || nextInsideGeometrically;
+
+                long nextKey = DroneLattice.key(startLng, startLat, nextLng, nextLat, nextInCentral);
+                if (visited.get(nextKey) != LongIntHashMap.MISSING) {
+                    continue;
+                }
+                if (constraints.crossesNoFlyZone(lng, lat, nextLng, nextLat)) {
+                    if (tracing) {
+                        trace.rejected(SearchTrace.Event.REJECTED_NO_FLY, nextLng, nextLat);
+                    }
+                    continue;
+                }
+
+                int next = nodes.add(nextLng, nextLat, nextG, current, nextInCentral);
+                visited.put(nextKey, next);
+                openSet.add(next, f(nextG, nextLng, nextLat, heuristic));
+            }
+        }
+
+        // No path found
+        stats.setVisitedSize(visited.size());
+        return PathResult.notFound(stats);
+    }
+
+    private double f(double g, double lng, double lat, Heuristic heuristic) {
+        // The heuristic is measured in steps, like g
+        return g + heuristic.steps(lng, lat) * heuristicWeight;
+    }
+
+    /**
+     * Reconstruct path by following parent links up to the start.
+     */
+    private static PathResult reconstructPath(NodeStore nodes, int endNode, SearchStats stats) {
+        int length = 0;
+        for (int n = endNode; n != -1; n = nodes.parent[n]) {
+            length++;
+        }
+        double[] lngs = new double[length];
+        double[] lats = new double[length];
+        int i = length;
+        for (int n = endNode; n != -1; n = nodes.parent[n]) {
+            i--;
+            lngs[i] = nodes.lng[n];
+            lats[i] = nodes.lat[n];
+        }
+        return new PathResult(lngs, lats, stats);
+    }
+
+    // ----------------------------- Search state -----------------------------
+
+    /**
+     * Node attributes stored column-wise, indexed by node id.
+     */
+    static final class NodeStore {
+        double[] lng;
+        double[] lat;
+        double[] g;
+        int[] parent;
+        boolean[] insideCentral;
+        int size;
+
+        NodeStore(int initialCapacity) {
+            lng = new double[initialCapacity];
+            lat = new double[initialCapacity];
+            g = new double[initialCapacity];
+            parent = new int[initialCapacity];
+            insideCentral = new boolean[initialCapacity];
+        }
+
+        int add(double nodeLng, double nodeLat, double nodeG, int nodeParent, boolean nodeInsideCentral) {
+            if (size == lng.length) {
+                int newCapacity = size * 2;
+                lng = Arrays.copyOf(lng, newCapacity);
+                lat = Arrays.copyOf(lat, newCapacity);
+                g = Arrays.copyOf(g, newCapacity);
+                parent = Arrays.copyOf(parent, newCapacity);
+                insideCentral = Arrays.copyOf(insideCentral, newCapacity);
+            }
+            int id = size++;
+            lng[id] = nodeLng;
+            lat[id] = nodeLat;
+            g[id] = nodeG;
+            parent[id] = nodeParent;
+            insideCentral[id] = nodeInsideCentral;
+            return id;
+        }
+    }
+
+    private static final class Workspace {
+        final NodeStore nodes = new NodeStore(4096);
+        final NodeHeap openSet = new NodeHeap(1024);
+        final LongIntHashMap visited = new LongIntHashMap(4096);
+
+        void reset() {
+            nodes.size = 0;
+            openSet.clear();
+            visited.clear();
+        }
+    }
+}
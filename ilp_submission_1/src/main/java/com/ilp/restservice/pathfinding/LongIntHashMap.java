@@ -0,0 +1,109 @@
+package com.ilp.restservice.pathfinding;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash map from long keys to non-negative int values.
+ * Used as the closed set and parent index of the lattice search, without boxing.
+ */
+final class LongIntHashMap {
+
+    static final int MISSING = -1;
+
+    private static final float LOAD_FACTOR = 0.5f;
+    // Past this capacity, clear() reallocates instead of wiping every slot
+    private static final int SHRINK_THRESHOLD = 1 << 16;
+
+    private final int initialCapacity;
+    private long[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+    private int resizeAt;
+
+    LongIntHashMap(int expectedSize) {
+        this.initialCapacity = Integer.highestOneBit(Math.max(16, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+        allocate(initialCapacity);
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Empty the map. A map that grew past SHRINK_THRESHOLD slots goes back to its initial
+     * capacity: maps live in per-thread workspaces, and one very large search would
+     * otherwise keep its tables for the life of the thread and make every later clear()
+     * wipe all of them.
+     */
+    void clear() {
+        if (values.length > SHRINK_THRESHOLD) {
+            allocate(initialCapacity);
+        } else {
+            Arrays.fill(values, MISSING);
+        }
+        size = 0;
+    }
+
+    int get(long key) {
+        int slot = slot(key);
+        while (true) {
+            int value = values[slot];
+            if (value == MISSING || keys[slot] == key) {
+                return value;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    void put(long key, int value) {
+        int slot = slot(key);
+        while (true) {
+            int existing = values[slot];
+            if (existing == MISSING) {
+                keys[slot] = key;
+                values[slot] = value;
+                if (++size >= resizeAt) {
+                    rehash();
+                }
+                return;
+            }
+            if (keys[slot] == key) {
+                values[slot] = value;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private int slot(long key) {
+        // murmur3 finalizer, the packed lattice keys are far from uniformly distributed
+        long h = key;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return (int) h & mask;
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new int[capacity];
+        Arrays.fill(values, MISSING);
+        mask = capacity - 1;
+        resizeAt = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private void rehash() {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(oldKeys.length * 2);
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] != MISSING) {
+                put(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.ilp.restservice.pathfinding;
+
+import java.util.Arrays;
+import java.util.function.IntToDoubleFunction;
+
+/**
+ * Binary min-heap of int node ids ordered by a double priority.
+ *
+ * The sift-up / sift-down steps mirror java.util.PriorityQueue exactly, so for the
+ * same sequence of offers and polls ties are broken the same way as the
+ * PriorityQueue&lt;Node&gt; this replaces.
+ */
+final class NodeHeap {
+
+    private int[] nodes;
+    private double[] keys;
+    private int size;
+
+    NodeHeap(int initialCapacity) {
+        this.nodes = new int[initialCapacity];
+        this.keys = new double[initialCapacity];
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    void clear() {
+        size = 0;
+    }
+
+    void add(int node, double key) {
+        if (size == nodes.length) {
+            int newCapacity = nodes.length * 2;
+            nodes = Arrays.copyOf(nodes, newCapacity);
+            keys = Arrays.copyOf(keys, newCapacity);
+        }
+        int k = size++;
+        while (k > 0) {
+            int parent = (k - 1) >>> 1;
+            if (Double.compare(key, keys[parent]) >= 0) {
+                break;
+            }
+            nodes[k] = nodes[parent];
+            keys[k] = keys[parent];
+            k = parent;
+        }
+        nodes[k] = node;
+        keys[k] = key;
+    }
+
+    double peekKey() {
+        return keys[0];
+    }
+
+    int poll() {
+        int result = nodes[0];
+        int n = --size;
+        if (n > 0) {
+            siftDown(0, nodes[n], keys[n], n);
+        }
+        return result;
+    }
+
+    /**
+     * Recompute every key with the given function and restore the heap order. Used when
+     * the heuristic changes under a running search.
+     */
+    void reprioritize(IntToDoubleFunction priority) {
+        for (int i = 0; i < size; i++) {
+            keys[i] = priority.applyAsDouble(nodes[i]);
+        }
+        for (int i = (size >>> 1) - 1; i >= 0; i--) {
+            siftDown(i, nodes[i], keys[i], size);
+        }
+    }
+
+    private void siftDown(int k, int node, double key, int n) {
+        int half = n >>> 1;
+        while (k < half) {
+            int child = (k << 1) + 1;
+            int right = child + 1;
+            if (right < n && Double.compare(keys[child], keys[right]) > 0) {
+                child = right;
+            }
+            if (Double.compare(key, keys[child]) <= 0) {
+                break;
+            }
+            nodes[k] = nodes[child];
+            keys[k] = keys[child];
+            k = child;
+        }
+        nodes[k] = node;
+        keys[k] = key;
+    }
+}
@@ -0,0 +1,198 @@
+package com.ilp.restservice.pathfinding;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntToDoubleFunction;
+
+import com.ilp.restservice.model.Position;
+
+/**
+ * Compact binary form of a drone path, media type {@value #MEDIA_TYPE}.
+ *
+ * A path is a start point followed by moves, and almost every move is one lattice step
+ * in one of the 16 directions, so a move is stored as its direction index rather than
+ * as coordinates. Runs of the same move are collapsed.
+ *
+ * Layout:
+ *  - byte   format version (1)
+ *  - varint waypoint count
+ *  - start point: lng, lat as 8-byte big-endian IEEE doubles (only if count > 0)
+ *  - tokens until count waypoints are described, each a varint
+ *    ((runLength - 1) << 5 | code) where code is
+ *      0-15  run of steps in that direction: next = previous + (dx, dy)
+ *      16    run of hover steps: next = previous
+ *      17    one waypoint given absolutely (run length 1), followed by lng, lat doubles
+ *
+ * A step is only encoded as a direction if adding (dx, dy) reproduces the next waypoint
+ * bit for bit; any other waypoint is written absolutely. Decoding is therefore lossless.
+ */
+public final class PathCodec {
+
+    public static final String MEDIA_TYPE = "application/x-ilp-path";
+
+    private static final int FORMAT_VERSION = 1;
+    private static final int HOVER = 16;
+    private static final int ABSOLUTE = 17;
+    private static final int CODE_BITS = 5;
+
+    private PathCodec() {
+    }
+
+    public static byte[] encode(List<Position> path) {
+        return encode(path.size(), i -> path.get(i).getLng(), i -> path.get(i).getLat());
+    }
+
+    /**
+     * @param size number of waypoints
+     * @param lng  waypoint index -> longitude
+     * @param lat  waypoint index -> latitude
+     */
+    public static byte[] encode(int size, IntToDoubleFunction lng, IntToDoubleFunction lat) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(32 + size / 2);
+        out.write(FORMAT_VERSION);
+        writeVarint(out, size);
+        if (size == 0) {
+            return out.toByteArray();
+        }
+        writeDouble(out, lng.applyAsDouble(0));
+        writeDouble(out, lat.applyAsDouble(0));
+
+        int i = 1;
+        while (i < size) {
+            int code = moveCode(lng.applyAsDouble(i - 1), lat.applyAsDouble(i - 1),
+                    lng.applyAsDouble(i), lat.applyAsDouble(i));
+            if (code == ABSOLUTE) {
+                writeVarint(out, ABSOLUTE);
+                writeDouble(out, lng.applyAsDouble(i));
+                writeDouble(out, lat.applyAsDouble(i));
+                i++;
+                continue;
+            }
+            int run = 1;
+            while (i + run < size && moveCode(lng.applyAsDouble(i + run - 1), lat.applyAsDouble(i + run - 1),
+                    lng.applyAsDouble(i + run), lat.applyAsDouble(i + run)) == code) {
+                run++;
+            }
+            writeVarint(out, ((long) (run - 1) << CODE_BITS) | code);
+            i += run;
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * @throws IllegalArgumentException if the bytes are not a path in this format
+     */
+    public static List<Position> decode(byte[] bytes) {
+        Reader in = new Reader(bytes);
+        int version = in.readByte();
+        if (version != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unsupported path format version " + version);
+        }
+        long count = in.readVarint();
+        if (count > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Corrupt path: waypoint count " + count);
+        }
+        List<Position> path = new ArrayList<>((int) Math.min(count, 1 << 16));
+        if (count == 0) {
+            return path;
+        }
+        double lng = in.readDouble();
+        double lat = in.readDouble();
+        Position previous = new Position(lng, lat);
+        path.add(previous);
+
+        while (path.size() < count) {
+            long token = in.readVarint();
+            int code = (int) (token & ((1 << CODE_BITS) - 1));
+            long run = (token >>> CODE_BITS) + 1;
+            if (run > count - path.size()) {
+                throw new IllegalArgumentException("Corrupt path: run past the waypoint count");
+            }
+            for (long r = 0; r < run; r++) {
+                if (code < DroneLattice.DIRECTION_COUNT) {
+                    lng += DroneLattice.DX[code];
+                    lat += DroneLattice.DY[code];
+                    previous = new Position(lng, lat);
+                } else if (code == ABSOLUTE && run == 1) {
+                    lng = in.readDouble();
+                    lat = in.readDouble();
+                    previous = new Position(lng, lat);
+                } else if (code != HOVER) {
+                    throw new IllegalArgumentException("Corrupt path: unknown move code " + code);
+                }
+                // A hover repeats the previous waypoint, like the JSON response does
+                path.add(previous);
+            }
+        }
+        return path;
+    }
+
+    private static int moveCode(double fromLng, double fromLat, double toLng, double toLat) {
+        if (sameBits(fromLng, toLng) && sameBits(fromLat, toLat)) {
+            return HOVER;
+        }
+        for (int d = 0; d < DroneLattice.DIRECTION_COUNT; d++) {
+            if (sameBits(fromLng + DroneLattice.DX[d], toLng) && sameBits(fromLat + DroneLattice.DY[d], toLat)) {
+                return d;
+            }
+        }
+        return ABSOLUTE;
+    }
+
+    private static boolean sameBits(double a, double b) {
+        return Double.doubleToRawLongBits(a) == Double.doubleToRawLongBits(b);
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static void writeDouble(ByteArrayOutputStream out, double value) {
+        long bits = Double.doubleToRawLongBits(value);
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            out.write((int) (bits >>> shift));
+        }
+    }
+
+    private static final class Reader {
+
+        private final byte[] bytes;
+        private int position;
+
+        Reader(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        int readByte() {
+            if (position >= bytes.length) {
+                throw new IllegalArgumentException("Corrupt path: truncated");
+            }
+            return bytes[position++] & 0xFF;
+        }
+
+        long readVarint() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Corrupt path: varint too long");
+        }
+
+        double readDouble() {
+            long bits = 0;
+            for (int i = 0; i < 8; i++) {
+                bits = (bits << 8) | readByte();
+            }
+            return Double.longBitsToDouble(bits);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.ilp.restservice.pathfinding;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.ilp.restservice.model.Position;
+
+/**
+ * Outcome of a search: the waypoints as primitive coordinate arrays, plus the
+ * counters collected while searching. An empty result means no path was found.
+ */
+public class PathResult {
+
+    private final double[] lngs;
+    private final double[] lats;
+    private final SearchStats stats;
+
+    public PathResult(double[] lngs, double[] lats, SearchStats stats) {
+        this.lngs = lngs;
+        this.lats = lats;
+        this.stats = stats;
+    }
+
+    public static PathResult notFound(SearchStats stats) {
+        return new PathResult(new double[0], new double[0], stats);
+    }
+
+    public boolean isFound() {
+        return lngs.length > 0;
+    }
+
+    public int size() {
+        return lngs.length;
+    }
+
+    public double lng(int index) {
+        return lngs[index];
+    }
+
+    public double lat(int index) {
+        return lats[index];
+    }
+
+    public SearchStats getStats() {
+        return stats;
+    }
+
+    public List<Position> toPositions() {
+        List<Position> path = new ArrayList<>(lngs.length);
+        for (int i = 0; i < lngs.length; i++) {
+            path.add(new Position(lngs[i], lats[i]));
+        }
+        return path;
+    }
+}
@@ -0,0 +1,293 @@
+package com.ilp.restservice.pathfinding;
+
+import java.util.Arrays;
+
+/**
+ * A single search tree grown backwards from one fixed goal (Appleton Tower), serving
+ * routes from any number of start locations.
+ *
+ * The tree is a multi-target A* flood rooted at the goal: the heuristic is the distance
+ * to the nearest start location that is not covered yet, and a start location is covered
+ * once a node within {@link DroneLattice#TOLERANCE} of it is expanded. Every node keeps a
+ * parent pointer towards the root, so the route for a covered location is read off by
+ * walking those pointers, in O(path length). New start locations can be added at any
+ * time; the flood then carries on from its current frontier instead of starting over.
+ *
+ * Lattice points of the tree are offset from the root, not from the start location, so
+ * a route is the tree path shifted by the small offset between the start location and
+ * its covering node. The shifted route is checked move by move against the constraints;
+ * if it fails, {@link #route} returns null and the caller should run a forward search.
+ *
+ * Central area rule in reverse: a forward path may never go from inside the central
+ * area to outside, i.e. read backwards from the goal it may never go from outside to
+ * inside. Each node therefore carries a "left the central area" flag instead of the
+ * forward search's "inside the central area" flag.
+ *
+ * Instances are thread-safe; growing the tree is serialised.
+ */
+public class ReverseRouteTree {
+
+    // Same inflation as the forward search
+    private static final double HEURISTIC_WEIGHT = 1.04;
+
+    private final double rootLng;
+    private final double rootLat;
+    private final FlightConstraints constraints;
+    private final int maxExpansionsPerGrowth;
+    private final int maxNodes;
+
+    // Node flag here means "some point between this node and the root is outside central"
+    private final LatticeAStar.NodeStore nodes = new LatticeAStar.NodeStore(4096);
+    private final NodeHeap openSet = new NodeHeap(1024);
+    private final LongIntHashMap visited = new LongIntHashMap(4096);
+    private final SearchStats stats = new SearchStats();
+
+    // Expanded nodes bucketed by TOLERANCE-sized cell, as linked lists threaded through cellNext
+    private final LongIntHashMap cellHead = new LongIntHashMap(1024);
+    private int[] cellNext = new int[4096];
+
+    // Start locations not covered yet
+    private double[] pendingLng = new double[8];
+    private double[] pendingLat = new double[8];
+    private int pendingCount;
+
+    /**
+     * @param maxExpansionsPerGrowth expansion budget for each call that grows the tree, so
+     *                               an unreachable start location cannot flood forever
+     * @param maxNodes               the tree stops growing once it holds this many nodes
+     */
+    public ReverseRouteTree(double rootLng, double rootLat, FlightConstraints constraints,
+                            int maxExpansionsPerGrowth, int maxNodes) {
+        this.rootLng = rootLng;
+        this.rootLat = rootLat;
+        this.constraints = constraints;
+        this.maxExpansionsPerGrowth = maxExpansionsPerGrowth;
+        this.maxNodes = maxNodes;
+
+        boolean rootOutside = !constraints.isInsideCentral(rootLng, rootLat);
+        int root = nodes.add(rootLng, rootLat, 0.0, -1, rootOutside);
+        openSet.add(root, 0.0);
+        visited.put(DroneLattice.key(rootLng, rootLat, rootLng, rootLat, rootOutside), root);
+    }
+
+    /**
+     * Grow the tree until every given start location is covered, in one flood.
+     */
+    public synchronized void cover(double[] startLngs, double[] startLats) {
+        for (int i = 0; i < startLngs.length; i++) {
+            if (coveringNodes(startLngs[i], startLats[i]).length == 0) {
+                addPending(startLngs[i], startLats[i]);
+            }
+        }
+        grow();
+    }
+
+    /**
+     * The route from (startLng, startLat) to the root, growing the tree first if the
+     * location is not covered yet.
+     *
+     * @return the route; an empty result if the flood ran dry without reaching the
+     *         location; null if the expansion budget ran out or every shifted tree path
+     *         breaks a constraint, in which case a forward search is needed
+     */
+    public synchronized PathResult route(double startLng, double startLat) {
+        long[] candidates = coveringNodes(startLng, startLat);
+        if (candidates.length == 0) {
+            addPending(startLng, startLat);
+            grow();
+            candidates = coveringNodes(startLng, startLat);
+        }
+        if (candidates.length == 0) {
+            return openSet.isEmpty() ? PathResult.notFound(snapshotStats()) : null;
+        }
+        // Shorter tree paths first; the first one that survives the shift wins
+        for (long candidate : candidates) {
+            int node = (int) candidate;
+            PathResult route = shiftedPath(node, startLng - nodes.lng[node], startLat - nodes.lat[node]);
+            if (route != null) {
+                return route;
+            }
+        }
+        return null;
+    }
+
+    public synchronized int nodeCount() {
+        return nodes.size;
+    }
+
+    /**
+     * Expand nodes until nothing is pending, the open list runs dry, or the budget or the
+     * node cap is spent.
+     */
+    private void grow() {
+        if (pendingCount == 0) {
+            return;
+        }
+        openSet.reprioritize(this::f);
+        int budget = maxExpansionsPerGrowth;
+        while (pendingCount > 0 && !openSet.isEmpty() && budget-- > 0 && nodes.size < maxNodes) {
+            stats.recordExpansion(openSet.size());
+            int current = openSet.poll();
+            double lng = nodes.lng[current];
+            double lat = nodes.lat[current];
+
+            addToCell(current);
+            if (coverPending(lng, lat)) {
+                // The nearest target changed, so every queued f value is stale
+                openSet.reprioritize(this::f);
+            }
+
+            boolean leftCentral = nodes.insideCentral[current];
+            double nextG = nodes.g[current] + 1.0;
+            for (int d = 0; d < DroneLattice.DIRECTION_COUNT; d++) {
+                // Stepping backwards: the forward move is prev -> current
+                double prevLng = lng - DroneLattice.DX[d];
+                double prevLat = lat - DroneLattice.DY[d];
+                boolean prevInside = constraints.isInsideCentral(prevLng, prevLat);
+                if (leftCentral && prevInside) {
+                    continue;
+                }
+                boolean prevLeftCentral = leftCentral || !prevInside;
+
+                long prevKey = DroneLattice.key(rootLng, rootLat, prevLng, prevLat, prevLeftCentral);
+                if (visited.get(prevKey) != LongIntHashMap.MISSING) {
+                    continue;
+                }
+                if (constraints.crossesNoFlyZone(prevLng, prevLat, lng, lat)) {
+                    continue;
+                }
+
+                int prev = nodes.add(prevLng, prevLat, nextG, current, prevLeftCentral);
+                visited.put(prevKey, prev);
+                openSet.add(prev, f(prev));
+            }
+        }
+        // Whatever is still pending was not reached within the budget; a later growth
+        // should not keep steering towards it
+        pendingCount = 0;
+        stats.setVisitedSize(visited.size());
+    }
+
+    private double f(int node) {
+        double lng = nodes.lng[node];
+        double lat = nodes.lat[node];
+        double nearest = Double.POSITIVE_INFINITY;
+        for (int t = 0; t < pendingCount; t++) {
+            nearest = Math.min(nearest, DroneLattice.distance(lng, lat, pendingLng[t], pendingLat[t]));
+        }
+        if (pendingCount == 0) {
+            nearest = 0.0;
+        }
+        return nodes.g[node] + nearest / DroneLattice.STEP * HEURISTIC_WEIGHT;
+    }
+
+    /**
+     * Drop every pending location within tolerance of (lng, lat).
+     *
+     * @return true if anything was dropped
+     */
+    private boolean coverPending(double lng, double lat) {
+        boolean covered = false;
+        for (int t = pendingCount - 1; t >= 0; t--) {
+            if (DroneLattice.distance(lng, lat, pendingLng[t], pendingLat[t]) < DroneLattice.TOLERANCE) {
+                pendingCount--;
+                pendingLng[t] = pendingLng[pendingCount];
+                pendingLat[t] = pendingLat[pendingCount];
+                covered = true;
+            }
+        }
+        return covered;
+    }
+
+    private void addPending(double lng, double lat) {
+        if (pendingCount == pendingLng.length) {
+            pendingLng = Arrays.copyOf(pendingLng, pendingCount * 2);
+            pendingLat = Arrays.copyOf(pendingLat, pendingCount * 2);
+        }
+        pendingLng[pendingCount] = lng;
+        pendingLat[pendingCount] = lat;
+        pendingCount++;
+    }
+
+    /**
+     * The expanded nodes within tolerance of the location, as (g << 32 | node) sorted by
+     * g, so the nodes nearest to the root come first.
+     */
+    private long[] coveringNodes(double lng, double lat) {
+        long cx = cellCoordinate(lng, rootLng);
+        long cy = cellCoordinate(lat, rootLat);
+        long[] found = new long[8];
+        int count = 0;
+        for (long x = cx - 1; x <= cx + 1; x++) {
+            for (long y = cy - 1; y <= cy + 1; y++) {
+                for (int n = cellHead.get(cellKey(x, y)); n != LongIntHashMap.MISSING; n = cellNext[n]) {
+                    if (DroneLattice.distance(lng, lat, nodes.lng[n], nodes.lat[n]) < DroneLattice.TOLERANCE) {
+                        if (count == found.length) {
+                            found = Arrays.copyOf(found, count * 2);
+                        }
+                        // g counts whole steps, so it fits the upper half exactly
+                        found[count++] = ((long) nodes.g[n] << 32) | n;
+                    }
+                }
+            }
+        }
+        long[] result = Arrays.copyOf(found, count);
+        Arrays.sort(result);
+        return result;
+    }
+
+    private void addToCell(int node) {
+        if (node >= cellNext.length) {
+            cellNext = Arrays.copyOf(cellNext, Math.max(node + 1, cellNext.length * 2));
+        }
+        long key = cellKey(cellCoordinate(nodes.lng[node], rootLng), cellCoordinate(nodes.lat[node], rootLat));
+        cellNext[node] = cellHead.get(key);
+        cellHead.put(key, node);
+    }
+
+    private static long cellCoordinate(double value, double origin) {
+        return (long) Math.floor((value - origin) / DroneLattice.TOLERANCE);
+    }
+
+    private static long cellKey(long x, long y) {
+        return (x << 32) | (y & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Walk parent pointers from the node to the root, shifting every point by the offset,
+     * and check each forward move against the constraints.
+     */
+    private PathResult shiftedPath(int node, double offsetLng, double offsetLat) {
+        int length = 0;
+        for (int n = node; n != -1; n = nodes.parent[n]) {
+            length++;
+        }
+        double[] lngs = new double[length];
+        double[] lats = new double[length];
+        int i = 0;
+        for (int n = node; n != -1; n = nodes.parent[n]) {
+            lngs[i] = nodes.lng[n] + offsetLng;
+            lats[i] = nodes.lat[n] + offsetLat;
+            i++;
+        }
+
+        boolean inCentral = constraints.isInsideCentral(lngs[0], lats[0]);
+        for (int k = 1; k < length; k++) {
+            boolean nextInside = constraints.isInsideCentral(lngs[k], lats[k]);
+            if (inCentral && !nextInside) {
+                return null;
+            }
+            inCentral = nextInside || inCentral;
+            if (constraints.crossesNoFlyZone(lngs[k - 1], lats[k - 1], lngs[k], lats[k])) {
+                return null;
+            }
+        }
+        return new PathResult(lngs, lats, snapshotStats());
+    }
+
+    private SearchStats snapshotStats() {
+        SearchStats copy = new SearchStats();
+        copy.copyFrom(stats);
+        return copy;
+    }
+}
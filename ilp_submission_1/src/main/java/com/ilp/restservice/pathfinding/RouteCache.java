@@ -0,0 +1,53 @@
+package com.ilp.restservice.pathfinding;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded LRU cache of search results, keyed by start location and the version of the
+ * airspace the search ran against. Entries for an older version can never be hit again;
+ * they are dropped by {@link #invalidateAll()} or aged out by the size bound.
+ */
+public class RouteCache {
+
+    private final int maxSize;
+    private final Map<RouteKey, PathResult> entries;
+
+    public RouteCache(int maxSize) {
+        this.maxSize = maxSize;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<RouteKey, PathResult> eldest) {
+                return size() > RouteCache.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * @return the cached result, or null on a miss
+     */
+    public synchronized PathResult get(double startLng, double startLat, long airspaceVersion) {
+        if (maxSize <= 0) {
+            return null;
+        }
+        return entries.get(new RouteKey(startLng, startLat, airspaceVersion));
+    }
+
+    public synchronized void put(double startLng, double startLat, long airspaceVersion, PathResult result) {
+        if (maxSize <= 0) {
+            return;
+        }
+        entries.put(new RouteKey(startLng, startLat, airspaceVersion), result);
+    }
+
+    public synchronized void invalidateAll() {
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private record RouteKey(double startLng, double startLat, long airspaceVersion) {
+    }
+}
@@ -0,0 +1,31 @@
+package com.ilp.restservice.pathfinding;
+
+/**
+ * Thrown by a search that gave up before it could tell whether a path exists, because it
+ * ran into one of its {@link SearchLimits}.
+ */
+public class SearchAbortedException extends RuntimeException {
+
+    /**
+     * Which limit stopped the search.
+     */
+    public enum Reason {
+        /** The expansion budget is spent: the goal is far away or cannot be reached. */
+        EXPANSION_BUDGET,
+        /** The wall-clock deadline has passed. */
+        DEADLINE,
+        /** The searching thread was interrupted, e.g. because nobody waits for the result. */
+        CANCELLED
+    }
+
+    private final Reason reason;
+
+    public SearchAbortedException(Reason reason, String message) {
+        super(message);
+        this.reason = reason;
+    }
+
+    public Reason getReason() {
+        return reason;
+    }
+}
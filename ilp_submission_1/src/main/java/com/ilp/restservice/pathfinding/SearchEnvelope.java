@@ -0,0 +1,72 @@
+package com.ilp.restservice.pathfinding;
+
+/**
+ * Flight constraints restricted to a box: on top of the wrapped constraints, every move
+ * must end inside it. Keeps a search that cannot reach its goal from drifting away over
+ * the open plane.
+ *
+ * It also counts the zone and clear-point tests made through it. One envelope serves one search, on one
+ * thread.
+ */
+public final class SearchEnvelope implements FlightConstraints {
+
+    private final FlightConstraints constraints;
+    private final double minLng;
+    private final double minLat;
+    private final double maxLng;
+    private final double maxLat;
+    private int zoneTests;
+    private int clearTests;
+
+    public SearchEnvelope(FlightConstraints constraints, double minLng, double minLat,
+                          double maxLng, double maxLat) {
+        this.constraints = constraints;
+        this.minLng = minLng;
+        this.minLat = minLat;
+        this.maxLng = maxLng;
+        this.maxLat = maxLat;
+    }
+
+    /**
+     * @return true if (lng, lat) lies inside the box, edges included
+     */
+    public boolean contains(double lng, double lat) {
+        return lng >= minLng && lng <= maxLng && lat >= minLat && lat <= maxLat;
+    }
+
+    /**
+     * @return the crossesNoFlyZone calls made so far
+     */
+    public int getZoneTests() {
+        return zoneTests;
+    }
+
+    /**
+     * @return the isClear calls made so far
+     */
+    public int getClearTests() {
+        return clearTests;
+    }
+
+    @Override
+    public boolean isInsideCentral(double lng, double lat) {
+        return constraints.isInsideCentral(lng, lat);
+    }
+
+    @Override
+    public boolean crossesNoFlyZone(double fromLng, double fromLat, double toLng, double toLat) {
+        zoneTests++;
+        return !contains(toLng, toLat) || constraints.crossesNoFlyZone(fromLng, fromLat, toLng, toLat);
+    }
+
+    /**
+     * Clear for the wrapped constraints, and a whole step inside the box.
+     */
+    @Override
+    public boolean isClear(double lng, double lat) {
+        clearTests++;
+        return constraints.isClear(lng, lat)
+                && lng - DroneLattice.STEP >= minLng && lng + DroneLattice.STEP <= maxLng
+                && lat - DroneLattice.STEP >= minLat && lat + DroneLattice.STEP <= maxLat;
+    }
+}
@@ -0,0 +1,69 @@
+package com.ilp.restservice.pathfinding;
+
+import java.time.Duration;
+
+/**
+ * The most a single search may spend: a number of expansions and a wall-clock deadline.
+ * A search also stops as soon as its thread is interrupted, so cancelling the Future
+ * that runs it stops the work, not just the wait for it.
+ *
+ * Limits are immutable and may be shared by several searches, e.g. all the searches of
+ * one batch, which then share its deadline. The expansion budget counts per search.
+ */
+public final class SearchLimits {
+
+    /** No budget and no deadline; the search still stops when interrupted. */
+    public static final SearchLimits NONE = new SearchLimits(Integer.MAX_VALUE, 0L, false);
+
+    // The clock and the interrupt flag are read every 1024 expansions, not on each one
+    private static final int CHECK_INTERVAL_MASK = 1023;
+
+    private final int maxExpansions;
+    private final long deadlineNanos;
+    private final boolean hasDeadline;
+
+    private SearchLimits(int maxExpansions, long deadlineNanos, boolean hasDeadline) {
+        this.maxExpansions = maxExpansions;
+        this.deadlineNanos = deadlineNanos;
+        this.hasDeadline = hasDeadline;
+    }
+
+    /**
+     * @param maxExpansions expansions allowed per search, at least 1
+     * @param timeout       time allowed from now, for every search using these limits
+     */
+    public static SearchLimits of(int maxExpansions, Duration timeout) {
+        if (maxExpansions < 1) {
+            throw new IllegalArgumentException("Expansion budget must be at least 1: " + maxExpansions);
+        }
+        return new SearchLimits(maxExpansions, System.nanoTime() + timeout.toNanos(), true);
+    }
+
+    public int getMaxExpansions() {
+        return maxExpansions;
+    }
+
+    /**
+     * Called by a search before each expansion.
+     *
+     * @param expansions the expansions done so far
+     * @throws SearchAbortedException if a limit is reached
+     */
+    void check(int expansions) {
+        if (expansions >= maxExpansions) {
+            throw new SearchAbortedException(SearchAbortedException.Reason.EXPANSION_BUDGET,
+                    "Search gave up after " + expansions + " expansions.");
+        }
+        if ((expansions & CHECK_INTERVAL_MASK) != 0) {
+            return;
+        }
+        if (Thread.currentThread().isInterrupted()) {
+            throw new SearchAbortedException(SearchAbortedException.Reason.CANCELLED,
+                    "Search cancelled after " + expansions + " expansions.");
+        }
+        if (hasDeadline && System.nanoTime() - deadlineNanos > 0) {
+            throw new SearchAbortedException(SearchAbortedException.Reason.DEADLINE,
+                    "Search ran past its deadline after " + expansions + " expansions.");
+        }
+    }
+}
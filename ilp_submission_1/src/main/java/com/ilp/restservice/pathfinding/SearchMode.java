@@ -0,0 +1,26 @@
+package com.ilp.restservice.pathfinding;
+
+/**
+ * How the delivery path service plans a route from a restaurant to Appleton Tower.
+ */
+public enum SearchMode {
+    /** One forward A* search per restaurant location. */
+    FORWARD,
+    /** One shared {@link ReverseRouteTree} grown from the tower, forward A* as fallback. */
+    REVERSE_TREE,
+    /** One forward {@link JumpPointSearch} per restaurant location, forward A* as fallback. */
+    JUMP_POINT,
+    /** One {@link BidirectionalAStar} search per restaurant location, forward A* as fallback. */
+    BIDIRECTIONAL,
+    /**
+     * A coarse route on the zones' visibility graph, then forward A* confined to a
+     * {@link Corridor} around it; forward A* over the open plane as fallback.
+     */
+    HIERARCHICAL,
+    /**
+     * One {@link AnytimeAStar} search per restaurant location: a first path under a high
+     * heuristic weight, improved until ilp.path.anytime.deadline, with a bound on how far
+     * it is from the shortest.
+     */
+    ANYTIME
+}
@@ -0,0 +1,54 @@
+package com.ilp.restservice.pathfinding;
+
+/**
+ * Counters collected while a single search runs.
+ */
+public class SearchStats {
+
+    private int expansions;
+    private int peakOpenSize;
+    private int visitedSize;
+    private double suboptimalityBound = Double.NaN;
+
+    public int getExpansions() {
+        return expansions;
+    }
+
+    public int getPeakOpenSize() {
+        return peakOpenSize;
+    }
+
+    public int getVisitedSize() {
+        return visitedSize;
+    }
+
+    /**
+     * @return how many times longer than the shortest path the path found can be, as
+     *         proven by an {@link AnytimeAStar} search; NaN for the other searches
+     */
+    public double getSuboptimalityBound() {
+        return suboptimalityBound;
+    }
+
+    void recordExpansion(int openSize) {
+        expansions++;
+        if (openSize > peakOpenSize) {
+            peakOpenSize = openSize;
+        }
+    }
+
+    void setVisitedSize(int visitedSize) {
+        this.visitedSize = visitedSize;
+    }
+
+    void setSuboptimalityBound(double suboptimalityBound) {
+        this.suboptimalityBound = suboptimalityBound;
+    }
+
+    void copyFrom(SearchStats other) {
+        this.expansions = other.expansions;
+        this.peakOpenSize = other.peakOpenSize;
+        this.visitedSize = other.visitedSize;
+        this.suboptimalityBound = other.suboptimalityBound;
+    }
+}
@@ -0,0 +1,166 @@
+package com.ilp.restservice.pathfinding;
+
+import java.util.Arrays;
+
+/**
+ * A record of one lattice A* search, for profiling: every node expanded, in order, with
+ * the size of the open set at the time, and every neighbour turned away, by reason.
+ *
+ * Events go into a ring buffer, held as parallel primitive arrays, that starts small and
+ * doubles as events come in, up to the capacity, so a short search costs little and a
+ * trace never takes more memory than it was given: once the buffer is at capacity and
+ * full each new event overwrites the oldest, and a long search keeps its last events.
+ * The totals per event type count every event, kept or not.
+ *
+ * A trace is filled by one search on one thread; read it once the search has returned.
+ */
+public final class SearchTrace {
+
+    public enum Event {
+        /** A node taken off the open set, with the open set size before it was taken. */
+        EXPANDED,
+        /** A neighbour whose step crosses a no-fly zone. */
+        REJECTED_NO_FLY,
+        /** A neighbour outside the central area, stepped to from inside it. */
+        REJECTED_CENTRAL_EXIT
+    }
+
+    private static final Event[] EVENTS = Event.values();
+    private static final int INITIAL_LENGTH = 1024;
+
+    private final int capacity;
+    private byte[] events;
+    private double[] lngs;
+    private double[] lats;
+    private int[] openSizes;
+    private final long[] totals = new long[EVENTS.length];
+    private long recorded;
+
+    /**
+     * @param capacity most events kept, at least 1; each takes 21 bytes
+     */
+    public SearchTrace(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Trace capacity must be at least 1: " + capacity);
+        }
+        this.capacity = capacity;
+        int length = Math.min(capacity, INITIAL_LENGTH);
+        events = new byte[length];
+        lngs = new double[length];
+        lats = new double[length];
+        openSizes = new int[length];
+    }
+
+    void expanded(double lng, double lat, int openSize) {
+        record(Event.EXPANDED, lng, lat, openSize);
+    }
+
+    void rejected(Event reason, double lng, double lat) {
+        record(reason, lng, lat, 0);
+    }
+
+    /**
+     * Add an event as it was recorded, for readers rebuilding a trace.
+     *
+     * @param openSize open set size for {@link Event#EXPANDED}, ignored otherwise
+     */
+    void record(Event event, double lng, double lat, int openSize) {
+        if (recorded == events.length && events.length < capacity) {
+            resize((int) Math.min(capacity, 2L * events.length));
+        }
+        int slot = (int) (recorded % events.length);
+        events[slot] = (byte) event.ordinal();
+        lngs[slot] = lng;
+        lats[slot] = lat;
+        openSizes[slot] = event == Event.EXPANDED ? openSize : 0;
+        totals[event.ordinal()]++;
+        recorded++;
+    }
+
+    /**
+     * Count events that were recorded before this trace was rebuilt, and so not added.
+     * Call before adding any event.
+     */
+    void skip(Event event, long count) {
+        if (count > 0 && events.length < capacity) {
+            // Events were dropped, so the kept ones wrap around the whole buffer
+            resize(capacity);
+        }
+        totals[event.ordinal()] += count;
+        recorded += count;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * @return the number of events kept, at most the capacity
+     */
+    public int size() {
+        return (int) Math.min(recorded, events.length);
+    }
+
+    /**
+     * @return the number of events recorded, kept or not
+     */
+    public long getRecorded() {
+        return recorded;
+    }
+
+    /**
+     * @return the number of oldest events overwritten; event i kept is event
+     *         getDropped() + i of the search
+     */
+    public long getDropped() {
+        return recorded - size();
+    }
+
+    /**
+     * @return the number of events of this type recorded, kept or not
+     */
+    public long count(Event event) {
+        return totals[event.ordinal()];
+    }
+
+    /**
+     * @param i index among the kept events, 0 the oldest
+     */
+    public Event event(int i) {
+        return EVENTS[events[slot(i)]];
+    }
+
+    public double lng(int i) {
+        return lngs[slot(i)];
+    }
+
+    public double lat(int i) {
+        return lats[slot(i)];
+    }
+
+    /**
+     * @return the open set size when kept event i, an expansion, was taken off it; 0 for
+     *         rejections
+     */
+    public int openSize(int i) {
+        return openSizes[slot(i)];
+    }
+
+    /**
+     * Grow the buffer. Only called while nothing has been overwritten, so the events stay
+     * where they are.
+     */
+    private void resize(int length) {
+        events = Arrays.copyOf(events, length);
+        lngs = Arrays.copyOf(lngs, length);
+        lats = Arrays.copyOf(lats, length);
+        openSizes = Arrays.copyOf(openSizes, length);
+    }
+
+    private int slot(int i) {
+        if (i < 0 || i >= size()) {
+            throw new IndexOutOfBoundsException("Event " + i + " of " + size());
+        }
+        return (int) ((getDropped() + i) % events.length);
+    }
+}
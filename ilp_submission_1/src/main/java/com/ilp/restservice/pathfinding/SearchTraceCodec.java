@@ -0,0 +1,177 @@
+package com.ilp.restservice.pathfinding;
+
+import java.io.ByteArrayOutputStream;
+
+/**
+ * Compact binary dump of a {@link SearchTrace}, media type {@value #MEDIA_TYPE}.
+ *
+ * Traced nodes lie within a few hundredths of a degree of each other, so each event is
+ * stored as its offset from the first event kept, in single precision: 9 bytes per
+ * rejection and 10 to 14 per expansion, against 21 in memory. Offsets are exact to
+ * about 1e-9 degrees (0.1 mm), plenty to plot a search but not to replay it bit for bit.
+ *
+ * Layout:
+ *  - byte   format version (1)
+ *  - varint events recorded of each type, kept or not, in {@link SearchTrace.Event} order
+ *  - varint events kept
+ *  - origin: lng, lat of the first event kept, 8-byte big-endian IEEE doubles (only if
+ *    events are kept)
+ *  - each event kept, oldest first:
+ *      byte  event type (its {@link SearchTrace.Event} ordinal)
+ *      lng, lat offsets from the origin, 4-byte big-endian IEEE floats
+ *      varint open set size (expansions only)
+ */
+public final class SearchTraceCodec {
+
+    public static final String MEDIA_TYPE = "application/x-ilp-search-trace";
+
+    private static final int FORMAT_VERSION = 1;
+    private static final SearchTrace.Event[] EVENTS = SearchTrace.Event.values();
+
+    private SearchTraceCodec() {
+    }
+
+    public static byte[] encode(SearchTrace trace) {
+        int size = trace.size();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(32 + size * 10);
+        out.write(FORMAT_VERSION);
+        for (SearchTrace.Event event : EVENTS) {
+            writeVarint(out, trace.count(event));
+        }
+        writeVarint(out, size);
+        if (size == 0) {
+            return out.toByteArray();
+        }
+        double originLng = trace.lng(0);
+        double originLat = trace.lat(0);
+        writeLong(out, Double.doubleToRawLongBits(originLng), 8);
+        writeLong(out, Double.doubleToRawLongBits(originLat), 8);
+        for (int i = 0; i < size; i++) {
+            SearchTrace.Event event = trace.event(i);
+            out.write(event.ordinal());
+            writeLong(out, Float.floatToRawIntBits((float) (trace.lng(i) - originLng)), 4);
+            writeLong(out, Float.floatToRawIntBits((float) (trace.lat(i) - originLat)), 4);
+            if (event == SearchTrace.Event.EXPANDED) {
+                writeVarint(out, trace.openSize(i));
+            }
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * @return the trace, with a capacity of the events kept in the dump
+     * @throws IllegalArgumentException if the bytes are not a trace in this format
+     */
+    public static SearchTrace decode(byte[] bytes) {
+        Reader in = new Reader(bytes);
+        int version = in.readByte();
+        if (version != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unsupported trace format version " + version);
+        }
+        long[] totals = new long[EVENTS.length];
+        long recorded = 0;
+        for (int e = 0; e < EVENTS.length; e++) {
+            totals[e] = in.readVarint();
+            recorded += totals[e];
+        }
+        long size = in.readVarint();
+        // Every event kept takes at least 9 bytes
+        if (size > recorded || size > bytes.length / 9) {
+            throw new IllegalArgumentException("Corrupt trace: " + size + " events kept of " + recorded);
+        }
+        SearchTrace trace = new SearchTrace((int) Math.max(1, size));
+        if (size == 0) {
+            for (int e = 0; e < EVENTS.length; e++) {
+                trace.skip(EVENTS[e], totals[e]);
+            }
+            return trace;
+        }
+        double originLng = Double.longBitsToDouble(in.readLong(8));
+        double originLat = Double.longBitsToDouble(in.readLong(8));
+
+        // Read the kept events first: the events dropped before them are what the totals leave over
+        SearchTrace.Event[] events = new SearchTrace.Event[(int) size];
+        double[] lngs = new double[(int) size];
+        double[] lats = new double[(int) size];
+        int[] openSizes = new int[(int) size];
+        long[] kept = new long[EVENTS.length];
+        for (int i = 0; i < size; i++) {
+            int type = in.readByte();
+            if (type >= EVENTS.length) {
+                throw new IllegalArgumentException("Corrupt trace: unknown event type " + type);
+            }
+            events[i] = EVENTS[type];
+            lngs[i] = originLng + Float.intBitsToFloat((int) in.readLong(4));
+            lats[i] = originLat + Float.intBitsToFloat((int) in.readLong(4));
+            if (events[i] == SearchTrace.Event.EXPANDED) {
+                long openSize = in.readVarint();
+                if (openSize > Integer.MAX_VALUE) {
+                    throw new IllegalArgumentException("Corrupt trace: open set size " + openSize);
+                }
+                openSizes[i] = (int) openSize;
+            }
+            kept[type]++;
+        }
+        for (int e = 0; e < EVENTS.length; e++) {
+            if (kept[e] > totals[e]) {
+                throw new IllegalArgumentException("Corrupt trace: more " + EVENTS[e] + " events kept than recorded");
+            }
+            trace.skip(EVENTS[e], totals[e] - kept[e]);
+        }
+        for (int i = 0; i < size; i++) {
+            trace.record(events[i], lngs[i], lats[i], openSizes[i]);
+        }
+        return trace;
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static void writeLong(ByteArrayOutputStream out, long bits, int bytes) {
+        for (int shift = 8 * (bytes - 1); shift >= 0; shift -= 8) {
+            out.write((int) (bits >>> shift));
+        }
+    }
+
+    private static final class Reader {
+
+        private final byte[] bytes;
+        private int position;
+
+        Reader(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        int readByte() {
+            if (position >= bytes.length) {
+                throw new IllegalArgumentException("Corrupt trace: truncated");
+            }
+            return bytes[position++] & 0xFF;
+        }
+
+        long readVarint() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Corrupt trace: varint too long");
+        }
+
+        long readLong(int count) {
+            long bits = 0;
+            for (int i = 0; i < count; i++) {
+                bits = (bits << 8) | readByte();
+            }
+            return bits;
+        }
+    }
+}
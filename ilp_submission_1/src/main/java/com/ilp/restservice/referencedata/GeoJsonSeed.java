@@ -0,0 +1,79 @@
+package com.ilp.restservice.referencedata;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ilp.restservice.model.NamedRegion;
+import com.ilp.restservice.model.Pizza;
+import com.ilp.restservice.model.Position;
+import com.ilp.restservice.model.Restaurant;
+
+/**
+ * Reads reference data from a GeoJSON FeatureCollection laid out like noflyzone.json:
+ *  - a Polygon named "central" is the central area; every other Polygon is a no-fly zone
+ *  - a Point is a restaurant, with openingDays and menu in its properties
+ * Other geometry types are ignored.
+ */
+public final class GeoJsonSeed {
+
+    private static final String CENTRAL_AREA_NAME = "central";
+
+    private GeoJsonSeed() {
+    }
+
+    public static ReferenceSnapshot read(Path file) throws IOException {
+        JsonNode root = new ObjectMapper().readTree(file.toFile());
+        JsonNode features = root.path("features");
+        if (!features.isArray()) {
+            throw new IOException("Not a GeoJSON FeatureCollection: " + file);
+        }
+
+        List<Restaurant> restaurants = new ArrayList<>();
+        List<NamedRegion> noFlyZones = new ArrayList<>();
+        NamedRegion centralArea = null;
+        for (JsonNode feature : features) {
+            JsonNode properties = feature.path("properties");
+            JsonNode geometry = feature.path("geometry");
+            String name = properties.path("name").asText(null);
+            switch (geometry.path("type").asText()) {
+                case "Polygon" -> {
+                    NamedRegion region = new NamedRegion();
+                    region.setName(name);
+                    region.setVertices(positions(geometry.path("coordinates").path(0)));
+                    if (CENTRAL_AREA_NAME.equals(name)) {
+                        centralArea = region;
+                    } else {
+                        noFlyZones.add(region);
+                    }
+                }
+                case "Point" -> {
+                    List<String> openingDays = new ArrayList<>();
+                    properties.path("openingDays").forEach(d -> openingDays.add(d.asText()));
+                    List<Pizza> menu = new ArrayList<>();
+                    properties.path("menu").forEach(p ->
+                            menu.add(new Pizza(p.path("name").asText(null), p.path("priceInPence").asInt())));
+                    restaurants.add(new Restaurant(name, position(geometry.path("coordinates")), openingDays, menu));
+                }
+                default -> {
+                    // Not reference data
+                }
+            }
+        }
+        return new ReferenceSnapshot(0L, restaurants, noFlyZones, centralArea);
+    }
+
+    private static List<Position> positions(JsonNode coordinates) {
+        List<Position> positions = new ArrayList<>();
+        coordinates.forEach(c -> positions.add(position(c)));
+        return positions;
+    }
+
+    // GeoJSON coordinates are [lng, lat]
+    private static Position position(JsonNode coordinate) {
+        return new Position(coordinate.path(0).asDouble(), coordinate.path(1).asDouble());
+    }
+}
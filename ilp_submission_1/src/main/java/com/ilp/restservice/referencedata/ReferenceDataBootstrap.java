@@ -0,0 +1,207 @@
+package com.ilp.restservice.referencedata;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.ilp.restservice.model.NamedRegion;
+import com.ilp.restservice.model.Restaurant;
+import com.ilp.restservice.service.CentralAreaService;
+import com.ilp.restservice.service.NoFlyZoneService;
+import com.ilp.restservice.service.RestaurantFetchService;
+
+/**
+ * The startup stage that loads all reference data.
+ *
+ * Once the application has started, the three sources are loaded at the same time, each on
+ * its own virtual thread and each under the same timeout, so startup waits only for the
+ * slowest source. A source comes from the local snapshot when there is one, otherwise from
+ * the remote host. When all of them are in, they are published as the first
+ * {@link ReferenceSnapshot}, which builds the derived indexes and runs the
+ * {@link ReferenceDataLoadedEvent} listeners. After that the stage is READY. If any source
+ * fails or times out, the stage is FAILED and the whole load runs again after a delay that
+ * doubles with every failure, up to a maximum, until it succeeds: the refresher only
+ * updates a snapshot that is already live, so without this a failed start would never
+ * become ready.
+ *
+ * Readiness follows this state: the "referenceData" health indicator is part of the
+ * actuator readiness group, and the endpoints that need the data answer 503 until then.
+ */
+@Component
+public class ReferenceDataBootstrap {
+
+    public enum State {
+        LOADING, READY, FAILED
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(ReferenceDataBootstrap.class);
+
+    private final RestaurantFetchService restaurantFetchService;
+    private final NoFlyZoneService noFlyZoneService;
+    private final CentralAreaService centralAreaService;
+    private final ReferenceDataStore referenceDataStore;
+    private final ReferenceDataHolder referenceData;
+    private final ReferenceDataRefresher refresher;
+    private final Duration fetchTimeout;
+    private final Duration retryDelay;
+    private final Duration maxRetryDelay;
+
+    private volatile State state = State.LOADING;
+    private volatile Map<String, String> failures = Map.of();
+    private volatile long loadMillis = -1;
+
+    public ReferenceDataBootstrap(
+            RestaurantFetchService restaurantFetchService,
+            NoFlyZoneService noFlyZoneService,
+            CentralAreaService centralAreaService,
+            ReferenceDataStore referenceDataStore,
+            ReferenceDataHolder referenceData,
+            ReferenceDataRefresher refresher,
+            @Value("${ilp.reference.fetch-timeout:10s}") Duration fetchTimeout,
+            @Value("${ilp.reference.retry-delay:5s}") Duration retryDelay,
+            @Value("${ilp.reference.retry-max-delay:5m}") Duration maxRetryDelay) {
+        this.restaurantFetchService = restaurantFetchService;
+        this.noFlyZoneService = noFlyZoneService;
+        this.centralAreaService = centralAreaService;
+        this.referenceDataStore = referenceDataStore;
+        this.referenceData = referenceData;
+        this.refresher = refresher;
+        this.fetchTimeout = fetchTimeout;
+        this.retryDelay = retryDelay;
+        this.maxRetryDelay = maxRetryDelay;
+    }
+
+    @EventListener(ApplicationStartedEvent.class)
+    public void start() {
+        loadUntilReady(retryDelay);
+    }
+
+    /**
+     * Load every source concurrently, then publish them as one snapshot.
+     *
+     * @return completes with the final state; never completes exceptionally
+     */
+    public CompletableFuture<State> load() {
+        long started = System.nanoTime();
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        CompletableFuture<ReferenceSnapshot> local =
+                CompletableFuture.supplyAsync(referenceDataStore::getLocalSnapshot, executor);
+        CompletableFuture<List<Restaurant>> restaurants = SourceFetch.start(() -> local.join() != null
+                ? local.join().getRestaurants()
+                : restaurantFetchService.fetchRestaurants(), executor, fetchTimeout);
+        CompletableFuture<List<NamedRegion>> noFlyZones = SourceFetch.start(() -> local.join() != null
+                ? local.join().getNoFlyZones()
+                : noFlyZoneService.fetchNoFlyZones(), executor, fetchTimeout);
+        CompletableFuture<NamedRegion> centralArea = SourceFetch.start(() -> local.join() != null
+                ? local.join().getCentralArea()
+                : centralAreaService.fetchCentralArea(), executor, fetchTimeout);
+        executor.shutdown();
+
+        return CompletableFuture.allOf(restaurants, noFlyZones, centralArea)
+                .handle((ignored, error) -> finish(local, restaurants, noFlyZones, centralArea, started));
+    }
+
+    /**
+     * Load, and if that fails, load again after the delay, then after twice the delay, and
+     * so on up to the maximum.
+     */
+    private void loadUntilReady(Duration delay) {
+        load().thenAccept(result -> {
+            if (result == State.FAILED) {
+                log.warn("Retrying reference data load in {}", delay);
+                Duration next = delay.multipliedBy(2).compareTo(maxRetryDelay) < 0
+                        ? delay.multipliedBy(2)
+                        : maxRetryDelay;
+                CompletableFuture.delayedExecutor(delay.toMillis(), TimeUnit.MILLISECONDS)
+                        .execute(() -> loadUntilReady(next));
+            }
+        });
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    /**
+     * @return source name -> reason, for the sources that failed to load
+     */
+    public Map<String, String> getFailures() {
+        return failures;
+    }
+
+    /**
+     * @return how long loading took, or -1 while it is still running
+     */
+    public long getLoadMillis() {
+        return loadMillis;
+    }
+
+    private State finish(CompletableFuture<ReferenceSnapshot> local,
+                         CompletableFuture<List<Restaurant>> restaurants,
+                         CompletableFuture<List<NamedRegion>> noFlyZones,
+                         CompletableFuture<NamedRegion> centralArea, long started) {
+        Map<String, String> failed = new LinkedHashMap<>();
+        putFailure(failed, "restaurants", restaurants);
+        putFailure(failed, "noFlyZones", noFlyZones);
+        putFailure(failed, "centralArea", centralArea);
+
+        boolean fromLocal = false;
+        if (failed.isEmpty()) {
+            fromLocal = local.join() != null;
+            try {
+                ReferenceSnapshot published = referenceData.publish(new ReferenceSnapshot(
+                        fromLocal ? local.join().getSavedAtMillis() : System.currentTimeMillis(),
+                        restaurants.join(), noFlyZones.join(), centralArea.join()));
+                if (!fromLocal) {
+                    save(published);
+                }
+            } catch (RuntimeException e) {
+                failed.put("derivedIndexes", SourceFetch.describe(e, fetchTimeout));
+            }
+        }
+
+        loadMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        if (failed.isEmpty()) {
+            failures = Map.of();
+            state = State.READY;
+            log.info("Reference data loaded from {} in {} ms", fromLocal ? "local snapshot" : "remote host",
+                    loadMillis);
+            if (fromLocal) {
+                refresher.refreshInBackground();
+            }
+        } else {
+            failures = Map.copyOf(failed);
+            state = State.FAILED;
+            log.error("Reference data failed to load after {} ms: {}", loadMillis, failed);
+        }
+        return state;
+    }
+
+    private void putFailure(Map<String, String> failed, String source, CompletableFuture<?> fetch) {
+        String failure = SourceFetch.failure(fetch, fetchTimeout);
+        if (failure != null) {
+            failed.put(source, failure);
+        }
+    }
+
+    private void save(ReferenceSnapshot snapshot) {
+        try {
+            referenceDataStore.save(snapshot);
+        } catch (IOException e) {
+            log.warn("Could not save reference data snapshot: {}", e.getMessage());
+        }
+    }
+}
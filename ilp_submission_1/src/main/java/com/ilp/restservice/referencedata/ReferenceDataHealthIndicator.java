@@ -0,0 +1,29 @@
+package com.ilp.restservice.referencedata;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports the reference data bootstrap as the "referenceData" health component:
+ * OUT_OF_SERVICE while loading, UP once ready, DOWN while a source could not be loaded
+ * and the load waits to be retried.
+ */
+@Component
+public class ReferenceDataHealthIndicator implements HealthIndicator {
+
+    private final ReferenceDataBootstrap bootstrap;
+
+    public ReferenceDataHealthIndicator(ReferenceDataBootstrap bootstrap) {
+        this.bootstrap = bootstrap;
+    }
+
+    @Override
+    public Health health() {
+        return switch (bootstrap.getState()) {
+            case LOADING -> Health.outOfService().build();
+            case READY -> Health.up().withDetail("loadMillis", bootstrap.getLoadMillis()).build();
+            case FAILED -> Health.down().withDetails(bootstrap.getFailures()).build();
+        };
+    }
+}
@@ -0,0 +1,54 @@
+package com.ilp.restservice.referencedata;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import com.ilp.restservice.service.PointInPolygonService;
+
+/**
+ * The live reference data: one indexed {@link ReferenceSnapshot} behind an atomic
+ * reference. Readers take the current snapshot without locking and keep using that
+ * instance for as long as they need consistent data. Publishing a new snapshot builds its
+ * indexes first, so the swap itself is a single reference write.
+ *
+ * Versions increase by one with every publication, so anything cached against a version
+ * is stale as soon as a newer one is live.
+ */
+@Component
+public class ReferenceDataHolder {
+
+    private final PointInPolygonService pointInPolygonService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AtomicReference<ReferenceSnapshot> current = new AtomicReference<>();
+    private final AtomicLong versions = new AtomicLong();
+
+    public ReferenceDataHolder(PointInPolygonService pointInPolygonService,
+                               ApplicationEventPublisher eventPublisher) {
+        this.pointInPolygonService = pointInPolygonService;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * @return the live snapshot, or null before the first publication
+     */
+    public ReferenceSnapshot current() {
+        return current.get();
+    }
+
+    /**
+     * Index the data under the next version, make it live, and publish a
+     * {@link ReferenceDataLoadedEvent}. Publications are serialised; readers are not
+     * affected.
+     *
+     * @return the live, indexed snapshot
+     */
+    public synchronized ReferenceSnapshot publish(ReferenceSnapshot data) {
+        ReferenceSnapshot indexed = data.withIndexes(versions.incrementAndGet(), pointInPolygonService);
+        current.set(indexed);
+        eventPublisher.publishEvent(new ReferenceDataLoadedEvent(this, indexed));
+        return indexed;
+    }
+}
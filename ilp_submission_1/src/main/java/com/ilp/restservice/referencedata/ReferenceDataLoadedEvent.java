@@ -0,0 +1,26 @@
+package com.ilp.restservice.referencedata;
+
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Published by {@link ReferenceDataHolder} each time a new snapshot goes live: once at
+ * startup, and again after every refresh that changed the data. Listeners run on the
+ * publishing thread, off the request path; at startup they run before the node reports
+ * itself ready, so they can do warm-up work.
+ */
+public class ReferenceDataLoadedEvent extends ApplicationEvent {
+
+    private final ReferenceSnapshot snapshot;
+
+    public ReferenceDataLoadedEvent(Object source, ReferenceSnapshot snapshot) {
+        super(source);
+        this.snapshot = snapshot;
+    }
+
+    /**
+     * @return the snapshot that just went live
+     */
+    public ReferenceSnapshot getSnapshot() {
+        return snapshot;
+    }
+}
@@ -0,0 +1,134 @@
+package com.ilp.restservice.referencedata;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.ilp.restservice.model.NamedRegion;
+import com.ilp.restservice.model.Restaurant;
+import com.ilp.restservice.service.CentralAreaService;
+import com.ilp.restservice.service.NoFlyZoneService;
+import com.ilp.restservice.service.RestaurantFetchService;
+
+/**
+ * Keeps the live reference data in line with the remote ILP host, off the request path.
+ *
+ * Every refresh fetches the three sources side by side. A source that fails keeps its
+ * live data and the others are still taken. The result goes live, and is saved as the next
+ * startup snapshot, only if its content differs from the live snapshot, so an unchanged
+ * host never invalidates caches.
+ */
+@Component
+public class ReferenceDataRefresher {
+
+    private static final Logger log = LoggerFactory.getLogger(ReferenceDataRefresher.class);
+
+    private final RestaurantFetchService restaurantFetchService;
+    private final NoFlyZoneService noFlyZoneService;
+    private final CentralAreaService centralAreaService;
+    private final ReferenceDataHolder referenceData;
+    private final ReferenceDataStore referenceDataStore;
+    private final Duration fetchTimeout;
+    private final boolean enabled;
+
+    public ReferenceDataRefresher(
+            RestaurantFetchService restaurantFetchService,
+            NoFlyZoneService noFlyZoneService,
+            CentralAreaService centralAreaService,
+            ReferenceDataHolder referenceData,
+            ReferenceDataStore referenceDataStore,
+            @Value("${ilp.reference.fetch-timeout:10s}") Duration fetchTimeout,
+            @Value("${ilp.reference.refresh-enabled:true}") boolean enabled) {
+        this.restaurantFetchService = restaurantFetchService;
+        this.noFlyZoneService = noFlyZoneService;
+        this.centralAreaService = centralAreaService;
+        this.referenceData = referenceData;
+        this.referenceDataStore = referenceDataStore;
+        this.fetchTimeout = fetchTimeout;
+        this.enabled = enabled;
+    }
+
+    // ISO-8601 durations (PT5M): @Scheduled does not take the "5m" style
+    @Scheduled(fixedDelayString = "${ilp.reference.refresh-interval:PT5M}",
+            initialDelayString = "${ilp.reference.refresh-interval:PT5M}")
+    public void scheduledRefresh() {
+        // Nothing to refresh until the bootstrap has published the first snapshot
+        if (enabled && referenceData.current() != null) {
+            refresh();
+        }
+    }
+
+    public void refreshInBackground() {
+        if (enabled) {
+            Thread.ofVirtual().name("reference-refresh").start(this::refresh);
+        }
+    }
+
+    /**
+     * Fetch every source from the remote host and publish the result if it changed.
+     *
+     * @return true if a new snapshot went live
+     */
+    public synchronized boolean refresh() {
+        ReferenceSnapshot live = referenceData.current();
+        if (live == null) {
+            return false;
+        }
+        // Not closed with try-with-resources: close() would wait out a timed-out fetch
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        CompletableFuture<List<Restaurant>> restaurants =
+                SourceFetch.start(restaurantFetchService::fetchRestaurants, executor, fetchTimeout);
+        CompletableFuture<List<NamedRegion>> noFlyZones =
+                SourceFetch.start(noFlyZoneService::fetchNoFlyZones, executor, fetchTimeout);
+        CompletableFuture<NamedRegion> centralArea =
+                SourceFetch.start(centralAreaService::fetchCentralArea, executor, fetchTimeout);
+        executor.shutdown();
+
+        int fetched = keepLiveIfFailed("restaurants", restaurants)
+                + keepLiveIfFailed("no-fly zones", noFlyZones)
+                + keepLiveIfFailed("central area", centralArea);
+        if (fetched == 0) {
+            return false;
+        }
+
+        ReferenceSnapshot candidate = new ReferenceSnapshot(System.currentTimeMillis(),
+                restaurants.isCompletedExceptionally() ? live.getRestaurants() : restaurants.join(),
+                noFlyZones.isCompletedExceptionally() ? live.getNoFlyZones() : noFlyZones.join(),
+                centralArea.isCompletedExceptionally() ? live.getCentralArea() : centralArea.join());
+        if (live.hasSameContent(candidate)) {
+            return false;
+        }
+
+        ReferenceSnapshot published = referenceData.publish(candidate);
+        log.info("Reference data refreshed, now at version {}", published.getVersion());
+        try {
+            referenceDataStore.save(published);
+        } catch (IOException e) {
+            log.warn("Could not save reference data snapshot: {}", e.getMessage());
+        }
+        return true;
+    }
+
+    /**
+     * Wait for the fetch.
+     *
+     * @return 1 if it succeeded, 0 if it failed and the live data stays
+     */
+    private int keepLiveIfFailed(String source, CompletableFuture<?> fetch) {
+        String failure = SourceFetch.failure(fetch, fetchTimeout);
+        if (failure == null) {
+            return 1;
+        }
+        log.warn("Keeping live {}: remote refresh failed: {}", source, failure);
+        return 0;
+    }
+}
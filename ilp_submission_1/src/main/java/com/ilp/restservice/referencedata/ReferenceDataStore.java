@@ -0,0 +1,95 @@
+package com.ilp.restservice.referencedata;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Last-known reference data on local disk, so the service can start without waiting on
+ * (or being able to reach) the remote ILP host.
+ *
+ * At startup the data comes from the first of these that can be read:
+ *  - the snapshot file, written after every successful reconcile with the remote host
+ *  - the seed file, a GeoJSON FeatureCollection (noflyzone.json)
+ * If neither can be read there is no local data and the services fetch remotely as before.
+ * A blank path disables that source.
+ */
+@Component
+public class ReferenceDataStore {
+
+    private static final Logger log = LoggerFactory.getLogger(ReferenceDataStore.class);
+
+    private final Path snapshotFile;
+    private final Path seedFile;
+    private ReferenceSnapshot localSnapshot;
+    private boolean loaded;
+
+    public ReferenceDataStore(
+            @Value("${ilp.reference.snapshot-file:reference-data.snapshot}") String snapshotFile,
+            @Value("${ilp.reference.seed-file:noflyzone.json}") String seedFile) {
+        this.snapshotFile = snapshotFile == null || snapshotFile.isBlank() ? null : Path.of(snapshotFile);
+        this.seedFile = seedFile == null || seedFile.isBlank() ? null : Path.of(seedFile);
+    }
+
+    /**
+     * The data read from disk at startup, or the last snapshot saved since.
+     *
+     * @return the snapshot, or null if there is no local data
+     */
+    public synchronized ReferenceSnapshot getLocalSnapshot() {
+        if (!loaded) {
+            localSnapshot = readLocal();
+            loaded = true;
+        }
+        return localSnapshot;
+    }
+
+    /**
+     * Persist the snapshot, replacing the previous one in a single rename so a crash
+     * mid-write never leaves a torn file behind.
+     */
+    public synchronized void save(ReferenceSnapshot snapshot) throws IOException {
+        if (snapshotFile != null) {
+            Path absolute = snapshotFile.toAbsolutePath();
+            Files.createDirectories(absolute.getParent());
+            Path temp = absolute.resolveSibling(absolute.getFileName() + ".tmp");
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                SnapshotCodec.write(snapshot, out);
+            }
+            try {
+                Files.move(temp, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, absolute, StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        localSnapshot = snapshot;
+        loaded = true;
+    }
+
+    private ReferenceSnapshot readLocal() {
+        if (snapshotFile != null && Files.isRegularFile(snapshotFile)) {
+            try (InputStream in = Files.newInputStream(snapshotFile)) {
+                return SnapshotCodec.read(in);
+            } catch (IOException e) {
+                log.warn("Ignoring unreadable reference data snapshot {}: {}", snapshotFile, e.getMessage());
+            }
+        }
+        if (seedFile != null && Files.isRegularFile(seedFile)) {
+            try {
+                return GeoJsonSeed.read(seedFile);
+            } catch (IOException e) {
+                log.warn("Ignoring unreadable reference data seed {}: {}", seedFile, e.getMessage());
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,104 @@
+package com.ilp.restservice.referencedata;
+
+import java.util.Arrays;
+import java.util.List;
+
+import com.ilp.restservice.geometry.Airspace;
+import com.ilp.restservice.model.NamedRegion;
+import com.ilp.restservice.model.Restaurant;
+import com.ilp.restservice.service.MenuIndex;
+import com.ilp.restservice.service.PointInPolygonService;
+
+/**
+ * The reference data the service needs to answer requests: restaurants, no-fly zones and
+ * the central area, as known at one point in time.
+ *
+ * A snapshot read from disk or fetched remotely is plain data. The one that is live comes
+ * from {@link #withIndexes}: it also carries a version and the indexes derived from the
+ * data, so a reader that holds it sees restaurants, zones and indexes that belong together.
+ */
+public final class ReferenceSnapshot {
+
+    private final long savedAtMillis;
+    private final List<Restaurant> restaurants;
+    private final List<NamedRegion> noFlyZones;
+    private final NamedRegion centralArea;
+    private final long version;
+    private final MenuIndex menuIndex;
+    private final Airspace airspace;
+
+    public ReferenceSnapshot(long savedAtMillis, List<Restaurant> restaurants,
+                             List<NamedRegion> noFlyZones, NamedRegion centralArea) {
+        this(savedAtMillis, restaurants == null ? List.of() : restaurants,
+                noFlyZones == null ? List.of() : noFlyZones, centralArea, 0L, null, null);
+    }
+
+    private ReferenceSnapshot(long savedAtMillis, List<Restaurant> restaurants, List<NamedRegion> noFlyZones,
+                              NamedRegion centralArea, long version, MenuIndex menuIndex, Airspace airspace) {
+        this.savedAtMillis = savedAtMillis;
+        this.restaurants = restaurants;
+        this.noFlyZones = noFlyZones;
+        this.centralArea = centralArea;
+        this.version = version;
+        this.menuIndex = menuIndex;
+        this.airspace = airspace;
+    }
+
+    /**
+     * The same data under the given version, with the menu index and the airspace built.
+     */
+    public ReferenceSnapshot withIndexes(long version, PointInPolygonService pointInPolygonService) {
+        return new ReferenceSnapshot(savedAtMillis, restaurants, noFlyZones, centralArea, version,
+                MenuIndex.of(restaurants),
+                Airspace.build(version, noFlyZones, centralArea, pointInPolygonService));
+    }
+
+    /**
+     * @return true if both hold the same restaurants, zones and central area, whenever
+     *         they were captured
+     */
+    public boolean hasSameContent(ReferenceSnapshot other) {
+        return Arrays.equals(SnapshotCodec.contentBytes(this), SnapshotCodec.contentBytes(other));
+    }
+
+    /**
+     * @return when the data was captured, in epoch milliseconds
+     */
+    public long getSavedAtMillis() {
+        return savedAtMillis;
+    }
+
+    public List<Restaurant> getRestaurants() {
+        return restaurants;
+    }
+
+    public List<NamedRegion> getNoFlyZones() {
+        return noFlyZones;
+    }
+
+    public NamedRegion getCentralArea() {
+        return centralArea;
+    }
+
+    /**
+     * @return the version this snapshot was published under, or 0 if it was never published
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * @return menu lookups over {@link #getRestaurants()}, or null if never published
+     */
+    public MenuIndex getMenuIndex() {
+        return menuIndex;
+    }
+
+    /**
+     * @return the flight constraints for these zones, versioned like the snapshot, or null
+     *         if never published
+     */
+    public Airspace getAirspace() {
+        return airspace;
+    }
+}
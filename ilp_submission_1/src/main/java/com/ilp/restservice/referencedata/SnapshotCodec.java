@@ -0,0 +1,179 @@
+package com.ilp.restservice.referencedata;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.ilp.restservice.model.NamedRegion;
+import com.ilp.restservice.model.Pizza;
+import com.ilp.restservice.model.Position;
+import com.ilp.restservice.model.Restaurant;
+
+/**
+ * Compact binary form of a {@link ReferenceSnapshot}.
+ *
+ * Layout (big-endian, as written by DataOutputStream):
+ *  - int magic "ILPR", short format version, long savedAtMillis
+ *  - int restaurant count, then per restaurant: name, location, opening days, menu
+ *  - int zone count, then per zone: a region
+ *  - central area: a region, or absent
+ * Strings are modified UTF-8 behind a presence flag; a region is its name followed by an
+ * int vertex count and the vertices as (lng, lat) doubles.
+ */
+public final class SnapshotCodec {
+
+    private static final int MAGIC = 0x494C5052; // "ILPR"
+    private static final short FORMAT_VERSION = 1;
+
+    private SnapshotCodec() {
+    }
+
+    public static void write(ReferenceSnapshot snapshot, OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeShort(FORMAT_VERSION);
+        data.writeLong(snapshot.getSavedAtMillis());
+
+        data.writeInt(snapshot.getRestaurants().size());
+        for (Restaurant r : snapshot.getRestaurants()) {
+            writeString(data, r.getName());
+            writePosition(data, r.getLocation());
+            List<String> days = r.getOpeningDays() == null ? List.of() : r.getOpeningDays();
+            data.writeInt(days.size());
+            for (String day : days) {
+                writeString(data, day);
+            }
+            List<Pizza> menu = r.getMenu() == null ? List.of() : r.getMenu();
+            data.writeInt(menu.size());
+            for (Pizza p : menu) {
+                writeString(data, p.getName());
+                data.writeInt(p.getPriceInPence());
+            }
+        }
+
+        data.writeInt(snapshot.getNoFlyZones().size());
+        for (NamedRegion zone : snapshot.getNoFlyZones()) {
+            writeRegion(data, zone);
+        }
+        data.writeBoolean(snapshot.getCentralArea() != null);
+        if (snapshot.getCentralArea() != null) {
+            writeRegion(data, snapshot.getCentralArea());
+        }
+        data.flush();
+    }
+
+    /**
+     * The encoded data without the capture time, for comparing snapshots by content.
+     */
+    static byte[] contentBytes(ReferenceSnapshot snapshot) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            write(new ReferenceSnapshot(0L, snapshot.getRestaurants(), snapshot.getNoFlyZones(),
+                    snapshot.getCentralArea()), out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // in-memory stream
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * @throws IOException if the stream is truncated, or is not a snapshot in this format
+     */
+    public static ReferenceSnapshot read(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        if (data.readInt() != MAGIC) {
+            throw new IOException("Not a reference data snapshot");
+        }
+        short version = data.readShort();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Unsupported snapshot format version " + version);
+        }
+        long savedAtMillis = data.readLong();
+
+        int restaurantCount = readCount(data);
+        List<Restaurant> restaurants = new ArrayList<>(restaurantCount);
+        for (int i = 0; i < restaurantCount; i++) {
+            String name = readString(data);
+            Position location = readPosition(data);
+            int dayCount = readCount(data);
+            List<String> days = new ArrayList<>(dayCount);
+            for (int d = 0; d < dayCount; d++) {
+                days.add(readString(data));
+            }
+            int menuCount = readCount(data);
+            List<Pizza> menu = new ArrayList<>(menuCount);
+            for (int m = 0; m < menuCount; m++) {
+                menu.add(new Pizza(readString(data), data.readInt()));
+            }
+            restaurants.add(new Restaurant(name, location, days, menu));
+        }
+
+        int zoneCount = readCount(data);
+        List<NamedRegion> zones = new ArrayList<>(zoneCount);
+        for (int i = 0; i < zoneCount; i++) {
+            zones.add(readRegion(data));
+        }
+        NamedRegion centralArea = data.readBoolean() ? readRegion(data) : null;
+        return new ReferenceSnapshot(savedAtMillis, restaurants, zones, centralArea);
+    }
+
+    private static void writeRegion(DataOutputStream data, NamedRegion region) throws IOException {
+        writeString(data, region.getName());
+        List<Position> vertices = region.getVertices() == null ? List.of() : region.getVertices();
+        data.writeInt(vertices.size());
+        for (Position p : vertices) {
+            data.writeDouble(p.getLng());
+            data.writeDouble(p.getLat());
+        }
+    }
+
+    private static NamedRegion readRegion(DataInputStream data) throws IOException {
+        NamedRegion region = new NamedRegion();
+        region.setName(readString(data));
+        int vertexCount = readCount(data);
+        List<Position> vertices = new ArrayList<>(vertexCount);
+        for (int i = 0; i < vertexCount; i++) {
+            vertices.add(new Position(data.readDouble(), data.readDouble()));
+        }
+        region.setVertices(vertices);
+        return region;
+    }
+
+    private static void writePosition(DataOutputStream data, Position position) throws IOException {
+        boolean present = position != null && position.getLng() != null && position.getLat() != null;
+        data.writeBoolean(present);
+        if (present) {
+            data.writeDouble(position.getLng());
+            data.writeDouble(position.getLat());
+        }
+    }
+
+    private static Position readPosition(DataInputStream data) throws IOException {
+        return data.readBoolean() ? new Position(data.readDouble(), data.readDouble()) : null;
+    }
+
+    private static void writeString(DataOutputStream data, String value) throws IOException {
+        data.writeBoolean(value != null);
+        if (value != null) {
+            data.writeUTF(value);
+        }
+    }
+
+    private static String readString(DataInputStream data) throws IOException {
+        return data.readBoolean() ? data.readUTF() : null;
+    }
+
+    private static int readCount(DataInputStream data) throws IOException {
+        int count = data.readInt();
+        if (count < 0) {
+            throw new IOException("Corrupt snapshot: negative count " + count);
+        }
+        return count;
+    }
+}
@@ -0,0 +1,42 @@
+package com.ilp.restservice.referencedata;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Helpers for loading the reference data sources side by side, each under a timeout.
+ */
+final class SourceFetch {
+
+    private SourceFetch() {
+    }
+
+    static <T> CompletableFuture<T> start(Supplier<T> fetch, ExecutorService executor, Duration timeout) {
+        // A timed-out fetch keeps its thread until the call returns; nobody waits for it
+        return CompletableFuture.supplyAsync(fetch, executor).orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @return why the finished fetch failed, or null if it succeeded
+     */
+    static String failure(CompletableFuture<?> fetch, Duration timeout) {
+        try {
+            fetch.join();
+            return null;
+        } catch (CompletionException e) {
+            return describe(e.getCause(), timeout);
+        }
+    }
+
+    static String describe(Throwable error, Duration timeout) {
+        if (error instanceof TimeoutException) {
+            return "timed out after " + timeout.toMillis() + " ms";
+        }
+        return error.getClass().getSimpleName() + ": " + error.getMessage();
+    }
+}
@@ -1,72 +1,157 @@
 package com.ilp.restservice.service;
 
+import java.time.Duration;
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.PriorityQueue;
-import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
+import com.ilp.restservice.dto.BatchDeliveryPathResult;
 import com.ilp.restservice.dto.OrderValidationResult;
+import com.ilp.restservice.dto.SearchModeComparison;
+import com.ilp.restservice.enums.DeliveryPathErrorCode;
 import com.ilp.restservice.enums.OrderStatus;
-import com.ilp.restservice.model.NamedRegion;
+import com.ilp.restservice.geometry.Airspace;
+import com.ilp.restservice.geometry.VisibilityGraph;
 import com.ilp.restservice.model.Order;
-import com.ilp.restservice.model.Pizza;
 import com.ilp.restservice.model.Position;
+import com.ilp.restservice.model.Restaurant;
+import com.ilp.restservice.pathfinding.AnytimeAStar;
+import com.ilp.restservice.pathfinding.BidirectionalAStar;
+import com.ilp.restservice.pathfinding.Corridor;
+import com.ilp.restservice.pathfinding.DroneLattice;
+import com.ilp.restservice.pathfinding.Heuristic;
+import com.ilp.restservice.pathfinding.JumpPointSearch;
+import com.ilp.restservice.pathfinding.LatticeAStar;
+import com.ilp.restservice.pathfinding.PathResult;
+import com.ilp.restservice.pathfinding.ReverseRouteTree;
+import com.ilp.restservice.pathfinding.RouteCache;
+import com.ilp.restservice.pathfinding.SearchAbortedException;
+import com.ilp.restservice.pathfinding.SearchEnvelope;
+import com.ilp.restservice.pathfinding.SearchLimits;
+import com.ilp.restservice.pathfinding.SearchMode;
+import com.ilp.restservice.pathfinding.SearchStats;
+import com.ilp.restservice.pathfinding.SearchTrace;
+import com.ilp.restservice.referencedata.ReferenceDataHolder;
+import com.ilp.restservice.referencedata.ReferenceDataLoadedEvent;
+import com.ilp.restservice.referencedata.ReferenceSnapshot;
 
 @Service
 public class CalcDeliveryPathService {
 
-    private static final double STEP = 0.00015;
-    private static final double TOLERANCE = 0.00015;
-
     // Appleton Tower location
     private static final Position APPLETON_TOWER = new Position(-3.186874, 55.944494);
 
-    // 16 directions: (dx, dy) of length STEP
-    private static final double INV_SQRT2 = 1.0 / Math.sqrt(2.0);
-    private static final double[][] DIRECTIONS = {
-        {0, STEP},                              // N (90°)
-        {STEP * Math.cos(Math.PI / 8), STEP * Math.sin(Math.PI / 8)},   // NNE (67.5°)
-        {STEP * INV_SQRT2, STEP * INV_SQRT2},   // NE (45°)
-        {STEP * Math.cos(3 * Math.PI / 8), STEP * Math.sin(3 * Math.PI / 8)}, // ENE (22.5°)
-        {STEP, 0},                              // E (0°)
-        {STEP * Math.cos(5 * Math.PI / 8), -STEP * Math.sin(5 * Math.PI / 8)}, // ESE (-22.5°)
-        {STEP * INV_SQRT2, -STEP * INV_SQRT2},  // SE (-45°)
-        {STEP * Math.cos(7 * Math.PI / 8), -STEP * Math.sin(7 * Math.PI / 8)}, // SSE (-67.5°)
-        {0, -STEP},                             // S (-90°)
-        {-STEP * Math.cos(7 * Math.PI / 8), -STEP * Math.sin(7 * Math.PI / 8)}, // SSW (-112.5°)
-        {-STEP * INV_SQRT2, -STEP * INV_SQRT2}, // SW (-135°)
-        {-STEP * Math.cos(5 * Math.PI / 8), -STEP * Math.sin(5 * Math.PI / 8)}, // WSW (-157.5°)
-        {-STEP, 0},                             // W (180°)
-        {-STEP * Math.cos(3 * Math.PI / 8), STEP * Math.sin(3 * Math.PI / 8)},  // WNW (157.5°)
-        {-STEP * INV_SQRT2, STEP * INV_SQRT2},  // NW (135°)
-        {-STEP * Math.cos(Math.PI / 8), STEP * Math.sin(Math.PI / 8)}           // NNW (112.5°)
-    };
+    // The modes that plan each route on its own, and so can be timed route by route
+    private static final List<SearchMode> COMPARED_MODES = List.of(SearchMode.FORWARD, SearchMode.JUMP_POINT,
+            SearchMode.BIDIRECTIONAL, SearchMode.HIERARCHICAL, SearchMode.ANYTIME);
+    // Room either side of the coarse route, which itself keeps 3 steps off the zone corners
+    private static final double CORRIDOR_HALF_WIDTH = 6 * DroneLattice.STEP;
 
     private final OrderValidationService orderValidationService;
-    private final RestaurantFetchService restaurantFetchService;
-    private final NoFlyZoneService noFlyZoneService;
-    private final CentralAreaService centralAreaService;
-    private final PointInPolygonService pointInPolygonService;
+    private final ReferenceDataHolder referenceData;
+    private final PathPlanningMetrics metrics;
+    private final ExecutorService pathPlanningExecutor;
+    private final LatticeAStar latticeAStar;
+    private final JumpPointSearch jumpPointSearch;
+    private final BidirectionalAStar bidirectionalAStar;
+    private final AnytimeAStar anytimeAStar;
+    private final RouteCache routeCache;
+    private final boolean warmUpRouteCache;
+    private final SearchMode searchMode;
+    private final Map<String, SearchMode> routeSearchModes;
+    private final int reverseTreeMaxExpansions;
+    private final int reverseTreeMaxNodes;
+    private final boolean useLandmarks;
+    private final int maxExpansions;
+    private final Duration searchDeadline;
+    private final double envelopeMargin;
+    private volatile VersionedTree reverseTree;
 
     public CalcDeliveryPathService(
             OrderValidationService orderValidationService,
-            RestaurantFetchService restaurantFetchService,
-            NoFlyZoneService noFlyZoneService,
-            CentralAreaService centralAreaService,
-            PointInPolygonService pointInPolygonService
+            ReferenceDataHolder referenceData,
+            PathPlanningMetrics metrics,
+            @Qualifier("pathPlanningExecutor") ExecutorService pathPlanningExecutor,
+            @Value("${ilp.path.route-cache.max-size:256}") int routeCacheMaxSize,
+            @Value("${ilp.path.route-cache.warm-up:true}") boolean warmUpRouteCache,
+            @Value("${ilp.path.search-mode:forward}") SearchMode searchMode,
+            @Value("${ilp.path.reverse-tree.max-expansions:100000}") int reverseTreeMaxExpansions,
+            @Value("${ilp.path.reverse-tree.max-nodes:500000}") int reverseTreeMaxNodes,
+            @Value("#{${ilp.path.route-search-modes:{:}}}") Map<String, SearchMode> routeSearchModes,
+            @Value("${ilp.path.heuristic-weight:1.04}") double heuristicWeight,
+            @Value("${ilp.path.landmarks.enabled:false}") boolean useLandmarks,
+            @Value("${ilp.path.limits.max-expansions:100000}") int maxExpansions,
+            @Value("${ilp.path.limits.deadline:2s}") Duration searchDeadline,
+            @Value("${ilp.path.limits.envelope-margin-steps:100}") int envelopeMarginSteps,
+            @Value("${ilp.path.anytime.initial-weight:3.0}") double anytimeInitialWeight,
+            @Value("${ilp.path.anytime.weight-step:0.5}") double anytimeWeightStep,
+            @Value("${ilp.path.anytime.deadline:100ms}") Duration anytimeDeadline
     ) {
         this.orderValidationService = orderValidationService;
-        this.restaurantFetchService = restaurantFetchService;
-        this.noFlyZoneService = noFlyZoneService;
-        this.centralAreaService = centralAreaService;
-        this.pointInPolygonService = pointInPolygonService;
+        this.referenceData = referenceData;
+        this.metrics = metrics;
+        this.pathPlanningExecutor = pathPlanningExecutor;
+        this.routeCache = new RouteCache(routeCacheMaxSize);
+        this.warmUpRouteCache = warmUpRouteCache;
+        this.searchMode = searchMode;
+        this.reverseTreeMaxExpansions = reverseTreeMaxExpansions;
+        this.reverseTreeMaxNodes = reverseTreeMaxNodes;
+        this.routeSearchModes = Map.copyOf(routeSearchModes);
+        this.latticeAStar = new LatticeAStar(heuristicWeight);
+        this.jumpPointSearch = new JumpPointSearch(heuristicWeight);
+        this.bidirectionalAStar = new BidirectionalAStar(heuristicWeight);
+        this.anytimeAStar = new AnytimeAStar(anytimeInitialWeight, anytimeWeightStep, anytimeDeadline);
+        this.useLandmarks = useLandmarks;
+        this.maxExpansions = maxExpansions;
+        this.searchDeadline = searchDeadline;
+        this.envelopeMargin = envelopeMarginSteps * DroneLattice.STEP;
+    }
+
+    /**
+     * Plan the route from every known restaurant whenever new reference data goes live, so
+     * the first order from each restaurant is already a cache hit. Runs on the publishing
+     * thread, off the request path.
+     */
+    @EventListener(ReferenceDataLoadedEvent.class)
+    public void warmUpRouteCache(ReferenceDataLoadedEvent event) {
+        // Entries for older versions can never be hit again
+        routeCache.invalidateAll();
+        if (!warmUpRouteCache) {
+            return;
+        }
+        ReferenceSnapshot snapshot = event.getSnapshot();
+        List<Restaurant> located = snapshot.getRestaurants().stream().filter(r -> r.getLocation() != null).toList();
+        List<Restaurant> treeRoutes = located.stream()
+                .filter(r -> searchModeFor(r) == SearchMode.REVERSE_TREE).toList();
+        if (!treeRoutes.isEmpty()) {
+            // One flood from the tower covering every such restaurant at once
+            double[] lngs = new double[treeRoutes.size()];
+            double[] lats = new double[treeRoutes.size()];
+            for (int i = 0; i < treeRoutes.size(); i++) {
+                lngs[i] = treeRoutes.get(i).getLocation().getLng();
+                lats[i] = treeRoutes.get(i).getLocation().getLat();
+            }
+            ReverseRouteTree tree = reverseTree(snapshot.getAirspace());
+            if (tree != null) {
+                tree.cover(lngs, lats);
+            }
+        }
+        for (Restaurant r : located) {
+            try {
+                findRoute(r, searchModeFor(r), newLimits());
+            } catch (SearchAbortedException e) {
+                // Left uncached; the first order from there reports the failure
+            }
+        }
     }
 
     /**
@@ -80,8 +165,34 @@ public class CalcDeliveryPathService {
      * @param order The incoming order
      * @return The path as a list of Position objects
      * @throws IllegalArgumentException if order is invalid or no path can be found
+     * @throws SearchAbortedException   if the search hit its expansion budget or deadline
      */
     public List<Position> computeDeliveryPath(Order order) {
+        return planDelivery(order).toPositions();
+    }
+
+    /**
+     * Same as {@link #computeDeliveryPath}, keeping the restaurant and the primitive
+     * waypoints, for writers that stream the path out.
+     *
+     * @throws IllegalArgumentException if order is invalid or no path can be found
+     * @throws SearchAbortedException   if the search hit its expansion budget or deadline
+     */
+    public DeliveryRoute planDelivery(Order order) {
+        return planDelivery(order, null);
+    }
+
+    /**
+     * As {@link #planDelivery(Order)}, recording the search in the trace if one is given.
+     * A traced route is always searched afresh, bypassing the route cache, and with a
+     * lattice A* the trace can record: hierarchical if that is the restaurant's mode,
+     * forward otherwise.
+     *
+     * @param trace the trace to fill, or null for an ordinary, cached plan
+     * @throws IllegalArgumentException if order is invalid or no path can be found
+     * @throws SearchAbortedException   if the search hit its expansion budget or deadline
+     */
+    public DeliveryRoute planDelivery(Order order, SearchTrace trace) {
         // 1) Validate order first
         OrderValidationResult validationResult = orderValidationService.validateOrder(order);
         if (validationResult.getOrderStatus() != OrderStatus.VALID) {
@@ -89,259 +200,336 @@ public class CalcDeliveryPathService {
             throw new IllegalArgumentException("Order invalid: " + validationResult.getOrderValidationCode());
         }
 
-        // 2) Get restaurant location (all pizzas must come from exactly one restaurant)
-        Position restaurantPos = findRestaurantLocation(order);
+        // 2) Get restaurant location (resolved during validation: the single restaurant
+        //    supplying all pizzas)
+        Restaurant restaurant = validationResult.getRestaurant();
+        if (restaurant == null) {
+            throw new IllegalArgumentException(
+                    "Could not find a single restaurant that can supply all pizzas for this order."
+            );
+        }
 
-        // 3) A* from restaurant to Appleton Tower
-        List<Position> rawPath = aStarSearch(restaurantPos, APPLETON_TOWER);
+        // 3) A* from restaurant to Appleton Tower (cached per restaurant location)
+        PathResult route = trace == null
+                ? findRoute(restaurant, searchModeFor(restaurant), newLimits())
+                : tracedRoute(restaurant, trace);
 
-        if (rawPath.isEmpty()) {
+        if (!route.isFound()) {
             throw new IllegalArgumentException("No path found (A* search returned empty).");
         }
 
-        // 4) Insert hover steps:
-        //    - Duplicate the first coordinate (hover at restaurant)
-        //    - Duplicate the last coordinate (hover at Appleton Tower)
-        List<Position> finalPath = new ArrayList<>(rawPath);
-        finalPath.add(1, rawPath.get(0));
-        finalPath.add(finalPath.get(finalPath.size() - 1));
-
-        return finalPath;
+        // 4) Insert hover steps
+        return new DeliveryRoute(restaurant, route);
     }
 
     /**
-     * Attempt to find exactly one restaurant whose menu contains ALL the pizzas in the order.
-     * If none or more than one such restaurant is found, throw an exception.
+     * Batch entry: plan the paths for many orders at once.
+     * - Validate all orders (in parallel)
+     * - Search once per distinct restaurant location, on the path planning pool, all
+     *   within one shared deadline
+     * - Hand every order the path of its restaurant
+     * An order that cannot be served gets an error entry; it never fails the batch.
+     *
+     * @return one entry per order, in input order
      */
-    private Position findRestaurantLocation(Order order) {
-        List<Pizza> pizzas = order.getPizzasInOrder();
-        var allRestaurants = restaurantFetchService.getAllRestaurants();
-
-        // Find a single restaurant that can fulfill ALL pizzas
-        List<Position> matchingRestaurants = new ArrayList<>();
-        for (var r : allRestaurants) {
-            boolean canFulfillAll = true;
-            for (Pizza p : pizzas) {
-                boolean found = r.getMenu().stream()
-                        .anyMatch(menuPizza -> menuPizza.getName().equalsIgnoreCase(p.getName()));
-                if (!found) {
-                    canFulfillAll = false;
-                    break;
-                }
-            }
-            if (canFulfillAll) {
-                matchingRestaurants.add(new Position(r.getLocation().getLng(), r.getLocation().getLat()));
+    public List<BatchDeliveryPathResult> computeDeliveryPaths(List<Order> orders) {
+        List<OrderValidationResult> validations = orderValidationService.validateOrders(orders);
+
+        // One search per distinct restaurant location in this batch
+        SearchLimits limits = newLimits();
+        Map<RouteStart, Future<PathResult>> searches = new HashMap<>();
+        for (OrderValidationResult validation : validations) {
+            Restaurant restaurant = validation.getRestaurant();
+            if (validation.getOrderStatus() == OrderStatus.VALID && restaurant != null
+                    && restaurant.getLocation() != null) {
+                RouteStart start = new RouteStart(restaurant.getLocation().getLng(), restaurant.getLocation().getLat());
+                SearchMode mode = searchModeFor(restaurant);
+                searches.computeIfAbsent(start,
+                        s -> pathPlanningExecutor.submit(() -> findRoute(restaurant, mode, limits)));
             }
         }
 
-        if (matchingRestaurants.size() == 1) {
-            return matchingRestaurants.get(0);
-        } else {
-            throw new IllegalArgumentException(
-                    "Could not find a single restaurant that can supply all pizzas for this order."
-            );
+        List<BatchDeliveryPathResult> results = new ArrayList<>(orders.size());
+        for (int i = 0; i < orders.size(); i++) {
+            String orderNo = orders.get(i) == null ? null : orders.get(i).getOrderNo();
+            results.add(toBatchResult(orderNo, validations.get(i), searches));
         }
+        return results;
     }
 
-    /**
-     * A* search from start to goal. Return the path as a list of Position.
-     */
-    private List<Position> aStarSearch(Position start, Position goal) {
-
-        // We'll track whether we're inside the central area in our Node
-        boolean startInCentral = isInsideCentral(start);
-
-        Node startNode = new Node(start, 0.0, heuristicDistance(start, goal), null, startInCentral);
-
-        // Min-heap on f = g + h
-        PriorityQueue<Node> openSet = new PriorityQueue<>(Comparator.comparingDouble(n -> n.f()));
-        openSet.add(startNode);
-
-        // Keep track of visited states: (lng, lat, insideCentral)
-        Set<NodeKey> visited = new HashSet<>();
-        visited.add(new NodeKey(start, startInCentral));
-
-        Map<NodeKey, Node> cameFrom = new HashMap<>();
-        cameFrom.put(new NodeKey(start, startInCentral), startNode);
-
-        while (!openSet.isEmpty()) {
-            Node current = openSet.poll();
-
-            // If we're within TOLERANCE of the goal, reconstruct path
-            if (distance(current.position, goal) < TOLERANCE) {
-                return reconstructPath(current);
+    private BatchDeliveryPathResult toBatchResult(String orderNo, OrderValidationResult validation,
+                                                  Map<RouteStart, Future<PathResult>> searches) {
+        if (validation.getOrderStatus() != OrderStatus.VALID) {
+            return BatchDeliveryPathResult.invalidOrder(orderNo, validation.getOrderValidationCode());
+        }
+        Restaurant restaurant = validation.getRestaurant();
+        if (restaurant == null || restaurant.getLocation() == null) {
+            return BatchDeliveryPathResult.error(orderNo, DeliveryPathErrorCode.RESTAURANT_NOT_FOUND,
+                    "Could not find a single restaurant that can supply all pizzas for this order.");
+        }
+        Future<PathResult> search = searches.get(
+                new RouteStart(restaurant.getLocation().getLng(), restaurant.getLocation().getLat()));
+        PathResult route;
+        try {
+            route = search.get();
+        } catch (InterruptedException e) {
+            // Nobody will read the path: stop the search too
+            search.cancel(true);
+            Thread.currentThread().interrupt();
+            return BatchDeliveryPathResult.error(orderNo, DeliveryPathErrorCode.PLANNING_FAILED,
+                    "Interrupted while planning the path.");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof SearchAbortedException aborted) {
+                return BatchDeliveryPathResult.error(orderNo, errorCodeFor(aborted), aborted.getMessage());
             }
+            return BatchDeliveryPathResult.error(orderNo, DeliveryPathErrorCode.PLANNING_FAILED,
+                    e.getCause().getMessage());
+        }
+        if (!route.isFound()) {
+            return BatchDeliveryPathResult.error(orderNo, DeliveryPathErrorCode.NO_PATH_FOUND,
+                    "No path found (A* search returned empty).");
+        }
+        BatchDeliveryPathResult result = BatchDeliveryPathResult.ok(orderNo,
+                new DeliveryRoute(restaurant, route).toPositions());
+        double bound = route.getStats().getSuboptimalityBound();
+        result.setSuboptimalityBound(Double.isNaN(bound) ? null : bound);
+        return result;
+    }
 
-            // Explore neighbors
-            for (double[] dir : DIRECTIONS) {
-                Position nextPos = new Position(
-                        current.position.getLng() + dir[0],
-                        current.position.getLat() + dir[1]
-                );
-                // Next node's insideCentral depends on either we were already inside OR we just stepped inside
-                boolean nextInCentral = current.insideCentralArea || isInsideCentral(nextPos);
-
-                // Check if this move is valid
-                if (!isValidMove(current.position, nextPos, current.insideCentralArea, nextInCentral)) {
-                    continue; // skip invalid neighbor
-                }
-
-                double tentativeG = current.g + 1.0; // each step costs 1
-
-                NodeKey nextKey = new NodeKey(nextPos, nextInCentral);
-                if (!visited.contains(nextKey)) {
-                    visited.add(nextKey);
-
-                    // Heuristic
-                    double hVal = heuristicDistance(nextPos, goal);
+    private static DeliveryPathErrorCode errorCodeFor(SearchAbortedException e) {
+        return switch (e.getReason()) {
+            case EXPANSION_BUDGET -> DeliveryPathErrorCode.SEARCH_BUDGET_EXHAUSTED;
+            case DEADLINE -> DeliveryPathErrorCode.SEARCH_TIMED_OUT;
+            case CANCELLED -> DeliveryPathErrorCode.PLANNING_FAILED;
+        };
+    }
 
-                    Node nextNode = new Node(nextPos, tentativeG, hVal, current, nextInCentral);
-                    openSet.add(nextNode);
-                    cameFrom.put(nextKey, nextNode);
-                }
+    /**
+     * The route from a restaurant to Appleton Tower, served from the route cache when the
+     * same location was already planned against the current zone data.
+     */
+    private PathResult findRoute(Restaurant restaurant, SearchMode mode, SearchLimits limits) {
+        double startLng = restaurant.getLocation().getLng();
+        double startLat = restaurant.getLocation().getLat();
+        Airspace current = airspace();
+        PathResult route = routeCache.get(startLng, startLat, current.getVersion());
+        metrics.recordCacheLookup(route != null);
+        if (route == null) {
+            route = planRoute(restaurant.getName(), startLng, startLat, current, mode, limits);
+            // An anytime route cut short by its deadline is planned again next time, when
+            // there may be time to improve it
+            if (!(route.getStats().getSuboptimalityBound() > 1.0)) {
+                routeCache.put(startLng, startLat, current.getVersion(), route);
             }
         }
-
-        // No path found
-        return List.of();
+        return route;
     }
 
     /**
-     * Reconstruct path by following parent links up to the start.
+     * The route from a restaurant to Appleton Tower, searched afresh and traced.
      */
-    private List<Position> reconstructPath(Node endNode) {
-        List<Position> path = new ArrayList<>();
-        Node current = endNode;
-        while (current != null) {
-            path.add(current.position);
-            current = current.parent;
-        }
-        Collections.reverse(path); // because we went from end to start
-        return path;
+    private PathResult tracedRoute(Restaurant restaurant, SearchTrace trace) {
+        SearchMode mode = searchModeFor(restaurant) == SearchMode.HIERARCHICAL
+                ? SearchMode.HIERARCHICAL
+                : SearchMode.FORWARD;
+        return measuredSearch(restaurant.getName(), mode, restaurant.getLocation().getLng(),
+                restaurant.getLocation().getLat(), airspace(), newLimits(), trace);
     }
 
     /**
-     * Checks if a proposed move from `startPos` to `endPos` is valid:
-     * 1) Must not cross no-fly zones.
-     * 2) If we were in central area, we can't leave. (onceInside -> alwaysInside).
-     * 3) Otherwise, do your usual checks (e.g. bounding box or other constraints).
+     * The route from a restaurant to Appleton Tower with the given mode. A search that runs
+     * out of expansions is tried once more with the anytime search, whose weighted first
+     * pass reaches the tower within the budget from starts that flood the optimal search;
+     * its route carries its suboptimality bound.
+     *
+     * @throws SearchAbortedException if the fallback runs out too, or a deadline is reached
      */
-    private boolean isValidMove(Position startPos, Position endPos, boolean wasInsideCentral, boolean isInsideCentralNow) {
-        // 1) If we were inside central area, we can't leave:
-        if (wasInsideCentral && !isInsideCentralNow) {
-            return false;
+    private PathResult planRoute(String restaurant, double startLng, double startLat, Airspace current,
+                                 SearchMode mode, SearchLimits limits) {
+        try {
+            return plannedRoute(restaurant, startLng, startLat, current, mode, limits);
+        } catch (SearchAbortedException e) {
+            if (e.getReason() != SearchAbortedException.Reason.EXPANSION_BUDGET || mode == SearchMode.ANYTIME) {
+                throw e;
+            }
+            return measuredSearch(restaurant, SearchMode.ANYTIME, startLng, startLat, current, limits, null);
         }
+    }
 
-        // 2) Check crossing or ending in a no-fly zone
-        if (crossesAnyNoFlyZone(startPos, endPos)) {
-            return false;
+    private PathResult plannedRoute(String restaurant, double startLng, double startLat, Airspace current,
+                                    SearchMode mode, SearchLimits limits) {
+        if (mode == SearchMode.REVERSE_TREE) {
+            ReverseRouteTree tree = reverseTree(current);
+            PathResult route = tree == null ? null : tree.route(startLng, startLat);
+            if (route != null) {
+                return route;
+            }
+            // Budget spent, or the shifted tree path clips a zone: plan this one directly
+            return measuredSearch(restaurant, SearchMode.FORWARD, startLng, startLat, current, limits, null);
         }
-
-        // Additional checks if needed
-        return true;
+        PathResult route = measuredSearch(restaurant, mode, startLng, startLat, current, limits, null);
+        if (!route.isFound() && mode != SearchMode.FORWARD && mode != SearchMode.ANYTIME) {
+            // Jumps, meeting frontiers and corridors can miss a path; confirm "no path" step by step
+            return measuredSearch(restaurant, SearchMode.FORWARD, startLng, startLat, current, limits, null);
+        }
+        return route;
     }
 
     /**
-     * Check if the line from startPos to endPos intersects or goes inside any no-fly zone polygon.
-     * Simple approach:
-     *  - If the end point is inside a no-fly zone => invalid
-     *  - You could also do a line-segment intersection check for each polygon if needed
+     * {@link #search}, recorded in the path planning metrics under this restaurant.
      */
-    private boolean crossesAnyNoFlyZone(Position startPos, Position endPos) {
-        List<NamedRegion> noFlyZones = noFlyZoneService.getNoFlyZones();
-        // For each zone, check:
-        for (NamedRegion zone : noFlyZones) {
-            // Check if end is inside => invalid
-            if (pointInPolygonService.isPointInPolygon(endPos, zone.getVertices())) {
-                return true;
-            }
-            // Optionally check the midpoint or sub-segment for robust intersection
+    private PathResult measuredSearch(String restaurant, SearchMode mode, double startLng, double startLat,
+                                      Airspace current, SearchLimits limits, SearchTrace trace) {
+        SearchEnvelope envelope = envelope(startLng, startLat, current);
+        long started = System.nanoTime();
+        try {
+            PathResult route = search(mode, startLng, startLat, current, envelope, limits, trace);
+            metrics.recordSearch(restaurant, mode, route, System.nanoTime() - started, envelope.getZoneTests(),
+                    envelope.getClearTests());
+            return route;
+        } catch (SearchAbortedException e) {
+            metrics.recordAborted(restaurant, mode, e, System.nanoTime() - started, envelope.getZoneTests(),
+                    envelope.getClearTests());
+            throw e;
         }
-        return false;
     }
 
-    private boolean isInsideCentral(Position pos) {
-        NamedRegion central = centralAreaService.getCentralArea();
-        if (central == null) {
-            return false; // if no central area is defined
-        }
-        // Use point-in-polygon to see if pos is inside the central polygon
-        return pointInPolygonService.isPointInPolygon(pos, central.getVertices());
+    /**
+     * The search envelope around the zones and both end points of a route to Appleton Tower.
+     */
+    private SearchEnvelope envelope(double startLng, double startLat, Airspace current) {
+        return current.envelope(startLng, startLat, APPLETON_TOWER.getLng(), APPLETON_TOWER.getLat(),
+                envelopeMargin);
     }
 
     /**
-     * Heuristic = Euclidean distance from current to goal (in degrees, which is approximate).
+     * One search to Appleton Tower with the given single-route mode, kept inside the
+     * envelope.
+     *
+     * @param trace filled by the forward and hierarchical modes, if given
+     * @throws SearchAbortedException if a limit is reached before the search ends
      */
-    private double heuristicDistance(Position a, Position b) {
-        // We scale by STEP so we get a suitable "grid-based" heuristic
-        return distance(a, b) / STEP;
+    private PathResult search(SearchMode mode, double startLng, double startLat, Airspace current,
+                              SearchEnvelope envelope, SearchLimits limits, SearchTrace trace) {
+        double goalLng = APPLETON_TOWER.getLng();
+        double goalLat = APPLETON_TOWER.getLat();
+        return switch (mode) {
+            case JUMP_POINT -> jumpPointSearch.search(startLng, startLat, goalLng, goalLat, envelope,
+                    heuristic(current, goalLng, goalLat), limits);
+            case BIDIRECTIONAL -> bidirectionalAStar.search(startLng, startLat, goalLng, goalLat, envelope,
+                    heuristic(current, goalLng, goalLat), heuristic(current, startLng, startLat), limits);
+            case HIERARCHICAL -> {
+                VisibilityGraph.Route coarse = current.getVisibilityGraph().route(startLng, startLat, goalLng, goalLat);
+                yield coarse == null
+                        ? PathResult.notFound(new SearchStats())
+                        : latticeAStar.search(startLng, startLat, goalLng, goalLat,
+                                new Corridor(envelope, coarse.lngs(), coarse.lats(), CORRIDOR_HALF_WIDTH),
+                                heuristic(current, goalLng, goalLat), limits, trace);
+            }
+            // Its bound needs an estimate that never overestimates: the lattice distance, which
+            // the landmark bound already includes
+            case ANYTIME -> anytimeAStar.search(startLng, startLat, goalLng, goalLat, envelope,
+                    useLandmarks ? heuristic(current, goalLng, goalLat) : Heuristic.lattice(goalLng, goalLat), limits);
+            default -> latticeAStar.search(startLng, startLat, goalLng, goalLat, envelope,
+                    heuristic(current, goalLng, goalLat), limits, trace);
+        };
     }
 
     /**
-     * Euclidean distance in degrees (rough approximation).
+     * Fresh limits from ilp.path.limits.*, with the deadline counted from now.
      */
-    private double distance(Position p1, Position p2) {
-        double dx = p1.getLng() - p2.getLng();
-        double dy = p1.getLat() - p2.getLat();
-        return Math.sqrt(dx * dx + dy * dy);
+    private SearchLimits newLimits() {
+        return SearchLimits.of(maxExpansions, searchDeadline);
     }
 
-    // ----------------------------- A* Node Classes -----------------------------
+    /**
+     * The landmark bound if ilp.path.landmarks.enabled is set, else the straight line.
+     */
+    private Heuristic heuristic(Airspace current, double goalLng, double goalLat) {
+        return useLandmarks
+                ? current.getLandmarks().towards(goalLng, goalLat)
+                : Heuristic.straightLine(goalLng, goalLat);
+    }
 
     /**
-     * Node representing a location in the search space.
+     * The search mode for routes from this restaurant: its entry in
+     * ilp.path.route-search-modes, or the default ilp.path.search-mode.
      */
-    private static class Node {
-        Position position;        // the (lng, lat)
-        double g;                 // cost from start
-        double h;                 // heuristic distance to goal
-        Node parent;              // link to reconstruct path
-        boolean insideCentralArea;
-
-        Node(Position position, double g, double h, Node parent, boolean insideCentralArea) {
-            this.position = position;
-            this.g = g;
-            this.h = h;
-            this.parent = parent;
-            this.insideCentralArea = insideCentralArea;
-        }
+    private SearchMode searchModeFor(Restaurant restaurant) {
+        return routeSearchModes.getOrDefault(restaurant.getName(), searchMode);
+    }
 
-        double f() {
-            // Slightly inflate the heuristic (e.g., h * 1.04) if desired
-            return g + h * 1.04;
+    /**
+     * Plan the route from every known restaurant once with each single-route search mode,
+     * bypassing the route cache, so the best mode can be picked per route. The reverse
+     * tree is left out: its cost is shared between routes.
+     */
+    public List<SearchModeComparison> compareSearchModes() {
+        ReferenceSnapshot snapshot = referenceData.current();
+        if (snapshot == null) {
+            throw new IllegalStateException("Reference data is not loaded");
+        }
+        List<SearchModeComparison> comparisons = new ArrayList<>();
+        for (Restaurant r : snapshot.getRestaurants()) {
+            if (r.getLocation() == null) {
+                continue;
+            }
+            SearchModeComparison comparison = new SearchModeComparison(r.getName(), searchModeFor(r));
+            for (SearchMode mode : COMPARED_MODES) {
+                long started = System.nanoTime();
+                PathResult route;
+                try {
+                    double lng = r.getLocation().getLng();
+                    double lat = r.getLocation().getLat();
+                    route = search(mode, lng, lat, snapshot.getAirspace(), envelope(lng, lat, snapshot.getAirspace()),
+                            newLimits(), null);
+                } catch (SearchAbortedException e) {
+                    route = PathResult.notFound(new SearchStats());
+                }
+                comparison.add(mode, route, System.nanoTime() - started);
+            }
+            comparisons.add(comparison);
         }
+        return comparisons;
     }
 
     /**
-     * Key to track visited states: (lng, lat, insideCentral).
+     * The flight constraints of the live reference snapshot. Versioned with the snapshot,
+     * so route cache entries planned against older zones are never hit.
      */
-    private static class NodeKey {
-        double lng;
-        double lat;
-        boolean insideCentral;
-
-        NodeKey(Position pos, boolean insideCentral) {
-            this.lng = pos.getLng();
-            this.lat = pos.getLat();
-            this.insideCentral = insideCentral;
+    private Airspace airspace() {
+        ReferenceSnapshot snapshot = referenceData.current();
+        if (snapshot == null) {
+            throw new IllegalStateException("Reference data is not loaded");
         }
+        return snapshot.getAirspace();
+    }
 
-        @Override
-        public boolean equals(Object other) {
-            if (this == other) return true;
-            if (other == null || getClass() != other.getClass()) return false;
-            NodeKey that = (NodeKey) other;
-            return Double.compare(lng, that.lng) == 0
-                    && Double.compare(lat, that.lat) == 0
-                    && insideCentral == that.insideCentral;
+    /**
+     * The reverse tree for this airspace, started on first use of each new version.
+     *
+     * @return the tree, or null if the airspace is older than the current tree's (a request
+     *         that started before a swap), which then plans forwards
+     */
+    private ReverseRouteTree reverseTree(Airspace current) {
+        VersionedTree tree = reverseTree;
+        if (tree == null || tree.version() < current.getVersion()) {
+            synchronized (this) {
+                tree = reverseTree;
+                if (tree == null || tree.version() < current.getVersion()) {
+                    tree = new VersionedTree(current.getVersion(), new ReverseRouteTree(
+                            APPLETON_TOWER.getLng(), APPLETON_TOWER.getLat(), current,
+                            reverseTreeMaxExpansions, reverseTreeMaxNodes));
+                    reverseTree = tree;
+                }
+            }
         }
+        return tree.version() == current.getVersion() ? tree.tree() : null;
+    }
 
-        @Override
-        public int hashCode() {
-            int result = Double.hashCode(lng);
-            result = 31 * result + Double.hashCode(lat);
-            result = 31 * result + (insideCentral ? 1 : 0);
-            return result;
-        }
+    private record RouteStart(double lng, double lat) {
+    }
+
+    private record VersionedTree(long version, ReverseRouteTree tree) {
     }
 }
@@ -1,11 +1,12 @@
 package com.ilp.restservice.service;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
 import com.ilp.restservice.model.NamedRegion;
-
-import jakarta.annotation.PostConstruct;
+import com.ilp.restservice.referencedata.ReferenceDataHolder;
+import com.ilp.restservice.referencedata.ReferenceSnapshot;
 
 @Service
 public class CentralAreaService {
@@ -13,24 +14,34 @@ public class CentralAreaService {
     private static final String CENTRAL_AREA_URL = "https://ilp-rest-2024.azurewebsites.net/centralArea";
 
     private final RestTemplate restTemplate;
-    private NamedRegion centralArea; // single polygon
+    private final ReferenceDataHolder referenceData;
 
     public CentralAreaService() {
-        this.restTemplate = new RestTemplate();
+        this(null);
     }
 
-    @PostConstruct
-    public void init() {
-        this.centralArea = fetchCentralArea();
+    @Autowired
+    public CentralAreaService(ReferenceDataHolder referenceData) {
+        this.restTemplate = new RestTemplate();
+        this.referenceData = referenceData;
     }
 
-    private NamedRegion fetchCentralArea() {
+    /**
+     * Fetch the central area from the remote host. Used by the reference data bootstrap and
+     * refresher; request handling reads the live snapshot instead.
+     */
+    public NamedRegion fetchCentralArea() {
         // If the API returns a single region
         NamedRegion region = restTemplate.getForObject(CENTRAL_AREA_URL, NamedRegion.class);
         return region;
     }
 
+    /**
+     * @return the central area of the live reference snapshot (a single polygon), or null
+     *         before it is loaded
+     */
     public NamedRegion getCentralArea() {
-        return centralArea;
+        ReferenceSnapshot snapshot = referenceData == null ? null : referenceData.current();
+        return snapshot == null ? null : snapshot.getCentralArea();
     }
 }
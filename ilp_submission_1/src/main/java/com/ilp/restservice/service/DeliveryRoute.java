@@ -0,0 +1,72 @@
+package com.ilp.restservice.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.ilp.restservice.model.Position;
+import com.ilp.restservice.model.Restaurant;
+import com.ilp.restservice.pathfinding.PathResult;
+
+/**
+ * A planned delivery: the restaurant, and the flight path to Appleton Tower with the hover
+ * steps in place. The waypoints are read straight from the search result's primitive
+ * arrays; the hover steps are index arithmetic, not copies:
+ *  - 0 and 1 are the restaurant (hover at pickup)
+ *  - the last two are the tower (hover at drop-off)
+ */
+public final class DeliveryRoute {
+
+    private final Restaurant restaurant;
+    private final PathResult path;
+
+    public DeliveryRoute(Restaurant restaurant, PathResult path) {
+        this.restaurant = restaurant;
+        this.path = path;
+    }
+
+    public Restaurant getRestaurant() {
+        return restaurant;
+    }
+
+    /**
+     * @return how many times longer than the shortest path this path can be, if it was
+     *         planned in the anytime search mode; NaN otherwise
+     */
+    public double getSuboptimalityBound() {
+        return path.getStats().getSuboptimalityBound();
+    }
+
+    /**
+     * @return the number of waypoints, hover steps included
+     */
+    public int size() {
+        return path.size() + 2;
+    }
+
+    public double lng(int index) {
+        return path.lng(pathIndex(index));
+    }
+
+    public double lat(int index) {
+        return path.lat(pathIndex(index));
+    }
+
+    /**
+     * The waypoints as positions; each hover step shares the position it repeats.
+     */
+    public List<Position> toPositions() {
+        List<Position> rawPath = path.toPositions();
+        List<Position> finalPath = new ArrayList<>(rawPath.size() + 2);
+        finalPath.addAll(rawPath);
+        finalPath.add(1, rawPath.get(0));
+        finalPath.add(finalPath.get(finalPath.size() - 1));
+        return finalPath;
+    }
+
+    private int pathIndex(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return Math.min(Math.max(index - 1, 0), path.size() - 1);
+    }
+}
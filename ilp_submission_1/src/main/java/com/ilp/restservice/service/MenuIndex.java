@@ -0,0 +1,160 @@
+package com.ilp.restservice.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import com.ilp.restservice.model.Pizza;
+import com.ilp.restservice.model.Restaurant;
+
+/**
+ * Immutable lookup tables over a fixed list of restaurants, built once whenever the
+ * restaurant data is (re)loaded.
+ *
+ * Pizza names are case-folded the same way String.equalsIgnoreCase compares them, so a
+ * hash lookup gives exactly the answers the old menu scans did:
+ *  - folded name -> the restaurants serving it, in list order
+ *  - restaurant -> (folded name -> first menu entry with that name)
+ */
+public final class MenuIndex {
+
+    private final List<Restaurant> restaurants;
+    private final Map<String, List<Restaurant>> restaurantsByPizza;
+    private final Map<Restaurant, Map<String, Pizza>> menus;
+
+    private MenuIndex(List<Restaurant> restaurants, Map<String, List<Restaurant>> restaurantsByPizza,
+                      Map<Restaurant, Map<String, Pizza>> menus) {
+        this.restaurants = restaurants;
+        this.restaurantsByPizza = restaurantsByPizza;
+        this.menus = menus;
+    }
+
+    public static MenuIndex of(List<Restaurant> restaurants) {
+        List<Restaurant> source = restaurants == null ? List.of() : restaurants;
+        Map<String, List<Restaurant>> byPizza = new HashMap<>();
+        Map<Restaurant, Map<String, Pizza>> menus = new IdentityHashMap<>();
+
+        for (Restaurant r : source) {
+            Map<String, Pizza> menu = new HashMap<>();
+            if (r.getMenu() != null) {
+                for (Pizza p : r.getMenu()) {
+                    String key = fold(p.getName());
+                    if (key == null || menu.containsKey(key)) {
+                        continue; // keep the first entry, like findFirst() did
+                    }
+                    menu.put(key, p);
+                    byPizza.computeIfAbsent(key, k -> new ArrayList<>()).add(r);
+                }
+            }
+            menus.put(r, menu);
+        }
+        byPizza.replaceAll((k, list) -> List.copyOf(list));
+        return new MenuIndex(source, Map.copyOf(byPizza), Collections.unmodifiableMap(menus));
+    }
+
+    /**
+     * Case-fold a pizza name so that a.equalsIgnoreCase(b) iff fold(a).equals(fold(b)).
+     *
+     * @return the folded name, or null for a null name
+     */
+    public static String fold(String name) {
+        if (name == null) {
+            return null;
+        }
+        char[] chars = name.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Character.toLowerCase(Character.toUpperCase(chars[i]));
+        }
+        return new String(chars);
+    }
+
+    /**
+     * @return true if this index was built from exactly this list instance
+     */
+    public boolean isBuiltFrom(List<Restaurant> source) {
+        return restaurants == source || (source == null && restaurants.isEmpty());
+    }
+
+    public List<Restaurant> getRestaurants() {
+        return restaurants;
+    }
+
+    /**
+     * @return true if any restaurant has a pizza with this name on its menu
+     */
+    public boolean isDefined(String pizzaName) {
+        String key = fold(pizzaName);
+        return key != null && restaurantsByPizza.containsKey(key);
+    }
+
+    /**
+     * @return the restaurants serving a pizza with this name, in list order
+     */
+    public List<Restaurant> restaurantsServing(String pizzaName) {
+        String key = fold(pizzaName);
+        if (key == null) {
+            return List.of();
+        }
+        return restaurantsByPizza.getOrDefault(key, List.of());
+    }
+
+    /**
+     * @return the restaurants serving the pizza with this already folded name, in list order
+     */
+    public List<Restaurant> restaurantsServingFolded(String foldedName) {
+        return restaurantsByPizza.getOrDefault(foldedName, List.of());
+    }
+
+    /**
+     * @return the restaurant's first menu entry with this already folded name, or null if
+     *         the restaurant is not indexed or does not serve it
+     */
+    public Pizza menuItemFolded(Restaurant restaurant, String foldedName) {
+        Map<String, Pizza> menu = menus.get(restaurant);
+        return menu == null ? null : menu.get(foldedName);
+    }
+
+    /**
+     * @return the restaurant serving every pizza, or empty if none or more than one does
+     */
+    public Optional<Restaurant> findSingleRestaurantFor(List<Pizza> pizzas) {
+        List<Restaurant> candidates = pizzas.isEmpty()
+                ? restaurants
+                : restaurantsServing(pizzas.get(0).getName());
+        Restaurant match = null;
+        for (Restaurant r : candidates) {
+            Map<String, Pizza> menu = menus.get(r);
+            boolean servesAll = true;
+            for (int i = 1; i < pizzas.size() && servesAll; i++) {
+                String key = fold(pizzas.get(i).getName());
+                servesAll = key != null && menu.containsKey(key);
+            }
+            if (servesAll) {
+                if (match != null) {
+                    return Optional.empty(); // more than one restaurant
+                }
+                match = r;
+            }
+        }
+        return Optional.ofNullable(match);
+    }
+
+    /**
+     * The first entry on the restaurant's menu with this name. Restaurants that are not
+     * part of the index are scanned directly.
+     */
+    public Optional<Pizza> findMenuItem(Restaurant restaurant, String pizzaName) {
+        Map<String, Pizza> menu = menus.get(restaurant);
+        if (menu == null) {
+            return restaurant.getMenu().stream()
+                    .filter(m -> m.getName().equalsIgnoreCase(pizzaName))
+                    .findFirst();
+        }
+        String key = fold(pizzaName);
+        return key == null ? Optional.empty() : Optional.ofNullable(menu.get(key));
+    }
+}
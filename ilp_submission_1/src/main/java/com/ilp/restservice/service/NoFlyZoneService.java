@@ -3,12 +3,13 @@ package com.ilp.restservice.service;
 import java.util.Arrays;
 import java.util.List;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
 import com.ilp.restservice.model.NamedRegion;
-
-import jakarta.annotation.PostConstruct;
+import com.ilp.restservice.referencedata.ReferenceDataHolder;
+import com.ilp.restservice.referencedata.ReferenceSnapshot;
 
 @Service
 public class NoFlyZoneService {
@@ -16,18 +17,23 @@ public class NoFlyZoneService {
     private static final String NO_FLY_ZONES_URL = "https://ilp-rest-2024.azurewebsites.net/noFlyZones";
 
     private final RestTemplate restTemplate;
-    private List<NamedRegion> noFlyZones;
+    private final ReferenceDataHolder referenceData;
 
     public NoFlyZoneService() {
-        this.restTemplate = new RestTemplate();
+        this(null);
     }
 
-    @PostConstruct
-    public void init() {
-        this.noFlyZones = fetchNoFlyZones();
+    @Autowired
+    public NoFlyZoneService(ReferenceDataHolder referenceData) {
+        this.restTemplate = new RestTemplate();
+        this.referenceData = referenceData;
     }
 
-    private List<NamedRegion> fetchNoFlyZones() {
+    /**
+     * Fetch the no-fly zones from the remote host. Used by the reference data bootstrap and
+     * refresher; request handling reads the live snapshot instead.
+     */
+    public List<NamedRegion> fetchNoFlyZones() {
         NamedRegion[] arr = restTemplate.getForObject(NO_FLY_ZONES_URL, NamedRegion[].class);
         if (arr == null) {
             return List.of();
@@ -35,7 +41,11 @@ public class NoFlyZoneService {
         return Arrays.asList(arr);
     }
 
+    /**
+     * @return the no-fly zones of the live reference snapshot, or null before it is loaded
+     */
     public List<NamedRegion> getNoFlyZones() {
-        return noFlyZones;
+        ReferenceSnapshot snapshot = referenceData == null ? null : referenceData.current();
+        return snapshot == null ? null : snapshot.getNoFlyZones();
     }
 }
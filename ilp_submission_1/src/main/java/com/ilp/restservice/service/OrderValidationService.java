@@ -3,8 +3,11 @@ package com.ilp.restservice.service;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.YearMonth;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.IntStream;
 
 import org.springframework.stereotype.Service;
 
@@ -16,40 +19,84 @@ import com.ilp.restservice.model.Order;
 import com.ilp.restservice.model.Pizza;
 import com.ilp.restservice.model.Restaurant;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
 @Service
 public class OrderValidationService {
 
     private static final int MAX_PIZZAS = 4;
 
     private final RestaurantFetchService restaurantFetchService;
+    // ilp.orders.validated, one counter per outcome, registered up front
+    private final Map<OrderValidationCode, Counter> validatedCounters = new EnumMap<>(OrderValidationCode.class);
+    // Only used when the fetch service provides no index of its own
+    private volatile MenuIndex fallbackMenuIndex;
 
-    public OrderValidationService(RestaurantFetchService restaurantFetchService) {
+    public OrderValidationService(RestaurantFetchService restaurantFetchService, MeterRegistry meterRegistry) {
         this.restaurantFetchService = restaurantFetchService;
+        for (OrderValidationCode code : OrderValidationCode.values()) {
+            validatedCounters.put(code, Counter.builder("ilp.orders.validated")
+                    .description("Orders validated, by validation code")
+                    .tag("code", code.name())
+                    .register(meterRegistry));
+        }
     }
 
     /**
-     * The main method that runs each validation step in the same order as before.
+     * The main method that runs each validation step in the same order as before, and
+     * counts the outcome under ilp.orders.validated.
+     *
+     * Every pizza name is resolved against the menu index once, and the menu entries
+     * found for the chosen restaurant are reused for the price check and the total.
+     * A VALID result also carries that restaurant and the official total.
      */
     public OrderValidationResult validateOrder(Order order) {
+        OrderValidationResult result = validate(order);
+        validatedCounters.get(result.getOrderValidationCode()).increment();
+        return result;
+    }
+
+    private OrderValidationResult validate(Order order) {
         // 1) Basic checks
         OrderValidationCode code = checkBasicStructure(order);
         if (code != null) {
             return invalid(code);
         }
-
-        // 2) Check all pizzas are defined in *some* restaurant
-        code = checkAllPizzasGloballyDefined(order);
-        if (code != null) {
-            return invalid(code);
+        List<Pizza> pizzas = order.getPizzasInOrder();
+        MenuIndex index = menuIndex();
+
+        // 2) Check all pizzas are defined in *some* restaurant, folding each name once
+        String[] names = new String[pizzas.size()];
+        for (int i = 0; i < names.length; i++) {
+            String name = pizzas.get(i).getName();
+            if (name == null || name.isBlank()) {
+                return invalid(OrderValidationCode.PIZZA_NOT_DEFINED);
+            }
+            names[i] = MenuIndex.fold(name);
+            if (index.restaurantsServingFolded(names[i]).isEmpty()) {
+                return invalid(OrderValidationCode.PIZZA_NOT_DEFINED);
+            }
         }
 
-        // 3) Find the *single* restaurant that can fulfill all pizzas
-        Optional<Restaurant> maybeRestaurant = findSingleRestaurantForAllPizzas(order.getPizzasInOrder());
-        if (maybeRestaurant.isEmpty()) {
-            // means either none or more than one restaurant can fulfill them
+        // 3) Find the *single* restaurant that can fulfill all pizzas, keeping its menu entries
+        Restaurant restaurant = null;
+        Pizza[] officialPizzas = null;
+        for (Restaurant candidate : index.restaurantsServingFolded(names[0])) {
+            Pizza[] entries = menuEntries(index, candidate, names);
+            if (entries == null) {
+                continue;
+            }
+            if (restaurant != null) {
+                // more than one restaurant can fulfill them
+                return invalid(OrderValidationCode.PIZZA_FROM_MULTIPLE_RESTAURANTS);
+            }
+            restaurant = candidate;
+            officialPizzas = entries;
+        }
+        if (restaurant == null) {
             return invalid(OrderValidationCode.PIZZA_FROM_MULTIPLE_RESTAURANTS);
         }
-        Restaurant restaurant = maybeRestaurant.get();
 
         // 4) Check if the restaurant is open
         code = checkRestaurantIsOpen(restaurant, order.getOrderDate());
@@ -59,12 +106,12 @@ public class OrderValidationService {
 
         // 5) Validate each pizza price for *this* restaurant and accumulate total
         int officialTotal = 0;
-        code = checkEachPizzaPrice(restaurant, order.getPizzasInOrder(), officialTotal);
-        if (code != null) {
-            return invalid(code);
+        for (int i = 0; i < officialPizzas.length; i++) {
+            if (pizzas.get(i).getPriceInPence() != officialPizzas[i].getPriceInPence()) {
+                return invalid(OrderValidationCode.PRICE_FOR_PIZZA_INVALID);
+            }
+            officialTotal += officialPizzas[i].getPriceInPence();
         }
-        // But we need the official total from that step => we recalc it
-        officialTotal = computeOfficialTotal(restaurant, order.getPizzasInOrder());
 
         // 6) Compare officialTotal + 100 with user-provided price
         code = checkFinalTotal(officialTotal, order.getPriceTotalInPence());
@@ -79,7 +126,33 @@ public class OrderValidationService {
         }
 
         // 8) If no issues, it's VALID + NO_ERROR
-        return new OrderValidationResult(OrderStatus.VALID, OrderValidationCode.NO_ERROR);
+        return new OrderValidationResult(OrderStatus.VALID, OrderValidationCode.NO_ERROR, restaurant, officialTotal);
+    }
+
+    /**
+     * Validate many orders at once, spread across the common fork-join pool.
+     *
+     * @return one result per order, in input order
+     */
+    public List<OrderValidationResult> validateOrders(List<Order> orders) {
+        return IntStream.range(0, orders.size())
+                .parallel()
+                .mapToObj(i -> validateOrder(orders.get(i)))
+                .toList();
+    }
+
+    /**
+     * @return the restaurant's menu entry for every folded name, or null if one is missing
+     */
+    private static Pizza[] menuEntries(MenuIndex index, Restaurant restaurant, String[] names) {
+        Pizza[] entries = new Pizza[names.length];
+        for (int i = 0; i < names.length; i++) {
+            entries[i] = index.menuItemFolded(restaurant, names[i]);
+            if (entries[i] == null) {
+                return null;
+            }
+        }
+        return entries;
     }
 
     // -------------------------------------------------------------------------
@@ -118,45 +191,15 @@ public class OrderValidationService {
         if (pizzaName == null || pizzaName.isBlank()) {
             return false;
         }
-        List<Restaurant> all = restaurantFetchService.getAllRestaurants();
-        for (Restaurant r : all) {
-            boolean found = r.getMenu().stream()
-                    .anyMatch(menuPizza -> menuPizza.getName().equalsIgnoreCase(pizzaName));
-            if (found) {
-                return true;
-            }
-        }
-        return false;
+        return menuIndex().isDefined(pizzaName);
     }
 
     // -------------------------------------------------------------------------
     // 3) FIND SINGLE RESTAURANT THAT CAN FULFILL ALL PIZZAS
     // -------------------------------------------------------------------------
     public Optional<Restaurant> findSingleRestaurantForAllPizzas(List<Pizza> pizzas) {
-        List<Restaurant> allRestaurants = restaurantFetchService.getAllRestaurants();
-        Restaurant candidate = null;
-
-        for (Restaurant r : allRestaurants) {
-            boolean allPizzasFound = true;
-            for (Pizza userPizza : pizzas) {
-                boolean found = r.getMenu().stream()
-                        .anyMatch(menuPizza ->
-                            menuPizza.getName().equalsIgnoreCase(userPizza.getName())
-                        );
-                if (!found) {
-                    allPizzasFound = false;
-                    break;
-                }
-            }
-            if (allPizzasFound) {
-                // If we already had a candidate, that means there's more than one
-                if (candidate != null) {
-                    return Optional.empty(); // multiple restaurants => empty
-                }
-                candidate = r;
-            }
-        }
-        return Optional.ofNullable(candidate); // either single or null
+        // Empty if none or more than one restaurant can fulfill them
+        return menuIndex().findSingleRestaurantFor(pizzas);
     }
 
     // -------------------------------------------------------------------------
@@ -188,9 +231,8 @@ public class OrderValidationService {
     // -------------------------------------------------------------------------
     /**
      * Verifies each pizza's price in the restaurant’s menu. If mismatch -> error.
-     * Also used to ensure the code flow remains consistent.
      */
-    public OrderValidationCode checkEachPizzaPrice(Restaurant restaurant, List<Pizza> pizzas, int officialTotal) {
+    public OrderValidationCode checkEachPizzaPrice(Restaurant restaurant, List<Pizza> pizzas) {
         for (Pizza userPizza : pizzas) {
             Optional<Pizza> menuPizza = findMenuItem(restaurant, userPizza.getName());
             if (menuPizza.isEmpty()) {
@@ -205,10 +247,17 @@ public class OrderValidationService {
         return null;
     }
 
+    /**
+     * @deprecated the total was never accumulated into {@code officialTotal};
+     *             use {@link #checkEachPizzaPrice(Restaurant, List)}
+     */
+    @Deprecated
+    public OrderValidationCode checkEachPizzaPrice(Restaurant restaurant, List<Pizza> pizzas, int officialTotal) {
+        return checkEachPizzaPrice(restaurant, pizzas);
+    }
+
     private Optional<Pizza> findMenuItem(Restaurant restaurant, String userPizzaName) {
-        return restaurant.getMenu().stream()
-                .filter(m -> m.getName().equalsIgnoreCase(userPizzaName))
-                .findFirst();
+        return menuIndex().findMenuItem(restaurant, userPizzaName);
     }
 
     /**
@@ -275,6 +324,24 @@ public class OrderValidationService {
         return (cvv != null && cvv.length() == 3);
     }
 
+    // -------------------------------------------------------------------------
+    // HELPER: Menu lookups for the current restaurant data
+    // -------------------------------------------------------------------------
+    private MenuIndex menuIndex() {
+        MenuIndex index = restaurantFetchService.getMenuIndex();
+        if (index != null) {
+            return index;
+        }
+        // No prebuilt index (e.g. a stubbed fetch service): index whatever it hands out
+        List<Restaurant> all = restaurantFetchService.getAllRestaurants();
+        index = fallbackMenuIndex;
+        if (index == null || !index.isBuiltFrom(all)) {
+            index = MenuIndex.of(all);
+            fallbackMenuIndex = index;
+        }
+        return index;
+    }
+
     // -------------------------------------------------------------------------
     // HELPER: Return an INVALID result
     // -------------------------------------------------------------------------
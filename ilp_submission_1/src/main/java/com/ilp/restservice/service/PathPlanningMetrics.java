@@ -0,0 +1,135 @@
+package com.ilp.restservice.service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.stereotype.Component;
+
+import com.ilp.restservice.pathfinding.PathResult;
+import com.ilp.restservice.pathfinding.SearchAbortedException;
+import com.ilp.restservice.pathfinding.SearchMode;
+import com.ilp.restservice.pathfinding.SearchStats;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Meters for route planning, exported through the actuator (/actuator/metrics and
+ * /actuator/prometheus). One sample per search actually run; route cache hits only
+ * count towards ilp.path.route.cache.
+ *
+ * Every search is tagged with its restaurant and search mode, and the timer also with
+ * its outcome, so the restaurants and modes that drive the load stand out. All timers
+ * and summaries publish percentile histograms. Each meter is registered once, on first
+ * use, and kept by its restaurant, mode and outcome or name, so recording a search does
+ * not build meter ids for the registry to look up.
+ */
+@Component
+public class PathPlanningMetrics {
+
+    private final MeterRegistry registry;
+    private final Counter cacheHits;
+    private final Counter cacheMisses;
+    private final Map<MeterKey, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<MeterKey, DistributionSummary> summaries = new ConcurrentHashMap<>();
+
+    /**
+     * @param meter the outcome, for timers, or the meter name, for summaries
+     */
+    private record MeterKey(String restaurant, SearchMode mode, String meter) {
+    }
+
+    public PathPlanningMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.cacheHits = Counter.builder("ilp.path.route.cache")
+                .description("Route cache lookups")
+                .tag("result", "hit")
+                .register(registry);
+        this.cacheMisses = Counter.builder("ilp.path.route.cache")
+                .description("Route cache lookups")
+                .tag("result", "miss")
+                .register(registry);
+    }
+
+    public void recordCacheLookup(boolean hit) {
+        (hit ? cacheHits : cacheMisses).increment();
+    }
+
+    /**
+     * A search that ran to the end, finding a path or not.
+     *
+     * @param zoneTests  moves checked against the no-fly zones by the search
+     * @param clearTests points checked for a clear step in every direction by the search
+     */
+    public void recordSearch(String restaurant, SearchMode mode, PathResult route, long nanos, int zoneTests,
+                             int clearTests) {
+        timer(restaurant, mode, route.isFound() ? "found" : "no_path").record(nanos, TimeUnit.NANOSECONDS);
+        SearchStats stats = route.getStats();
+        summary("ilp.path.search.expansions", "Nodes expanded per search", "nodes", restaurant, mode)
+                .record(stats.getExpansions());
+        summary("ilp.path.search.open.peak", "Largest open set per search", "nodes", restaurant, mode)
+                .record(stats.getPeakOpenSize());
+        summary("ilp.path.search.visited", "Visited set size per search", "nodes", restaurant, mode)
+                .record(stats.getVisitedSize());
+        recordTests(restaurant, mode, zoneTests, clearTests);
+        if (route.isFound()) {
+            summary("ilp.path.length", "Waypoints per route found", "waypoints", restaurant, mode)
+                    .record(route.size());
+        }
+        if (route.isFound() && !Double.isNaN(stats.getSuboptimalityBound())) {
+            // As a percentage, so the histogram buckets can tell 1.02 from 1.2
+            summary("ilp.path.search.suboptimality", "Proven bound on how much longer the route is than the shortest",
+                    "percent", restaurant, mode)
+                    .record((stats.getSuboptimalityBound() - 1.0) * 100.0);
+        }
+    }
+
+    /**
+     * A search stopped by one of its limits.
+     */
+    public void recordAborted(String restaurant, SearchMode mode, SearchAbortedException e, long nanos,
+                              int zoneTests, int clearTests) {
+        String outcome = switch (e.getReason()) {
+            case EXPANSION_BUDGET -> "budget";
+            case DEADLINE -> "deadline";
+            case CANCELLED -> "cancelled";
+        };
+        timer(restaurant, mode, outcome).record(nanos, TimeUnit.NANOSECONDS);
+        recordTests(restaurant, mode, zoneTests, clearTests);
+    }
+
+    private void recordTests(String restaurant, SearchMode mode, int zoneTests, int clearTests) {
+        summary("ilp.path.search.zone.tests", "Moves checked against the no-fly zones per search", "tests",
+                restaurant, mode)
+                .record(zoneTests);
+        summary("ilp.path.search.clear.tests", "Points checked for a clear step in every direction per search",
+                "tests", restaurant, mode)
+                .record(clearTests);
+    }
+
+    private Timer timer(String restaurant, SearchMode mode, String outcome) {
+        return timers.computeIfAbsent(new MeterKey(restaurant, mode, outcome), key -> Timer.builder("ilp.path.search")
+                .description("Wall time per route search")
+                .tags(tags(restaurant, mode).and("outcome", outcome))
+                .publishPercentileHistogram()
+                .register(registry));
+    }
+
+    private DistributionSummary summary(String name, String description, String unit, String restaurant,
+                                        SearchMode mode) {
+        return summaries.computeIfAbsent(new MeterKey(restaurant, mode, name), key -> DistributionSummary.builder(name)
+                .description(description)
+                .baseUnit(unit)
+                .tags(tags(restaurant, mode))
+                .publishPercentileHistogram()
+                .register(registry));
+    }
+
+    private static Tags tags(String restaurant, SearchMode mode) {
+        return Tags.of("restaurant", restaurant == null ? "unknown" : restaurant, "mode", mode.name());
+    }
+}
@@ -0,0 +1,176 @@
+package com.ilp.restservice.service;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.ilp.restservice.geometry.PreparedPolygon;
+import com.ilp.restservice.model.Position;
+
+/**
+ * Bounded LRU cache of validated, prepared regions for /isInRegion, keyed by the vertex
+ * coordinates themselves. A region seen before skips validation and preparation: the
+ * lookup costs one pass over its vertices to build the key.
+ *
+ * A region is valid if it has vertices, every vertex is a valid lng/lat, the first and
+ * last vertex are equal (closed) and no edge appears twice, in either direction.
+ * Invalid regions are not cached.
+ */
+@Service
+public class PreparedRegionCache {
+
+    private final PointInPolygonService pointInPolygonService;
+    private final int maxSize;
+    private final Map<RegionKey, PreparedPolygon> entries;
+    private long hits;
+    private long misses;
+
+    public PreparedRegionCache(PointInPolygonService pointInPolygonService,
+                               @Value("${ilp.region-cache.max-size:64}") int maxSize) {
+        this.pointInPolygonService = pointInPolygonService;
+        this.maxSize = maxSize;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<RegionKey, PreparedPolygon> eldest) {
+                return size() > PreparedRegionCache.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * @return the region, prepared, or null if it is not a valid region
+     */
+    public PreparedPolygon prepare(List<Position> vertices) {
+        RegionKey key = RegionKey.of(vertices);
+        if (key == null) {
+            return null;
+        }
+        synchronized (this) {
+            PreparedPolygon cached = entries.get(key);
+            if (cached != null) {
+                hits++;
+                return cached;
+            }
+            misses++;
+        }
+
+        if (!isValidRegion(vertices)) {
+            return null;
+        }
+        PreparedPolygon prepared = pointInPolygonService.prepare(vertices);
+        if (maxSize > 0) {
+            synchronized (this) {
+                entries.put(key, prepared);
+            }
+        }
+        return prepared;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    private static boolean isValidRegion(List<Position> vertices) {
+        for (Position vertex : vertices) {
+            if (!ValidationUtils.isValidLngLat(vertex)) {
+                return false;
+            }
+        }
+
+        // First and last vertex must match to close the polygon
+        Position first = vertices.get(0);
+        Position last = vertices.get(vertices.size() - 1);
+        if (!first.getLng().equals(last.getLng()) || !first.getLat().equals(last.getLat())) {
+            return false;
+        }
+
+        // No duplicate edges, in either direction
+        Set<Edge> edges = new HashSet<>();
+        for (int i = 1; i < vertices.size(); i++) {
+            if (!edges.add(Edge.of(vertices.get(i - 1), vertices.get(i)))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * An undirected edge, its end points ordered by longitude then latitude, compared
+     * like Double.equals (by bit pattern).
+     */
+    private record Edge(long lng1, long lat1, long lng2, long lat2) {
+
+        static Edge of(Position a, Position b) {
+            double aLng = a.getLng();
+            double aLat = a.getLat();
+            double bLng = b.getLng();
+            double bLat = b.getLat();
+            if (aLng < bLng || (a.getLng().equals(b.getLng()) && aLat < bLat)) {
+                return new Edge(bits(aLng), bits(aLat), bits(bLng), bits(bLat));
+            }
+            return new Edge(bits(bLng), bits(bLat), bits(aLng), bits(aLat));
+        }
+
+        private static long bits(double value) {
+            return Double.doubleToLongBits(value);
+        }
+    }
+
+    /**
+     * The vertex coordinates in order, hashed once.
+     */
+    private static final class RegionKey {
+
+        private final double[] coordinates;
+        private final int hash;
+
+        private RegionKey(double[] coordinates) {
+            this.coordinates = coordinates;
+            this.hash = Arrays.hashCode(coordinates);
+        }
+
+        /**
+         * @return the key, or null if the list is empty or holds a missing coordinate
+         */
+        static RegionKey of(List<Position> vertices) {
+            if (vertices == null || vertices.isEmpty()) {
+                return null;
+            }
+            double[] coordinates = new double[2 * vertices.size()];
+            for (int i = 0; i < vertices.size(); i++) {
+                Position v = vertices.get(i);
+                if (v == null || v.getLng() == null || v.getLat() == null) {
+                    return null;
+                }
+                coordinates[2 * i] = v.getLng();
+                coordinates[2 * i + 1] = v.getLat();
+            }
+            return new RegionKey(coordinates);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof RegionKey other && hash == other.hash
+                    && Arrays.equals(coordinates, other.coordinates);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -3,28 +3,30 @@ package com.ilp.restservice.service;
 import java.util.Arrays;
 import java.util.List;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate; // or javax.annotation.PostConstruct
 
 import com.ilp.restservice.model.Restaurant;
-
-import jakarta.annotation.PostConstruct;
+import com.ilp.restservice.referencedata.ReferenceDataHolder;
+import com.ilp.restservice.referencedata.ReferenceSnapshot;
 
 @Service
 public class RestaurantFetchService {
 
     private final RestTemplate restTemplate;
-    private List<Restaurant> cachedRestaurants;
+    private final ReferenceDataHolder referenceData;
 
     private static final String RESTAURANTS_URL = "https://ilp-rest-2024.azurewebsites.net/restaurants";
 
     public RestaurantFetchService() {
-        this.restTemplate = new RestTemplate();
+        this(null);
     }
 
-    @PostConstruct
-    public void init() {
-        this.cachedRestaurants = fetchRestaurantsFromApi(RESTAURANTS_URL);
+    @Autowired
+    public RestaurantFetchService(ReferenceDataHolder referenceData) {
+        this.restTemplate = new RestTemplate();
+        this.referenceData = referenceData;
     }
 
     public List<Restaurant> fetchRestaurantsFromApi(String url) {
@@ -35,12 +37,29 @@ public class RestaurantFetchService {
         return Arrays.asList(arr);
     }
 
+    /**
+     * Fetch the restaurants from the remote host. Used by the reference data bootstrap and
+     * refresher; request handling reads the live snapshot instead.
+     */
+    public List<Restaurant> fetchRestaurants() {
+        return fetchRestaurantsFromApi(RESTAURANTS_URL);
+    }
+
+    /**
+     * @return the restaurants of the live reference snapshot, or null before it is loaded
+     */
     public List<Restaurant> getAllRestaurants() {
-        return cachedRestaurants; // Already fetched
+        ReferenceSnapshot snapshot = referenceData == null ? null : referenceData.current();
+        return snapshot == null ? null : snapshot.getRestaurants();
     }
 
-    // Optional: method to refresh data if needed
-    public void refresh() {
-        this.cachedRestaurants = fetchRestaurantsFromApi(RESTAURANTS_URL);
+    /**
+     * Menu lookups over the restaurants of the live reference snapshot. The index carries
+     * its own restaurant list, so callers that need both should use
+     * {@link MenuIndex#getRestaurants()} rather than a second {@link #getAllRestaurants()}.
+     */
+    public MenuIndex getMenuIndex() {
+        ReferenceSnapshot snapshot = referenceData == null ? null : referenceData.current();
+        return snapshot == null ? null : snapshot.getMenuIndex();
     }
 }
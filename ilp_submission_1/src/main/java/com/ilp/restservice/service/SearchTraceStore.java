@@ -0,0 +1,79 @@
+package com.ilp.restservice.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.ilp.restservice.pathfinding.SearchTrace;
+
+/**
+ * The search traces of the last few traced /calcDeliveryPath requests, by id.
+ *
+ * Tracing is off unless ilp.path.trace.enabled is set: a traced search bypasses the route
+ * cache, so the request header is honoured only where it is wanted.
+ *
+ * Memory is bounded twice: each trace keeps at most ilp.path.trace.max-events events
+ * (21 bytes each, taken as the search records them), and only the newest
+ * ilp.path.trace.max-traces traces are kept, the oldest dropped first.
+ */
+@Service
+public class SearchTraceStore {
+
+    private final boolean enabled;
+    private final int maxEvents;
+    private final int maxTraces;
+    private final Map<Long, SearchTrace> traces;
+    private long nextId = 1;
+
+    public SearchTraceStore(@Value("${ilp.path.trace.enabled:false}") boolean enabled,
+                            @Value("${ilp.path.trace.max-events:100000}") int maxEvents,
+                            @Value("${ilp.path.trace.max-traces:8}") int maxTraces) {
+        this.enabled = enabled;
+        this.maxEvents = maxEvents;
+        this.maxTraces = maxTraces;
+        this.traces = new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, SearchTrace> eldest) {
+                return size() > SearchTraceStore.this.maxTraces;
+            }
+        };
+    }
+
+    /**
+     * @return true if requests may ask for their search to be traced
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return an empty trace of the configured capacity, not yet stored
+     */
+    public SearchTrace newTrace() {
+        return new SearchTrace(maxEvents);
+    }
+
+    /**
+     * Keep a trace, dropping the oldest if the store is full.
+     *
+     * @return its id
+     */
+    public synchronized long add(SearchTrace trace) {
+        long id = nextId++;
+        traces.put(id, trace);
+        return id;
+    }
+
+    /**
+     * @return the trace, or null if there never was one with this id or it was dropped
+     */
+    public synchronized SearchTrace get(long id) {
+        return traces.get(id);
+    }
+
+    public synchronized int size() {
+        return traces.size();
+    }
+}
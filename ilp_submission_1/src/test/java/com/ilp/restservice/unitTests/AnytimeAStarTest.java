@@ -0,0 +1,129 @@
+package com.ilp.restservice.unitTests;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import com.ilp.restservice.geometry.Airspace;
+import com.ilp.restservice.model.NamedRegion;
+import com.ilp.restservice.model.Position;
+import com.ilp.restservice.pathfinding.AnytimeAStar;
+import com.ilp.restservice.pathfinding.DroneLattice;
+import com.ilp.restservice.pathfinding.Heuristic;
+import com.ilp.restservice.pathfinding.LatticeAStar;
+import com.ilp.restservice.pathfinding.PathResult;
+import com.ilp.restservice.pathfinding.SearchAbortedException;
+import com.ilp.restservice.pathfinding.SearchEnvelope;
+import com.ilp.restservice.pathfinding.SearchLimits;
+import com.ilp.restservice.service.PointInPolygonService;
+
+/**
+ * Unit tests for the anytime search: the first path and its bound, improvement down to
+ * the shortest path, and the limits.
+ */
+class AnytimeAStarTest {
+
+    private static final double START_LNG = -3.1920;
+    private static final double START_LAT = 55.9440;
+    private static final double GOAL_LNG = -3.1860;
+    private static final double GOAL_LAT = 55.9440;
+
+    private final AnytimeAStar engine = new AnytimeAStar();
+
+    @Test
+    void search_firstPassOnly_pathWithinBound() {
+        // A wall reaching far north and just south of the straight line: the weighted first
+        // pass goes round the near (south) end, but the bound cannot yet prove it shortest
+        SearchEnvelope envelope = wallAcross();
+        PathResult first = engine.search(START_LNG, START_LAT, GOAL_LNG, GOAL_LAT, envelope,
+                Heuristic.lattice(GOAL_LNG, GOAL_LAT), SearchLimits.NONE, SearchLimits.of(1, Duration.ofSeconds(10)));
+        PathResult shortest = shortest(envelope);
+
+        System.out.println("==== Test: search_firstPassOnly_pathWithinBound ====");
+        System.out.println("Input: a wall across the straight line, no time to improve the first path");
+        System.out.println("Expected: a path, a bound above 1, and the path no longer than the bound allows");
+        System.out.println("Actual:   " + first.size() + " waypoints (shortest " + shortest.size() + "), bound "
+                + first.getStats().getSuboptimalityBound() + "\n");
+
+        assertTrue(first.isFound());
+        assertTrue(first.getStats().getSuboptimalityBound() > 1.0);
+        assertTrue(first.size() - 1 <= first.getStats().getSuboptimalityBound() * (shortest.size() - 1));
+    }
+
+    @Test
+    void search_timeToImprove_shortestPath() {
+        SearchEnvelope envelope = wallAcross();
+        PathResult full = engine.search(START_LNG, START_LAT, GOAL_LNG, GOAL_LAT, envelope,
+                Heuristic.lattice(GOAL_LNG, GOAL_LAT), SearchLimits.NONE, SearchLimits.NONE);
+        PathResult shortest = shortest(envelope);
+
+        System.out.println("==== Test: search_timeToImprove_shortestPath ====");
+        System.out.println("Input: the same wall, no improvement deadline");
+        System.out.println("Expected: bound 1 and a path as short as unweighted A*'s");
+        System.out.println("Actual:   " + full.size() + " waypoints (shortest " + shortest.size() + "), bound "
+                + full.getStats().getSuboptimalityBound() + "\n");
+
+        assertEquals(1.0, full.getStats().getSuboptimalityBound());
+        assertEquals(shortest.size(), full.size());
+    }
+
+    @Test
+    void search_openAir_provenShortestAtOnce() {
+        Airspace airspace = Airspace.build(1, List.of(), null, new PointInPolygonService());
+        PathResult path = engine.search(START_LNG, START_LAT, GOAL_LNG, GOAL_LAT, airspace,
+                Heuristic.lattice(GOAL_LNG, GOAL_LAT), SearchLimits.NONE);
+
+        assertTrue(path.isFound());
+        assertEquals(1.0, path.getStats().getSuboptimalityBound());
+        assertEquals(new LatticeAStar(1.0).search(START_LNG, START_LAT, GOAL_LNG, GOAL_LAT, airspace,
+                Heuristic.lattice(GOAL_LNG, GOAL_LAT)).size(), path.size());
+    }
+
+    @Test
+    void search_goalWalledIn_budgetExhausted() {
+        // A closed ring of four walls around the goal
+        Airspace airspace = Airspace.build(1, List.of(
+                region("south", -3.1870, 55.9435, -3.1850, 55.9437),
+                region("north", -3.1870, 55.9443, -3.1850, 55.9445),
+                region("west", -3.1870, 55.9435, -3.1868, 55.9445),
+                region("east", -3.1852, 55.9435, -3.1850, 55.9445)), null, new PointInPolygonService());
+
+        SearchAbortedException e = assertThrows(SearchAbortedException.class,
+                () -> engine.search(START_LNG, START_LAT, GOAL_LNG, GOAL_LAT, airspace,
+                        Heuristic.lattice(GOAL_LNG, GOAL_LAT), SearchLimits.of(5_000, Duration.ofSeconds(10))));
+        assertEquals(SearchAbortedException.Reason.EXPANSION_BUDGET, e.getReason());
+    }
+
+    @Test
+    void constructor_weightBelowOne_rejected() {
+        assertThrows(IllegalArgumentException.class, () -> new AnytimeAStar(0.9, 0.5, Duration.ofMillis(100)));
+        assertThrows(IllegalArgumentException.class, () -> new AnytimeAStar(3.0, 0.0, Duration.ofMillis(100)));
+    }
+
+    private static SearchEnvelope wallAcross() {
+        Airspace airspace = Airspace.build(1, List.of(region("wall", -3.1892, 55.9436, -3.1888, 55.9470)), null,
+                new PointInPolygonService());
+        return airspace.envelope(START_LNG, START_LAT, GOAL_LNG, GOAL_LAT, 10 * DroneLattice.STEP);
+    }
+
+    private static PathResult shortest(SearchEnvelope envelope) {
+        return new LatticeAStar(1.0).search(START_LNG, START_LAT, GOAL_LNG, GOAL_LAT, envelope,
+                Heuristic.lattice(GOAL_LNG, GOAL_LAT));
+    }
+
+    private static NamedRegion region(String name, double minLng, double minLat, double maxLng, double maxLat) {
+        NamedRegion region = new NamedRegion();
+        region.setName(name);
+        region.setVertices(List.of(
+                new Position(minLng, minLat),
+                new Position(maxLng, minLat),
+                new Position(maxLng, maxLat),
+                new Position(minLng, maxLat),
+                new Position(minLng, minLat)));
+        return region;
+    }
+}
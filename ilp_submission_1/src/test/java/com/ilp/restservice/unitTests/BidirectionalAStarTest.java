@@ -0,0 +1,180 @@
+package com.ilp.restservice.unitTests;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import com.ilp.restservice.geometry.Airspace;
+import com.ilp.restservice.model.Position;
+import com.ilp.restservice.model.Restaurant;
+import com.ilp.restservice.pathfinding.BidirectionalAStar;
+import com.ilp.restservice.pathfinding.DroneLattice;
+import com.ilp.restservice.pathfinding.FlightConstraints;
+import com.ilp.restservice.pathfinding.Heuristic;
+import com.ilp.restservice.pathfinding.LatticeAStar;
+import com.ilp.restservice.pathfinding.PathResult;
+import com.ilp.restservice.referencedata.GeoJsonSeed;
+import com.ilp.restservice.referencedata.ReferenceSnapshot;
+import com.ilp.restservice.service.PointInPolygonService;
+
+/**
+ * Unit tests for the search run from both ends, against the seed zones and against a
+ * central area the direct line would enter, leave and enter again.
+ */
+class BidirectionalAStarTest {
+
+    private static final double TOWER_LNG = -3.186874;
+    private static final double TOWER_LAT = 55.944494;
+
+    private final BidirectionalAStar bidirectionalAStar = new BidirectionalAStar();
+    private final LatticeAStar latticeAStar = new LatticeAStar();
+    private final PointInPolygonService pointInPolygonService = new PointInPolygonService();
+
+    @Test
+    void search_everyRestaurant_legalPathToTower() throws Exception {
+        ReferenceSnapshot snapshot = GeoJsonSeed.read(Path.of("noflyzone.json"))
+                .withIndexes(1, pointInPolygonService);
+
+        System.out.println("==== Test: search_everyRestaurant_legalPathToTower ====");
+        System.out.println("Expected: legal paths ending at the tower, about as long as forward A*");
+        for (Restaurant r : snapshot.getRestaurants()) {
+            double lng = r.getLocation().getLng();
+            double lat = r.getLocation().getLat();
+            PathResult both = bidirectionalAStar.search(lng, lat, TOWER_LNG, TOWER_LAT, snapshot.getAirspace());
+            PathResult forward = latticeAStar.search(lng, lat, TOWER_LNG, TOWER_LAT, snapshot.getAirspace());
+
+            System.out.println("Actual:   " + r.getName() + ": " + both.size() + " waypoints / "
+                    + both.getStats().getExpansions() + " expansions, forward " + forward.size() + " / "
+                    + forward.getStats().getExpansions());
+
+            assertTrue(both.isFound());
+            assertLegal(both, snapshot.getAirspace(), TOWER_LNG, TOWER_LAT);
+            assertTrue(both.size() <= forward.size() * 1.1 + 2);
+        }
+        System.out.println();
+    }
+
+    @Test
+    void search_givenWeightAndHeuristics_allUsed() throws Exception {
+        ReferenceSnapshot snapshot = GeoJsonSeed.read(Path.of("noflyzone.json"))
+                .withIndexes(1, pointInPolygonService);
+        Airspace airspace = snapshot.getAirspace();
+        AtomicInteger towardsGoal = new AtomicInteger();
+        AtomicInteger towardsStart = new AtomicInteger();
+
+        System.out.println("==== Test: search_givenWeightAndHeuristics_allUsed ====");
+        System.out.println("Input: every restaurant, landmark bounds towards both ends at weights 1.0 and 3.0");
+        System.out.println("Expected: legal paths, both bounds consulted, fewer expansions at 3.0");
+        long exact = 0;
+        long inflated = 0;
+        for (Restaurant r : snapshot.getRestaurants()) {
+            double lng = r.getLocation().getLng();
+            double lat = r.getLocation().getLat();
+            Heuristic toTower = counted(airspace.getLandmarks().towards(TOWER_LNG, TOWER_LAT), towardsGoal);
+            Heuristic toRestaurant = counted(airspace.getLandmarks().towards(lng, lat), towardsStart);
+            PathResult one = new BidirectionalAStar(1.0).search(lng, lat, TOWER_LNG, TOWER_LAT, airspace,
+                    toTower, toRestaurant);
+            PathResult three = new BidirectionalAStar(3.0).search(lng, lat, TOWER_LNG, TOWER_LAT, airspace,
+                    toTower, toRestaurant);
+
+            System.out.println("Actual:   " + r.getName() + ": " + one.size() + " waypoints / "
+                    + one.getStats().getExpansions() + " expansions at 1.0, " + three.size() + " / "
+                    + three.getStats().getExpansions() + " at 3.0");
+
+            assertLegal(one, airspace, TOWER_LNG, TOWER_LAT);
+            assertLegal(three, airspace, TOWER_LNG, TOWER_LAT);
+            exact += one.getStats().getExpansions();
+            inflated += three.getStats().getExpansions();
+        }
+        System.out.println("Total:    " + exact + " vs " + inflated + " expansions, " + towardsGoal + " / "
+                + towardsStart + " estimates\n");
+
+        assertTrue(towardsGoal.get() > 0);
+        assertTrue(towardsStart.get() > 0);
+        assertTrue(inflated < exact);
+    }
+
+    @Test
+    void search_centralAreaInTheWay_neverLeavesItOnceInside() {
+        // A C-shaped central area open to the east; the goal sits inside the C, the start
+        // to the west, so the straight line crosses the C's back, leaves it and enters again
+        List<Position> central = List.of(
+                new Position(-3.1900, 55.9400),
+                new Position(-3.1840, 55.9400),
+                new Position(-3.1840, 55.9410),
+                new Position(-3.1890, 55.9410),
+                new Position(-3.1890, 55.9450),
+                new Position(-3.1840, 55.9450),
+                new Position(-3.1840, 55.9460),
+                new Position(-3.1900, 55.9460),
+                new Position(-3.1900, 55.9400));
+        FlightConstraints constraints = new FlightConstraints() {
+            @Override
+            public boolean isInsideCentral(double lng, double lat) {
+                return pointInPolygonService.isPointInPolygon(new Position(lng, lat), central);
+            }
+
+            @Override
+            public boolean crossesNoFlyZone(double fromLng, double fromLat, double toLng, double toLat) {
+                return false;
+            }
+        };
+        PathResult result = bidirectionalAStar.search(-3.1930, 55.9430, -3.1850, 55.9455, constraints);
+
+        System.out.println("==== Test: search_centralAreaInTheWay_neverLeavesItOnceInside ====");
+        System.out.println("Input: start west of a C-shaped central area, goal inside its top arm");
+        System.out.println("Expected: a path that enters the central area once and stays in");
+        System.out.println("Actual:   " + result.size() + " waypoints, "
+                + result.getStats().getExpansions() + " expansions\n");
+
+        assertTrue(result.isFound());
+        assertLegal(result, constraints, -3.1850, 55.9455);
+    }
+
+    @Test
+    void search_startAtGoal_singleWaypoint() {
+        PathResult result = bidirectionalAStar.search(TOWER_LNG, TOWER_LAT, TOWER_LNG, TOWER_LAT,
+                new FlightConstraints() {
+                    @Override
+                    public boolean isInsideCentral(double lng, double lat) {
+                        return false;
+                    }
+
+                    @Override
+                    public boolean crossesNoFlyZone(double fromLng, double fromLat, double toLng, double toLat) {
+                        return false;
+                    }
+                });
+
+        assertEquals(1, result.size());
+    }
+
+    // -------------------------------------------------------------------------
+    // Helpers
+    // -------------------------------------------------------------------------
+    private static Heuristic counted(Heuristic heuristic, AtomicInteger calls) {
+        return (lng, lat) -> {
+            calls.incrementAndGet();
+            return heuristic.steps(lng, lat);
+        };
+    }
+
+    private static void assertLegal(PathResult path, FlightConstraints constraints, double goalLng, double goalLat) {
+        boolean inCentral = constraints.isInsideCentral(path.lng(0), path.lat(0));
+        for (int i = 1; i < path.size(); i++) {
+            double step = DroneLattice.distance(path.lng(i - 1), path.lat(i - 1), path.lng(i), path.lat(i));
+            assertEquals(DroneLattice.STEP, step, 1e-12);
+            assertFalse(constraints.crossesNoFlyZone(path.lng(i - 1), path.lat(i - 1), path.lng(i), path.lat(i)));
+            boolean nextInside = constraints.isInsideCentral(path.lng(i), path.lat(i));
+            assertFalse(inCentral && !nextInside, "left the central area at move " + i);
+            inCentral = inCentral || nextInside;
+        }
+        int last = path.size() - 1;
+        assertTrue(DroneLattice.distance(path.lng(last), path.lat(last), goalLng, goalLat) < DroneLattice.TOLERANCE);
+    }
+}
@@ -0,0 +1,281 @@
+package com.ilp.restservice.unitTests;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.ilp.restservice.dto.BatchDeliveryPathResult;
+import com.ilp.restservice.dto.SearchModeComparison;
+import com.ilp.restservice.enums.DeliveryPathErrorCode;
+import com.ilp.restservice.enums.OrderValidationCode;
+import com.ilp.restservice.model.CreditCardInformation;
+import com.ilp.restservice.model.NamedRegion;
+import com.ilp.restservice.model.Order;
+import com.ilp.restservice.model.Pizza;
+import com.ilp.restservice.model.Position;
+import com.ilp.restservice.model.Restaurant;
+import com.ilp.restservice.pathfinding.AnytimeAStar;
+import com.ilp.restservice.pathfinding.LatticeAStar;
+import com.ilp.restservice.pathfinding.SearchAbortedException;
+import com.ilp.restservice.pathfinding.SearchMode;
+import com.ilp.restservice.pathfinding.SearchTrace;
+import com.ilp.restservice.referencedata.GeoJsonSeed;
+import com.ilp.restservice.referencedata.ReferenceDataHolder;
+import com.ilp.restservice.referencedata.ReferenceSnapshot;
+import com.ilp.restservice.service.CalcDeliveryPathService;
+import com.ilp.restservice.service.DeliveryRoute;
+import com.ilp.restservice.service.OrderValidationService;
+import com.ilp.restservice.service.PathPlanningMetrics;
+import com.ilp.restservice.service.PointInPolygonService;
+import com.ilp.restservice.service.RestaurantFetchService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Unit tests for delivery path planning, in open air (no zones, no central area).
+ */
+class CalcDeliveryPathServiceTest {
+
+    private static final CreditCardInformation CARD = new CreditCardInformation("1111222233334444", "12/99", "123");
+    private static final LocalDate MONDAY = LocalDate.of(2025, 1, 6);
+
+    private ExecutorService executor;
+    private ReferenceDataHolder referenceData;
+    private SimpleMeterRegistry meterRegistry;
+    private CalcDeliveryPathService pathService;
+
+    @BeforeEach
+    void setup() {
+        referenceData = new ReferenceDataHolder(new PointInPolygonService(), event -> { });
+        referenceData.publish(new ReferenceSnapshot(0L, List.of(
+                new Restaurant("Near", new Position(-3.1880, 55.9440), List.of("MONDAY"),
+                        List.of(new Pizza("R1: Margarita", 1000))),
+                new Restaurant("Far", new Position(-3.1900, 55.9450), List.of("MONDAY"),
+                        List.of(new Pizza("R2: Meat Lover", 1400)))), List.of(), null));
+
+        executor = Executors.newFixedThreadPool(2);
+        meterRegistry = new SimpleMeterRegistry();
+        pathService = new CalcDeliveryPathService(
+                new OrderValidationService(new RestaurantFetchService(referenceData), meterRegistry), referenceData,
+                new PathPlanningMetrics(meterRegistry), executor,
+                16, false, SearchMode.FORWARD, 10_000, 100_000, Map.of("Far", SearchMode.BIDIRECTIONAL),
+                LatticeAStar.DEFAULT_HEURISTIC_WEIGHT, true, 100_000, Duration.ofSeconds(10), 100,
+                AnytimeAStar.DEFAULT_INITIAL_WEIGHT, AnytimeAStar.DEFAULT_WEIGHT_STEP, Duration.ofSeconds(10));
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void computeDeliveryPaths_mixedBatch_oneEntryPerOrder() {
+        List<Order> orders = List.of(
+                new Order("A1", MONDAY, 1100, List.of(new Pizza("R1: Margarita", 1000)), CARD),
+                new Order("A2", MONDAY, 999, List.of(new Pizza("R1: Margarita", 1000)), CARD),
+                new Order("A3", MONDAY, 1500, List.of(new Pizza("R2: Meat Lover", 1400)), CARD),
+                new Order("A4", MONDAY, 1100, List.of(new Pizza("r1: MARGARITA", 1000)), CARD));
+
+        List<BatchDeliveryPathResult> results = pathService.computeDeliveryPaths(orders);
+
+        System.out.println("==== Test: computeDeliveryPaths_mixedBatch_oneEntryPerOrder ====");
+        System.out.println("Input: A1, A4 from 'Near', A3 from 'Far', A2 with a wrong total");
+        System.out.println("Expected: paths for A1, A3, A4; TOTAL_INCORRECT for A2");
+        for (BatchDeliveryPathResult r : results) {
+            System.out.println("Actual:   " + r.getOrderNo() + " -> "
+                    + (r.getPath() != null ? r.getPath().size() + " waypoints" : r.getErrorCode()));
+        }
+        System.out.println("Reason:   One bad order must not fail the rest of the batch\n");
+
+        assertEquals(List.of("A1", "A2", "A3", "A4"), results.stream().map(BatchDeliveryPathResult::getOrderNo).toList());
+        assertEquals(DeliveryPathErrorCode.ORDER_INVALID, results.get(1).getErrorCode());
+        assertEquals(OrderValidationCode.TOTAL_INCORRECT, results.get(1).getOrderValidationCode());
+        assertNull(results.get(1).getPath());
+        assertNull(results.get(0).getErrorCode());
+        assertNull(results.get(2).getErrorCode());
+
+        // One search per restaurant location, each recorded; every order counted by its code
+        assertEquals(1, meterRegistry.get("ilp.path.search").tags("restaurant", "Near", "outcome", "found")
+                .timer().count());
+        assertEquals(1, meterRegistry.get("ilp.path.search.expansions").tag("restaurant", "Far")
+                .summary().count());
+        assertTrue(meterRegistry.get("ilp.path.search.zone.tests").tag("restaurant", "Far")
+                .summary().totalAmount() > 0);
+        assertEquals(1, meterRegistry.get("ilp.path.search.clear.tests").tag("restaurant", "Far")
+                .summary().count());
+        assertEquals(1.0, meterRegistry.get("ilp.orders.validated").tag("code", "TOTAL_INCORRECT")
+                .counter().count());
+        assertEquals(3.0, meterRegistry.get("ilp.orders.validated").tag("code", "NO_ERROR")
+                .counter().count());
+
+        // Same restaurant => same single search, same path
+        assertEquals(results.get(0).getPath().size(), results.get(3).getPath().size());
+        for (int i = 0; i < results.get(0).getPath().size(); i++) {
+            assertEquals(results.get(0).getPath().get(i).getLng(), results.get(3).getPath().get(i).getLng());
+            assertEquals(results.get(0).getPath().get(i).getLat(), results.get(3).getPath().get(i).getLat());
+        }
+    }
+
+    @Test
+    void computeDeliveryPath_matchesBatchEntry() {
+        Order order = new Order("A1", MONDAY, 1500, List.of(new Pizza("R2: Meat Lover", 1400)), CARD);
+
+        List<Position> single = pathService.computeDeliveryPath(order);
+        List<BatchDeliveryPathResult> batch = pathService.computeDeliveryPaths(List.of(order));
+
+        assertEquals(single.size(), batch.get(0).getPath().size());
+        // Hover steps: the first and last positions are repeated
+        assertSame(single.get(0), single.get(1));
+        assertSame(single.get(single.size() - 1), single.get(single.size() - 2));
+    }
+
+    @Test
+    void planDelivery_traced_searchesAfreshWithLatticeAStar() {
+        Order order = new Order("A1", MONDAY, 1500, List.of(new Pizza("R2: Meat Lover", 1400)), CARD);
+        DeliveryRoute cached = pathService.planDelivery(order);
+        SearchTrace trace = new SearchTrace(1_000);
+        DeliveryRoute traced = pathService.planDelivery(order, trace);
+
+        System.out.println("==== Test: planDelivery_traced_searchesAfreshWithLatticeAStar ====");
+        System.out.println("Input: an order from 'Far' (bidirectional), planned, then planned again traced");
+        System.out.println("Expected: a second, forward search, filling the trace");
+        System.out.println("Actual:   " + trace.count(SearchTrace.Event.EXPANDED) + " expansions traced\n");
+
+        assertEquals(cached.size(), traced.size());
+        assertEquals(1, meterRegistry.get("ilp.path.search").tags("restaurant", "Far", "mode", "BIDIRECTIONAL")
+                .timer().count());
+        assertEquals(1, meterRegistry.get("ilp.path.search").tags("restaurant", "Far", "mode", "FORWARD")
+                .timer().count());
+        assertTrue(trace.count(SearchTrace.Event.EXPANDED) > 0);
+        assertEquals(trace.count(SearchTrace.Event.EXPANDED), trace.size());
+    }
+
+    @Test
+    void computeDeliveryPath_followsPublishedSnapshot() {
+        Order order = new Order("A1", MONDAY, 1100, List.of(new Pizza("R1: Margarita", 1000)), CARD);
+        List<Position> before = pathService.computeDeliveryPath(order);
+
+        // "Near" moves; the new snapshot must be used as a whole, not mixed with the old one
+        long oldVersion = referenceData.current().getVersion();
+        referenceData.publish(new ReferenceSnapshot(0L, List.of(
+                new Restaurant("Near", new Position(-3.1890, 55.9460), List.of("MONDAY"),
+                        List.of(new Pizza("R1: Margarita", 1000)))), List.of(), null));
+        List<Position> after = pathService.computeDeliveryPath(order);
+
+        System.out.println("==== Test: computeDeliveryPath_followsPublishedSnapshot ====");
+        System.out.println("Input: restaurant moved in a newly published snapshot");
+        System.out.println("Expected: path starts at the new location");
+        System.out.println("Actual:   " + before.get(0).getLng() + " -> " + after.get(0).getLng() + "\n");
+
+        assertEquals(oldVersion + 1, referenceData.current().getVersion());
+        assertEquals(-3.1880, before.get(0).getLng());
+        assertEquals(-3.1890, after.get(0).getLng());
+        assertEquals(55.9460, after.get(0).getLat());
+    }
+
+    @Test
+    void computeDeliveryPaths_restaurantWalledIn_budgetExhausted() {
+        // "Near" is moved inside a closed ring of four walls
+        referenceData.publish(new ReferenceSnapshot(0L, List.of(
+                new Restaurant("Near", new Position(-3.1880, 55.9440), List.of("MONDAY"),
+                        List.of(new Pizza("R1: Margarita", 1000)))), List.of(
+                wall("south", -3.1890, 55.9435, -3.1870, 55.9437),
+                wall("north", -3.1890, 55.9443, -3.1870, 55.9445),
+                wall("west", -3.1890, 55.9435, -3.1888, 55.9445),
+                wall("east", -3.1872, 55.9435, -3.1870, 55.9445)), null));
+        Order order = new Order("A1", MONDAY, 1100, List.of(new Pizza("R1: Margarita", 1000)), CARD);
+
+        List<BatchDeliveryPathResult> results = pathService.computeDeliveryPaths(List.of(order));
+        SearchAbortedException single = assertThrows(SearchAbortedException.class,
+                () -> pathService.computeDeliveryPath(order));
+
+        System.out.println("==== Test: computeDeliveryPaths_restaurantWalledIn_budgetExhausted ====");
+        System.out.println("Input: restaurant inside a closed ring of no-fly zones");
+        System.out.println("Expected: SEARCH_BUDGET_EXHAUSTED, and EXPANSION_BUDGET for the single order");
+        System.out.println("Actual:   " + results.get(0).getErrorCode() + " / " + single.getReason() + "\n");
+
+        assertEquals(DeliveryPathErrorCode.SEARCH_BUDGET_EXHAUSTED, results.get(0).getErrorCode());
+        assertNull(results.get(0).getPath());
+        assertEquals(SearchAbortedException.Reason.EXPANSION_BUDGET, single.getReason());
+    }
+
+    @Test
+    void planDelivery_startFloodsOptimalSearch_anytimeRouteWithinBudget() throws IOException {
+        // South-west of the zones the straight-line search expands about 480k nodes before
+        // it reaches the tower, far over the 100k budget
+        ReferenceSnapshot seed = GeoJsonSeed.read(Path.of("noflyzone.json"));
+        referenceData.publish(new ReferenceSnapshot(0L, List.of(
+                new Restaurant("Near", new Position(-3.191915, 55.941446), List.of("MONDAY"),
+                        List.of(new Pizza("R1: Margarita", 1000)))), seed.getNoFlyZones(), seed.getCentralArea()));
+        Order order = new Order("A1", MONDAY, 1100, List.of(new Pizza("R1: Margarita", 1000)), CARD);
+
+        DeliveryRoute route = pathService.planDelivery(order);
+
+        System.out.println("==== Test: planDelivery_startFloodsOptimalSearch_anytimeRouteWithinBudget ====");
+        System.out.println("Input: seed zones, restaurant at (-3.191915, 55.941446), 100k expansion budget");
+        System.out.println("Expected: a route to Appleton Tower with a suboptimality bound above 1");
+        System.out.println("Actual:   " + route.size() + " waypoints, bound " + route.getSuboptimalityBound() + "\n");
+
+        assertEquals(-3.191915, route.lng(0));
+        assertEquals(55.941446, route.lat(0));
+        assertTrue(Math.hypot(route.lng(route.size() - 1) + 3.186874, route.lat(route.size() - 1) - 55.944494)
+                < 0.00015);
+        assertTrue(route.getSuboptimalityBound() > 1.0);
+    }
+
+    @Test
+    void compareSearchModes_everyModePerRestaurant() {
+        List<SearchModeComparison> comparisons = pathService.compareSearchModes();
+
+        System.out.println("==== Test: compareSearchModes_everyModePerRestaurant ====");
+        System.out.println("Input: 'Near' on the default mode, 'Far' overridden to bidirectional");
+        System.out.println("Expected: forward, jump-point, bidirectional, hierarchical and anytime results for both");
+        for (SearchModeComparison c : comparisons) {
+            System.out.println("Actual:   " + c.getRestaurant() + " (" + c.getSearchMode() + ") " + c.getResults()
+                    + ", saved " + c.getBidirectionalExpansionsSaved());
+        }
+        System.out.println();
+
+        assertEquals(List.of("Near", "Far"), comparisons.stream().map(SearchModeComparison::getRestaurant).toList());
+        assertEquals(SearchMode.FORWARD, comparisons.get(0).getSearchMode());
+        assertEquals(SearchMode.BIDIRECTIONAL, comparisons.get(1).getSearchMode());
+        for (SearchModeComparison c : comparisons) {
+            assertEquals(5, c.getResults().size());
+            assertTrue(c.getResults().stream().allMatch(SearchModeComparison.ModeResult::found));
+            assertEquals(c.getResults().get(0).expansions() - c.getResults().get(2).expansions(),
+                    c.getBidirectionalExpansionsSaved());
+            // With time to spare the anytime route is proven shortest: no longer than weighted A*'s
+            SearchModeComparison.ModeResult anytime = c.getResults().get(4);
+            assertEquals(SearchMode.ANYTIME, anytime.searchMode());
+            assertEquals(1.0, anytime.suboptimalityBound());
+            assertTrue(anytime.waypoints() <= c.getResults().get(0).waypoints());
+            assertNull(c.getResults().get(0).suboptimalityBound());
+        }
+    }
+
+    private static NamedRegion wall(String name, double minLng, double minLat, double maxLng, double maxLat) {
+        NamedRegion wall = new NamedRegion();
+        wall.setName(name);
+        wall.setVertices(List.of(
+                new Position(minLng, minLat),
+                new Position(maxLng, minLat),
+                new Position(maxLng, maxLat),
+                new Position(minLng, maxLat),
+                new Position(minLng, minLat)));
+        return wall;
+    }
+}
@@ -0,0 +1,99 @@
+package com.ilp.restservice.unitTests;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.Test;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import org.mockito.Mockito;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import com.ilp.restservice.controller.DeliveryPathController;
+import com.ilp.restservice.model.Order;
+import com.ilp.restservice.pathfinding.SearchTrace;
+import com.ilp.restservice.service.CalcDeliveryPathService;
+import com.ilp.restservice.service.SearchTraceStore;
+
+/**
+ * Unit tests for the X-Search-Trace request header of /calcDeliveryPath and the switch of
+ * /searchModeComparison, run against a standalone MockMvc with a mocked service.
+ */
+class DeliveryPathControllerTest {
+
+    private final CalcDeliveryPathService serviceMock = Mockito.mock(CalcDeliveryPathService.class);
+
+    @Test
+    void calcDeliveryPath_traceHeader_ignoredUnlessEnabled() throws Exception {
+        given(serviceMock.planDelivery(any(Order.class))).willThrow(new IllegalArgumentException("Order invalid"));
+        SearchTraceStore store = new SearchTraceStore(false, 1_000, 8);
+
+        System.out.println("==== Test: calcDeliveryPath_traceHeader_ignoredUnlessEnabled ====");
+        System.out.println("Input: X-Search-Trace: true with ilp.path.trace.enabled=false");
+        System.out.println("Expected: untraced 400, no trace id, nothing stored\n");
+
+        mockMvc(store).perform(post("/calcDeliveryPath")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(DeliveryPathController.SEARCH_TRACE_HEADER, "true")
+                        .content("{}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(header().doesNotExist(DeliveryPathController.SEARCH_TRACE_ID_HEADER));
+
+        verify(serviceMock, never()).planDelivery(any(Order.class), any(SearchTrace.class));
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    void calcDeliveryPath_traceHeader_tracedWhenEnabled() throws Exception {
+        given(serviceMock.planDelivery(any(Order.class), any(SearchTrace.class)))
+                .willThrow(new IllegalArgumentException("Order invalid"));
+        SearchTraceStore store = new SearchTraceStore(true, 1_000, 8);
+
+        mockMvc(store).perform(post("/calcDeliveryPath")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(DeliveryPathController.SEARCH_TRACE_HEADER, "true")
+                        .content("{}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(header().string(DeliveryPathController.SEARCH_TRACE_ID_HEADER, "1"));
+
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    void searchModeComparison_notFoundUnlessEnabled() throws Exception {
+        given(serviceMock.compareSearchModes()).willReturn(List.of());
+
+        System.out.println("==== Test: searchModeComparison_notFoundUnlessEnabled ====");
+        System.out.println("Input: GET /searchModeComparison with ilp.path.search-mode-comparison.enabled=false");
+        System.out.println("Expected: 404, no searches run\n");
+
+        mockMvc(new SearchTraceStore(false, 1_000, 8)).perform(get("/searchModeComparison"))
+                .andExpect(status().isNotFound());
+
+        verify(serviceMock, never()).compareSearchModes();
+    }
+
+    @Test
+    void searchModeComparison_comparedWhenEnabled() throws Exception {
+        given(serviceMock.compareSearchModes()).willReturn(List.of());
+        SearchTraceStore store = new SearchTraceStore(false, 1_000, 8);
+
+        MockMvcBuilders.standaloneSetup(new DeliveryPathController(serviceMock, store, true)).build()
+                .perform(get("/searchModeComparison"))
+                .andExpect(status().isOk());
+
+        verify(serviceMock).compareSearchModes();
+    }
+
+    private MockMvc mockMvc(SearchTraceStore store) {
+        return MockMvcBuilders.standaloneSetup(new DeliveryPathController(serviceMock, store, false)).build();
+    }
+}
@@ -0,0 +1,92 @@
+package com.ilp.restservice.unitTests;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ilp.restservice.dto.GeoJsonDeliveryPath;
+import com.ilp.restservice.model.Pizza;
+import com.ilp.restservice.model.Position;
+import com.ilp.restservice.model.Restaurant;
+import com.ilp.restservice.pathfinding.PathResult;
+import com.ilp.restservice.pathfinding.SearchStats;
+import com.ilp.restservice.service.DeliveryRoute;
+
+/**
+ * Unit tests for the streamed GeoJSON path, checked against the map-based output it replaces.
+ */
+class GeoJsonDeliveryPathTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private final DeliveryRoute route = new DeliveryRoute(
+            new Restaurant("Civerinos Slice", new Position(-3.1912869215011597, 55.945535152517735),
+                    List.of("MONDAY"), List.of(new Pizza("R1: Margarita", 1000))),
+            new PathResult(
+                    new double[] {-3.1912869215011597, -3.191148339571283, -3.1910097576414067, -3.18},
+                    new double[] {55.945535152517735, 55.94547775000288, 55.9454200, 55.944494},
+                    new SearchStats()));
+
+    @Test
+    void serialize_sameBytesAsMapBasedGeoJson() throws Exception {
+        String expected = mapper.writeValueAsString(legacyGeoJson(route.toPositions()));
+        String actual = mapper.writeValueAsString(new GeoJsonDeliveryPath(route));
+
+        System.out.println("==== Test: serialize_sameBytesAsMapBasedGeoJson ====");
+        System.out.println("Input: 4 waypoints + 2 hover steps");
+        System.out.println("Expected: " + expected);
+        System.out.println("Actual:   " + actual + "\n");
+
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void serialize_extraPropertiesFollowDescription() throws Exception {
+        String json = mapper.writeValueAsString(new GeoJsonDeliveryPath(route)
+                .withProperty("stepCount", route.size() - 1)
+                .withProperty("restaurant", route.getRestaurant().getName()));
+
+        assertTrue(json.endsWith("\"properties\":{\"description\":\"" + GeoJsonDeliveryPath.DESCRIPTION
+                + "\",\"stepCount\":5,\"restaurant\":\"Civerinos Slice\"}}]}"), json);
+    }
+
+    @Test
+    void deliveryRoute_hoverStepsRepeatEnds() {
+        assertEquals(6, route.size());
+        assertEquals(route.lng(0), route.lng(1));
+        assertEquals(-3.191148339571283, route.lng(2));
+        assertEquals(route.lat(4), route.lat(5));
+        assertEquals(55.944494, route.lat(5));
+    }
+
+    /**
+     * The map-based GeoJSON the controller used to build.
+     */
+    private static Map<String, Object> legacyGeoJson(List<Position> path) {
+        Map<String, Object> featureCollection = new LinkedHashMap<>();
+        featureCollection.put("type", "FeatureCollection");
+        List<Map<String, Object>> features = new ArrayList<>();
+        Map<String, Object> feature = new LinkedHashMap<>();
+        feature.put("type", "Feature");
+        Map<String, Object> geometry = new LinkedHashMap<>();
+        geometry.put("type", "LineString");
+        List<List<Double>> coordinates = new ArrayList<>();
+        for (Position p : path) {
+            coordinates.add(List.of(p.getLng(), p.getLat()));
+        }
+        geometry.put("coordinates", coordinates);
+        feature.put("geometry", geometry);
+        Map<String, Object> properties = new LinkedHashMap<>();
+        properties.put("description", "Drone path from restaurant to Appleton Tower");
+        feature.put("properties", properties);
+        features.add(feature);
+        featureCollection.put("features", features);
+        return featureCollection;
+    }
+}
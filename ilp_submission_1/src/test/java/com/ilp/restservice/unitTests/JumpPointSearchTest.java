@@ -0,0 +1,225 @@
+package com.ilp.restservice.unitTests;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import com.ilp.restservice.geometry.Airspace;
+import com.ilp.restservice.model.Restaurant;
+import com.ilp.restservice.pathfinding.DroneLattice;
+import com.ilp.restservice.pathfinding.Heuristic;
+import com.ilp.restservice.pathfinding.JumpPointSearch;
+import com.ilp.restservice.pathfinding.LatticeAStar;
+import com.ilp.restservice.pathfinding.PathResult;
+import com.ilp.restservice.referencedata.GeoJsonSeed;
+import com.ilp.restservice.referencedata.ReferenceSnapshot;
+import com.ilp.restservice.service.PointInPolygonService;
+
+/**
+ * Unit tests for the jumping search, run against the zones of the checked-in seed file.
+ */
+class JumpPointSearchTest {
+
+    private static final double TOWER_LNG = -3.186874;
+    private static final double TOWER_LAT = 55.944494;
+
+    private final JumpPointSearch jumpPointSearch = new JumpPointSearch();
+    private final LatticeAStar latticeAStar = new LatticeAStar();
+
+    @Test
+    void search_everyRestaurant_validStepPathWithFewerExpansions() throws Exception {
+        ReferenceSnapshot snapshot = seed();
+        Airspace airspace = snapshot.getAirspace();
+
+        System.out.println("==== Test: search_everyRestaurant_validStepPathWithFewerExpansions ====");
+        System.out.println("Expected: legal step-by-step paths, far fewer expansions than plain A*");
+        long jumpExpansions = 0;
+        long stepExpansions = 0;
+        for (Restaurant r : snapshot.getRestaurants()) {
+            double lng = r.getLocation().getLng();
+            double lat = r.getLocation().getLat();
+            PathResult jumped = jumpPointSearch.search(lng, lat, TOWER_LNG, TOWER_LAT, airspace);
+            PathResult stepped = latticeAStar.search(lng, lat, TOWER_LNG, TOWER_LAT, airspace);
+
+            System.out.println("Actual:   " + r.getName() + ": " + jumped.size() + " waypoints / "
+                    + jumped.getStats().getExpansions() + " expansions, A* " + stepped.size() + " / "
+                    + stepped.getStats().getExpansions());
+
+            assertTrue(jumped.isFound());
+            assertEquals(lng, jumped.lng(0));
+            assertEquals(lat, jumped.lat(0));
+            assertLegal(jumped, airspace);
+            int last = jumped.size() - 1;
+            assertTrue(DroneLattice.distance(jumped.lng(last), jumped.lat(last), TOWER_LNG, TOWER_LAT)
+                    < DroneLattice.TOLERANCE);
+            // Jump points sit where a step search would turn, so the path is hardly longer
+            assertTrue(jumped.size() <= stepped.size() * 1.05 + 2);
+            jumpExpansions += jumped.getStats().getExpansions();
+            stepExpansions += stepped.getStats().getExpansions();
+        }
+        System.out.println("Total:    " + jumpExpansions + " vs " + stepExpansions + " expansions\n");
+
+        // Restaurants sit close to zones and the central area, where every step is still a node
+        assertTrue(jumpExpansions * 3 < stepExpansions);
+    }
+
+    @Test
+    void search_givenWeightAndHeuristic_bothUsed() throws Exception {
+        ReferenceSnapshot snapshot = seed();
+        Airspace airspace = snapshot.getAirspace();
+        Heuristic landmarks = airspace.getLandmarks().towards(TOWER_LNG, TOWER_LAT);
+        AtomicInteger estimates = new AtomicInteger();
+        Heuristic counted = (lng, lat) -> {
+            estimates.incrementAndGet();
+            return landmarks.steps(lng, lat);
+        };
+
+        System.out.println("==== Test: search_givenWeightAndHeuristic_bothUsed ====");
+        System.out.println("Input: every restaurant, landmark bound at weights 1.0 and 3.0");
+        System.out.println("Expected: legal paths, the bound consulted, fewer expansions at 3.0");
+        long exact = 0;
+        long inflated = 0;
+        for (Restaurant r : snapshot.getRestaurants()) {
+            double lng = r.getLocation().getLng();
+            double lat = r.getLocation().getLat();
+            PathResult one = new JumpPointSearch(1.0).search(lng, lat, TOWER_LNG, TOWER_LAT, airspace, counted);
+            PathResult three = new JumpPointSearch(3.0).search(lng, lat, TOWER_LNG, TOWER_LAT, airspace, counted);
+
+            System.out.println("Actual:   " + r.getName() + ": " + one.size() + " waypoints / "
+                    + one.getStats().getExpansions() + " expansions at 1.0, " + three.size() + " / "
+                    + three.getStats().getExpansions() + " at 3.0");
+
+            assertLegal(one, airspace);
+            assertLegal(three, airspace);
+            exact += one.getStats().getExpansions();
+            inflated += three.getStats().getExpansions();
+        }
+        System.out.println("Total:    " + exact + " vs " + inflated + " expansions, " + estimates + " estimates\n");
+
+        assertTrue(estimates.get() > 0);
+        assertTrue(inflated < exact);
+    }
+
+    @Test
+    void search_openAir_jumpsMostOfTheWay() throws Exception {
+        Airspace airspace = seed().getAirspace();
+        // Well south of every zone and outside the central area
+        PathResult result = jumpPointSearch.search(-3.1900, 55.9300, -3.1800, 55.9350, airspace);
+        PathResult stepped = latticeAStar.search(-3.1900, 55.9300, -3.1800, 55.9350, airspace);
+
+        System.out.println("==== Test: search_openAir_jumpsMostOfTheWay ====");
+        System.out.println("Input: about 75 steps through open air");
+        System.out.println("Expected: a handful of expansions, same path length as A*");
+        System.out.println("Actual:   " + result.size() + " waypoints, " + result.getStats().getExpansions()
+                + " expansions; A* " + stepped.size() + " waypoints, "
+                + stepped.getStats().getExpansions() + " expansions\n");
+
+        assertTrue(result.isFound());
+        assertLegal(result, airspace);
+        assertEquals(stepped.size(), result.size());
+        assertTrue(result.getStats().getExpansions() * 10 < stepped.getStats().getExpansions());
+    }
+
+    @Test
+    void search_comparedWithLatticeAStar_sameLengths() throws Exception {
+        ReferenceSnapshot snapshot = seed();
+        Airspace airspace = snapshot.getAirspace();
+
+        System.out.println("==== Test: search_comparedWithLatticeAStar_sameLengths ====");
+        System.out.println("Expected: same waypoint counts as A* from every restaurant and from points"
+                + " first reached by a longer jump; at most one step apart elsewhere");
+        for (Restaurant r : snapshot.getRestaurants()) {
+            assertSameLength(r.getLocation().getLng(), r.getLocation().getLat(), airspace);
+        }
+        // First reached by a longer jump: without relaxing the node the path was one step longer
+        assertSameLength(-3.1929053, 55.9471141, airspace);
+        assertSameLength(-3.1925091, 55.9429052, airspace);
+
+        // Jumps skip some turns a step search can take, and both searches are weighted, so
+        // either may come out a step ahead. A few dozen fixed-seed starts: some flood both
+        // searches, so a wider sweep costs tens of seconds
+        Random random = new Random(7);
+        int compared = 0;
+        for (int i = 0; i < 36; i++) {
+            double lng = -3.1950 + random.nextDouble() * 0.0150;
+            double lat = 55.9400 + random.nextDouble() * 0.0080;
+            if (!airspace.isClear(lng, lat)) {
+                continue;
+            }
+            PathResult jumped = jumpPointSearch.search(lng, lat, TOWER_LNG, TOWER_LAT, airspace);
+            PathResult stepped = latticeAStar.search(lng, lat, TOWER_LNG, TOWER_LAT, airspace);
+            assertTrue(jumped.isFound());
+            assertTrue(Math.abs(jumped.size() - stepped.size()) <= 1,
+                    "from " + lng + ", " + lat + ": " + jumped.size() + " vs " + stepped.size());
+            compared++;
+        }
+        System.out.println("Actual:   " + compared + " random starts within a step\n");
+        assertTrue(compared > 20);
+    }
+
+    @Test
+    void isClear_everyStepFromClearPointIsLegal() throws Exception {
+        Airspace airspace = seed().getAirspace();
+        Random random = new Random(3);
+
+        int clear = 0;
+        for (int i = 0; i < 50_000; i++) {
+            double lng = -3.1950 + random.nextDouble() * 0.0150;
+            double lat = 55.9400 + random.nextDouble() * 0.0080;
+            if (!airspace.isClear(lng, lat)) {
+                continue;
+            }
+            clear++;
+            boolean inside = airspace.isInsideCentral(lng, lat);
+            for (int d = 0; d < DroneLattice.DIRECTION_COUNT; d++) {
+                double nextLng = lng + DroneLattice.dx(d);
+                double nextLat = lat + DroneLattice.dy(d);
+                assertFalse(airspace.crossesNoFlyZone(lng, lat, nextLng, nextLat));
+                assertEquals(inside, airspace.isInsideCentral(nextLng, nextLat));
+            }
+        }
+        assertTrue(clear > 10_000);
+    }
+
+    // -------------------------------------------------------------------------
+    // Helpers
+    // -------------------------------------------------------------------------
+    private static ReferenceSnapshot seed() throws Exception {
+        return GeoJsonSeed.read(Path.of("noflyzone.json")).withIndexes(1, new PointInPolygonService());
+    }
+
+    private void assertSameLength(double lng, double lat, Airspace airspace) {
+        PathResult jumped = jumpPointSearch.search(lng, lat, TOWER_LNG, TOWER_LAT, airspace);
+        PathResult stepped = latticeAStar.search(lng, lat, TOWER_LNG, TOWER_LAT, airspace);
+        System.out.println("Actual:   " + lng + ", " + lat + ": " + jumped.size() + " vs A* " + stepped.size());
+        assertTrue(jumped.isFound());
+        assertLegal(jumped, airspace);
+        assertEquals(stepped.size(), jumped.size());
+    }
+
+    /**
+     * Every move is one lattice step (exactly, as sums of the direction table) that stays
+     * out of the zones and never leaves the central area once inside.
+     */
+    private static void assertLegal(PathResult path, Airspace airspace) {
+        boolean inCentral = airspace.isInsideCentral(path.lng(0), path.lat(0));
+        for (int i = 1; i < path.size(); i++) {
+            boolean onLattice = false;
+            for (int d = 0; d < DroneLattice.DIRECTION_COUNT && !onLattice; d++) {
+                onLattice = path.lng(i - 1) + DroneLattice.dx(d) == path.lng(i)
+                        && path.lat(i - 1) + DroneLattice.dy(d) == path.lat(i);
+            }
+            assertTrue(onLattice, "move " + i + " is not a lattice step");
+            assertFalse(airspace.crossesNoFlyZone(path.lng(i - 1), path.lat(i - 1), path.lng(i), path.lat(i)));
+            boolean nextInside = airspace.isInsideCentral(path.lng(i), path.lat(i));
+            assertFalse(inCentral && !nextInside, "left the central area at move " + i);
+            inCentral = inCentral || nextInside;
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.ilp.restservice.unitTests;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import com.ilp.restservice.geometry.Airspace;
+import com.ilp.restservice.model.NamedRegion;
+import com.ilp.restservice.model.Position;
+import com.ilp.restservice.model.Restaurant;
+import com.ilp.restservice.pathfinding.DroneLattice;
+import com.ilp.restservice.pathfinding.Heuristic;
+import com.ilp.restservice.pathfinding.LatticeAStar;
+import com.ilp.restservice.pathfinding.PathResult;
+import com.ilp.restservice.referencedata.GeoJsonSeed;
+import com.ilp.restservice.referencedata.ReferenceSnapshot;
+import com.ilp.restservice.service.PointInPolygonService;
+
+/**
+ * Unit tests for the search heuristics: the 16-direction lattice distance and the landmark
+ * bound built on top of it.
+ */
+class LandmarksTest {
+
+    private static final double TOWER_LNG = -3.186874;
+    private static final double TOWER_LAT = 55.944494;
+
+    // Uninflated: the lattice and landmark estimates are lower bounds on the steps left
+    private final LatticeAStar optimal = new LatticeAStar(1.0);
+
+    @Test
+    void latticeSteps_mixOfNeighbouringDirections_countsEveryStep() {
+        // Three steps at 22.5 degrees and two at 45 degrees, in any order
+        double dx = 3 * DroneLattice.dx(1) + 2 * DroneLattice.dx(2);
+        double dy = 3 * DroneLattice.dy(1) + 2 * DroneLattice.dy(2);
+
+        double steps = DroneLattice.latticeSteps(dx, dy);
+
+        System.out.println("==== Test: latticeSteps_mixOfNeighbouringDirections_countsEveryStep ====");
+        System.out.println("Input: 3 steps at 22.5 degrees + 2 at 45 degrees");
+        System.out.println("Expected: 5.0, above the straight line");
+        System.out.println("Actual:   " + steps + " (straight line "
+                + DroneLattice.distance(0, 0, dx, dy) / DroneLattice.STEP + ")\n");
+
+        assertEquals(5.0, steps, 1e-9);
+        assertEquals(7.0, DroneLattice.latticeSteps(-7 * DroneLattice.STEP, 0), 1e-9);
+        assertTrue(steps > DroneLattice.distance(0, 0, dx, dy) / DroneLattice.STEP);
+    }
+
+    @Test
+    void search_everyRestaurant_samePathsWithFarFewerExpansions() throws Exception {
+        ReferenceSnapshot snapshot = seed();
+        Airspace airspace = snapshot.getAirspace();
+        Heuristic landmarks = airspace.getLandmarks().towards(TOWER_LNG, TOWER_LAT);
+
+        System.out.println("==== Test: search_everyRestaurant_samePathsWithFarFewerExpansions ====");
+        System.out.println("Input: " + airspace.getLandmarks().getLandmarkCount() + " landmarks, weight 1.0");
+        System.out.println("Expected: equal path lengths, far fewer expansions than the straight line");
+        int straightExpansions = 0;
+        int landmarkExpansions = 0;
+        for (Restaurant r : snapshot.getRestaurants()) {
+            double lng = r.getLocation().getLng();
+            double lat = r.getLocation().getLat();
+            PathResult straight = optimal.search(lng, lat, TOWER_LNG, TOWER_LAT, airspace);
+            PathResult guided = optimal.search(lng, lat, TOWER_LNG, TOWER_LAT, airspace, landmarks);
+            System.out.println("Actual:   " + r.getName() + ": " + guided.size() + " waypoints / "
+                    + guided.getStats().getExpansions() + " expansions, straight line " + straight.size() + " / "
+                    + straight.getStats().getExpansions());
+
+            assertTrue(guided.isFound());
+            assertEquals(straight.size(), guided.size(), r.getName());
+            // A lower bound on the steps taken, though the path may stop a step short of the goal
+            assertTrue(landmarks.steps(lng, lat) <= guided.size() - 1, r.getName());
+            straightExpansions += straight.getStats().getExpansions();
+            landmarkExpansions += guided.getStats().getExpansions();
+        }
+        System.out.println();
+
+        // Uninflated, the whole-step estimates tie often, so the gain is smaller than at 1.04
+        assertTrue(landmarkExpansions * 5 < straightExpansions);
+    }
+
+    @Test
+    void search_acrossSeedZones_sameLengthsAsUninformedSearch() throws Exception {
+        ReferenceSnapshot snapshot = seed();
+        Airspace airspace = snapshot.getAirspace();
+        // h = 0: a breadth-first search, shortest by construction. The lattice is dense, so
+        // only routes of a few steps are affordable: across the three smallest seed zones
+        double step = DroneLattice.STEP;
+        double[][] routes = {
+            // Dr Elsie Inglis Quadrangle, west to east and south to north
+            {-3.1907183 - 1.5 * step, 55.9451401, -3.1900263 + 1.5 * step, 55.9451401},
+            {-3.1903723, 55.9449824 - 1.5 * step, -3.1903723, 55.9452978 + 1.5 * step},
+            // Bayes Central Area, west to east and south to north
+            {-3.1876928 - 1.5 * step, 55.9451660, -3.1869820 + 1.5 * step, 55.9451660},
+            {-3.1873374, 55.9449621 - 1.5 * step, -3.1873374, 55.9453699 + 1.5 * step}};
+
+        System.out.println("==== Test: search_acrossSeedZones_sameLengthsAsUninformedSearch ====");
+        System.out.println("Input: routes across small seed zones, weight 1.0");
+        System.out.println("Expected: landmark and lattice paths as short as the uninformed search's");
+        for (double[] r : routes) {
+            PathResult uninformed = optimal.search(r[0], r[1], r[2], r[3], airspace, (lng, lat) -> 0.0);
+            PathResult lattice = optimal.search(r[0], r[1], r[2], r[3], airspace, Heuristic.lattice(r[2], r[3]));
+            PathResult guided = optimal.search(r[0], r[1], r[2], r[3], airspace,
+                    airspace.getLandmarks().towards(r[2], r[3]));
+            System.out.println("Actual:   " + uninformed.size() + " waypoints / "
+                    + uninformed.getStats().getExpansions() + " expansions uninformed, lattice " + lattice.size()
+                    + " / " + lattice.getStats().getExpansions() + ", landmarks " + guided.size() + " / "
+                    + guided.getStats().getExpansions());
+
+            assertTrue(uninformed.isFound());
+            // The straight line crosses the zone
+            assertTrue(airspace.getNoFlyObstacles().segmentCrossesAnyEdge(r[0], r[1], r[2], r[3]));
+            assertEquals(uninformed.size(), lattice.size());
+            assertEquals(uninformed.size(), guided.size());
+        }
+        System.out.println();
+    }
+
+    @Test
+    void towards_pointInFrontOfWall_boundSeesTheDetour() {
+        NamedRegion wall = new NamedRegion();
+        wall.setName("wall");
+        wall.setVertices(List.of(
+                new Position(-3.1892, 55.9425),
+                new Position(-3.1888, 55.9425),
+                new Position(-3.1888, 55.9455),
+                new Position(-3.1892, 55.9455),
+                new Position(-3.1892, 55.9425)));
+        Airspace airspace = Airspace.build(1, List.of(wall), null, new PointInPolygonService());
+        double lng = -3.1893;
+        double lat = 55.9440;
+        double goalLng = -3.1860;
+        double goalLat = 55.9440;
+
+        double lattice = Heuristic.lattice(goalLng, goalLat).steps(lng, lat);
+        double bound = airspace.getLandmarks().towards(goalLng, goalLat).steps(lng, lat);
+        PathResult path = optimal.search(lng, lat, goalLng, goalLat, airspace,
+                airspace.getLandmarks().towards(goalLng, goalLat));
+
+        System.out.println("==== Test: towards_pointInFrontOfWall_boundSeesTheDetour ====");
+        System.out.println("Input: a point right in front of a wall 20 steps tall, the goal behind it");
+        System.out.println("Expected: lattice distance < landmark bound <= steps taken");
+        System.out.println("Actual:   " + lattice + " < " + bound + " <= " + (path.size() - 1) + "\n");
+
+        assertTrue(bound > lattice + 3);
+        assertTrue(bound <= path.size() - 1);
+    }
+
+    private static ReferenceSnapshot seed() throws Exception {
+        return GeoJsonSeed.read(Path.of("noflyzone.json")).withIndexes(1, new PointInPolygonService());
+    }
+}
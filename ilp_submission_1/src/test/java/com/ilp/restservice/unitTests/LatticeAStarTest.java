@@ -0,0 +1,258 @@
+package com.ilp.restservice.unitTests;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import com.ilp.restservice.model.NamedRegion;
+import com.ilp.restservice.model.Position;
+import com.ilp.restservice.model.Restaurant;
+import com.ilp.restservice.pathfinding.DroneLattice;
+import com.ilp.restservice.pathfinding.FlightConstraints;
+import com.ilp.restservice.pathfinding.LatticeAStar;
+import com.ilp.restservice.pathfinding.PathResult;
+import com.ilp.restservice.referencedata.GeoJsonSeed;
+import com.ilp.restservice.referencedata.ReferenceSnapshot;
+import com.ilp.restservice.service.PointInPolygonService;
+
+/**
+ * Unit tests for the primitive lattice A* engine, run against small hand-made airspaces.
+ */
+class LatticeAStarTest {
+
+    private static final double START_LNG = -3.1920;
+    private static final double START_LAT = 55.9440;
+    private static final double GOAL_LNG = -3.1860;
+    private static final double GOAL_LAT = 55.9440;
+
+    private final LatticeAStar engine = new LatticeAStar();
+    private final PointInPolygonService pointInPolygonService = new PointInPolygonService();
+
+    @Test
+    void search_openAir_reachesGoalWithUnitSteps() {
+        PathResult result = engine.search(START_LNG, START_LAT, GOAL_LNG, GOAL_LAT, constraints(List.of()));
+
+        System.out.println("==== Test: search_openAir_reachesGoalWithUnitSteps ====");
+        System.out.println("Input: no zones, start 0.006 degrees west of goal");
+        System.out.println("Expected: path of STEP-length moves ending within TOLERANCE");
+        System.out.println("Actual:   " + result.size() + " waypoints, "
+                + result.getStats().getExpansions() + " expansions\n");
+
+        assertTrue(result.isFound());
+        assertEquals(START_LNG, result.lng(0));
+        assertEquals(START_LAT, result.lat(0));
+        assertStepsAreOnLattice(result);
+        int last = result.size() - 1;
+        assertTrue(DroneLattice.distance(result.lng(last), result.lat(last), GOAL_LNG, GOAL_LAT)
+                < DroneLattice.TOLERANCE);
+    }
+
+    @Test
+    void search_wallInTheWay_detoursAroundIt() {
+        List<Position> wall = square(-3.1892, 55.9436, -3.1888, 55.9444);
+        PathResult result = engine.search(START_LNG, START_LAT, GOAL_LNG, GOAL_LAT, constraints(List.of(wall)));
+
+        System.out.println("==== Test: search_wallInTheWay_detoursAroundIt ====");
+        System.out.println("Input: a no-fly zone straddling the straight line to the goal");
+        System.out.println("Expected: a longer path with no waypoint inside the zone");
+        System.out.println("Actual:   " + result.size() + " waypoints\n");
+
+        assertTrue(result.isFound());
+        assertStepsAreOnLattice(result);
+        for (int i = 0; i < result.size(); i++) {
+            assertFalse(pointInPolygonService.isPointInPolygon(
+                    new Position(result.lng(i), result.lat(i)), wall));
+        }
+        // Straight line would need 40 steps, the zone forces at least one turn
+        assertTrue(result.size() > 41);
+    }
+
+    @Test
+    void search_startInsideZone_returnsEmptyResult() {
+        List<Position> cage = square(-3.1930, 55.9430, -3.1910, 55.9450);
+        PathResult result = engine.search(START_LNG, START_LAT, GOAL_LNG, GOAL_LAT, constraints(List.of(cage)));
+
+        System.out.println("==== Test: search_startInsideZone_returnsEmptyResult ====");
+        System.out.println("Input: start lies deep inside a no-fly zone");
+        System.out.println("Expected: no path");
+        System.out.println("Actual:   found=" + result.isFound() + "\n");
+
+        assertFalse(result.isFound());
+        assertEquals(0, result.size());
+    }
+
+    @Test
+    void search_startInsideCentral_neverLeavesIt() {
+        // L-shaped central area: the straight line from start to goal cuts across the notch
+        List<Position> central = List.of(
+                new Position(-3.1925, 55.9435),
+                new Position(-3.1895, 55.9435),
+                new Position(-3.1895, 55.9445),
+                new Position(-3.1915, 55.9445),
+                new Position(-3.1915, 55.9465),
+                new Position(-3.1925, 55.9465),
+                new Position(-3.1925, 55.9435));
+        PathResult result = engine.search(-3.1920, 55.9460, -3.1900, 55.9440, constraints(List.of(), central));
+
+        System.out.println("==== Test: search_startInsideCentral_neverLeavesIt ====");
+        System.out.println("Input: start and goal in the two arms of an L-shaped central area");
+        System.out.println("Expected: every waypoint inside the central area");
+        System.out.println("Actual:   " + result.size() + " waypoints\n");
+
+        assertTrue(result.isFound());
+        for (int i = 0; i < result.size(); i++) {
+            assertTrue(pointInPolygonService.isPointInPolygon(
+                    new Position(result.lng(i), result.lat(i)), central));
+        }
+    }
+
+    @Test
+    void search_startInsideCentralGoalOutside_returnsEmptyResult() {
+        // Narrower than a step: every step from the start leaves it
+        List<Position> central = square(START_LNG - 0.0001, START_LAT - 0.0001, START_LNG + 0.0001, START_LAT + 0.0001);
+        PathResult result = engine.search(START_LNG, START_LAT, GOAL_LNG, GOAL_LAT, constraints(List.of(), central));
+
+        System.out.println("==== Test: search_startInsideCentralGoalOutside_returnsEmptyResult ====");
+        System.out.println("Input: start inside a central area narrower than a step, goal outside");
+        System.out.println("Expected: no path, every step from the start leaves the central area");
+        System.out.println("Actual:   found=" + result.isFound() + ", "
+                + result.getStats().getExpansions() + " expansions\n");
+
+        // The inside flag used to be set before the exit test, so the drone could fly out
+        assertFalse(result.isFound());
+        assertEquals(1, result.getStats().getExpansions());
+    }
+
+    @Test
+    void search_everySeedRestaurant_sameAsDirectionsTableSearch() throws Exception {
+        ReferenceSnapshot snapshot = GeoJsonSeed.read(Path.of("noflyzone.json"))
+                .withIndexes(1, pointInPolygonService);
+        List<List<Position>> zones = new ArrayList<>();
+        for (NamedRegion zone : snapshot.getNoFlyZones()) {
+            zones.add(zone.getVertices());
+        }
+        FlightConstraints seedConstraints = constraints(zones, snapshot.getCentralArea().getVertices());
+        // Waypoint count and last waypoint of the search over the DIRECTIONS table that this
+        // engine replaced, run with the same end-point-only zone test: the paths must match
+        // exactly, so the end point is compared bit for bit
+        Object[][] expected = {
+            {"Civerinos Slice", 31, -3.186992446763382, 55.94450190725034},
+            {"Sora Lella Vegan Restaurant", 107, -3.1869023478428096, 55.9444814513788},
+            {"Domino's Pizza - Edinburgh - Southside", 21, -3.186857202529909, 55.94449876875712},
+            {"Sodeberg Pavillion", 49, -3.186931590979552, 55.944480991317945},
+            {"La Trattoria", 54, -3.18676759872104, 55.94443481564146},
+            {"Halal Pizza", 14, -3.1868395772799296, 55.94451591887405},
+            {"World of Pizza", 58, -3.1868202124243563, 55.94446994239237},
+        };
+
+        System.out.println("==== Test: search_everySeedRestaurant_sameAsDirectionsTableSearch ====");
+        System.out.println("Expected: the old engine's waypoint count and end point from every restaurant");
+        List<Restaurant> restaurants = snapshot.getRestaurants();
+        assertEquals(expected.length, restaurants.size());
+        for (int i = 0; i < expected.length; i++) {
+            Restaurant r = restaurants.get(i);
+            PathResult result = engine.search(r.getLocation().getLng(), r.getLocation().getLat(),
+                    -3.186874, 55.944494, seedConstraints);
+            int last = result.size() - 1;
+            System.out.println("Actual:   " + r.getName() + ": " + result.size() + " waypoints, ends at "
+                    + result.lng(last) + ", " + result.lat(last));
+
+            assertEquals(expected[i][0], r.getName());
+            assertEquals(expected[i][1], result.size());
+            assertEquals(expected[i][2], result.lng(last));
+            assertEquals(expected[i][3], result.lat(last));
+        }
+        System.out.println();
+    }
+
+    @Test
+    void search_afterVeryLargeSearch_sameResultAsBefore() {
+        // Eight steps with no heuristic floods the lattice: the map of visited nodes grows
+        // well past the size at which it is reallocated rather than wiped
+        LatticeAStar uninformed = new LatticeAStar(1.0);
+        PathResult before = engine.search(START_LNG, START_LAT, GOAL_LNG, GOAL_LAT, constraints(List.of()));
+        PathResult large = uninformed.search(START_LNG, START_LAT, START_LNG + 8 * DroneLattice.STEP, START_LAT,
+                constraints(List.of()), (lng, lat) -> 0.0);
+        PathResult after = engine.search(START_LNG, START_LAT, GOAL_LNG, GOAL_LAT, constraints(List.of()));
+
+        System.out.println("==== Test: search_afterVeryLargeSearch_sameResultAsBefore ====");
+        System.out.println("Input: the same search before and after one visiting "
+                + large.getStats().getVisitedSize() + " nodes on this thread");
+        System.out.println("Expected: same path, expansions and visited count");
+        System.out.println("Actual:   " + before.size() + " / " + after.size() + " waypoints, "
+                + before.getStats().getVisitedSize() + " / " + after.getStats().getVisitedSize() + " visited\n");
+
+        assertTrue(large.getStats().getVisitedSize() > 100_000);
+        assertEquals(before.size(), after.size());
+        for (int i = 0; i < before.size(); i++) {
+            assertEquals(before.lng(i), after.lng(i));
+            assertEquals(before.lat(i), after.lat(i));
+        }
+        assertEquals(before.getStats().getExpansions(), after.getStats().getExpansions());
+        assertEquals(before.getStats().getVisitedSize(), after.getStats().getVisitedSize());
+    }
+
+    @Test
+    void key_sameLatticePointReachedInDifferentOrder_isEqual() {
+        // N then E vs E then N lands on the same lattice point with different rounding
+        double viaNorthLng = (START_LNG + DroneLattice.dx(0)) + DroneLattice.dx(4);
+        double viaNorthLat = (START_LAT + DroneLattice.dy(0)) + DroneLattice.dy(4);
+        double viaEastLng = (START_LNG + DroneLattice.dx(4)) + DroneLattice.dx(0);
+        double viaEastLat = (START_LAT + DroneLattice.dy(4)) + DroneLattice.dy(0);
+
+        long a = DroneLattice.key(START_LNG, START_LAT, viaNorthLng, viaNorthLat, false);
+        long b = DroneLattice.key(START_LNG, START_LAT, viaEastLng, viaEastLat, false);
+        long c = DroneLattice.key(START_LNG, START_LAT, viaEastLng, viaEastLat, true);
+
+        assertEquals(a, b);
+        assertTrue(a != c);
+    }
+
+    // -------------------------------------------------------------------------
+    // Helpers
+    // -------------------------------------------------------------------------
+    private FlightConstraints constraints(List<List<Position>> zones) {
+        return constraints(zones, null);
+    }
+
+    private FlightConstraints constraints(List<List<Position>> zones, List<Position> central) {
+        return new FlightConstraints() {
+            @Override
+            public boolean isInsideCentral(double lng, double lat) {
+                return central != null && pointInPolygonService.isPointInPolygon(new Position(lng, lat), central);
+            }
+
+            @Override
+            public boolean crossesNoFlyZone(double fromLng, double fromLat, double toLng, double toLat) {
+                Position end = new Position(toLng, toLat);
+                for (List<Position> zone : zones) {
+                    if (pointInPolygonService.isPointInPolygon(end, zone)) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+        };
+    }
+
+    private static List<Position> square(double minLng, double minLat, double maxLng, double maxLat) {
+        return List.of(
+                new Position(minLng, minLat),
+                new Position(maxLng, minLat),
+                new Position(maxLng, maxLat),
+                new Position(minLng, maxLat),
+                new Position(minLng, minLat));
+    }
+
+    private static void assertStepsAreOnLattice(PathResult result) {
+        for (int i = 1; i < result.size(); i++) {
+            double step = DroneLattice.distance(result.lng(i - 1), result.lat(i - 1), result.lng(i), result.lat(i));
+            assertEquals(DroneLattice.STEP, step, 1e-12);
+        }
+    }
+}
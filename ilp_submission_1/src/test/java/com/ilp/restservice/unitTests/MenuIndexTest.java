@@ -0,0 +1,62 @@
+package com.ilp.restservice.unitTests;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import com.ilp.restservice.model.Pizza;
+import com.ilp.restservice.model.Restaurant;
+import com.ilp.restservice.service.MenuIndex;
+
+/**
+ * Unit tests checking the menu index answers exactly like the case-insensitive menu scans.
+ */
+class MenuIndexTest {
+
+    private final Restaurant civerinos = new Restaurant("Civerinos Slice", null, null, List.of(
+            new Pizza("R1: Margarita", 1000),
+            new Pizza("R1: Calzone", 1400),
+            new Pizza("r1: margarita", 9999)));
+    private final Restaurant soraLella = new Restaurant("Sora Lella", null, null, List.of(
+            new Pizza("R2: Meat Lover", 1400),
+            new Pizza("R1: Calzone", 1400)));
+
+    private final MenuIndex index = MenuIndex.of(List.of(civerinos, soraLella));
+
+    @Test
+    void findMenuItem_ignoresCase_keepsFirstEntry() {
+        Optional<Pizza> actual = index.findMenuItem(civerinos, "r1: MARGARITA");
+
+        System.out.println("==== Test: findMenuItem_ignoresCase_keepsFirstEntry ====");
+        System.out.println("Input: 'r1: MARGARITA', menu lists 'R1: Margarita'(1000) before 'r1: margarita'(9999)");
+        System.out.println("Expected: 1000");
+        System.out.println("Actual:   " + actual.map(Pizza::getPriceInPence).orElse(null) + "\n");
+
+        assertEquals(1000, actual.orElseThrow().getPriceInPence());
+    }
+
+    @Test
+    void findSingleRestaurantFor_sharedPizza_needsAnotherToDecide() {
+        assertTrue(index.findSingleRestaurantFor(List.of(new Pizza("R1: Calzone", 1400))).isEmpty());
+
+        Optional<Restaurant> actual = index.findSingleRestaurantFor(List.of(
+                new Pizza("R1: Calzone", 1400), new Pizza("R2: MEAT LOVER", 1400)));
+
+        assertEquals("Sora Lella", actual.orElseThrow().getName());
+    }
+
+    @Test
+    void fold_agreesWithEqualsIgnoreCase() {
+        String[] names = {"Pizza", "PIZZA", "pizza", "Pİzza", "pızza", "Straße", "STRASSE", "ǅ", "ǆ", ""};
+        for (String a : names) {
+            for (String b : names) {
+                assertEquals(a.equalsIgnoreCase(b), MenuIndex.fold(a).equals(MenuIndex.fold(b)), a + " vs " + b);
+            }
+        }
+        assertFalse(index.isDefined(null));
+    }
+}
@@ -0,0 +1,91 @@
+package com.ilp.restservice.unitTests;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.mockito.BDDMockito.given;
+import org.mockito.Mockito;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ilp.restservice.controller.OrderValidationController;
+import com.ilp.restservice.model.Pizza;
+import com.ilp.restservice.model.Restaurant;
+import com.ilp.restservice.service.OrderValidationService;
+import com.ilp.restservice.service.RestaurantFetchService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Unit tests for the /validateOrders batch endpoint, run against a standalone MockMvc.
+ */
+class OrderValidationControllerTest {
+
+    private static final String VALID = "{\"orderNo\":\"A1\",\"orderDate\":\"2025-01-06\",\"priceTotalInPence\":1100,"
+            + "\"pizzasInOrder\":[{\"name\":\"R1: Margarita\",\"priceInPence\":1000}],"
+            + "\"creditCardInformation\":{\"creditCardNumber\":\"1111222233334444\","
+            + "\"creditCardExpiry\":\"12/99\",\"cvv\":\"123\"}}";
+    private static final String EMPTY = "{\"orderNo\":\"A2\",\"orderDate\":\"2025-01-06\",\"priceTotalInPence\":100,"
+            + "\"pizzasInOrder\":[],\"creditCardInformation\":{\"creditCardNumber\":\"1111222233334444\","
+            + "\"creditCardExpiry\":\"12/99\",\"cvv\":\"123\"}}";
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setup() {
+        RestaurantFetchService restaurantFetchMock = Mockito.mock(RestaurantFetchService.class);
+        given(restaurantFetchMock.getAllRestaurants()).willReturn(List.of(new Restaurant("Rest", null,
+                List.of("MONDAY"), List.of(new Pizza("R1: Margarita", 1000)))));
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        mockMvc = MockMvcBuilders
+                .standaloneSetup(new OrderValidationController(
+                        new OrderValidationService(restaurantFetchMock, new SimpleMeterRegistry()), objectMapper))
+                .setMessageConverters(new MappingJackson2HttpMessageConverter(objectMapper))
+                .build();
+    }
+
+    @Test
+    void validateOrders_jsonArray_keepsInputOrder() throws Exception {
+        System.out.println("==== Test: validateOrders_jsonArray_keepsInputOrder ====");
+        System.out.println("Input: [A2 (empty), A1 (valid)] as a JSON array");
+        System.out.println("Expected: A2 EMPTY_ORDER, then A1 NO_ERROR\n");
+
+        mockMvc.perform(post("/validateOrders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[" + EMPTY + "," + VALID + "]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].orderNo").value("A2"))
+                .andExpect(jsonPath("$[0].orderValidationCode").value("EMPTY_ORDER"))
+                .andExpect(jsonPath("$[1].orderNo").value("A1"))
+                .andExpect(jsonPath("$[1].orderStatus").value("VALID"));
+    }
+
+    @Test
+    void validateOrders_ndjson_oneOrderPerLine() throws Exception {
+        mockMvc.perform(post("/validateOrders")
+                        .contentType("application/x-ndjson")
+                        .content(VALID + "\n" + EMPTY + "\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].orderValidationCode").value("NO_ERROR"))
+                .andExpect(jsonPath("$[1].orderValidationCode").value("EMPTY_ORDER"));
+    }
+
+    @Test
+    void validateOrders_malformedNdjson_isBadRequest() throws Exception {
+        mockMvc.perform(post("/validateOrders")
+                        .contentType("application/x-ndjson")
+                        .content(VALID + "\n{\"orderNo\": oops}\n"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string(""));
+    }
+}
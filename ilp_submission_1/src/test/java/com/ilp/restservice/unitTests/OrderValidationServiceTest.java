@@ -14,6 +14,7 @@ import org.junit.jupiter.api.Test;
 import static org.mockito.BDDMockito.given;
 import org.mockito.Mockito;
 
+import com.ilp.restservice.dto.OrderValidationResult;
 import com.ilp.restservice.enums.OrderValidationCode;
 import com.ilp.restservice.model.CreditCardInformation;
 import com.ilp.restservice.model.Order;
@@ -22,6 +23,8 @@ import com.ilp.restservice.model.Restaurant;
 import com.ilp.restservice.service.OrderValidationService;
 import com.ilp.restservice.service.RestaurantFetchService;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
 /**
  * Unit tests for each sub-component method in OrderValidationService,
  * with detailed helper messages printed during each test.
@@ -35,7 +38,7 @@ class OrderValidationServiceTest {
     void setup() {
         // Mock the dependency on RestaurantFetchService
         restaurantFetchMock = Mockito.mock(RestaurantFetchService.class);
-        validationService = new OrderValidationService(restaurantFetchMock);
+        validationService = new OrderValidationService(restaurantFetchMock, new SimpleMeterRegistry());
     }
 
     // -------------------------------------------------------------------------
@@ -513,4 +516,52 @@ class OrderValidationServiceTest {
         System.out.println("Reason:   16 digits => true\n");
         assertTrue(result3);
     }
+
+    // -------------------------------------------------------------------------
+    // validateOrder (whole pipeline)
+    // -------------------------------------------------------------------------
+    @Test
+    void validateOrder_valid_carriesRestaurantAndTotal() {
+        Restaurant r = new Restaurant("Rest", null, List.of("MONDAY"),
+            List.of(new Pizza("R1: Margarita", 1000), new Pizza("R1: Calzone", 1400)));
+        given(restaurantFetchMock.getAllRestaurants()).willReturn(List.of(r));
+        Order order = new Order("A1", LocalDate.of(2025, 1, 6), 2500,
+            List.of(new Pizza("r1: margarita", 1000), new Pizza("R1: CALZONE", 1400)),
+            new CreditCardInformation("1111222233334444", "12/99", "123"));
+
+        OrderValidationResult result = validationService.validateOrder(order);
+
+        System.out.println("==== Test: validateOrder_valid_carriesRestaurantAndTotal ====");
+        System.out.println("Input: 2 pizzas from 'Rest' (1000 + 1400), total 2500, on a Monday");
+        System.out.println("Expected: NO_ERROR, restaurant 'Rest', official total 2400");
+        System.out.println("Actual:   " + result.getOrderValidationCode() + ", "
+                + (result.getRestaurant() == null ? null : result.getRestaurant().getName()) + ", "
+                + result.getOfficialTotalInPence());
+        System.out.println("Reason:   The pipeline hands back what it resolved\n");
+
+        assertEquals(OrderValidationCode.NO_ERROR, result.getOrderValidationCode());
+        assertEquals(r, result.getRestaurant());
+        assertEquals(2400, result.getOfficialTotalInPence());
+    }
+
+    @Test
+    void validateOrder_closedAndMispriced_reportsClosedFirst() {
+        Restaurant r = new Restaurant("Rest", null, List.of("TUESDAY"),
+            List.of(new Pizza("R1: Margarita", 1000)));
+        given(restaurantFetchMock.getAllRestaurants()).willReturn(List.of(r));
+        Order order = new Order("A2", LocalDate.of(2025, 1, 6), 1300,
+            List.of(new Pizza("R1: Margarita", 1200)),
+            new CreditCardInformation("1111222233334444", "12/99", "123"));
+
+        OrderValidationResult result = validationService.validateOrder(order);
+
+        System.out.println("==== Test: validateOrder_closedAndMispriced_reportsClosedFirst ====");
+        System.out.println("Input: restaurant closed on Monday AND the pizza price is wrong");
+        System.out.println("Expected: RESTAURANT_CLOSED");
+        System.out.println("Actual:   " + result.getOrderValidationCode());
+        System.out.println("Reason:   Opening days are checked before prices\n");
+
+        assertEquals(OrderValidationCode.RESTAURANT_CLOSED, result.getOrderValidationCode());
+        assertNull(result.getRestaurant());
+    }
 }
@@ -0,0 +1,108 @@
+package com.ilp.restservice.unitTests;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ilp.restservice.model.Position;
+import com.ilp.restservice.pathfinding.FlightConstraints;
+import com.ilp.restservice.pathfinding.LatticeAStar;
+import com.ilp.restservice.pathfinding.PathCodec;
+import com.ilp.restservice.pathfinding.PathResult;
+import com.ilp.restservice.service.DeliveryRoute;
+import com.ilp.restservice.service.PointInPolygonService;
+
+/**
+ * Unit tests for the compact binary path format: lossless round trips and its size
+ * against the JSON response.
+ */
+class PathCodecTest {
+
+    private final PointInPolygonService pointInPolygonService = new PointInPolygonService();
+
+    @Test
+    void roundTrip_plannedRoute_isBitExactAndSmall() throws Exception {
+        // A zone in the way, so the path turns a few times
+        List<Position> wall = List.of(
+                new Position(-3.1892, 55.9436),
+                new Position(-3.1888, 55.9436),
+                new Position(-3.1888, 55.9444),
+                new Position(-3.1892, 55.9444),
+                new Position(-3.1892, 55.9436));
+        PathResult result = new LatticeAStar().search(-3.1920, 55.9440, -3.1860, 55.9440, avoiding(wall));
+        DeliveryRoute route = new DeliveryRoute(null, result);
+        List<Position> expected = route.toPositions();
+
+        byte[] encoded = PathCodec.encode(route.size(), route::lng, route::lat);
+        List<Position> decoded = PathCodec.decode(encoded);
+        int jsonBytes = new ObjectMapper().writeValueAsBytes(expected).length;
+
+        System.out.println("==== Test: roundTrip_plannedRoute_isBitExactAndSmall ====");
+        System.out.println("Input: " + expected.size() + " waypoints, hover steps included");
+        System.out.println("Expected: identical waypoints, over 20x smaller than JSON");
+        System.out.println("Actual:   " + encoded.length + " bytes vs " + jsonBytes + " bytes of JSON\n");
+
+        assertBitExact(expected, decoded);
+        assertTrue(encoded.length * 20 < jsonBytes);
+    }
+
+    @Test
+    void roundTrip_offLatticeWaypoints_areWrittenAbsolutely() {
+        List<Position> path = new ArrayList<>();
+        path.add(new Position(-3.19, 55.944));
+        path.add(new Position(-3.19, 55.944));
+        path.add(new Position(-3.18990001, 55.94412345));
+        path.add(new Position(-3.18990001 + 0.00015, 55.94412345));
+
+        List<Position> decoded = PathCodec.decode(PathCodec.encode(path));
+
+        assertBitExact(path, decoded);
+    }
+
+    @Test
+    void roundTrip_emptyPath() {
+        assertEquals(List.of(), PathCodec.decode(PathCodec.encode(List.of())));
+    }
+
+    @Test
+    void decode_truncatedInput_isRejected() {
+        byte[] encoded = PathCodec.encode(List.of(new Position(-3.19, 55.944), new Position(-3.19, 55.944)));
+        byte[] truncated = Arrays.copyOf(encoded, encoded.length - 1);
+
+        assertThrows(IllegalArgumentException.class, () -> PathCodec.decode(truncated));
+        assertThrows(IllegalArgumentException.class, () -> PathCodec.decode(new byte[] {7}));
+    }
+
+    // -------------------------------------------------------------------------
+    // Helpers
+    // -------------------------------------------------------------------------
+    private FlightConstraints avoiding(List<Position> zone) {
+        return new FlightConstraints() {
+            @Override
+            public boolean isInsideCentral(double lng, double lat) {
+                return false;
+            }
+
+            @Override
+            public boolean crossesNoFlyZone(double fromLng, double fromLat, double toLng, double toLat) {
+                return pointInPolygonService.isPointInPolygon(new Position(toLng, toLat), zone);
+            }
+        };
+    }
+
+    private static void assertBitExact(List<Position> expected, List<Position> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(Double.doubleToRawLongBits(expected.get(i).getLng()),
+                    Double.doubleToRawLongBits(actual.get(i).getLng()), "lng at " + i);
+            assertEquals(Double.doubleToRawLongBits(expected.get(i).getLat()),
+                    Double.doubleToRawLongBits(actual.get(i).getLat()), "lat at " + i);
+        }
+    }
+}
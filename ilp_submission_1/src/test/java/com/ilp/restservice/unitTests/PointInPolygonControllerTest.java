@@ -0,0 +1,104 @@
+package com.ilp.restservice.unitTests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import com.ilp.restservice.controller.PointInPolygonController;
+import com.ilp.restservice.service.PointInPolygonService;
+import com.ilp.restservice.service.PreparedRegionCache;
+
+/**
+ * Unit tests for the /isInRegion endpoints and their cache of prepared regions, run
+ * against a standalone MockMvc.
+ */
+class PointInPolygonControllerTest {
+
+    private static final String SQUARE = "{\"name\":\"square\",\"vertices\":["
+            + "{\"lng\":-3.190,\"lat\":55.943},{\"lng\":-3.188,\"lat\":55.943},"
+            + "{\"lng\":-3.188,\"lat\":55.945},{\"lng\":-3.190,\"lat\":55.945},"
+            + "{\"lng\":-3.190,\"lat\":55.943}]}";
+    private static final String OPEN = "{\"name\":\"open\",\"vertices\":["
+            + "{\"lng\":-3.190,\"lat\":55.943},{\"lng\":-3.188,\"lat\":55.943},"
+            + "{\"lng\":-3.188,\"lat\":55.945}]}";
+
+    private PreparedRegionCache cache;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setup() {
+        cache = new PreparedRegionCache(new PointInPolygonService(), 4);
+        mockMvc = MockMvcBuilders.standaloneSetup(new PointInPolygonController(cache)).build();
+    }
+
+    @Test
+    void isInRegionBatch_mixedPoints_oneEntryPerPoint() throws Exception {
+        System.out.println("==== Test: isInRegionBatch_mixedPoints_oneEntryPerPoint ====");
+        System.out.println("Input: inside, outside, on an edge, latitude out of range");
+        System.out.println("Expected: [true,false,true,null]\n");
+
+        mockMvc.perform(post("/isInRegionBatch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"region\":" + SQUARE + ",\"positions\":["
+                                + "{\"lng\":-3.189,\"lat\":55.944},{\"lng\":-3.192,\"lat\":55.944},"
+                                + "{\"lng\":-3.188,\"lat\":55.944},{\"lng\":-3.189,\"lat\":95.0}]}"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("[true,false,true,null]"));
+    }
+
+    @Test
+    void isInRegion_westOfSquareOnCornerLatitude_true() throws Exception {
+        System.out.println("==== Test: isInRegion_westOfSquareOnCornerLatitude_true ====");
+        System.out.println("Input: a point west of the square, on the latitude of its top edge");
+        System.out.println("Expected: true, the answer of the original ray-casting test\n");
+
+        mockMvc.perform(post("/isInRegion")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"region\":" + SQUARE + ",\"position\":{\"lng\":-3.192,\"lat\":55.945}}"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("true"));
+    }
+
+    @Test
+    void isInRegionBatch_openRegion_badRequest() throws Exception {
+        mockMvc.perform(post("/isInRegionBatch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"region\":" + OPEN + ",\"positions\":[{\"lng\":-3.189,\"lat\":55.944}]}"))
+                .andExpect(status().isBadRequest());
+
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void isInRegion_sameRegionTwice_validatedOnce() throws Exception {
+        for (String point : new String[]{"{\"lng\":-3.189,\"lat\":55.944}", "{\"lng\":-3.192,\"lat\":55.944}"}) {
+            mockMvc.perform(post("/isInRegion")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"region\":" + SQUARE + ",\"position\":" + point + "}"))
+                    .andExpect(status().isOk());
+        }
+        // Same vertices under another name: still the same region
+        mockMvc.perform(post("/isInRegionBatch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"region\":" + SQUARE.replace("square", "renamed")
+                                + ",\"positions\":[{\"lng\":-3.189,\"lat\":55.944}]}"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("[true]"));
+
+        System.out.println("==== Test: isInRegion_sameRegionTwice_validatedOnce ====");
+        System.out.println("Input: the same square in three requests");
+        System.out.println("Expected: 1 miss, 2 hits, 1 entry");
+        System.out.println("Actual:   " + cache.getMisses() + " miss, " + cache.getHits() + " hits, "
+                + cache.size() + " entry\n");
+
+        assertEquals(1, cache.getMisses());
+        assertEquals(2, cache.getHits());
+        assertEquals(1, cache.size());
+    }
+}
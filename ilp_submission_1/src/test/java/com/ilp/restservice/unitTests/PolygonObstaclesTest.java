@@ -0,0 +1,66 @@
+package com.ilp.restservice.unitTests;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import com.ilp.restservice.geometry.PolygonObstacles;
+import com.ilp.restservice.model.Position;
+
+/**
+ * Unit tests for the exact segment-versus-edge checks used to validate drone moves.
+ */
+class PolygonObstaclesTest {
+
+    private static final List<Position> SQUARE = List.of(
+            new Position(0.0, 0.0),
+            new Position(1.0, 0.0),
+            new Position(1.0, 1.0),
+            new Position(0.0, 1.0),
+            new Position(0.0, 0.0));
+
+    private final PolygonObstacles obstacles = PolygonObstacles.of(List.of(SQUARE));
+
+    @Test
+    void segmentCrossesAnyEdge_clipsCorner() {
+        // Both end points outside, but the segment cuts across the corner at (1, 1)
+        boolean actual = obstacles.segmentCrossesAnyEdge(0.8, 1.1, 1.1, 0.8);
+
+        System.out.println("==== Test: segmentCrossesAnyEdge_clipsCorner ====");
+        System.out.println("Input: (0.8, 1.1) -> (1.1, 0.8) around corner (1, 1)");
+        System.out.println("Expected: true");
+        System.out.println("Actual:   " + actual + "\n");
+
+        assertTrue(actual);
+    }
+
+    @Test
+    void segmentCrossesAnyEdge_passesBesideCorner() {
+        boolean actual = obstacles.segmentCrossesAnyEdge(1.05, 1.2, 1.2, 1.05);
+
+        System.out.println("==== Test: segmentCrossesAnyEdge_passesBesideCorner ====");
+        System.out.println("Input: (1.05, 1.2) -> (1.2, 1.05), boxes overlap the polygon's box only");
+        System.out.println("Expected: false");
+        System.out.println("Actual:   " + actual + "\n");
+
+        assertFalse(actual);
+    }
+
+    @Test
+    void segmentCrossesAnyEdge_touchingVertexCounts() {
+        assertTrue(obstacles.segmentCrossesAnyEdge(1.0, 1.0, 2.0, 2.0));
+    }
+
+    @Test
+    void segmentCrossesAnyEdge_runningAlongEdgeCounts() {
+        assertTrue(obstacles.segmentCrossesAnyEdge(0.2, 0.0, 0.6, 0.0));
+        assertFalse(obstacles.segmentCrossesAnyEdge(1.2, 0.0, 1.6, 0.0));
+    }
+
+    @Test
+    void segmentCrossesAnyEdge_farAway() {
+        assertFalse(obstacles.segmentCrossesAnyEdge(5.0, 5.0, 6.0, 6.0));
+    }
+}
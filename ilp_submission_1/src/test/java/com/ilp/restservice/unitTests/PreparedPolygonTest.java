@@ -0,0 +1,191 @@
+package com.ilp.restservice.unitTests;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import com.ilp.restservice.geometry.PreparedPolygon;
+import com.ilp.restservice.model.Position;
+
+/**
+ * Unit tests checking the prepared polygon answers exactly like the original ray-casting
+ * test over vertex lists, which is kept here as the reference.
+ */
+class PreparedPolygonTest {
+
+    // A concave, slanted polygon with a vertical edge, similar to the real no-fly zones
+    private static final List<Position> ZONE = List.of(
+            new Position(-3.190578818321228, 55.94402412577528),
+            new Position(-3.1899887323379517, 55.94284650540911),
+            new Position(-3.188500000000000, 55.94360000000000),
+            new Position(-3.187097311019897, 55.94328811724263),
+            new Position(-3.187097311019897, 55.94402412577528),
+            new Position(-3.187682032585144, 55.944477740393744),
+            new Position(-3.190578818321228, 55.94402412577528));
+
+    // 21 edges: whether the lanes are 2, 4 or 8 wide, some edges go through the vector
+    // kernel and the rest through the scalar loop
+    private static final List<Position> STAR = star(-3.1885, 55.9436, 0.0016, 0.0006, 21);
+
+    @Test
+    void contains_randomPoints_matchesReference() {
+        assertEquals(0, disagreements("zone", ZONE));
+        assertEquals(0, disagreements("star", STAR));
+    }
+
+    private static int disagreements(String name, List<Position> polygon) {
+        PreparedPolygon prepared = PreparedPolygon.of(polygon);
+        Random random = new Random(11);
+
+        int disagreements = 0;
+        int inside = 0;
+        for (int i = 0; i < 200_000; i++) {
+            double lng;
+            double lat;
+            if (i % 2 == 0) {
+                // Anywhere around the zone
+                lng = -3.1915 + random.nextDouble() * 0.0055;
+                lat = 55.9420 + random.nextDouble() * 0.0032;
+            } else {
+                // Hugging a vertex, half of them on its exact latitude
+                Position v = polygon.get(random.nextInt(polygon.size()));
+                lng = v.getLng() + (random.nextDouble() - 0.5) * 1e-5;
+                lat = i % 4 == 1 ? v.getLat() : v.getLat() + (random.nextDouble() - 0.5) * 1e-5;
+            }
+            boolean expected = Reference.isPointInPolygon(new Position(lng, lat), polygon);
+            if (prepared.contains(lng, lat) != expected) {
+                disagreements++;
+            }
+            if (expected) {
+                inside++;
+            }
+        }
+
+        System.out.println("==== Test: contains_randomPoints_matchesReference (" + name + ") ====");
+        System.out.println("Input: 200000 points, half of them within 1e-5 of a vertex, vectorized "
+                + PreparedPolygon.VECTORIZED);
+        System.out.println("Expected: 0 disagreements");
+        System.out.println("Actual:   " + disagreements + " disagreements, " + inside + " inside\n");
+
+        assertTrue(inside > 10_000);
+        return disagreements;
+    }
+
+    @Test
+    void contains_verticesAndEdgeMidpoints_inside() {
+        PreparedPolygon prepared = PreparedPolygon.of(ZONE);
+        for (int i = 1; i < ZONE.size(); i++) {
+            Position a = ZONE.get(i - 1);
+            Position b = ZONE.get(i);
+            assertTrue(prepared.contains(a.getLng(), a.getLat()), "vertex " + (i - 1));
+            assertTrue(prepared.contains((a.getLng() + b.getLng()) / 2, (a.getLat() + b.getLat()) / 2),
+                    "edge " + (i - 1));
+        }
+    }
+
+    @Test
+    void contains_westOfSquareOnCornerLatitude_inside() {
+        List<Position> square = List.of(
+                new Position(-3.190, 55.943),
+                new Position(-3.188, 55.943),
+                new Position(-3.188, 55.945),
+                new Position(-3.190, 55.945),
+                new Position(-3.190, 55.943));
+
+        boolean inside = PreparedPolygon.of(square).contains(-3.192, 55.945);
+
+        System.out.println("==== Test: contains_westOfSquareOnCornerLatitude_inside ====");
+        System.out.println("Input: a point west of a square, on the latitude of its top edge");
+        System.out.println("Expected: true, as before: the ray counts the top edge and both sides");
+        System.out.println("Actual:   " + inside + "\n");
+
+        assertTrue(inside);
+    }
+
+    @Test
+    void contains_degeneratePolygons_matchReference() {
+        Position p = new Position(-3.19, 55.943);
+        for (List<Position> vertices : List.of(List.<Position>of(), List.of(p), List.of(p, p))) {
+            assertEquals(Reference.isPointInPolygon(p, vertices),
+                    PreparedPolygon.of(vertices).contains(p.getLng(), p.getLat()));
+        }
+        assertFalse(PreparedPolygon.of(List.of()).contains(p.getLng(), p.getLat()));
+    }
+
+    /**
+     * A closed star with points alternating between the outer and inner radius.
+     */
+    private static List<Position> star(double lng, double lat, double outer, double inner, int points) {
+        List<Position> vertices = new ArrayList<>();
+        for (int i = 0; i < points; i++) {
+            double radius = i % 2 == 0 ? outer : inner;
+            double angle = 2 * Math.PI * i / points;
+            vertices.add(new Position(lng + radius * Math.cos(angle), lat + radius * Math.sin(angle)));
+        }
+        vertices.add(vertices.get(0));
+        return vertices;
+    }
+
+    /**
+     * The ray-casting test as it was written before prepared polygons. It compares the
+     * boxed latitudes with ==, so the nudge never runs for a freshly built point.
+     */
+    private static final class Reference {
+
+        static boolean isPointInPolygon(Position point, List<Position> vertices) {
+            int intersectCount = 0;
+            for (int i = 1; i < vertices.size(); i++) {
+                Position v1 = vertices.get(i - 1);
+                Position v2 = vertices.get(i);
+                if (rayIntersectsSegment(point, v1, v2)) {
+                    intersectCount++;
+                }
+                if (isPointOnEdge(point, v1, v2)) {
+                    return true;
+                }
+            }
+            return (intersectCount % 2) == 1;
+        }
+
+        private static boolean rayIntersectsSegment(Position p, Position v1, Position v2) {
+            if (v1.getLat() > v2.getLat()) {
+                Position temp = v1;
+                v1 = v2;
+                v2 = temp;
+            }
+            if (p.getLat() == v1.getLat() || p.getLat() == v2.getLat()) {
+                p = new Position(p.getLng(), p.getLat() + 0.0000001);
+            }
+            if (p.getLat() < v1.getLat() || p.getLat() > v2.getLat()) {
+                return false;
+            }
+            if (p.getLng() > Math.max(v1.getLng(), v2.getLng())) {
+                return false;
+            }
+            if (p.getLng() < Math.min(v1.getLng(), v2.getLng())) {
+                return true;
+            }
+            double slope = (v2.getLng() - v1.getLng()) / (v2.getLat() - v1.getLat());
+            double intersectLng = v1.getLng() + (p.getLat() - v1.getLat()) * slope;
+            return p.getLng() <= intersectLng;
+        }
+
+        private static boolean isPointOnEdge(Position p, Position p1, Position p2) {
+            double crossProduct = (p.getLat() - p1.getLat()) * (p2.getLng() - p1.getLng())
+                    - (p.getLng() - p1.getLng()) * (p2.getLat() - p1.getLat());
+            if (Math.abs(crossProduct) > 1e-10) {
+                return false;
+            }
+            double minX = Math.min(p1.getLng(), p2.getLng());
+            double maxX = Math.max(p1.getLng(), p2.getLng());
+            double minY = Math.min(p1.getLat(), p2.getLat());
+            double maxY = Math.max(p1.getLat(), p2.getLat());
+            return (p.getLng() >= minX && p.getLng() <= maxX) && (p.getLat() >= minY && p.getLat() <= maxY);
+        }
+    }
+}
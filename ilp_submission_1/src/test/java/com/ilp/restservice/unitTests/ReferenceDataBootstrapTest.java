@@ -0,0 +1,210 @@
+package com.ilp.restservice.unitTests;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+
+import com.ilp.restservice.model.NamedRegion;
+import com.ilp.restservice.model.Restaurant;
+import com.ilp.restservice.referencedata.ReferenceDataBootstrap;
+import com.ilp.restservice.referencedata.ReferenceDataBootstrap.State;
+import com.ilp.restservice.referencedata.ReferenceDataHolder;
+import com.ilp.restservice.referencedata.ReferenceDataLoadedEvent;
+import com.ilp.restservice.referencedata.ReferenceDataRefresher;
+import com.ilp.restservice.referencedata.ReferenceDataStore;
+import com.ilp.restservice.service.CentralAreaService;
+import com.ilp.restservice.service.NoFlyZoneService;
+import com.ilp.restservice.service.PointInPolygonService;
+import com.ilp.restservice.service.RestaurantFetchService;
+
+/**
+ * Unit tests for the concurrent reference data startup stage, with no local snapshot so
+ * every source comes from its (stubbed) remote fetch.
+ */
+class ReferenceDataBootstrapTest {
+
+    @TempDir
+    Path dir;
+
+    private final List<Object> events = new ArrayList<>();
+    private final ReferenceDataHolder referenceData =
+            new ReferenceDataHolder(new PointInPolygonService(), events::add);
+    private final ReferenceDataRefresher refresherMock = Mockito.mock(ReferenceDataRefresher.class);
+
+    @Test
+    void load_sourcesRunConcurrently() {
+        // Each fetch waits until all three are in flight; run one after another they never are
+        CountDownLatch allStarted = new CountDownLatch(3);
+        AtomicBoolean overlapped = new AtomicBoolean(true);
+        Runnable rendezvous = () -> {
+            allStarted.countDown();
+            try {
+                overlapped.compareAndSet(true, allStarted.await(2, TimeUnit.SECONDS));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        ReferenceDataBootstrap bootstrap = bootstrap(
+                new RestaurantFetchService() {
+                    @Override
+                    public List<Restaurant> fetchRestaurants() {
+                        rendezvous.run();
+                        return List.of();
+                    }
+                },
+                new NoFlyZoneService() {
+                    @Override
+                    public List<NamedRegion> fetchNoFlyZones() {
+                        rendezvous.run();
+                        return List.of();
+                    }
+                },
+                new CentralAreaService() {
+                    @Override
+                    public NamedRegion fetchCentralArea() {
+                        rendezvous.run();
+                        return null;
+                    }
+                },
+                Duration.ofSeconds(5));
+
+        State state = bootstrap.load().join();
+
+        System.out.println("==== Test: load_sourcesRunConcurrently ====");
+        System.out.println("Input: three sources that each wait for the other two to start");
+        System.out.println("Expected: READY, all three in flight together");
+        System.out.println("Actual:   " + state + ", overlapped=" + overlapped.get() + "\n");
+
+        assertEquals(State.READY, state);
+        assertTrue(overlapped.get());
+        assertEquals(1, events.size());
+        assertTrue(events.get(0) instanceof ReferenceDataLoadedEvent);
+        assertEquals(1L, referenceData.current().getVersion());
+        assertTrue(referenceData.current().getAirspace() != null);
+    }
+
+    @Test
+    void load_slowSourceTimesOut() {
+        ReferenceDataBootstrap bootstrap = bootstrap(slowRestaurants(0), slowNoFlyZones(2_000),
+                slowCentralArea(0), Duration.ofMillis(200));
+
+        State state = bootstrap.load().join();
+
+        System.out.println("==== Test: load_slowSourceTimesOut ====");
+        System.out.println("Input: no-fly zones take 2 s, timeout 200 ms");
+        System.out.println("Expected: FAILED, noFlyZones timed out");
+        System.out.println("Actual:   " + state + " " + bootstrap.getFailures() + "\n");
+
+        assertEquals(State.FAILED, state);
+        assertEquals(State.FAILED, bootstrap.getState());
+        assertTrue(bootstrap.getFailures().get("noFlyZones").contains("timed out"));
+        assertEquals(1, bootstrap.getFailures().size());
+        assertTrue(events.isEmpty());
+        assertNull(referenceData.current());
+    }
+
+    @Test
+    void load_failingSourceIsReported() {
+        RestaurantFetchService failing = new RestaurantFetchService() {
+            @Override
+            public List<Restaurant> fetchRestaurants() {
+                throw new IllegalStateException("host unreachable");
+            }
+        };
+        ReferenceDataBootstrap bootstrap = bootstrap(failing, slowNoFlyZones(0), slowCentralArea(0),
+                Duration.ofSeconds(5));
+
+        assertEquals(State.FAILED, bootstrap.load().join());
+        assertTrue(bootstrap.getFailures().get("restaurants").contains("host unreachable"));
+    }
+
+    @Test
+    void start_failedLoadIsRetriedUntilReady() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        RestaurantFetchService flaky = new RestaurantFetchService() {
+            @Override
+            public List<Restaurant> fetchRestaurants() {
+                if (attempts.incrementAndGet() < 3) {
+                    throw new IllegalStateException("host unreachable");
+                }
+                return List.of();
+            }
+        };
+        ReferenceDataBootstrap bootstrap = bootstrap(flaky, slowNoFlyZones(0), slowCentralArea(0),
+                Duration.ofSeconds(5));
+
+        bootstrap.start();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (bootstrap.getState() != State.READY && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+
+        System.out.println("==== Test: start_failedLoadIsRetriedUntilReady ====");
+        System.out.println("Input: restaurants fail twice, then load");
+        System.out.println("Expected: READY after three attempts, failures cleared");
+        System.out.println("Actual:   " + bootstrap.getState() + " after " + attempts.get() + " attempts\n");
+
+        assertEquals(State.READY, bootstrap.getState());
+        assertEquals(3, attempts.get());
+        assertTrue(bootstrap.getFailures().isEmpty());
+        assertEquals(1, events.size());
+    }
+
+    private ReferenceDataBootstrap bootstrap(RestaurantFetchService restaurants, NoFlyZoneService noFlyZones,
+                                             CentralAreaService centralArea, Duration timeout) {
+        ReferenceDataStore emptyStore = new ReferenceDataStore(
+                dir.resolve("none.snapshot").toString(), dir.resolve("none.json").toString());
+        return new ReferenceDataBootstrap(restaurants, noFlyZones, centralArea, emptyStore, referenceData,
+                refresherMock, timeout, Duration.ofMillis(20), Duration.ofMillis(40));
+    }
+
+    private static RestaurantFetchService slowRestaurants(long millis) {
+        return new RestaurantFetchService() {
+            @Override
+            public List<Restaurant> fetchRestaurants() {
+                sleep(millis);
+                return List.of();
+            }
+        };
+    }
+
+    private static NoFlyZoneService slowNoFlyZones(long millis) {
+        return new NoFlyZoneService() {
+            @Override
+            public List<NamedRegion> fetchNoFlyZones() {
+                sleep(millis);
+                return List.of();
+            }
+        };
+    }
+
+    private static CentralAreaService slowCentralArea(long millis) {
+        return new CentralAreaService() {
+            @Override
+            public NamedRegion fetchCentralArea() {
+                sleep(millis);
+                return null;
+            }
+        };
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
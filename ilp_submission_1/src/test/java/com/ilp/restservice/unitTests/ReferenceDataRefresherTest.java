@@ -0,0 +1,115 @@
+package com.ilp.restservice.unitTests;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.ilp.restservice.model.NamedRegion;
+import com.ilp.restservice.model.Pizza;
+import com.ilp.restservice.model.Position;
+import com.ilp.restservice.model.Restaurant;
+import com.ilp.restservice.referencedata.ReferenceDataHolder;
+import com.ilp.restservice.referencedata.ReferenceDataRefresher;
+import com.ilp.restservice.referencedata.ReferenceDataStore;
+import com.ilp.restservice.referencedata.ReferenceSnapshot;
+import com.ilp.restservice.service.CentralAreaService;
+import com.ilp.restservice.service.NoFlyZoneService;
+import com.ilp.restservice.service.PointInPolygonService;
+import com.ilp.restservice.service.RestaurantFetchService;
+
+/**
+ * Unit tests for publishing refreshed reference data as new snapshot versions.
+ */
+class ReferenceDataRefresherTest {
+
+    @TempDir
+    Path dir;
+
+    private final ReferenceDataHolder referenceData = new ReferenceDataHolder(new PointInPolygonService(), e -> { });
+    private List<Restaurant> remoteRestaurants;
+
+    @BeforeEach
+    void setup() {
+        remoteRestaurants = List.of(restaurant(1000));
+        referenceData.publish(new ReferenceSnapshot(0L, List.of(restaurant(1000)), List.of(), null));
+    }
+
+    @Test
+    void refresh_unchangedContentKeepsVersion() {
+        ReferenceSnapshot live = referenceData.current();
+
+        boolean published = refresher(false).refresh();
+
+        System.out.println("==== Test: refresh_unchangedContentKeepsVersion ====");
+        System.out.println("Input: remote data equal to the live snapshot");
+        System.out.println("Expected: nothing published, version " + live.getVersion());
+        System.out.println("Actual:   published=" + published + ", version " + referenceData.current().getVersion() + "\n");
+
+        assertFalse(published);
+        assertSame(live, referenceData.current());
+    }
+
+    @Test
+    void refresh_menuChangeGoesLiveUnderNewVersion() {
+        remoteRestaurants = List.of(restaurant(1200));
+
+        assertTrue(refresher(false).refresh());
+
+        ReferenceSnapshot live = referenceData.current();
+        assertEquals(2L, live.getVersion());
+        assertEquals(2L, live.getAirspace().getVersion());
+        assertEquals(1200, live.getMenuIndex().findMenuItem(live.getRestaurants().get(0), "R1: Margarita")
+                .orElseThrow().getPriceInPence());
+    }
+
+    @Test
+    void refresh_failedSourceKeepsLiveData() {
+        remoteRestaurants = List.of(restaurant(1200));
+        ReferenceSnapshot before = referenceData.current();
+
+        assertTrue(refresher(true).refresh());
+
+        // Restaurants changed; the zones failed and are carried over from the live snapshot
+        assertSame(before.getNoFlyZones(), referenceData.current().getNoFlyZones());
+    }
+
+    private ReferenceDataRefresher refresher(boolean zonesFail) {
+        RestaurantFetchService restaurants = new RestaurantFetchService() {
+            @Override
+            public List<Restaurant> fetchRestaurants() {
+                return remoteRestaurants;
+            }
+        };
+        NoFlyZoneService noFlyZones = new NoFlyZoneService() {
+            @Override
+            public List<NamedRegion> fetchNoFlyZones() {
+                if (zonesFail) {
+                    throw new IllegalStateException("host unreachable");
+                }
+                return List.of();
+            }
+        };
+        CentralAreaService centralArea = new CentralAreaService() {
+            @Override
+            public NamedRegion fetchCentralArea() {
+                return null;
+            }
+        };
+        ReferenceDataStore store = new ReferenceDataStore(dir.resolve("ref.snapshot").toString(), "");
+        return new ReferenceDataRefresher(restaurants, noFlyZones, centralArea, referenceData, store,
+                Duration.ofSeconds(5), true);
+    }
+
+    private static Restaurant restaurant(int margaritaPrice) {
+        return new Restaurant("Civerinos Slice", new Position(-3.1913, 55.9455), List.of("MONDAY"),
+                List.of(new Pizza("R1: Margarita", margaritaPrice)));
+    }
+}
@@ -0,0 +1,130 @@
+package com.ilp.restservice.unitTests;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.ilp.restservice.model.NamedRegion;
+import com.ilp.restservice.model.Pizza;
+import com.ilp.restservice.model.Position;
+import com.ilp.restservice.model.Restaurant;
+import com.ilp.restservice.referencedata.ReferenceDataStore;
+import com.ilp.restservice.referencedata.ReferenceSnapshot;
+import com.ilp.restservice.referencedata.SnapshotCodec;
+
+/**
+ * Unit tests for the on-disk reference data snapshot and its GeoJSON seed fallback.
+ */
+class ReferenceDataStoreTest {
+
+    private static final String SEED = """
+            {"type": "FeatureCollection", "features": [
+              {"type": "Feature", "properties": {"name": "Zone A"},
+               "geometry": {"type": "Polygon", "coordinates": [[[0, 0], [1, 0], [1, 1], [0, 0]]]}},
+              {"type": "Feature", "properties": {"name": "central"},
+               "geometry": {"type": "Polygon", "coordinates": [[[2, 2], [3, 2], [3, 3], [2, 2]]]}},
+              {"type": "Feature",
+               "properties": {"name": "Pizza Place", "openingDays": ["MONDAY"],
+                              "menu": [{"name": "R9: Plain", "priceInPence": 900}]},
+               "geometry": {"type": "Point", "coordinates": [-3.19, 55.94]}}
+            ]}
+            """;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void codec_roundTrip() throws IOException {
+        NamedRegion zone = region("Zone A", new Position(0.0, 0.0), new Position(1.0, 0.5));
+        Restaurant restaurant = new Restaurant("Pizza Place", new Position(-3.19, 55.94),
+                List.of("MONDAY", "FRIDAY"), List.of(new Pizza("R9: Plain", 900)));
+        ReferenceSnapshot original = new ReferenceSnapshot(1234L, List.of(restaurant), List.of(zone), null);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        SnapshotCodec.write(original, out);
+        ReferenceSnapshot decoded = SnapshotCodec.read(new ByteArrayInputStream(out.toByteArray()));
+
+        System.out.println("==== Test: codec_roundTrip ====");
+        System.out.println("Input: 1 restaurant, 1 zone, no central area");
+        System.out.println("Encoded size: " + out.size() + " bytes\n");
+
+        assertEquals(1234L, decoded.getSavedAtMillis());
+        assertEquals("Pizza Place", decoded.getRestaurants().get(0).getName());
+        assertEquals(55.94, decoded.getRestaurants().get(0).getLocation().getLat());
+        assertEquals(List.of("MONDAY", "FRIDAY"), decoded.getRestaurants().get(0).getOpeningDays());
+        assertEquals(900, decoded.getRestaurants().get(0).getMenu().get(0).getPriceInPence());
+        assertEquals(0.5, decoded.getNoFlyZones().get(0).getVertices().get(1).getLat());
+        assertNull(decoded.getCentralArea());
+    }
+
+    @Test
+    void codec_rejectsForeignBytes() {
+        byte[] notASnapshot = "{\"type\": \"FeatureCollection\"}".getBytes();
+        assertThrows(IOException.class, () -> SnapshotCodec.read(new ByteArrayInputStream(notASnapshot)));
+    }
+
+    @Test
+    void getLocalSnapshot_fallsBackToSeed() throws IOException {
+        Path seed = Files.writeString(dir.resolve("seed.json"), SEED);
+        ReferenceDataStore store = new ReferenceDataStore(dir.resolve("missing.snapshot").toString(), seed.toString());
+
+        ReferenceSnapshot local = store.getLocalSnapshot();
+
+        System.out.println("==== Test: getLocalSnapshot_fallsBackToSeed ====");
+        System.out.println("Input: no snapshot file, GeoJSON seed with 1 zone, central, 1 restaurant");
+        System.out.println("Expected: data read from the seed");
+        System.out.println("Actual:   " + (local == null ? "null" : local.getNoFlyZones().size() + " zone(s)") + "\n");
+
+        assertNotNull(local);
+        assertEquals(1, local.getNoFlyZones().size());
+        assertEquals("central", local.getCentralArea().getName());
+        assertEquals("R9: Plain", local.getRestaurants().get(0).getMenu().get(0).getName());
+    }
+
+    @Test
+    void save_thenNewStoreReadsSnapshotBeforeSeed() throws IOException {
+        Path seed = Files.writeString(dir.resolve("seed.json"), SEED);
+        Path snapshotFile = dir.resolve("data").resolve("reference.snapshot");
+        ReferenceSnapshot saved = new ReferenceSnapshot(42L, List.of(), List.of(),
+                region("central", new Position(5.0, 5.0)));
+
+        new ReferenceDataStore(snapshotFile.toString(), seed.toString()).save(saved);
+        ReferenceSnapshot local = new ReferenceDataStore(snapshotFile.toString(), seed.toString()).getLocalSnapshot();
+
+        assertEquals(42L, local.getSavedAtMillis());
+        assertEquals(5.0, local.getCentralArea().getVertices().get(0).getLng());
+    }
+
+    @Test
+    void getLocalSnapshot_corruptSnapshotFallsBackToSeed() throws IOException {
+        Path seed = Files.writeString(dir.resolve("seed.json"), SEED);
+        Path snapshotFile = Files.write(dir.resolve("reference.snapshot"), new byte[] {1, 2, 3});
+
+        ReferenceSnapshot local = new ReferenceDataStore(snapshotFile.toString(), seed.toString()).getLocalSnapshot();
+
+        assertEquals(1, local.getRestaurants().size());
+    }
+
+    @Test
+    void getLocalSnapshot_nothingOnDisk() {
+        ReferenceDataStore store = new ReferenceDataStore(dir.resolve("a").toString(), dir.resolve("b").toString());
+        assertNull(store.getLocalSnapshot());
+    }
+
+    private static NamedRegion region(String name, Position... vertices) {
+        NamedRegion region = new NamedRegion();
+        region.setName(name);
+        region.setVertices(List.of(vertices));
+        return region;
+    }
+}
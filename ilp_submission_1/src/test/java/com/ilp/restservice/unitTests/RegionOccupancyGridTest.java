@@ -0,0 +1,92 @@
+package com.ilp.restservice.unitTests;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import com.ilp.restservice.geometry.RegionOccupancyGrid;
+import com.ilp.restservice.model.Position;
+import com.ilp.restservice.service.PointInPolygonService;
+
+/**
+ * Unit tests checking the rasterized grid always agrees with the exact point-in-polygon test.
+ */
+class RegionOccupancyGridTest {
+
+    // A concave, slanted polygon, similar in size to the real no-fly zones
+    private static final List<Position> ZONE = List.of(
+            new Position(-3.190578818321228, 55.94402412577528),
+            new Position(-3.1899887323379517, 55.94284650540911),
+            new Position(-3.188500000000000, 55.94360000000000),
+            new Position(-3.187097311019897, 55.94328811724263),
+            new Position(-3.187682032585144, 55.944477740393744),
+            new Position(-3.190578818321228, 55.94402412577528));
+
+    private final PointInPolygonService pointInPolygonService = new PointInPolygonService();
+
+    @Test
+    void contains_randomPoints_matchesExactTest() {
+        RegionOccupancyGrid grid = RegionOccupancyGrid.build(List.of(ZONE), 0.000075, pointInPolygonService);
+        Random random = new Random(7);
+
+        int disagreements = 0;
+        for (int i = 0; i < 200_000; i++) {
+            double lng;
+            double lat;
+            if (i % 2 == 0) {
+                // Anywhere around the zone
+                lng = -3.1915 + random.nextDouble() * 0.0055;
+                lat = 55.9420 + random.nextDouble() * 0.0032;
+            } else {
+                // Hugging a vertex, half of them on its exact latitude
+                Position v = ZONE.get(random.nextInt(ZONE.size()));
+                lng = v.getLng() + (random.nextDouble() - 0.5) * 1e-5;
+                lat = i % 4 == 1 ? v.getLat() : v.getLat() + (random.nextDouble() - 0.5) * 1e-5;
+            }
+            boolean exact = pointInPolygonService.isPointInPolygon(new Position(lng, lat), ZONE);
+            if (grid.contains(lng, lat) != exact) {
+                disagreements++;
+            }
+        }
+
+        System.out.println("==== Test: contains_randomPoints_matchesExactTest ====");
+        System.out.println("Input: 200000 points, half of them within 1e-5 of a vertex");
+        System.out.println("Expected: 0 disagreements");
+        System.out.println("Actual:   " + disagreements + " disagreements, "
+                + grid.getBoundaryCellCount() + "/" + grid.getCellCount() + " boundary cells\n");
+
+        assertEquals(0, disagreements);
+        assertTrue(grid.getBoundaryCellCount() < grid.getCellCount() / 2);
+    }
+
+    @Test
+    void contains_westOfVertexOnItsLatitude_matchesExactTest() {
+        RegionOccupancyGrid grid = RegionOccupancyGrid.build(List.of(ZONE), 0.000075, pointInPolygonService);
+
+        // The ray runs through the vertex, so the exact answer can differ from the cell's,
+        // and from "outside" west of the grid
+        int disagreements = 0;
+        for (Position v : ZONE) {
+            for (double lng = -3.1915; lng < v.getLng(); lng += 0.00001) {
+                boolean exact = pointInPolygonService.isPointInPolygon(new Position(lng, v.getLat()), ZONE);
+                if (grid.contains(lng, v.getLat()) != exact) {
+                    disagreements++;
+                }
+            }
+        }
+
+        assertEquals(0, disagreements);
+    }
+
+    @Test
+    void contains_noPolygons_isAlwaysFalse() {
+        RegionOccupancyGrid grid = RegionOccupancyGrid.build(List.of(), 0.000075, pointInPolygonService);
+
+        assertEquals(0, grid.getCellCount());
+        assertFalse(grid.contains(-3.1886, 55.9436));
+    }
+}
@@ -0,0 +1,141 @@
+package com.ilp.restservice.unitTests;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import com.ilp.restservice.model.Position;
+import com.ilp.restservice.pathfinding.DroneLattice;
+import com.ilp.restservice.pathfinding.FlightConstraints;
+import com.ilp.restservice.pathfinding.PathResult;
+import com.ilp.restservice.pathfinding.ReverseRouteTree;
+import com.ilp.restservice.service.PointInPolygonService;
+
+/**
+ * Unit tests for the shared search tree grown backwards from a fixed goal.
+ */
+class ReverseRouteTreeTest {
+
+    private static final double ROOT_LNG = -3.1860;
+    private static final double ROOT_LAT = 55.9440;
+
+    private final PointInPolygonService pointInPolygonService = new PointInPolygonService();
+
+    @Test
+    void cover_severalStarts_servesEachFromOneTree() {
+        List<Position> zone = square(-3.1892, 55.9436, -3.1888, 55.9444);
+        ReverseRouteTree tree = new ReverseRouteTree(ROOT_LNG, ROOT_LAT, constraints(List.of(zone), null),
+                100_000, 1_000_000);
+        double[] lngs = {-3.1920, -3.1880, -3.1875};
+        double[] lats = {55.9440, 55.9425, 55.9452};
+
+        tree.cover(lngs, lats);
+        int nodesAfterCover = tree.nodeCount();
+
+        System.out.println("==== Test: cover_severalStarts_servesEachFromOneTree ====");
+        System.out.println("Input: three start locations, one behind a no-fly zone");
+        System.out.println("Expected: a valid route for each, without growing the tree again");
+        for (int i = 0; i < lngs.length; i++) {
+            PathResult route = tree.route(lngs[i], lats[i]);
+            System.out.println("Actual:   start " + i + " -> "
+                    + (route == null ? "null" : route.size() + " waypoints"));
+
+            assertNotNull(route);
+            assertTrue(route.isFound());
+            assertEquals(lngs[i], route.lng(0));
+            assertEquals(lats[i], route.lat(0));
+            assertStepsAreOnLattice(route);
+            int last = route.size() - 1;
+            assertTrue(DroneLattice.distance(route.lng(last), route.lat(last), ROOT_LNG, ROOT_LAT)
+                    < DroneLattice.TOLERANCE);
+            for (int k = 0; k < route.size(); k++) {
+                assertFalse(pointInPolygonService.isPointInPolygon(
+                        new Position(route.lng(k), route.lat(k)), zone));
+            }
+        }
+        System.out.println();
+
+        assertEquals(nodesAfterCover, tree.nodeCount());
+    }
+
+    @Test
+    void route_startOutsideCentral_neverLeavesAfterEntering() {
+        // Root sits inside a central box; the start lies outside to the west
+        List<Position> central = square(-3.1880, 55.9430, -3.1850, 55.9450);
+        ReverseRouteTree tree = new ReverseRouteTree(ROOT_LNG, ROOT_LAT, constraints(List.of(), central),
+                100_000, 1_000_000);
+
+        PathResult route = tree.route(-3.1910, 55.9445);
+
+        System.out.println("==== Test: route_startOutsideCentral_neverLeavesAfterEntering ====");
+        System.out.println("Input: start outside a central area that contains the goal");
+        System.out.println("Expected: once a waypoint is inside central, all later ones are too");
+        System.out.println("Actual:   " + (route == null ? "null" : route.size() + " waypoints") + "\n");
+
+        assertNotNull(route);
+        assertTrue(route.isFound());
+        boolean entered = false;
+        for (int k = 0; k < route.size(); k++) {
+            boolean inside = pointInPolygonService.isPointInPolygon(
+                    new Position(route.lng(k), route.lat(k)), central);
+            assertFalse(entered && !inside);
+            entered |= inside;
+        }
+        assertTrue(entered);
+    }
+
+    @Test
+    void route_startInsideZone_returnsEmptyOrFallsBack() {
+        List<Position> cage = square(-3.1930, 55.9430, -3.1910, 55.9450);
+        ReverseRouteTree tree = new ReverseRouteTree(ROOT_LNG, ROOT_LAT, constraints(List.of(cage), null),
+                2_000, 100_000);
+
+        PathResult route = tree.route(-3.1920, 55.9440);
+
+        // Never a route: either the flood gave up (null) or it proved there is none
+        assertTrue(route == null || !route.isFound());
+    }
+
+    // -------------------------------------------------------------------------
+    // Helpers
+    // -------------------------------------------------------------------------
+    private FlightConstraints constraints(List<List<Position>> zones, List<Position> central) {
+        return new FlightConstraints() {
+            @Override
+            public boolean isInsideCentral(double lng, double lat) {
+                return central != null && pointInPolygonService.isPointInPolygon(new Position(lng, lat), central);
+            }
+
+            @Override
+            public boolean crossesNoFlyZone(double fromLng, double fromLat, double toLng, double toLat) {
+                Position end = new Position(toLng, toLat);
+                for (List<Position> zone : zones) {
+                    if (pointInPolygonService.isPointInPolygon(end, zone)) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+        };
+    }
+
+    private static List<Position> square(double minLng, double minLat, double maxLng, double maxLat) {
+        return List.of(
+                new Position(minLng, minLat),
+                new Position(maxLng, minLat),
+                new Position(maxLng, maxLat),
+                new Position(minLng, maxLat),
+                new Position(minLng, minLat));
+    }
+
+    private static void assertStepsAreOnLattice(PathResult route) {
+        for (int i = 1; i < route.size(); i++) {
+            double step = DroneLattice.distance(route.lng(i - 1), route.lat(i - 1), route.lng(i), route.lat(i));
+            assertEquals(DroneLattice.STEP, step, 1e-12);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.ilp.restservice.unitTests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import org.junit.jupiter.api.Test;
+
+import com.ilp.restservice.pathfinding.PathResult;
+import com.ilp.restservice.pathfinding.RouteCache;
+import com.ilp.restservice.pathfinding.SearchStats;
+
+/**
+ * Unit tests for the route cache keyed by start location and airspace version.
+ */
+class RouteCacheTest {
+
+    private static final PathResult ROUTE = PathResult.notFound(new SearchStats());
+
+    @Test
+    void get_otherAirspaceVersion_misses() {
+        RouteCache cache = new RouteCache(4);
+        cache.put(-3.1912, 55.9456, 1, ROUTE);
+
+        PathResult sameVersion = cache.get(-3.1912, 55.9456, 1);
+        PathResult newerVersion = cache.get(-3.1912, 55.9456, 2);
+
+        System.out.println("==== Test: get_otherAirspaceVersion_misses ====");
+        System.out.println("Input: route cached under version 1, looked up under versions 1 and 2");
+        System.out.println("Expected: hit, then miss");
+        System.out.println("Actual:   " + (sameVersion != null) + ", " + (newerVersion != null) + "\n");
+
+        assertSame(ROUTE, sameVersion);
+        assertNull(newerVersion);
+    }
+
+    @Test
+    void put_overMaxSize_evictsLeastRecentlyUsed() {
+        RouteCache cache = new RouteCache(2);
+        cache.put(1.0, 1.0, 1, ROUTE);
+        cache.put(2.0, 2.0, 1, ROUTE);
+        cache.get(1.0, 1.0, 1);
+        cache.put(3.0, 3.0, 1, ROUTE);
+
+        assertEquals(2, cache.size());
+        assertSame(ROUTE, cache.get(1.0, 1.0, 1));
+        assertNull(cache.get(2.0, 2.0, 1));
+    }
+
+    @Test
+    void maxSizeZero_disablesCache() {
+        RouteCache cache = new RouteCache(0);
+        cache.put(1.0, 1.0, 1, ROUTE);
+
+        assertNull(cache.get(1.0, 1.0, 1));
+    }
+}
@@ -0,0 +1,139 @@
+package com.ilp.restservice.unitTests;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import com.ilp.restservice.geometry.Airspace;
+import com.ilp.restservice.model.NamedRegion;
+import com.ilp.restservice.model.Position;
+import com.ilp.restservice.pathfinding.BidirectionalAStar;
+import com.ilp.restservice.pathfinding.DroneLattice;
+import com.ilp.restservice.pathfinding.Heuristic;
+import com.ilp.restservice.pathfinding.JumpPointSearch;
+import com.ilp.restservice.pathfinding.LatticeAStar;
+import com.ilp.restservice.pathfinding.SearchAbortedException;
+import com.ilp.restservice.pathfinding.SearchEnvelope;
+import com.ilp.restservice.pathfinding.SearchLimits;
+import com.ilp.restservice.service.PointInPolygonService;
+
+/**
+ * Unit tests for bounded searches: expansion budgets, deadlines, cancellation and the
+ * search envelope.
+ */
+class SearchLimitsTest {
+
+    // The goal sits inside a closed ring of four walls
+    private static final double GOAL_LNG = -3.1870;
+    private static final double GOAL_LAT = 55.94425;
+    private static final double START_LNG = -3.1900;
+
+    private final Airspace ring = ring(-3.1880, 55.9435, -3.1860, 55.9450, 0.0002);
+
+    @Test
+    void search_goalWalledIn_everyModeStopsAtItsBudget() {
+        SearchLimits limits = SearchLimits.of(5_000, Duration.ofSeconds(30));
+        SearchEnvelope envelope = ring.envelope(START_LNG, GOAL_LAT, GOAL_LNG, GOAL_LAT, 10 * DroneLattice.STEP);
+
+        SearchAbortedException forward = assertThrows(SearchAbortedException.class,
+                () -> new LatticeAStar().search(START_LNG, GOAL_LAT, GOAL_LNG, GOAL_LAT, envelope,
+                        Heuristic.straightLine(GOAL_LNG, GOAL_LAT), limits));
+        SearchAbortedException jumps = assertThrows(SearchAbortedException.class,
+                () -> new JumpPointSearch().search(START_LNG, GOAL_LAT, GOAL_LNG, GOAL_LAT, envelope,
+                        Heuristic.straightLine(GOAL_LNG, GOAL_LAT), limits));
+        SearchAbortedException bidirectional = assertThrows(SearchAbortedException.class,
+                () -> new BidirectionalAStar().search(START_LNG, GOAL_LAT, GOAL_LNG, GOAL_LAT, envelope,
+                        Heuristic.straightLine(GOAL_LNG, GOAL_LAT), Heuristic.straightLine(START_LNG, GOAL_LAT),
+                        limits));
+
+        System.out.println("==== Test: search_goalWalledIn_everyModeStopsAtItsBudget ====");
+        System.out.println("Input: goal inside a closed ring of walls, budget of 5000 expansions");
+        System.out.println("Expected: EXPANSION_BUDGET from every mode");
+        System.out.println("Actual:   " + forward.getReason() + " / " + jumps.getReason() + " / "
+                + bidirectional.getReason() + "\n");
+
+        assertEquals(SearchAbortedException.Reason.EXPANSION_BUDGET, forward.getReason());
+        assertEquals(SearchAbortedException.Reason.EXPANSION_BUDGET, jumps.getReason());
+        assertEquals(SearchAbortedException.Reason.EXPANSION_BUDGET, bidirectional.getReason());
+    }
+
+    @Test
+    void search_deadlinePassed_stopsBeforeExpanding() throws Exception {
+        SearchLimits limits = SearchLimits.of(1_000_000, Duration.ZERO);
+        Thread.sleep(1);
+
+        SearchAbortedException e = assertThrows(SearchAbortedException.class,
+                () -> new LatticeAStar().search(START_LNG, GOAL_LAT, GOAL_LNG, GOAL_LAT, ring,
+                        Heuristic.straightLine(GOAL_LNG, GOAL_LAT), limits));
+
+        assertEquals(SearchAbortedException.Reason.DEADLINE, e.getReason());
+    }
+
+    @Test
+    void search_threadInterrupted_cancelled() {
+        Thread.currentThread().interrupt();
+        try {
+            SearchAbortedException e = assertThrows(SearchAbortedException.class,
+                    () -> new LatticeAStar().search(START_LNG, GOAL_LAT, GOAL_LNG, GOAL_LAT, ring,
+                            Heuristic.straightLine(GOAL_LNG, GOAL_LAT), SearchLimits.NONE));
+
+            assertEquals(SearchAbortedException.Reason.CANCELLED, e.getReason());
+        } finally {
+            // Clear the flag for the tests that follow on this thread
+            Thread.interrupted();
+        }
+    }
+
+    @Test
+    void envelope_boxAroundZonesAndEndPoints_blocksMovesOut() {
+        double margin = 10 * DroneLattice.STEP;
+        SearchEnvelope envelope = ring.envelope(START_LNG, GOAL_LAT, GOAL_LNG, GOAL_LAT, margin);
+
+        System.out.println("==== Test: envelope_boxAroundZonesAndEndPoints_blocksMovesOut ====");
+        System.out.println("Input: start west of the ring, margin of 10 steps");
+        System.out.println("Expected: start and ring inside; moves beyond the margin blocked");
+        System.out.println("Actual:   west edge " + envelope.contains(START_LNG - margin, GOAL_LAT)
+                + ", past it " + envelope.contains(START_LNG - margin - DroneLattice.STEP, GOAL_LAT) + "\n");
+
+        assertTrue(envelope.contains(START_LNG, GOAL_LAT));
+        assertTrue(envelope.contains(-3.1860 + margin, 55.9450 + margin));
+        assertFalse(envelope.contains(-3.1860 + margin + DroneLattice.STEP, GOAL_LAT));
+        assertTrue(envelope.crossesNoFlyZone(START_LNG, GOAL_LAT, START_LNG - margin - DroneLattice.STEP, GOAL_LAT));
+        assertFalse(envelope.crossesNoFlyZone(START_LNG, GOAL_LAT, START_LNG - DroneLattice.STEP, GOAL_LAT));
+        assertFalse(envelope.isClear(START_LNG - margin, GOAL_LAT));
+    }
+
+    @Test
+    void of_budgetBelowOne_rejected() {
+        assertThrows(IllegalArgumentException.class, () -> SearchLimits.of(0, Duration.ofSeconds(1)));
+    }
+
+    /**
+     * Four walls of the given thickness around the box.
+     */
+    private static Airspace ring(double minLng, double minLat, double maxLng, double maxLat, double thickness) {
+        List<NamedRegion> walls = List.of(
+                wall("south", minLng, minLat, maxLng, minLat + thickness),
+                wall("north", minLng, maxLat - thickness, maxLng, maxLat),
+                wall("west", minLng, minLat, minLng + thickness, maxLat),
+                wall("east", maxLng - thickness, minLat, maxLng, maxLat));
+        return Airspace.build(1, walls, null, new PointInPolygonService());
+    }
+
+    private static NamedRegion wall(String name, double minLng, double minLat, double maxLng, double maxLat) {
+        NamedRegion wall = new NamedRegion();
+        wall.setName(name);
+        wall.setVertices(List.of(
+                new Position(minLng, minLat),
+                new Position(maxLng, minLat),
+                new Position(maxLng, maxLat),
+                new Position(minLng, maxLat),
+                new Position(minLng, minLat)));
+        return wall;
+    }
+}
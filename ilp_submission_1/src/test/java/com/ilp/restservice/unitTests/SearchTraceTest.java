@@ -0,0 +1,198 @@
+package com.ilp.restservice.unitTests;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import com.ilp.restservice.geometry.Airspace;
+import com.ilp.restservice.model.NamedRegion;
+import com.ilp.restservice.model.Position;
+import com.ilp.restservice.pathfinding.Heuristic;
+import com.ilp.restservice.pathfinding.LatticeAStar;
+import com.ilp.restservice.pathfinding.PathResult;
+import com.ilp.restservice.pathfinding.SearchLimits;
+import com.ilp.restservice.pathfinding.SearchTrace;
+import com.ilp.restservice.pathfinding.SearchTraceCodec;
+import com.ilp.restservice.service.PointInPolygonService;
+
+/**
+ * Unit tests for search traces: what a traced search records, the ring buffer, and the
+ * binary dump.
+ */
+class SearchTraceTest {
+
+    private static final double START_LNG = -3.1920;
+    private static final double START_LAT = 55.9440;
+    private static final double GOAL_LNG = -3.1860;
+    private static final double GOAL_LAT = 55.9440;
+
+    // A wall across the straight line, and a central area around the goal
+    private final Airspace airspace = Airspace.build(1,
+            List.of(region("wall", -3.1892, 55.9436, -3.1888, 55.9444)),
+            region("central", -3.1875, 55.9430, -3.1845, 55.9450),
+            new PointInPolygonService());
+    private final LatticeAStar engine = new LatticeAStar();
+
+    @Test
+    void search_traced_recordsEveryExpansionAndRejection() {
+        PathResult plain = search(null);
+        SearchTrace trace = new SearchTrace(100_000);
+        PathResult traced = search(trace);
+
+        System.out.println("==== Test: search_traced_recordsEveryExpansionAndRejection ====");
+        System.out.println("Input: a wall across the straight line, goal inside a central area");
+        System.out.println("Expected: the untraced route, one event per expansion, rejections of both kinds");
+        System.out.println("Actual:   " + trace.count(SearchTrace.Event.EXPANDED) + " expansions, "
+                + trace.count(SearchTrace.Event.REJECTED_NO_FLY) + " no-fly, "
+                + trace.count(SearchTrace.Event.REJECTED_CENTRAL_EXIT) + " central exits\n");
+
+        assertEquals(plain.size(), traced.size());
+        for (int i = 0; i < plain.size(); i++) {
+            assertEquals(plain.lng(i), traced.lng(i));
+            assertEquals(plain.lat(i), traced.lat(i));
+        }
+        assertEquals(0, trace.getDropped());
+        assertEquals(traced.getStats().getExpansions(), trace.count(SearchTrace.Event.EXPANDED));
+        assertTrue(trace.count(SearchTrace.Event.REJECTED_NO_FLY) > 0);
+        assertTrue(trace.count(SearchTrace.Event.REJECTED_CENTRAL_EXIT) > 0);
+
+        // The start is expanded first, alone on the open set; the end of the route last
+        assertEquals(SearchTrace.Event.EXPANDED, trace.event(0));
+        assertEquals(START_LNG, trace.lng(0));
+        assertEquals(1, trace.openSize(0));
+        int last = trace.size() - 1;
+        assertEquals(SearchTrace.Event.EXPANDED, trace.event(last));
+        assertEquals(traced.lng(traced.size() - 1), trace.lng(last));
+        assertEquals(traced.lat(traced.size() - 1), trace.lat(last));
+    }
+
+    @Test
+    void search_traceFull_keepsNewestEvents() {
+        SearchTrace full = new SearchTrace(100_000);
+        search(full);
+        SearchTrace small = new SearchTrace(10);
+        search(small);
+
+        System.out.println("==== Test: search_traceFull_keepsNewestEvents ====");
+        System.out.println("Input: the same search into traces of 100000 and 10 events");
+        System.out.println("Expected: the small trace holds the last 10 events, totals unchanged");
+        System.out.println("Actual:   " + small.size() + " kept, " + small.getDropped() + " dropped of "
+                + small.getRecorded() + "\n");
+
+        assertEquals(10, small.size());
+        assertEquals(full.getRecorded(), small.getRecorded());
+        assertEquals(full.getRecorded() - 10, small.getDropped());
+        for (SearchTrace.Event event : SearchTrace.Event.values()) {
+            assertEquals(full.count(event), small.count(event));
+        }
+        for (int i = 0; i < 10; i++) {
+            int j = full.size() - 10 + i;
+            assertEquals(full.event(j), small.event(i));
+            assertEquals(full.lng(j), small.lng(i));
+            assertEquals(full.lat(j), small.lat(i));
+            assertEquals(full.openSize(j), small.openSize(i));
+        }
+    }
+
+    @Test
+    void search_traceGrowsToCapacity_keepsSameEvents() {
+        // Unweighted, the search expands more nodes than a trace buffer starts with
+        LatticeAStar unweighted = new LatticeAStar(1.0);
+        SearchTrace full = new SearchTrace(100_000);
+        search(unweighted, full);
+
+        System.out.println("==== Test: search_traceGrowsToCapacity_keepsSameEvents ====");
+        System.out.println("Input: " + full.getRecorded() + " events into traces whose buffer grows past, up to"
+                + " and short of the capacity");
+        System.out.println("Expected: each keeps the newest events up to its capacity, also once decoded\n");
+
+        assertTrue(full.getRecorded() > 3_000);
+        for (int capacity : new int[]{1_000, 1_024, 1_500, 3_000, (int) full.getRecorded()}) {
+            SearchTrace trace = new SearchTrace(capacity);
+            search(unweighted, trace);
+
+            assertEquals(capacity, trace.capacity());
+            assertEquals(Math.min(capacity, full.getRecorded()), trace.size());
+            assertEquals(full.getRecorded(), trace.getRecorded());
+            // Rebuilt from its dump, a trace that dropped events starts at its full capacity
+            SearchTrace decoded = SearchTraceCodec.decode(SearchTraceCodec.encode(trace));
+            assertEquals(trace.getDropped(), decoded.getDropped());
+            for (int i = 0; i < trace.size(); i++) {
+                int j = full.size() - trace.size() + i;
+                assertEquals(full.event(j), trace.event(i));
+                assertEquals(full.lng(j), trace.lng(i));
+                assertEquals(full.lat(j), trace.lat(i));
+                assertEquals(full.openSize(j), trace.openSize(i));
+                assertEquals(trace.event(i), decoded.event(i));
+                assertEquals(trace.lng(i), decoded.lng(i), 1e-9);
+            }
+        }
+    }
+
+    @Test
+    void codec_roundTrip_keepsEventsAndTotals() {
+        for (int capacity : new int[]{100_000, 10}) {
+            SearchTrace trace = new SearchTrace(capacity);
+            search(trace);
+            byte[] bytes = SearchTraceCodec.encode(trace);
+            SearchTrace decoded = SearchTraceCodec.decode(bytes);
+
+            System.out.println("==== Test: codec_roundTrip_keepsEventsAndTotals (capacity " + capacity + ") ====");
+            System.out.println("Input: " + trace.size() + " events kept of " + trace.getRecorded());
+            System.out.println("Expected: same events, totals and drop count, under 21 bytes per event");
+            System.out.println("Actual:   " + bytes.length + " bytes, " + decoded.size() + " events, "
+                    + decoded.getDropped() + " dropped\n");
+
+            assertTrue(bytes.length < 21 * trace.size());
+            assertEquals(trace.size(), decoded.size());
+            assertEquals(trace.getDropped(), decoded.getDropped());
+            for (SearchTrace.Event event : SearchTrace.Event.values()) {
+                assertEquals(trace.count(event), decoded.count(event));
+            }
+            for (int i = 0; i < trace.size(); i++) {
+                assertEquals(trace.event(i), decoded.event(i));
+                assertEquals(trace.lng(i), decoded.lng(i), 1e-9);
+                assertEquals(trace.lat(i), decoded.lat(i), 1e-9);
+                assertEquals(trace.openSize(i), decoded.openSize(i));
+            }
+        }
+    }
+
+    @Test
+    void decode_truncated_rejected() {
+        SearchTrace trace = new SearchTrace(1_000);
+        search(trace);
+        byte[] bytes = SearchTraceCodec.encode(trace);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> SearchTraceCodec.decode(Arrays.copyOf(bytes, bytes.length - 3)));
+        assertArrayEquals(bytes, SearchTraceCodec.encode(SearchTraceCodec.decode(bytes)));
+    }
+
+    private PathResult search(SearchTrace trace) {
+        return engine.search(START_LNG, START_LAT, GOAL_LNG, GOAL_LAT, airspace,
+                Heuristic.straightLine(GOAL_LNG, GOAL_LAT), SearchLimits.NONE, trace);
+    }
+
+    private PathResult search(LatticeAStar searchEngine, SearchTrace trace) {
+        return searchEngine.search(START_LNG, START_LAT, GOAL_LNG, GOAL_LAT, airspace,
+                Heuristic.lattice(GOAL_LNG, GOAL_LAT), SearchLimits.NONE, trace);
+    }
+
+    private static NamedRegion region(String name, double minLng, double minLat, double maxLng, double maxLat) {
+        NamedRegion region = new NamedRegion();
+        region.setName(name);
+        region.setVertices(List.of(
+                new Position(minLng, minLat),
+                new Position(maxLng, minLat),
+                new Position(maxLng, maxLat),
+                new Position(minLng, maxLat),
+                new Position(minLng, minLat)));
+        return region;
+    }
+}
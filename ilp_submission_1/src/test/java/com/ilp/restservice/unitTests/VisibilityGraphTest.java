@@ -0,0 +1,101 @@
+package com.ilp.restservice.unitTests;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import com.ilp.restservice.geometry.Airspace;
+import com.ilp.restservice.geometry.VisibilityGraph;
+import com.ilp.restservice.model.Restaurant;
+import com.ilp.restservice.pathfinding.Corridor;
+import com.ilp.restservice.pathfinding.DroneLattice;
+import com.ilp.restservice.pathfinding.LatticeAStar;
+import com.ilp.restservice.pathfinding.PathResult;
+import com.ilp.restservice.referencedata.GeoJsonSeed;
+import com.ilp.restservice.referencedata.ReferenceSnapshot;
+import com.ilp.restservice.service.PointInPolygonService;
+
+/**
+ * Unit tests for the two-level planner: coarse routes on the visibility graph of the seed
+ * zones, then lattice A* confined to a corridor around them.
+ */
+class VisibilityGraphTest {
+
+    private static final double TOWER_LNG = -3.186874;
+    private static final double TOWER_LAT = 55.944494;
+    private static final double HALF_WIDTH = 6 * DroneLattice.STEP;
+
+    private final LatticeAStar latticeAStar = new LatticeAStar();
+
+    @Test
+    void route_everyRestaurant_coarseRouteAvoidsZones() throws Exception {
+        Airspace airspace = seed().getAirspace();
+        VisibilityGraph graph = airspace.getVisibilityGraph();
+
+        for (Restaurant r : seed().getRestaurants()) {
+            VisibilityGraph.Route route = graph.route(r.getLocation().getLng(), r.getLocation().getLat(),
+                    TOWER_LNG, TOWER_LAT);
+
+            assertTrue(route != null, r.getName());
+            assertEquals(r.getLocation().getLng(), route.lngs()[0]);
+            assertEquals(TOWER_LNG, route.lngs()[route.lngs().length - 1]);
+            for (int i = 1; i < route.lngs().length; i++) {
+                assertFalse(airspace.getNoFlyObstacles().segmentCrossesAnyEdge(
+                        route.lngs()[i - 1], route.lats()[i - 1], route.lngs()[i], route.lats()[i]));
+            }
+        }
+    }
+
+    @Test
+    void corridorSearch_everyRestaurant_legalPathInThinBand() throws Exception {
+        ReferenceSnapshot snapshot = seed();
+        Airspace airspace = snapshot.getAirspace();
+
+        System.out.println("==== Test: corridorSearch_everyRestaurant_legalPathInThinBand ====");
+        System.out.println("Input: " + airspace.getVisibilityGraph().getNodeCount() + " visibility graph corners");
+        System.out.println("Expected: legal paths, no more expansions than over the open plane");
+        for (Restaurant r : snapshot.getRestaurants()) {
+            double lng = r.getLocation().getLng();
+            double lat = r.getLocation().getLat();
+            VisibilityGraph.Route route = airspace.getVisibilityGraph().route(lng, lat, TOWER_LNG, TOWER_LAT);
+            Corridor corridor = new Corridor(airspace, route.lngs(), route.lats(), HALF_WIDTH);
+            PathResult banded = latticeAStar.search(lng, lat, TOWER_LNG, TOWER_LAT, corridor);
+            PathResult open = latticeAStar.search(lng, lat, TOWER_LNG, TOWER_LAT, airspace);
+
+            System.out.println("Actual:   " + r.getName() + ": " + (route.lngs().length - 2) + " corners, "
+                    + banded.size() + " waypoints / " + banded.getStats().getExpansions()
+                    + " expansions, open plane " + open.size() + " / " + open.getStats().getExpansions());
+
+            assertTrue(banded.isFound(), r.getName());
+            assertTrue(banded.getStats().getExpansions() <= open.getStats().getExpansions());
+            assertTrue(banded.size() <= open.size() * 1.1 + 2);
+            boolean inCentral = airspace.isInsideCentral(lng, lat);
+            for (int i = 1; i < banded.size(); i++) {
+                assertTrue(corridor.contains(banded.lng(i), banded.lat(i)));
+                assertFalse(airspace.crossesNoFlyZone(
+                        banded.lng(i - 1), banded.lat(i - 1), banded.lng(i), banded.lat(i)));
+                boolean nextInside = airspace.isInsideCentral(banded.lng(i), banded.lat(i));
+                assertFalse(inCentral && !nextInside);
+                inCentral = inCentral || nextInside;
+            }
+        }
+        System.out.println();
+    }
+
+    @Test
+    void corridor_pointsAwayFromRoute_areOutside() {
+        Corridor corridor = new Corridor(null, new double[] {0.0, 0.01}, new double[] {0.0, 0.0}, 0.001);
+
+        assertTrue(corridor.contains(0.005, 0.0009));
+        assertTrue(corridor.contains(-0.0009, 0.0));
+        assertFalse(corridor.contains(0.005, 0.0011));
+        assertFalse(corridor.contains(0.0115, 0.0));
+    }
+
+    private static ReferenceSnapshot seed() throws Exception {
+        return GeoJsonSeed.read(Path.of("noflyzone.json")).withIndexes(1, new PointInPolygonService());
+    }
+}